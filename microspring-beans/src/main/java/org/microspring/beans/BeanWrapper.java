@@ -1,4 +1,33 @@
 package org.microspring.beans;
 
-public interface BeanWrapper {
+import java.beans.PropertyDescriptor;
+
+public interface BeanWrapper extends PropertyAccessor, PropertyEditorRegistry {
+
+    /**
+     * Return the bean instance wrapped by this object.
+     */
+    Object getWrappedInstance();
+
+    /**
+     * Return the type of the wrapped bean instance.
+     */
+    Class<?> getWrappedClass();
+
+    /**
+     * Obtain the PropertyDescriptors for the wrapped object
+     * (as determined by standard JavaBeans introspection).
+     * @return the PropertyDescriptors for the wrapped object
+     */
+    PropertyDescriptor[] getPropertyDescriptors();
+
+    /**
+     * Obtain the property descriptor for a specific property
+     * of the wrapped object.
+     * @param propertyName the property to obtain the descriptor for
+     * (may be a nested path, but no indexed/mapped property)
+     * @return the property descriptor for the specified property
+     * @throws InvalidPropertyException if there is no such property
+     */
+    PropertyDescriptor getPropertyDescriptor(String propertyName) throws InvalidPropertyException;
 }
@@ -1,12 +1,404 @@
 package org.microspring.beans;
 
-public class BeanWrapperImpl implements BeanWrapper{
+import org.microspring.lang.Nullable;
+import org.microspring.util.Assert;
+import org.microspring.util.ClassUtils;
+import org.microspring.util.StringUtils;
+
+import java.beans.PropertyDescriptor;
+import java.beans.PropertyEditor;
+import java.beans.PropertyEditorManager;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class BeanWrapperImpl implements BeanWrapper {
+
+    /** The wrapped object. */
+    private Object wrappedObject;
+
+    /** Cached introspections results for the wrapped object's class. */
+    @Nullable
+    private CachedIntrospectionResults cachedIntrospectionResults;
+
+    @Nullable
+    private Map<Class<?>, PropertyEditor> customEditors;
+
 
     /**
      * Create a new BeanWrapperImpl for the given object.
      * @param object object wrapped by this BeanWrapper
      */
     public BeanWrapperImpl(Object object) {
-//        super(object);
+        setWrappedInstance(object);
+    }
+
+
+    /**
+     * Switch the target object, replacing the cached introspection results only
+     * if the class of the new object is different to that of the replaced object.
+     * @param object the new target object
+     */
+    public void setWrappedInstance(Object object) {
+        Assert.notNull(object, "Target object must not be null");
+        if (this.cachedIntrospectionResults != null &&
+                this.cachedIntrospectionResults.getBeanClass() != object.getClass()) {
+            this.cachedIntrospectionResults = null;
+        }
+        this.wrappedObject = object;
+    }
+
+    @Override
+    public final Object getWrappedInstance() {
+        return this.wrappedObject;
+    }
+
+    @Override
+    public final Class<?> getWrappedClass() {
+        return this.wrappedObject.getClass();
+    }
+
+    @Override
+    public PropertyDescriptor[] getPropertyDescriptors() {
+        return getCachedIntrospectionResults().getPropertyDescriptors();
+    }
+
+    @Override
+    public PropertyDescriptor getPropertyDescriptor(String propertyName) throws InvalidPropertyException {
+        PropertyHandle handle = getPropertyHandle(getTargetForPath(propertyName), getFinalPath(propertyName));
+        if (handle == null) {
+            throw new InvalidPropertyException(getWrappedClass(), propertyName,
+                    "No property '" + propertyName + "' found");
+        }
+        return handle.getDescriptor();
+    }
+
+    /**
+     * Obtain a lazily initialized CachedIntrospectionResults instance
+     * for the wrapped object.
+     */
+    private CachedIntrospectionResults getCachedIntrospectionResults() {
+        if (this.cachedIntrospectionResults == null) {
+            this.cachedIntrospectionResults = CachedIntrospectionResults.forClass(getWrappedClass());
+        }
+        return this.cachedIntrospectionResults;
+    }
+
+
+    //---------------------------------------------------------------------
+    // Implementation of PropertyEditorRegistry interface
+    //---------------------------------------------------------------------
+
+    @Override
+    public void registerCustomEditor(Class<?> requiredType, PropertyEditor propertyEditor) {
+        Assert.notNull(requiredType, "Required type must not be null");
+        Assert.notNull(propertyEditor, "PropertyEditor must not be null");
+        if (this.customEditors == null) {
+            this.customEditors = new HashMap<>(4);
+        }
+        this.customEditors.put(requiredType, propertyEditor);
+    }
+
+    @Override
+    @Nullable
+    public PropertyEditor findCustomEditor(Class<?> requiredType) {
+        return (this.customEditors != null ? this.customEditors.get(requiredType) : null);
+    }
+
+
+    //---------------------------------------------------------------------
+    // Implementation of PropertyAccessor interface
+    //---------------------------------------------------------------------
+
+    @Override
+    public boolean isReadableProperty(String propertyName) {
+        try {
+            PropertyHandle handle = getPropertyHandle(getTargetForPath(propertyName), getFinalPath(propertyName));
+            return (handle != null && handle.isReadable());
+        }
+        catch (InvalidPropertyException ex) {
+            // Cannot be evaluated, so can't be readable.
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isWritableProperty(String propertyName) {
+        try {
+            PropertyHandle handle = getPropertyHandle(getTargetForPath(propertyName), getFinalPath(propertyName));
+            return (handle != null && handle.isWritable());
+        }
+        catch (InvalidPropertyException ex) {
+            // Cannot be evaluated, so can't be writable.
+            return false;
+        }
+    }
+
+    @Override
+    @Nullable
+    public Class<?> getPropertyType(String propertyName) throws BeansException {
+        try {
+            PropertyHandle handle = getPropertyHandle(getTargetForPath(propertyName), getFinalPath(propertyName));
+            return (handle != null ? handle.getPropertyType() : null);
+        }
+        catch (InvalidPropertyException ex) {
+            // Consider as not determinable.
+            return null;
+        }
+    }
+
+    @Override
+    @Nullable
+    public Object getPropertyValue(String propertyName) throws BeansException {
+        return getLocalPropertyValue(getTargetForPath(propertyName), getFinalPath(propertyName), propertyName);
+    }
+
+    @Override
+    public void setPropertyValue(String propertyName, @Nullable Object value) throws BeansException {
+        Object target = getTargetForPath(propertyName);
+        PropertyHandle handle = getPropertyHandle(target, getFinalPath(propertyName));
+        if (handle == null || !handle.isWritable()) {
+            throw new NotWritablePropertyException(getWrappedClass(), propertyName);
+        }
+        Object convertedValue = convertIfNecessary(propertyName, value, handle.getPropertyType());
+        PropertyHandle.Setter setter = handle.setter();
+        try {
+            setter.set(target, convertedValue);
+        }
+        catch (Throwable ex) {
+            throw new MethodInvocationException(propertyName, value, ex);
+        }
+    }
+
+    @Override
+    public void setPropertyValue(PropertyValue pv) throws BeansException {
+        setPropertyValue(pv.getName(), pv.getValue());
+    }
+
+    @Override
+    public void setPropertyValues(Map<?, ?> map) throws BeansException {
+        setPropertyValues(new MutablePropertyValues(map));
+    }
+
+    @Override
+    public void setPropertyValues(PropertyValues pvs) throws BeansException {
+        setPropertyValues(pvs, false, false);
+    }
+
+    @Override
+    public void setPropertyValues(PropertyValues pvs, boolean ignoreUnknown) throws BeansException {
+        setPropertyValues(pvs, ignoreUnknown, false);
+    }
+
+    @Override
+    public void setPropertyValues(PropertyValues pvs, boolean ignoreUnknown, boolean ignoreInvalid)
+            throws BeansException {
+
+        List<PropertyAccessException> propertyAccessExceptions = null;
+        for (PropertyValue pv : pvs.getPropertyValues()) {
+            try {
+                // This method may throw any BeansException, which won't be caught
+                // here, if there is a critical failure such as no matching field.
+                // We can attempt to deal only with less serious exceptions.
+                setPropertyValue(pv);
+            }
+            catch (NotWritablePropertyException ex) {
+                if (!ignoreUnknown) {
+                    throw ex;
+                }
+                // Otherwise, just ignore it and continue...
+            }
+            catch (NullValueInNestedPathException ex) {
+                if (!ignoreInvalid) {
+                    throw ex;
+                }
+                // Otherwise, just ignore it and continue...
+            }
+            catch (PropertyAccessException ex) {
+                if (propertyAccessExceptions == null) {
+                    propertyAccessExceptions = new ArrayList<>();
+                }
+                propertyAccessExceptions.add(ex);
+            }
+        }
+
+        // If we encountered individual exceptions, throw the composite exception.
+        if (propertyAccessExceptions != null) {
+            PropertyAccessException[] paeArray = propertyAccessExceptions.toArray(new PropertyAccessException[0]);
+            throw new PropertyBatchUpdateException(paeArray);
+        }
+    }
+
+
+    /**
+     * Return the object that holds the last property of the given path,
+     * i.e. the wrapped object itself for a simple property name, or the
+     * value of the nested bean property for a path like "foo.bar".
+     */
+    private Object getTargetForPath(String propertyPath) {
+        Object target = this.wrappedObject;
+        int start = 0;
+        int separatorIndex = propertyPath.indexOf(NESTED_PROPERTY_SEPARATOR_CHAR);
+        while (separatorIndex != -1) {
+            String nestedPath = propertyPath.substring(0, separatorIndex);
+            Object nestedTarget = getLocalPropertyValue(
+                    target, propertyPath.substring(start, separatorIndex), nestedPath);
+            if (nestedTarget == null) {
+                throw new NullValueInNestedPathException(getWrappedClass(), nestedPath);
+            }
+            target = nestedTarget;
+            start = separatorIndex + 1;
+            separatorIndex = propertyPath.indexOf(NESTED_PROPERTY_SEPARATOR_CHAR, start);
+        }
+        return target;
+    }
+
+    private static String getFinalPath(String propertyPath) {
+        int separatorIndex = propertyPath.lastIndexOf(NESTED_PROPERTY_SEPARATOR_CHAR);
+        return (separatorIndex != -1 ? propertyPath.substring(separatorIndex + 1) : propertyPath);
+    }
+
+    @Nullable
+    private PropertyHandle getPropertyHandle(Object target, String propertyName) {
+        CachedIntrospectionResults results = (target == this.wrappedObject ?
+                getCachedIntrospectionResults() : CachedIntrospectionResults.forClass(target.getClass()));
+        return results.getPropertyHandle(propertyName);
+    }
+
+    @Nullable
+    private Object getLocalPropertyValue(Object target, String propertyName, String propertyPath) {
+        PropertyHandle handle = getPropertyHandle(target, propertyName);
+        if (handle == null || !handle.isReadable()) {
+            throw new NotReadablePropertyException(getWrappedClass(), propertyPath);
+        }
+        PropertyHandle.Getter getter = handle.getter();
+        try {
+            return getter.get(target);
+        }
+        catch (Throwable ex) {
+            throw new InvalidPropertyException(getWrappedClass(), propertyPath,
+                    "Getter for property '" + propertyPath + "' threw exception", ex);
+        }
     }
+
+    /**
+     * Convert the given value to the type of the given property, using a custom
+     * editor registered for that type if any, or the built-in String conversions.
+     */
+    @Nullable
+    private Object convertIfNecessary(String propertyName, @Nullable Object value, @Nullable Class<?> requiredType)
+            throws TypeMismatchException {
+
+        if (requiredType == null) {
+            return value;
+        }
+        if (value == null) {
+            if (requiredType.isPrimitive()) {
+                throw new TypeMismatchException(propertyName, null, requiredType, null);
+            }
+            return null;
+        }
+        PropertyEditor editor = findCustomEditor(requiredType);
+        if (editor == null && ClassUtils.isAssignableValue(requiredType, value)) {
+            return value;
+        }
+        try {
+            if (editor != null) {
+                if (value instanceof String) {
+                    editor.setAsText((String) value);
+                }
+                else {
+                    editor.setValue(value);
+                }
+                return editor.getValue();
+            }
+            if (value instanceof String) {
+                Object convertedValue = convertFromString((String) value, requiredType);
+                if (convertedValue != null) {
+                    return convertedValue;
+                }
+            }
+        }
+        catch (IllegalArgumentException ex) {
+            throw new TypeMismatchException(propertyName, value, requiredType, ex);
+        }
+        throw new TypeMismatchException(propertyName, value, requiredType, null);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @Nullable
+    private static Object convertFromString(String value, Class<?> requiredType) {
+        Class<?> type = ClassUtils.resolvePrimitiveIfNecessary(requiredType);
+        if (type == String[].class) {
+            return StringUtils.commaDelimitedListToStringArray(value);
+        }
+        String text = value.trim();
+        if (type == Boolean.class) {
+            if ("true".equalsIgnoreCase(text) || "on".equalsIgnoreCase(text) ||
+                    "yes".equalsIgnoreCase(text) || "1".equals(text)) {
+                return Boolean.TRUE;
+            }
+            if ("false".equalsIgnoreCase(text) || "off".equalsIgnoreCase(text) ||
+                    "no".equalsIgnoreCase(text) || "0".equals(text)) {
+                return Boolean.FALSE;
+            }
+            throw new IllegalArgumentException("Invalid boolean value [" + value + "]");
+        }
+        if (type == Integer.class) {
+            return Integer.valueOf(text);
+        }
+        if (type == Long.class) {
+            return Long.valueOf(text);
+        }
+        if (type == Double.class) {
+            return Double.valueOf(text);
+        }
+        if (type == Float.class) {
+            return Float.valueOf(text);
+        }
+        if (type == Short.class) {
+            return Short.valueOf(text);
+        }
+        if (type == Byte.class) {
+            return Byte.valueOf(text);
+        }
+        if (type == Character.class) {
+            if (value.length() != 1) {
+                throw new IllegalArgumentException("String [" + value + "] with length " +
+                        value.length() + " cannot be converted to char type: neither Unicode nor single character");
+            }
+            return value.charAt(0);
+        }
+        if (type == BigDecimal.class) {
+            return new BigDecimal(text);
+        }
+        if (type == BigInteger.class) {
+            return new BigInteger(text);
+        }
+        if (type.isEnum()) {
+            return Enum.valueOf((Class) type, text);
+        }
+        if (type == Class.class) {
+            try {
+                return Class.forName(text, false, ClassUtils.getDefaultClassLoader());
+            }
+            catch (ClassNotFoundException | LinkageError ex) {
+                throw new IllegalArgumentException("Class not found: " + text, ex);
+            }
+        }
+        if (type == Locale.class) {
+            return StringUtils.parseLocale(text);
+        }
+        PropertyEditor editor = PropertyEditorManager.findEditor(requiredType);
+        if (editor != null) {
+            editor.setAsText(value);
+            return editor.getValue();
+        }
+        return null;
+    }
+
 }
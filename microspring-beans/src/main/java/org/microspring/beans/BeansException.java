@@ -0,0 +1,37 @@
+package org.microspring.beans;
+
+import org.microspring.core.NestedExceptionUtils;
+import org.microspring.lang.Nullable;
+
+public abstract class BeansException extends RuntimeException {
+
+    /**
+     * Create a new BeansException with the specified message.
+     * @param msg the detail message
+     */
+    public BeansException(String msg) {
+        super(msg);
+    }
+
+    /**
+     * Create a new BeansException with the specified message
+     * and root cause.
+     * @param msg the detail message
+     * @param cause the root cause
+     */
+    public BeansException(@Nullable String msg, @Nullable Throwable cause) {
+        super(msg, cause);
+    }
+
+
+    /**
+     * Return the detail message, including the message from the nested exception
+     * if there is one.
+     */
+    @Override
+    @Nullable
+    public String getMessage() {
+        return NestedExceptionUtils.buildMessage(super.getMessage(), getCause());
+    }
+
+}
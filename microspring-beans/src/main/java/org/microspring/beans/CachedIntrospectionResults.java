@@ -0,0 +1,206 @@
+package org.microspring.beans;
+
+import org.microspring.lang.Nullable;
+import org.microspring.util.ClassUtils;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class CachedIntrospectionResults {
+
+    /**
+     * Set of ClassLoaders that this CachedIntrospectionResults class will always
+     * accept classes from, even if the classes do not qualify as cache-safe.
+     */
+    static final Set<ClassLoader> acceptedClassLoaders = ConcurrentHashMap.newKeySet(16);
+
+    /**
+     * Map keyed by Class containing CachedIntrospectionResults, strongly held.
+     * This variant is being used for cache-safe bean classes.
+     */
+    static final Map<Class<?>, CachedIntrospectionResults> strongClassCache = new ConcurrentHashMap<>(64);
+
+    /**
+     * Map keyed by Class containing CachedIntrospectionResults, with weak keys and
+     * softly held values. This variant is being used for non-cache-safe bean classes,
+     * e.g. from a redeployable web application, whose class loader must not be kept
+     * alive by the cache. Guarded by itself.
+     */
+    static final Map<Class<?>, Reference<CachedIntrospectionResults>> softClassCache = new WeakHashMap<>(64);
+
+
+    private final Class<?> beanClass;
+
+    private final PropertyDescriptor[] propertyDescriptors;
+
+    /** Accessor metadata per property name, never modified after construction. */
+    private final Map<String, PropertyHandle> propertyHandles;
+
+
+    /**
+     * Create new CachedIntrospectionResults for the given class.
+     * @param beanClass the bean class to analyze
+     * @throws BeansException in case of introspection failure
+     */
+    private CachedIntrospectionResults(Class<?> beanClass) throws BeansException {
+        BeanInfo beanInfo;
+        try {
+            beanInfo = Introspector.getBeanInfo(beanClass);
+        }
+        catch (IntrospectionException ex) {
+            throw new FatalBeanException("Failed to obtain BeanInfo for class [" + beanClass.getName() + "]", ex);
+        }
+        // Immediately remove class from Introspector cache, to allow for proper
+        // garbage collection on class loader shutdown - we cache it here anyway,
+        // in a GC-friendly manner.
+        Introspector.flushFromCaches(beanClass);
+        this.beanClass = beanClass;
+        this.propertyDescriptors = beanInfo.getPropertyDescriptors();
+        this.propertyHandles = new HashMap<>(this.propertyDescriptors.length * 2);
+        for (PropertyDescriptor pd : this.propertyDescriptors) {
+            this.propertyHandles.put(pd.getName(), new PropertyHandle(beanClass, pd));
+        }
+    }
+
+
+    /**
+     * Accept the given ClassLoader as cache-safe, even if its classes would
+     * not qualify as cache-safe in this CachedIntrospectionResults class.
+     * <p>This configuration method is only relevant in scenarios where the beans
+     * classes reside in a 'common' ClassLoader (e.g. system ClassLoader) whose
+     * lifecycle is not coupled to the application. In such a scenario, CachedIntrospectionResults
+     * would by default not cache any of the application's classes, since they would
+     * create a leak in the common ClassLoader.
+     * <p>Any {@code acceptClassLoader} call at application startup should
+     * be paired with a {@link #clearClassLoader} call at application shutdown.
+     * @param classLoader the ClassLoader to accept
+     */
+    public static void acceptClassLoader(@Nullable ClassLoader classLoader) {
+        if (classLoader != null) {
+            acceptedClassLoaders.add(classLoader);
+        }
+    }
+
+    /**
+     * Clear the introspection cache for the given ClassLoader, removing the
+     * introspection results for all classes underneath that ClassLoader, and
+     * removing the ClassLoader (and its children) from the acceptance list.
+     * @param classLoader the ClassLoader to clear the cache for
+     */
+    public static void clearClassLoader(@Nullable ClassLoader classLoader) {
+        acceptedClassLoaders.removeIf(registeredLoader ->
+                isUnderneathClassLoader(registeredLoader, classLoader));
+        strongClassCache.keySet().removeIf(beanClass ->
+                isUnderneathClassLoader(beanClass.getClassLoader(), classLoader));
+        synchronized (softClassCache) {
+            softClassCache.keySet().removeIf(beanClass ->
+                    isUnderneathClassLoader(beanClass.getClassLoader(), classLoader));
+        }
+    }
+
+    /**
+     * Create CachedIntrospectionResults for the given bean class,
+     * reusing previously built results for the same class.
+     * <p>Results for cache-safe classes are held strongly; results for other
+     * classes are held weakly keyed by class, so that they do not prevent
+     * the class loader from being garbage-collected.
+     * @param beanClass the bean class to analyze
+     * @return the corresponding CachedIntrospectionResults
+     * @throws BeansException in case of introspection failure
+     */
+    static CachedIntrospectionResults forClass(Class<?> beanClass) throws BeansException {
+        CachedIntrospectionResults results = strongClassCache.get(beanClass);
+        if (results != null) {
+            return results;
+        }
+        synchronized (softClassCache) {
+            results = dereference(softClassCache.get(beanClass));
+        }
+        if (results != null) {
+            return results;
+        }
+
+        results = new CachedIntrospectionResults(beanClass);
+        if (ClassUtils.isCacheSafe(beanClass, CachedIntrospectionResults.class.getClassLoader()) ||
+                isClassLoaderAccepted(beanClass.getClassLoader())) {
+            CachedIntrospectionResults existing = strongClassCache.putIfAbsent(beanClass, results);
+            return (existing != null ? existing : results);
+        }
+        synchronized (softClassCache) {
+            CachedIntrospectionResults existing = dereference(softClassCache.get(beanClass));
+            if (existing != null) {
+                return existing;
+            }
+            softClassCache.put(beanClass, new SoftReference<>(results));
+            return results;
+        }
+    }
+
+    @Nullable
+    private static CachedIntrospectionResults dereference(@Nullable Reference<CachedIntrospectionResults> ref) {
+        return (ref != null ? ref.get() : null);
+    }
+
+    /**
+     * Check whether this CachedIntrospectionResults class is configured
+     * to accept the given ClassLoader.
+     * @param classLoader the ClassLoader to check
+     * @return whether the given ClassLoader is accepted
+     * @see #acceptClassLoader
+     */
+    private static boolean isClassLoaderAccepted(@Nullable ClassLoader classLoader) {
+        for (ClassLoader acceptedLoader : acceptedClassLoaders) {
+            if (isUnderneathClassLoader(classLoader, acceptedLoader)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether the given ClassLoader is underneath the given parent,
+     * that is, whether the parent is within the candidate's hierarchy.
+     * @param candidate the candidate ClassLoader to check
+     * @param parent the parent ClassLoader to check for
+     */
+    private static boolean isUnderneathClassLoader(@Nullable ClassLoader candidate, @Nullable ClassLoader parent) {
+        if (candidate == parent) {
+            return true;
+        }
+        if (candidate == null) {
+            return false;
+        }
+        ClassLoader classLoaderToCheck = candidate;
+        while (classLoaderToCheck != null) {
+            classLoaderToCheck = classLoaderToCheck.getParent();
+            if (classLoaderToCheck == parent) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    Class<?> getBeanClass() {
+        return this.beanClass;
+    }
+
+    PropertyDescriptor[] getPropertyDescriptors() {
+        return this.propertyDescriptors.clone();
+    }
+
+    @Nullable
+    PropertyHandle getPropertyHandle(String name) {
+        return this.propertyHandles.get(name);
+    }
+
+}
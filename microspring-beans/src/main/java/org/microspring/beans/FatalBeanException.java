@@ -0,0 +1,25 @@
+package org.microspring.beans;
+
+import org.microspring.lang.Nullable;
+
+public class FatalBeanException extends BeansException {
+
+    /**
+     * Create a new FatalBeanException with the specified message.
+     * @param msg the detail message
+     */
+    public FatalBeanException(String msg) {
+        super(msg);
+    }
+
+    /**
+     * Create a new FatalBeanException with the specified message
+     * and root cause.
+     * @param msg the detail message
+     * @param cause the root cause
+     */
+    public FatalBeanException(String msg, @Nullable Throwable cause) {
+        super(msg, cause);
+    }
+
+}
@@ -0,0 +1,28 @@
+package org.microspring.beans;
+
+import org.microspring.lang.Nullable;
+
+public class MethodInvocationException extends PropertyAccessException {
+
+    /**
+     * Error code that a method invocation error will be registered with.
+     */
+    public static final String ERROR_CODE = "methodInvocation";
+
+
+    /**
+     * Create a new MethodInvocationException.
+     * @param propertyName the name of the affected property
+     * @param value the value that was attempted to be set (may be {@code null})
+     * @param cause the Throwable raised by the invoked method
+     */
+    public MethodInvocationException(String propertyName, @Nullable Object value, Throwable cause) {
+        super(propertyName, value, "Property '" + propertyName + "' threw exception", cause);
+    }
+
+    @Override
+    public String getErrorCode() {
+        return ERROR_CODE;
+    }
+
+}
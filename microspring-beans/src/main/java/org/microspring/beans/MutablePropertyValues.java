@@ -1,16 +1,30 @@
 package org.microspring.beans;
 
 import org.microspring.lang.Nullable;
+import org.microspring.util.StringUtils;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class MutablePropertyValues implements PropertyValues,Serializable {
 
+    /**
+     * Number of property values up to which lookups scan the list;
+     * larger instances look up names through {@link #propertyValueIndex}.
+     */
+    private static final int INDEX_THRESHOLD = 8;
+
+
     private final List<PropertyValue> propertyValueList;
 
+    /** Position of each property name in the list, built lazily above the threshold. */
+    @Nullable
+    private transient Map<String, Integer> propertyValueIndex;
+
     @Nullable
     private Set<String> processedProperties;
 
@@ -24,6 +38,83 @@ public class MutablePropertyValues implements PropertyValues,Serializable {
         this.propertyValueList = new ArrayList<>(0);
     }
 
+    /**
+     * Deep copy constructor. Guarantees PropertyValue references
+     * are independent, although it can't deep copy objects currently
+     * referenced by individual PropertyValue objects.
+     * @param original the PropertyValues to copy
+     * @see #addPropertyValues(PropertyValues)
+     */
+    public MutablePropertyValues(@Nullable PropertyValues original) {
+        // We can optimize this because it's all new:
+        // There is no replacement of existing property values.
+        if (original != null) {
+            PropertyValue[] pvs = original.getPropertyValues();
+            this.propertyValueList = new ArrayList<>(pvs.length);
+            for (PropertyValue pv : pvs) {
+                this.propertyValueList.add(new PropertyValue(pv.getName(), pv.getValue()));
+            }
+        }
+        else {
+            this.propertyValueList = new ArrayList<>(0);
+        }
+    }
+
+    /**
+     * Construct a new MutablePropertyValues object from a Map.
+     * @param original a Map with property values keyed by property name Strings
+     */
+    public MutablePropertyValues(@Nullable Map<?, ?> original) {
+        // We can optimize this because it's all new:
+        // There is no replacement of existing property values.
+        if (original != null) {
+            this.propertyValueList = new ArrayList<>(original.size());
+            original.forEach((attrName, attrValue) -> this.propertyValueList.add(
+                    new PropertyValue(attrName.toString(), attrValue)));
+        }
+        else {
+            this.propertyValueList = new ArrayList<>(0);
+        }
+    }
+
+    /**
+     * Return the number of PropertyValue entries in the list.
+     */
+    public int size() {
+        return this.propertyValueList.size();
+    }
+
+    /**
+     * Copy all given PropertyValues into this object. Guarantees PropertyValue
+     * references are independent, although it can't deep copy objects currently
+     * referenced by individual PropertyValue objects.
+     * @param other the PropertyValues to copy
+     * @return this in order to allow for adding multiple property values in a chain
+     */
+    public MutablePropertyValues addPropertyValues(@Nullable PropertyValues other) {
+        if (other != null) {
+            PropertyValue[] pvs = other.getPropertyValues();
+            for (PropertyValue pv : pvs) {
+                addPropertyValue(new PropertyValue(pv.getName(), pv.getValue()));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Add all property values from the given Map.
+     * @param other a Map with property values keyed by property name,
+     * which must be a String
+     * @return this in order to allow for adding multiple property values in a chain
+     */
+    public MutablePropertyValues addPropertyValues(@Nullable Map<?, ?> other) {
+        if (other != null) {
+            other.forEach((attrName, attrValue) -> addPropertyValue(
+                    new PropertyValue(attrName.toString(), attrValue)));
+        }
+        return this;
+    }
+
     /**
      * Add a PropertyValue object, replacing any existing one for the
      * corresponding property or getting merged with it (if applicable).
@@ -31,15 +122,39 @@ public class MutablePropertyValues implements PropertyValues,Serializable {
      * @return this in order to allow for adding multiple property values in a chain
      */
     public MutablePropertyValues addPropertyValue(PropertyValue pv) {
-        for (int i = 0; i < this.propertyValueList.size(); i++) {
-            PropertyValue currentPv = this.propertyValueList.get(i);
-            if (currentPv.getName().equals(pv.getName())) {
-                pv = mergeIfRequired(pv, currentPv);
-                setPropertyValueAt(pv, i);
-                return this;
-            }
+        int index = indexOf(pv.getName());
+        if (index != -1) {
+            PropertyValue currentPv = this.propertyValueList.get(index);
+            setPropertyValueAt(mergeIfRequired(pv, currentPv), index);
+            return this;
         }
         this.propertyValueList.add(pv);
+        if (this.propertyValueIndex != null) {
+            this.propertyValueIndex.put(pv.getName(), this.propertyValueList.size() - 1);
+        }
+        return this;
+    }
+
+    /**
+     * Overloaded version of {@code addPropertyValue} that takes
+     * a property name and a property value.
+     * @param propertyName name of the property
+     * @param propertyValue value of the property
+     * @see #addPropertyValue(PropertyValue)
+     */
+    public void addPropertyValue(String propertyName, Object propertyValue) {
+        addPropertyValue(new PropertyValue(propertyName, propertyValue));
+    }
+
+    /**
+     * Add a PropertyValue object, replacing any existing one for the
+     * corresponding property or getting merged with it (if applicable).
+     * @param propertyName name of the property
+     * @param propertyValue value of the property
+     * @return this in order to allow for adding multiple property values in a chain
+     */
+    public MutablePropertyValues add(String propertyName, @Nullable Object propertyValue) {
+        addPropertyValue(new PropertyValue(propertyName, propertyValue));
         return this;
     }
 
@@ -48,9 +163,76 @@ public class MutablePropertyValues implements PropertyValues,Serializable {
      * Indexed from 0.
      */
     public void setPropertyValueAt(PropertyValue pv, int i) {
-        this.propertyValueList.set(i, pv);
+        PropertyValue previousPv = this.propertyValueList.set(i, pv);
+        if (this.propertyValueIndex != null && !previousPv.getName().equals(pv.getName())) {
+            this.propertyValueIndex = null;
+        }
     }
 
+    /**
+     * Remove the given PropertyValue, if contained.
+     * @param pv the PropertyValue to remove
+     */
+    public void removePropertyValue(PropertyValue pv) {
+        if (this.propertyValueList.remove(pv)) {
+            this.propertyValueIndex = null;
+        }
+    }
+
+    /**
+     * Overloaded version of {@code removePropertyValue} that takes a property name.
+     * @param propertyName name of the property
+     * @see #removePropertyValue(PropertyValue)
+     */
+    public void removePropertyValue(String propertyName) {
+        int index = indexOf(propertyName);
+        if (index != -1) {
+            this.propertyValueList.remove(index);
+            this.propertyValueIndex = null;
+        }
+    }
+
+    /**
+     * Get the raw property value, if any.
+     * @param propertyName the name to search for
+     * @return the raw property value, or {@code null} if none found
+     * @see #getPropertyValue(String)
+     * @see PropertyValue#getValue()
+     */
+    @Nullable
+    public Object get(String propertyName) {
+        PropertyValue pv = getPropertyValue(propertyName);
+        return (pv != null ? pv.getValue() : null);
+    }
+
+    /**
+     * Determine the position of the property value with the given name.
+     * <p>Small instances are scanned linearly; beyond {@link #INDEX_THRESHOLD}
+     * entries, a name index is built once and then maintained on add, so that
+     * both lookups and adds stay constant-time for large property sets.
+     * @return the position in the list, or -1 if not contained
+     */
+    private int indexOf(String propertyName) {
+        int size = this.propertyValueList.size();
+        if (size <= INDEX_THRESHOLD) {
+            for (int i = 0; i < size; i++) {
+                if (this.propertyValueList.get(i).getName().equals(propertyName)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        Map<String, Integer> index = this.propertyValueIndex;
+        if (index == null) {
+            index = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                index.putIfAbsent(this.propertyValueList.get(i).getName(), i);
+            }
+            this.propertyValueIndex = index;
+        }
+        Integer position = index.get(propertyName);
+        return (position != null ? position : -1);
+    }
 
     /**
      * Merges the value of the supplied 'new' {@link PropertyValue} with that of
@@ -71,26 +253,63 @@ public class MutablePropertyValues implements PropertyValues,Serializable {
 
     @Override
     public PropertyValue[] getPropertyValues() {
-        return new PropertyValue[0];
+        return this.propertyValueList.toArray(new PropertyValue[0]);
     }
 
     @Override
+    @Nullable
     public PropertyValue getPropertyValue(String propertyName) {
-        return null;
+        int index = indexOf(propertyName);
+        return (index != -1 ? this.propertyValueList.get(index) : null);
     }
 
     @Override
     public PropertyValues changesSince(PropertyValues old) {
-        return null;
+        MutablePropertyValues changes = new MutablePropertyValues();
+        if (old == this) {
+            return changes;
+        }
+
+        // for each property value in the new set
+        for (PropertyValue newPv : this.propertyValueList) {
+            // if there wasn't an old one, add it
+            PropertyValue pvOld = old.getPropertyValue(newPv.getName());
+            if (pvOld == null || !pvOld.equals(newPv)) {
+                changes.addPropertyValue(newPv);
+            }
+        }
+        return changes;
     }
 
     @Override
     public boolean contains(String propertyName) {
-        return false;
+        return (indexOf(propertyName) != -1 ||
+                (this.processedProperties != null && this.processedProperties.contains(propertyName)));
     }
 
     @Override
     public boolean isEmpty() {
-        return false;
+        return this.propertyValueList.isEmpty();
+    }
+
+
+    @Override
+    public boolean equals(Object other) {
+        return (this == other || (other instanceof MutablePropertyValues &&
+                this.propertyValueList.equals(((MutablePropertyValues) other).propertyValueList)));
+    }
+
+    @Override
+    public int hashCode() {
+        return this.propertyValueList.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        PropertyValue[] pvs = getPropertyValues();
+        if (pvs.length > 0) {
+            return "PropertyValues: length=" + pvs.length + "; " + StringUtils.arrayToDelimitedString(pvs, "; ");
+        }
+        return "PropertyValues: length=0";
     }
 }
@@ -0,0 +1,16 @@
+package org.microspring.beans;
+
+public class NotWritablePropertyException extends InvalidPropertyException {
+
+    /**
+     * Create a new NotWritablePropertyException.
+     * @param beanClass the offending bean class
+     * @param propertyName the offending property name
+     */
+    public NotWritablePropertyException(Class<?> beanClass, String propertyName) {
+        super(beanClass, propertyName,
+                "Bean property '" + propertyName + "' is not writable or has an invalid setter method: " +
+                "Does the return type of the getter match the parameter type of the setter?");
+    }
+
+}
@@ -0,0 +1,14 @@
+package org.microspring.beans;
+
+public class NullValueInNestedPathException extends InvalidPropertyException {
+
+    /**
+     * Create a new NullValueInNestedPathException.
+     * @param beanClass the offending bean class
+     * @param propertyName the offending property
+     */
+    public NullValueInNestedPathException(Class<?> beanClass, String propertyName) {
+        super(beanClass, propertyName, "Value of nested property '" + propertyName + "' is null");
+    }
+
+}
@@ -0,0 +1,48 @@
+package org.microspring.beans;
+
+import org.microspring.lang.Nullable;
+
+public abstract class PropertyAccessException extends BeansException {
+
+    private final String propertyName;
+
+    @Nullable
+    private final Object value;
+
+
+    /**
+     * Create a new PropertyAccessException.
+     * @param propertyName the name of the affected property
+     * @param value the value that was attempted to be set (may be {@code null})
+     * @param msg the detail message
+     * @param cause the root cause
+     */
+    public PropertyAccessException(String propertyName, @Nullable Object value, String msg,
+                                   @Nullable Throwable cause) {
+        super(msg, cause);
+        this.propertyName = propertyName;
+        this.value = value;
+    }
+
+
+    /**
+     * Return the name of the affected property.
+     */
+    public String getPropertyName() {
+        return this.propertyName;
+    }
+
+    /**
+     * Return the affected value that was about to be set, if any.
+     */
+    @Nullable
+    public Object getValue() {
+        return this.value;
+    }
+
+    /**
+     * Return a corresponding error code for this type of exception.
+     */
+    public abstract String getErrorCode();
+
+}
@@ -0,0 +1,146 @@
+package org.microspring.beans;
+
+import org.microspring.lang.Nullable;
+
+import java.util.Map;
+
+public interface PropertyAccessor {
+
+    /**
+     * Path separator for nested properties.
+     * Follows normal Java conventions: getFoo().getBar() would be "foo.bar".
+     */
+    String NESTED_PROPERTY_SEPARATOR = ".";
+
+    /**
+     * Path separator for nested properties.
+     * Follows normal Java conventions: getFoo().getBar() would be "foo.bar".
+     */
+    char NESTED_PROPERTY_SEPARATOR_CHAR = '.';
+
+
+    /**
+     * Determine whether the specified property is readable.
+     * <p>Returns {@code false} if the property doesn't exist.
+     * @param propertyName the property to check
+     * (may be a nested path)
+     * @return whether the property is readable
+     */
+    boolean isReadableProperty(String propertyName);
+
+    /**
+     * Determine whether the specified property is writable.
+     * <p>Returns {@code false} if the property doesn't exist.
+     * @param propertyName the property to check
+     * (may be a nested path)
+     * @return whether the property is writable
+     */
+    boolean isWritableProperty(String propertyName);
+
+    /**
+     * Determine the property type for the specified property,
+     * either checking the property descriptor or checking the value
+     * in case of an indexed or mapped element.
+     * @param propertyName the property to check
+     * (may be a nested path)
+     * @return the property type for the particular property,
+     * or {@code null} if not determinable
+     * @throws BeansException if the property isn't readable
+     */
+    @Nullable
+    Class<?> getPropertyType(String propertyName) throws BeansException;
+
+    /**
+     * Get the current value of the specified property.
+     * @param propertyName the name of the property to get the value of
+     * (may be a nested path)
+     * @return the value of the property
+     * @throws InvalidPropertyException if there is no such property or
+     * if the property isn't readable
+     * @throws PropertyAccessException if the property was valid but the
+     * accessor method failed
+     */
+    @Nullable
+    Object getPropertyValue(String propertyName) throws BeansException;
+
+    /**
+     * Set the specified value as current property value.
+     * @param propertyName the name of the property to set the value of
+     * (may be a nested path)
+     * @param value the new value
+     * @throws InvalidPropertyException if there is no such property or
+     * if the property isn't writable
+     * @throws PropertyAccessException if the property was valid but the
+     * accessor method failed or a type mismatch occurred
+     */
+    void setPropertyValue(String propertyName, @Nullable Object value) throws BeansException;
+
+    /**
+     * Set the specified value as current property value.
+     * @param pv an object containing the new property value
+     * @throws InvalidPropertyException if there is no such property or
+     * if the property isn't writable
+     * @throws PropertyAccessException if the property was valid but the
+     * accessor method failed or a type mismatch occurred
+     */
+    void setPropertyValue(PropertyValue pv) throws BeansException;
+
+    /**
+     * Perform a batch update from a Map.
+     * <p>Bulk updates from PropertyValues are more powerful: This method is
+     * provided for convenience. Behavior will be identical to that of
+     * the {@link #setPropertyValues(PropertyValues)} method.
+     * @param map a Map to take properties from. Contains property value objects,
+     * keyed by property name
+     * @throws InvalidPropertyException if there is no such property or
+     * if the property isn't writable
+     * @throws PropertyBatchUpdateException if one or more PropertyAccessExceptions
+     * occurred for specific properties during the batch update. This exception bundles
+     * all individual PropertyAccessExceptions. All other properties will have been
+     * successfully updated.
+     */
+    void setPropertyValues(Map<?, ?> map) throws BeansException;
+
+    /**
+     * The preferred way to perform a batch update.
+     * <p>Note that performing a batch update differs from performing a single update,
+     * in that an implementation of this class will continue to update properties
+     * if a <b>recoverable</b> error (such as a type mismatch, but <b>not</b> an
+     * invalid field name or the like) is encountered, throwing a
+     * {@link PropertyBatchUpdateException} containing all the individual errors.
+     * <p>Does not allow unknown fields or invalid fields.
+     * @param pvs a PropertyValues to set on the target object
+     * @throws InvalidPropertyException if there is no such property or
+     * if the property isn't writable
+     * @throws PropertyBatchUpdateException if one or more PropertyAccessExceptions
+     * occurred for specific properties during the batch update
+     * @see #setPropertyValues(PropertyValues, boolean, boolean)
+     */
+    void setPropertyValues(PropertyValues pvs) throws BeansException;
+
+    /**
+     * Perform a batch update with more control over behavior.
+     * <p>Does not allow invalid fields.
+     * @param pvs a PropertyValues to set on the target object
+     * @param ignoreUnknown should we ignore unknown properties (not found in the bean)
+     * @throws InvalidPropertyException if there is no such property or
+     * if the property isn't writable
+     * @throws PropertyBatchUpdateException if one or more PropertyAccessExceptions
+     * occurred for specific properties during the batch update
+     * @see #setPropertyValues(PropertyValues, boolean, boolean)
+     */
+    void setPropertyValues(PropertyValues pvs, boolean ignoreUnknown) throws BeansException;
+
+    /**
+     * Perform a batch update with full control over behavior.
+     * @param pvs a PropertyValues to set on the target object
+     * @param ignoreUnknown should we ignore unknown properties (not found in the bean)
+     * @param ignoreInvalid should we ignore invalid properties (found but not accessible)
+     * @throws InvalidPropertyException if there is no such property or
+     * if the property isn't writable
+     * @throws PropertyBatchUpdateException if one or more PropertyAccessExceptions
+     * occurred for specific properties during the batch update
+     */
+    void setPropertyValues(PropertyValues pvs, boolean ignoreUnknown, boolean ignoreInvalid)
+            throws BeansException;
+}
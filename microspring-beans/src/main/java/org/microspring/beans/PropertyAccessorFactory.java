@@ -9,6 +9,8 @@ public final class PropertyAccessorFactory {
     /**
      * Obtain a BeanWrapper for the given target object,
      * accessing properties in JavaBeans style.
+     * <p>The returned wrapper is a lightweight view: introspection metadata and
+     * generated accessors are shared by all wrappers for the same class.
      * @param target the target object to wrap
      * @return the property accessor
      * @see BeanWrapperImpl
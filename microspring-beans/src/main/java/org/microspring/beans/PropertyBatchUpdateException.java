@@ -0,0 +1,48 @@
+package org.microspring.beans;
+
+import org.microspring.util.Assert;
+
+public class PropertyBatchUpdateException extends BeansException {
+
+    /** List of PropertyAccessException objects. */
+    private final PropertyAccessException[] propertyAccessExceptions;
+
+
+    /**
+     * Create a new PropertyBatchUpdateException.
+     * @param propertyAccessExceptions the List of PropertyAccessExceptions
+     */
+    public PropertyBatchUpdateException(PropertyAccessException[] propertyAccessExceptions) {
+        super(buildMessage(propertyAccessExceptions));
+        Assert.notEmpty(propertyAccessExceptions, "At least 1 PropertyAccessException required");
+        this.propertyAccessExceptions = propertyAccessExceptions;
+    }
+
+
+    /**
+     * If this returns 0, no errors were encountered during binding.
+     */
+    public final int getExceptionCount() {
+        return this.propertyAccessExceptions.length;
+    }
+
+    /**
+     * Return an array of the propertyAccessExceptions stored in this object.
+     * <p>Will return the empty array (not {@code null}) if there were no errors.
+     */
+    public final PropertyAccessException[] getPropertyAccessExceptions() {
+        return this.propertyAccessExceptions;
+    }
+
+    private static String buildMessage(PropertyAccessException[] propertyAccessExceptions) {
+        StringBuilder sb = new StringBuilder("Failed properties: ");
+        for (int i = 0; i < propertyAccessExceptions.length; i++) {
+            sb.append(propertyAccessExceptions[i].getMessage());
+            if (i < propertyAccessExceptions.length - 1) {
+                sb.append("; ");
+            }
+        }
+        return sb.toString();
+    }
+
+}
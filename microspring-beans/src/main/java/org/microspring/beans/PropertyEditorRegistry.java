@@ -0,0 +1,23 @@
+package org.microspring.beans;
+
+import org.microspring.lang.Nullable;
+
+import java.beans.PropertyEditor;
+
+public interface PropertyEditorRegistry {
+
+    /**
+     * Register the given custom property editor for all properties of the given type.
+     * @param requiredType the type of the property
+     * @param propertyEditor the editor to register
+     */
+    void registerCustomEditor(Class<?> requiredType, PropertyEditor propertyEditor);
+
+    /**
+     * Find a custom property editor for the given type.
+     * @param requiredType the type of the property
+     * @return the registered editor, or {@code null} if none
+     */
+    @Nullable
+    PropertyEditor findCustomEditor(Class<?> requiredType);
+}
@@ -0,0 +1,205 @@
+package org.microspring.beans;
+
+import org.microspring.lang.Nullable;
+import org.microspring.util.ClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+final class PropertyHandle {
+
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+
+    private final Class<?> beanClass;
+
+    private final PropertyDescriptor descriptor;
+
+    @Nullable
+    private final Method readMethod;
+
+    @Nullable
+    private final Method writeMethod;
+
+    @Nullable
+    private volatile Getter getter;
+
+    @Nullable
+    private volatile Setter setter;
+
+
+    PropertyHandle(Class<?> beanClass, PropertyDescriptor descriptor) {
+        this.beanClass = beanClass;
+        this.descriptor = descriptor;
+        this.readMethod = descriptor.getReadMethod();
+        this.writeMethod = descriptor.getWriteMethod();
+    }
+
+
+    String getName() {
+        return this.descriptor.getName();
+    }
+
+    PropertyDescriptor getDescriptor() {
+        return this.descriptor;
+    }
+
+    @Nullable
+    Class<?> getPropertyType() {
+        return this.descriptor.getPropertyType();
+    }
+
+    boolean isReadable() {
+        return (this.readMethod != null);
+    }
+
+    boolean isWritable() {
+        return (this.writeMethod != null);
+    }
+
+    /**
+     * Return the getter for this property, generating it on first access:
+     * a {@link LambdaMetafactory} lambda where possible, otherwise a
+     * {@link MethodHandle} adapted to the generic signature.
+     * @throws InvalidPropertyException if the read method cannot be accessed
+     */
+    Getter getter() {
+        Getter getter = this.getter;
+        if (getter == null) {
+            Method method = this.readMethod;
+            if (method == null) {
+                throw new NotReadablePropertyException(this.beanClass, getName());
+            }
+            getter = createGetter(method);
+            this.getter = getter;
+        }
+        return getter;
+    }
+
+    /**
+     * Return the setter for this property, generating it on first access:
+     * a {@link LambdaMetafactory} lambda where possible, otherwise a
+     * {@link MethodHandle} adapted to the generic signature.
+     * @throws InvalidPropertyException if the write method cannot be accessed
+     */
+    Setter setter() {
+        Setter setter = this.setter;
+        if (setter == null) {
+            Method method = this.writeMethod;
+            if (method == null) {
+                throw new NotWritablePropertyException(this.beanClass, getName());
+            }
+            setter = createSetter(method);
+            this.setter = setter;
+        }
+        return setter;
+    }
+
+
+    private Getter createGetter(Method method) {
+        MethodHandle handle = unreflect(method);
+        if (canGenerateLambda(method)) {
+            try {
+                MethodType instantiatedType = MethodType.methodType(
+                        ClassUtils.resolvePrimitiveIfNecessary(method.getReturnType()), method.getDeclaringClass());
+                CallSite site = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Getter.class),
+                        GETTER_TYPE, handle, instantiatedType);
+                return (Getter) site.getTarget().invokeExact();
+            }
+            catch (Throwable ex) {
+                // Lambda not applicable for this method -> use the method handle below.
+            }
+        }
+        MethodHandle genericHandle = handle.asType(GETTER_TYPE);
+        return target -> (Object) genericHandle.invokeExact(target);
+    }
+
+    private Setter createSetter(Method method) {
+        MethodHandle handle = unreflect(method);
+        if (canGenerateLambda(method)) {
+            try {
+                MethodType instantiatedType = MethodType.methodType(void.class, method.getDeclaringClass(),
+                        ClassUtils.resolvePrimitiveIfNecessary(method.getParameterTypes()[0]));
+                CallSite site = LambdaMetafactory.metafactory(lookup, "set", MethodType.methodType(Setter.class),
+                        SETTER_TYPE, handle, instantiatedType);
+                return (Setter) site.getTarget().invokeExact();
+            }
+            catch (Throwable ex) {
+                // Lambda not applicable for this method -> use the method handle below.
+            }
+        }
+        MethodHandle genericHandle = handle.asType(SETTER_TYPE);
+        return (target, value) -> {
+            genericHandle.invokeExact(target, value);
+        };
+    }
+
+    private MethodHandle unreflect(Method method) {
+        try {
+            if (!Modifier.isPublic(method.getModifiers()) ||
+                    !Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                method.setAccessible(true);
+            }
+            return lookup.unreflect(method);
+        }
+        catch (IllegalAccessException | RuntimeException ex) {
+            throw new InvalidPropertyException(this.beanClass, getName(),
+                    "Cannot access accessor method [" + method + "]", ex);
+        }
+    }
+
+    /**
+     * Determine whether a lambda can be spun for the given method: the generated
+     * class links against the declaring class and the signature types through
+     * this class's ClassLoader, so all of them need to be public and visible there.
+     */
+    private static boolean canGenerateLambda(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        if (!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(declaringClass.getModifiers())) {
+            return false;
+        }
+        ClassLoader classLoader = PropertyHandle.class.getClassLoader();
+        if (!ClassUtils.isVisible(declaringClass, classLoader) ||
+                !ClassUtils.isVisible(method.getReturnType(), classLoader)) {
+            return false;
+        }
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (!ClassUtils.isVisible(parameterType, classLoader)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Generic property read access.
+     */
+    @FunctionalInterface
+    interface Getter {
+
+        @Nullable
+        Object get(Object target) throws Throwable;
+    }
+
+
+    /**
+     * Generic property write access.
+     */
+    @FunctionalInterface
+    interface Setter {
+
+        void set(Object target, @Nullable Object value) throws Throwable;
+    }
+
+}
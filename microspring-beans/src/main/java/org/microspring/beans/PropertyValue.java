@@ -2,6 +2,7 @@ package org.microspring.beans;
 
 import org.microspring.lang.Nullable;
 import org.microspring.util.Assert;
+import org.microspring.util.ObjectUtils;
 
 import java.io.Serializable;
 
@@ -18,6 +19,7 @@ public class PropertyValue implements Serializable {
      * @param value the value of the property (possibly before type conversion)
      */
     public PropertyValue(String name, @Nullable Object value) {
+        // Always checked: a null name would only fail later on in hashCode/equals
         Assert.notNull(name, "Name must not be null");
         this.name = name;
         this.value = value;
@@ -40,4 +42,27 @@ public class PropertyValue implements Serializable {
     public Object getValue() {
         return this.value;
     }
+
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof PropertyValue)) {
+            return false;
+        }
+        PropertyValue otherPv = (PropertyValue) other;
+        return (this.name.equals(otherPv.name) && ObjectUtils.nullSafeEquals(this.value, otherPv.value));
+    }
+
+    @Override
+    public int hashCode() {
+        return this.name.hashCode() * 29 + ObjectUtils.nullSafeHashCode(this.value);
+    }
+
+    @Override
+    public String toString() {
+        return "bean property '" + this.name + "'";
+    }
 }
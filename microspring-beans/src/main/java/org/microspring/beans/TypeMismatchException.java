@@ -0,0 +1,44 @@
+package org.microspring.beans;
+
+import org.microspring.lang.Nullable;
+
+public class TypeMismatchException extends PropertyAccessException {
+
+    /**
+     * Error code that a type mismatch error will be registered with.
+     */
+    public static final String ERROR_CODE = "typeMismatch";
+
+
+    private final Class<?> requiredType;
+
+
+    /**
+     * Create a new TypeMismatchException.
+     * @param propertyName the name of the affected property
+     * @param value the offending value that couldn't be converted (may be {@code null})
+     * @param requiredType the required target type
+     * @param cause the root cause (may be {@code null})
+     */
+    public TypeMismatchException(String propertyName, @Nullable Object value, Class<?> requiredType,
+                                 @Nullable Throwable cause) {
+        super(propertyName, value,
+                "Failed to convert property value of type '" +
+                (value != null ? value.getClass().getName() : null) + "' to required type '" +
+                requiredType.getName() + "' for property '" + propertyName + "'", cause);
+        this.requiredType = requiredType;
+    }
+
+    /**
+     * Return the required target type.
+     */
+    public Class<?> getRequiredType() {
+        return this.requiredType;
+    }
+
+    @Override
+    public String getErrorCode() {
+        return ERROR_CODE;
+    }
+
+}
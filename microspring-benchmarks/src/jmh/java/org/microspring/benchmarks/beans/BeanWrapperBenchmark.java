@@ -0,0 +1,171 @@
+package org.microspring.benchmarks.beans;
+
+import org.microspring.beans.BeanWrapper;
+import org.microspring.beans.BeanWrapperImpl;
+import org.microspring.beans.MutablePropertyValues;
+import org.microspring.beans.PropertyValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binding throughput of {@link BeanWrapperImpl} (generated accessors) compared to
+ * plain {@code Method.invoke} on the JavaBeans write methods, binding one freshly
+ * created object per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BeanWrapperBenchmark {
+
+    private MutablePropertyValues typedValues;
+
+    private MutablePropertyValues textValues;
+
+    private Map<String, Method> writeMethods;
+
+    private Map<String, Method> readMethods;
+
+
+    @Setup
+    public void setup() throws Exception {
+        this.typedValues = new MutablePropertyValues();
+        this.typedValues.addPropertyValue(new PropertyValue("name", "servlet"));
+        this.typedValues.addPropertyValue(new PropertyValue("count", 42));
+        this.typedValues.addPropertyValue(new PropertyValue("enabled", true));
+        this.typedValues.addPropertyValue(new PropertyValue("timeout", 3000L));
+        this.typedValues.addPropertyValue(new PropertyValue("location", "/WEB-INF/app.xml"));
+
+        this.textValues = new MutablePropertyValues();
+        this.textValues.addPropertyValue(new PropertyValue("name", "servlet"));
+        this.textValues.addPropertyValue(new PropertyValue("count", "42"));
+        this.textValues.addPropertyValue(new PropertyValue("enabled", "true"));
+        this.textValues.addPropertyValue(new PropertyValue("timeout", "3000"));
+        this.textValues.addPropertyValue(new PropertyValue("location", "/WEB-INF/app.xml"));
+
+        this.writeMethods = new HashMap<>();
+        this.readMethods = new HashMap<>();
+        for (PropertyDescriptor pd : Introspector.getBeanInfo(TestBean.class).getPropertyDescriptors()) {
+            if (pd.getWriteMethod() != null) {
+                this.writeMethods.put(pd.getName(), pd.getWriteMethod());
+            }
+            if (pd.getReadMethod() != null) {
+                this.readMethods.put(pd.getName(), pd.getReadMethod());
+            }
+        }
+    }
+
+
+    @Benchmark
+    public TestBean reflectiveBinding() throws Exception {
+        TestBean bean = new TestBean();
+        for (PropertyValue pv : this.typedValues.getPropertyValues()) {
+            this.writeMethods.get(pv.getName()).invoke(bean, pv.getValue());
+        }
+        return bean;
+    }
+
+    @Benchmark
+    public TestBean beanWrapperBinding() {
+        TestBean bean = new TestBean();
+        new BeanWrapperImpl(bean).setPropertyValues(this.typedValues);
+        return bean;
+    }
+
+    @Benchmark
+    public TestBean beanWrapperBindingWithConversion() {
+        TestBean bean = new TestBean();
+        new BeanWrapperImpl(bean).setPropertyValues(this.textValues);
+        return bean;
+    }
+
+    @Benchmark
+    public Object reflectiveRead() throws Exception {
+        return this.readMethods.get("count").invoke(BeanHolder.BEAN);
+    }
+
+    @Benchmark
+    public Object beanWrapperRead() {
+        return BeanHolder.WRAPPER.getPropertyValue("count");
+    }
+
+
+    private static class BeanHolder {
+
+        static final TestBean BEAN = new TestBean();
+
+        static final BeanWrapper WRAPPER = new BeanWrapperImpl(BEAN);
+    }
+
+
+    public static class TestBean {
+
+        private String name;
+
+        private int count;
+
+        private boolean enabled;
+
+        private long timeout;
+
+        private String location;
+
+        public String getName() {
+            return this.name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getCount() {
+            return this.count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public boolean isEnabled() {
+            return this.enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getTimeout() {
+            return this.timeout;
+        }
+
+        public void setTimeout(long timeout) {
+            this.timeout = timeout;
+        }
+
+        public String getLocation() {
+            return this.location;
+        }
+
+        public void setLocation(String location) {
+            this.location = location;
+        }
+    }
+
+}
@@ -0,0 +1,80 @@
+package org.microspring.benchmarks.beans;
+
+import org.microspring.beans.MutablePropertyValues;
+import org.microspring.beans.PropertyValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of building and querying {@link MutablePropertyValues}, below
+ * and above the size at which lookups switch to the name index.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MutablePropertyValuesBenchmark {
+
+    @Param({"4", "16", "64"})
+    public int size;
+
+    private String[] names;
+
+    private MutablePropertyValues propertyValues;
+
+
+    @Setup
+    public void setup() {
+        this.names = new String[this.size];
+        for (int i = 0; i < this.size; i++) {
+            this.names[i] = "property" + i;
+        }
+        this.propertyValues = build();
+    }
+
+
+    @Benchmark
+    public MutablePropertyValues build() {
+        MutablePropertyValues pvs = new MutablePropertyValues();
+        for (String name : this.names) {
+            pvs.add(name, name);
+        }
+        return pvs;
+    }
+
+    @Benchmark
+    public int getPropertyValue() {
+        int found = 0;
+        for (String name : this.names) {
+            PropertyValue pv = this.propertyValues.getPropertyValue(name);
+            if (pv != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public boolean containsMissing() {
+        return this.propertyValues.contains("missing");
+    }
+
+    @Benchmark
+    public MutablePropertyValues copy() {
+        return new MutablePropertyValues(this.propertyValues);
+    }
+
+}
@@ -0,0 +1,78 @@
+package org.microspring.benchmarks.core;
+
+import org.microspring.context.i18n.LocaleContextHolder;
+import org.microspring.context.i18n.SimpleLocaleContext;
+import org.microspring.core.ContextSnapshot;
+import org.microspring.core.NamedThreadLocal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of propagating the thread context to another task with {@link ContextSnapshot},
+ * depending on the number of registered thread locals: capturing on the submitting
+ * side, and restoring plus closing the scope on the executing side.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ContextSnapshotBenchmark {
+
+    @Param({"0", "4", "16"})
+    public int registeredThreadLocals;
+
+    private NamedThreadLocal<?>[] threadLocals;
+
+    private ContextSnapshot snapshot;
+
+
+    @Setup
+    public void setup() {
+        this.threadLocals = new NamedThreadLocal<?>[this.registeredThreadLocals];
+        for (int i = 0; i < this.threadLocals.length; i++) {
+            NamedThreadLocal<String> threadLocal = new NamedThreadLocal<>("Benchmark " + i);
+            threadLocal.set("value " + i);
+            ContextSnapshot.registerThreadLocal(threadLocal);
+            this.threadLocals[i] = threadLocal;
+        }
+        LocaleContextHolder.setLocaleContext(new SimpleLocaleContext(Locale.US));
+        this.snapshot = ContextSnapshot.capture();
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (NamedThreadLocal<?> threadLocal : this.threadLocals) {
+            ContextSnapshot.unregisterThreadLocal(threadLocal);
+            threadLocal.remove();
+        }
+        LocaleContextHolder.resetLocaleContext();
+    }
+
+
+    @Benchmark
+    public ContextSnapshot capture() {
+        return ContextSnapshot.capture();
+    }
+
+    @Benchmark
+    public void restoreAndClose() {
+        ContextSnapshot.Scope scope = this.snapshot.restore();
+        scope.close();
+    }
+
+}
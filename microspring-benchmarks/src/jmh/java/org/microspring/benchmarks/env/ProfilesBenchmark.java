@@ -0,0 +1,96 @@
+package org.microspring.benchmarks.env;
+
+import org.microspring.core.env.Profiles;
+import org.microspring.core.env.StandardEnvironment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Throughput of profile expression parsing through {@link Profiles#of} and of
+ * matching against the active profiles of a {@link StandardEnvironment}.
+ * <p>The {@code LambdaTree} variants run the former parser, which composed
+ * stream-based lambdas and parsed every expression anew, as a baseline for
+ * the cached and compiled expressions.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProfilesBenchmark {
+
+    public String simpleExpression = "production";
+
+    public String complexExpression = "(production | staging) & !(eu-west & legacy)";
+
+    private StandardEnvironment environment;
+
+    private Profiles complexProfiles;
+
+    private Profiles complexLambdaTree;
+
+    private Predicate<String> activeProfiles;
+
+
+    @Setup
+    public void setup() {
+        this.environment = new StandardEnvironment();
+        this.environment.setActiveProfiles("production", "eu-west", "metrics");
+        this.complexProfiles = Profiles.of(this.complexExpression);
+        this.complexLambdaTree = LambdaProfilesParser.parse(this.complexExpression);
+        Set<String> active = new HashSet<>(Arrays.asList(this.environment.getActiveProfiles()));
+        this.activeProfiles = active::contains;
+    }
+
+
+    @Benchmark
+    public Profiles parseSimple() {
+        return Profiles.of(this.simpleExpression);
+    }
+
+    @Benchmark
+    public Profiles parseComplex() {
+        return Profiles.of(this.complexExpression);
+    }
+
+    @Benchmark
+    public Profiles parseComplexLambdaTree() {
+        return LambdaProfilesParser.parse(this.complexExpression);
+    }
+
+    @Benchmark
+    public boolean matchesComplex() {
+        return this.complexProfiles.matches(this.activeProfiles);
+    }
+
+    @Benchmark
+    public boolean matchesComplexLambdaTree() {
+        return this.complexLambdaTree.matches(this.activeProfiles);
+    }
+
+    @Benchmark
+    public boolean acceptsSimple() {
+        return this.environment.acceptsProfiles(Profiles.of(this.simpleExpression));
+    }
+
+    @Benchmark
+    public boolean acceptsComplex() {
+        return this.environment.acceptsProfiles(this.complexProfiles);
+    }
+
+}
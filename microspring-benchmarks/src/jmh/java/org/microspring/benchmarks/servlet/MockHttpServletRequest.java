@@ -0,0 +1,488 @@
+package org.microspring.benchmarks.servlet;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.DispatcherType;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletMapping;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import javax.servlet.http.HttpUpgradeHandler;
+import javax.servlet.http.Part;
+import java.io.BufferedReader;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Minimal {@link HttpServletRequest} standing in for a servlet container's request,
+ * with attributes, headers and parameters held in plain maps.
+ * <p>Like container requests, an instance is meant to be recycled between
+ * invocations via {@link #recycle()}, so that benchmarks do not measure the
+ * creation of the mock itself. Streams, sessions, security and async processing
+ * are not supported, although the request may claim async support, like a
+ * request to an async-supported servlet that never starts async processing.
+ */
+public class MockHttpServletRequest implements HttpServletRequest {
+
+    private final String method;
+
+    private final String requestUri;
+
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    private final Map<String, List<String>> headers = new LinkedHashMap<>();
+
+    private final Map<String, String[]> parameters = new LinkedHashMap<>();
+
+    private Locale locale = Locale.ENGLISH;
+
+    private String contextPath = "";
+
+    private String servletPath = "";
+
+    private HttpServletMapping httpServletMapping;
+
+    private String queryString;
+
+    private String characterEncoding;
+
+    private boolean asyncSupported;
+
+
+    public MockHttpServletRequest(String method, String requestUri) {
+        this.method = method;
+        this.requestUri = requestUri;
+    }
+
+
+    /**
+     * Discard all request attributes, as a container does when recycling a request.
+     */
+    public void recycle() {
+        this.attributes.clear();
+    }
+
+    public void addHeader(String name, String value) {
+        this.headers.computeIfAbsent(name, key -> new ArrayList<>(1)).add(value);
+    }
+
+    public void addParameter(String name, String value) {
+        String[] values = this.parameters.get(name);
+        if (values == null) {
+            this.parameters.put(name, new String[] {value});
+        }
+        else {
+            String[] newValues = Arrays.copyOf(values, values.length + 1);
+            newValues[values.length] = value;
+            this.parameters.put(name, newValues);
+        }
+    }
+
+    public void setLocale(Locale locale) {
+        this.locale = locale;
+    }
+
+    public void setContextPath(String contextPath) {
+        this.contextPath = contextPath;
+    }
+
+    public void setServletPath(String servletPath) {
+        this.servletPath = servletPath;
+    }
+
+    public void setHttpServletMapping(HttpServletMapping httpServletMapping) {
+        this.httpServletMapping = httpServletMapping;
+    }
+
+    public void setQueryString(String queryString) {
+        this.queryString = queryString;
+    }
+
+    public void setAsyncSupported(boolean asyncSupported) {
+        this.asyncSupported = asyncSupported;
+    }
+
+
+    // ServletRequest
+
+    @Override
+    public Object getAttribute(String name) {
+        return this.attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(this.attributes.keySet());
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return this.characterEncoding;
+    }
+
+    @Override
+    public void setCharacterEncoding(String env) {
+        this.characterEncoding = env;
+    }
+
+    @Override
+    public int getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return -1;
+    }
+
+    @Override
+    public String getContentType() {
+        return getHeader("Content-Type");
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        throw new UnsupportedOperationException("getInputStream");
+    }
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = this.parameters.get(name);
+        return (values != null ? values[0] : null);
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(this.parameters.keySet());
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        return this.parameters.get(name);
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return Collections.unmodifiableMap(this.parameters);
+    }
+
+    @Override
+    public String getProtocol() {
+        return "HTTP/1.1";
+    }
+
+    @Override
+    public String getScheme() {
+        return "http";
+    }
+
+    @Override
+    public String getServerName() {
+        return "localhost";
+    }
+
+    @Override
+    public int getServerPort() {
+        return 80;
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        throw new UnsupportedOperationException("getReader");
+    }
+
+    @Override
+    public String getRemoteAddr() {
+        return "127.0.0.1";
+    }
+
+    @Override
+    public String getRemoteHost() {
+        return "localhost";
+    }
+
+    @Override
+    public void setAttribute(String name, Object o) {
+        if (o != null) {
+            this.attributes.put(name, o);
+        }
+        else {
+            this.attributes.remove(name);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        this.attributes.remove(name);
+    }
+
+    @Override
+    public Locale getLocale() {
+        return this.locale;
+    }
+
+    @Override
+    public Enumeration<Locale> getLocales() {
+        return Collections.enumeration(Collections.singletonList(this.locale));
+    }
+
+    @Override
+    public boolean isSecure() {
+        return false;
+    }
+
+    @Override
+    public RequestDispatcher getRequestDispatcher(String path) {
+        throw new UnsupportedOperationException("getRequestDispatcher");
+    }
+
+    @Override
+    @Deprecated
+    public String getRealPath(String path) {
+        return null;
+    }
+
+    @Override
+    public int getRemotePort() {
+        return 80;
+    }
+
+    @Override
+    public String getLocalName() {
+        return "localhost";
+    }
+
+    @Override
+    public String getLocalAddr() {
+        return "127.0.0.1";
+    }
+
+    @Override
+    public int getLocalPort() {
+        return 80;
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return null;
+    }
+
+    @Override
+    public AsyncContext startAsync() {
+        throw new IllegalStateException("Async processing not supported");
+    }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse) {
+        throw new IllegalStateException("Async processing not supported");
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return false;
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return this.asyncSupported;
+    }
+
+    @Override
+    public AsyncContext getAsyncContext() {
+        throw new IllegalStateException("Async processing not supported");
+    }
+
+    @Override
+    public DispatcherType getDispatcherType() {
+        return DispatcherType.REQUEST;
+    }
+
+
+    // HttpServletRequest
+
+    @Override
+    public String getAuthType() {
+        return null;
+    }
+
+    @Override
+    public Cookie[] getCookies() {
+        return null;
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        return -1;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        List<String> values = this.headers.get(name);
+        return (values != null ? values.get(0) : null);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        List<String> values = this.headers.get(name);
+        return Collections.enumeration(values != null ? values : Collections.emptyList());
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(this.headers.keySet());
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = getHeader(name);
+        return (value != null ? Integer.parseInt(value) : -1);
+    }
+
+    @Override
+    public String getMethod() {
+        return this.method;
+    }
+
+    @Override
+    public String getPathInfo() {
+        return null;
+    }
+
+    @Override
+    public String getPathTranslated() {
+        return null;
+    }
+
+    @Override
+    public String getContextPath() {
+        return this.contextPath;
+    }
+
+    @Override
+    public String getQueryString() {
+        return this.queryString;
+    }
+
+    @Override
+    public String getRemoteUser() {
+        return null;
+    }
+
+    @Override
+    public boolean isUserInRole(String role) {
+        return false;
+    }
+
+    @Override
+    public Principal getUserPrincipal() {
+        return null;
+    }
+
+    @Override
+    public String getRequestedSessionId() {
+        return null;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return this.requestUri;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        return new StringBuffer("http://localhost").append(this.requestUri);
+    }
+
+    @Override
+    public String getServletPath() {
+        return this.servletPath;
+    }
+
+    @Override
+    public HttpServletMapping getHttpServletMapping() {
+        return (this.httpServletMapping != null ? this.httpServletMapping : HttpServletRequest.super.getHttpServletMapping());
+    }
+
+    @Override
+    public HttpSession getSession(boolean create) {
+        if (create) {
+            throw new UnsupportedOperationException("Sessions not supported");
+        }
+        return null;
+    }
+
+    @Override
+    public HttpSession getSession() {
+        return getSession(true);
+    }
+
+    @Override
+    public String changeSessionId() {
+        throw new IllegalStateException("No session");
+    }
+
+    @Override
+    public boolean isRequestedSessionIdValid() {
+        return false;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdFromCookie() {
+        return false;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdFromURL() {
+        return false;
+    }
+
+    @Override
+    @Deprecated
+    public boolean isRequestedSessionIdFromUrl() {
+        return false;
+    }
+
+    @Override
+    public boolean authenticate(HttpServletResponse response) {
+        return false;
+    }
+
+    @Override
+    public void login(String username, String password) {
+        throw new UnsupportedOperationException("login");
+    }
+
+    @Override
+    public void logout() {
+    }
+
+    @Override
+    public Collection<Part> getParts() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public Part getPart(String name) {
+        return null;
+    }
+
+    @Override
+    public <T extends HttpUpgradeHandler> T upgrade(Class<T> handlerClass) {
+        throw new UnsupportedOperationException("upgrade");
+    }
+
+}
@@ -0,0 +1,273 @@
+package org.microspring.benchmarks.servlet;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Minimal {@link HttpServletResponse} standing in for a servlet container's response,
+ * discarding any content written to it.
+ * <p>Like container responses, an instance is meant to be recycled between
+ * invocations via {@link #recycle()}.
+ */
+public class MockHttpServletResponse implements HttpServletResponse {
+
+    private final Map<String, List<String>> headers = new LinkedHashMap<>();
+
+    private final ServletOutputStream outputStream = new ServletOutputStream() {
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException("setWriteListener");
+        }
+        @Override
+        public void write(int b) {
+        }
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private final PrintWriter writer = new PrintWriter(new Writer() {
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+        }
+        @Override
+        public void flush() {
+        }
+        @Override
+        public void close() {
+        }
+    });
+
+    private int status = SC_OK;
+
+    private String characterEncoding = "ISO-8859-1";
+
+    private String contentType;
+
+    private Locale locale = Locale.getDefault();
+
+    private boolean committed;
+
+
+    /**
+     * Reset status, headers and content type, as a container does when recycling a response.
+     */
+    public void recycle() {
+        this.headers.clear();
+        this.status = SC_OK;
+        this.contentType = null;
+        this.committed = false;
+    }
+
+
+    // ServletResponse
+
+    @Override
+    public String getCharacterEncoding() {
+        return this.characterEncoding;
+    }
+
+    @Override
+    public String getContentType() {
+        return this.contentType;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        return this.outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        return this.writer;
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+        this.characterEncoding = charset;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+    }
+
+    @Override
+    public void setContentType(String type) {
+        this.contentType = type;
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+    }
+
+    @Override
+    public int getBufferSize() {
+        return 8192;
+    }
+
+    @Override
+    public void flushBuffer() {
+        this.committed = true;
+    }
+
+    @Override
+    public void resetBuffer() {
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return this.committed;
+    }
+
+    @Override
+    public void reset() {
+        recycle();
+    }
+
+    @Override
+    public void setLocale(Locale loc) {
+        this.locale = loc;
+    }
+
+    @Override
+    public Locale getLocale() {
+        return this.locale;
+    }
+
+
+    // HttpServletResponse
+
+    @Override
+    public void addCookie(Cookie cookie) {
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return this.headers.containsKey(name);
+    }
+
+    @Override
+    public String encodeURL(String url) {
+        return url;
+    }
+
+    @Override
+    public String encodeRedirectURL(String url) {
+        return url;
+    }
+
+    @Override
+    @Deprecated
+    public String encodeUrl(String url) {
+        return url;
+    }
+
+    @Override
+    @Deprecated
+    public String encodeRedirectUrl(String url) {
+        return url;
+    }
+
+    @Override
+    public void sendError(int sc, String msg) {
+        this.status = sc;
+        this.committed = true;
+    }
+
+    @Override
+    public void sendError(int sc) {
+        sendError(sc, null);
+    }
+
+    @Override
+    public void sendRedirect(String location) {
+        setHeader("Location", location);
+        this.status = SC_FOUND;
+        this.committed = true;
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        setHeader(name, String.valueOf(date));
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        addHeader(name, String.valueOf(date));
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        List<String> values = new ArrayList<>(1);
+        values.add(value);
+        this.headers.put(name, values);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        this.headers.computeIfAbsent(name, key -> new ArrayList<>(1)).add(value);
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        this.status = sc;
+    }
+
+    @Override
+    @Deprecated
+    public void setStatus(int sc, String sm) {
+        this.status = sc;
+    }
+
+    @Override
+    public int getStatus() {
+        return this.status;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        List<String> values = this.headers.get(name);
+        return (values != null ? values.get(0) : null);
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        List<String> values = this.headers.get(name);
+        return (values != null ? Collections.unmodifiableList(values) : Collections.emptyList());
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return Collections.unmodifiableSet(this.headers.keySet());
+    }
+
+}
@@ -0,0 +1,77 @@
+package org.microspring.benchmarks.util;
+
+import org.microspring.benchmarks.servlet.MockHttpServletRequest;
+import org.microspring.util.Assert;
+import org.microspring.web.context.request.ServletRequestAttributes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of passing {@link Assert} checks with the different kinds of messages:
+ * constant, capturing supplier and deferred template. The
+ * {@code ServletRequestAttributes} benchmarks compare a designated hot path with
+ * hot path assertions enabled and disabled via
+ * {@link Assert#HOT_PATH_ASSERTIONS_PROPERTY_NAME}.
+ * <p>Run with {@code -prof gc} to compare allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AssertBenchmark {
+
+    private String key = "key";
+
+    private Object value = "value";
+
+    private MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+
+
+    @Benchmark
+    public Object notNullConstantMessage() {
+        Assert.notNull(this.value, "Value must not be null");
+        return this.value;
+    }
+
+    @Benchmark
+    public Object notNullConcatenatedMessage() {
+        Assert.notNull(this.value, "Value for key '" + this.key + "' must not be null");
+        return this.value;
+    }
+
+    @Benchmark
+    public Object notNullMessageSupplier() {
+        String key = this.key;
+        Assert.notNull(this.value, () -> "Value for key '" + key + "' must not be null");
+        return this.value;
+    }
+
+    @Benchmark
+    public Object notNullMessageTemplate() {
+        Assert.notNull(this.value, "Value for key '%s' must not be null", this.key);
+        return this.value;
+    }
+
+    @Benchmark
+    public ServletRequestAttributes newServletRequestAttributes() {
+        return new ServletRequestAttributes(this.request);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-D" + Assert.HOT_PATH_ASSERTIONS_PROPERTY_NAME + "=false")
+    public ServletRequestAttributes newServletRequestAttributesWithoutHotPathAssertions() {
+        return new ServletRequestAttributes(this.request);
+    }
+
+}
@@ -0,0 +1,103 @@
+package org.microspring.benchmarks.util;
+
+import org.microspring.util.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link StringUtils#cleanPath} compared to the former
+ * split-and-join implementation, for already clean paths as well as
+ * paths with Windows separators and "." / ".." elements.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CleanPathBenchmark {
+
+    @Param({
+            "classpath:org/microspring/core/io/Resource.class",
+            "/WEB-INF/views/home.jsp",
+            "file:core/../core/./io/Resource.class",
+            "C:\\workspace\\project\\..\\target\\classes\\app.properties"
+    })
+    public String path;
+
+
+    @Benchmark
+    public String cleanPath() {
+        return StringUtils.cleanPath(this.path);
+    }
+
+    @Benchmark
+    public String splitAndJoin() {
+        return splitAndJoinCleanPath(this.path);
+    }
+
+
+    /**
+     * The previous {@code cleanPath} algorithm, kept as a baseline.
+     */
+    private static String splitAndJoinCleanPath(String path) {
+        if (!StringUtils.hasLength(path)) {
+            return path;
+        }
+        String pathToUse = StringUtils.replace(path, "\\", "/");
+
+        int prefixIndex = pathToUse.indexOf(':');
+        String prefix = "";
+        if (prefixIndex != -1) {
+            prefix = pathToUse.substring(0, prefixIndex + 1);
+            if (prefix.contains("/")) {
+                prefix = "";
+            }
+            else {
+                pathToUse = pathToUse.substring(prefixIndex + 1);
+            }
+        }
+        if (pathToUse.startsWith("/")) {
+            prefix = prefix + "/";
+            pathToUse = pathToUse.substring(1);
+        }
+
+        String[] pathArray = StringUtils.delimitedListToStringArray(pathToUse, "/");
+        LinkedList<String> pathElements = new LinkedList<>();
+        int tops = 0;
+        for (int i = pathArray.length - 1; i >= 0; i--) {
+            String element = pathArray[i];
+            if (".".equals(element)) {
+                continue;
+            }
+            if ("..".equals(element)) {
+                tops++;
+            }
+            else if (tops > 0) {
+                tops--;
+            }
+            else {
+                pathElements.add(0, element);
+            }
+        }
+        for (int i = 0; i < tops; i++) {
+            pathElements.add(0, "..");
+        }
+        if (pathElements.size() == 1 && "".equals(pathElements.getLast()) && !prefix.endsWith("/")) {
+            pathElements.add(0, ".");
+        }
+        return prefix + StringUtils.collectionToDelimitedString(pathElements, "/");
+    }
+
+}
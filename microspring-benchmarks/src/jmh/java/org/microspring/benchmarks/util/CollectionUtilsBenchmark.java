@@ -0,0 +1,102 @@
+package org.microspring.benchmarks.util;
+
+import org.microspring.util.CollectionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the lookup and conversion methods of {@link CollectionUtils}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CollectionUtilsBenchmark {
+
+    private List<Object> source;
+
+    private List<String> candidates;
+
+    private Set<String> set;
+
+    private String[] array;
+
+    private Properties properties;
+
+
+    @Setup
+    public void setup() {
+        this.source = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            this.source.add("value" + i);
+        }
+        this.source.add(42);
+        this.candidates = new ArrayList<>();
+        for (int i = 32; i < 40; i++) {
+            this.candidates.add("value" + i);
+        }
+        this.candidates.add("value31");
+        this.set = new LinkedHashSet<>();
+        for (int i = 0; i < 16; i++) {
+            this.set.add("element" + i);
+        }
+        this.array = this.set.toArray(new String[0]);
+        this.properties = new Properties();
+        for (int i = 0; i < 16; i++) {
+            this.properties.setProperty("key" + i, "value" + i);
+        }
+    }
+
+
+    @Benchmark
+    public boolean containsAny() {
+        return CollectionUtils.containsAny(this.source, this.candidates);
+    }
+
+    @Benchmark
+    public String findFirstMatch() {
+        return CollectionUtils.findFirstMatch(this.source, this.candidates);
+    }
+
+    @Benchmark
+    public Integer findValueOfType() {
+        return CollectionUtils.findValueOfType(this.source, Integer.class);
+    }
+
+    @Benchmark
+    public String lastElementOfSet() {
+        return CollectionUtils.lastElement(this.set);
+    }
+
+    @Benchmark
+    public List<?> arrayToList() {
+        return CollectionUtils.arrayToList(this.array);
+    }
+
+    @Benchmark
+    public Map<String, String> mergePropertiesIntoMap() {
+        Map<String, String> map = new HashMap<>();
+        CollectionUtils.mergePropertiesIntoMap(this.properties, map);
+        return map;
+    }
+
+}
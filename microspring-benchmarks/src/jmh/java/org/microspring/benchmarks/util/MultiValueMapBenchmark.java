@@ -0,0 +1,92 @@
+package org.microspring.benchmarks.util;
+
+import org.microspring.util.CollectionUtils;
+import org.microspring.util.CompactMultiValueMap;
+import org.microspring.util.LinkedMultiValueMap;
+import org.microspring.util.MultiValueMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and querying a typical set of request headers, almost all of them
+ * single-valued, with the available {@link MultiValueMap} implementations.
+ * <p>Run with {@code -prof gc} to compare allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MultiValueMapBenchmark {
+
+    private static final String[] HEADER_NAMES = {"Host", "User-Agent", "Accept", "Accept-Language",
+            "Accept-Encoding", "Connection", "Cookie", "Cache-Control", "Accept"};
+
+    private static final String[] HEADER_VALUES = {"localhost:8080", "Mozilla/5.0", "text/html",
+            "en-US,en;q=0.5", "gzip, deflate", "keep-alive", "JSESSIONID=1234", "no-cache", "*/*"};
+
+    @Param({"adapter", "linked", "compact"})
+    public String type;
+
+    private MultiValueMap<String, String> headers;
+
+
+    @Setup
+    public void setup() {
+        this.headers = createMap();
+        fill(this.headers);
+    }
+
+
+    @Benchmark
+    public MultiValueMap<String, String> build() {
+        MultiValueMap<String, String> map = createMap();
+        fill(map);
+        return map;
+    }
+
+    @Benchmark
+    public void getFirst(Blackhole bh) {
+        bh.consume(this.headers.getFirst("Host"));
+        bh.consume(this.headers.getFirst("Accept"));
+        bh.consume(this.headers.getFirst("Cookie"));
+        bh.consume(this.headers.getFirst("Authorization"));
+    }
+
+    @Benchmark
+    public void iterate(Blackhole bh) {
+        this.headers.forEach((name, values) -> bh.consume(values.get(0)));
+    }
+
+    private MultiValueMap<String, String> createMap() {
+        switch (this.type) {
+            case "adapter":
+                return CollectionUtils.toMultiValueMap(new LinkedHashMap<>());
+            case "linked":
+                return new LinkedMultiValueMap<>();
+            default:
+                return new CompactMultiValueMap<>();
+        }
+    }
+
+    private static void fill(MultiValueMap<String, String> map) {
+        for (int i = 0; i < HEADER_NAMES.length; i++) {
+            map.add(HEADER_NAMES[i], HEADER_VALUES[i]);
+        }
+    }
+
+}
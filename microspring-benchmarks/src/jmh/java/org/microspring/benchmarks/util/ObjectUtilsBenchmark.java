@@ -0,0 +1,133 @@
+package org.microspring.benchmarks.util;
+
+import org.microspring.util.ObjectUtils;
+import org.microspring.util.PrimitiveArrays;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the null-safe equality, hash code and {@code toString}
+ * methods of {@link ObjectUtils}, for arrays passed as plain {@code Object}
+ * as happens for map keys and cache keys, and of the {@link PrimitiveArrays}
+ * variants they delegate to.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ObjectUtilsBenchmark {
+
+    private Object intArray;
+
+    private Object intArrayCopy;
+
+    private Object longArray;
+
+    private Object longArrayCopy;
+
+    private Object byteArray;
+
+    private Object byteArrayCopy;
+
+    private Object objectArray;
+
+    private Object objectArrayCopy;
+
+    private Object string = "microspring";
+
+
+    @Setup
+    public void setup() {
+        int[] ints = new int[32];
+        long[] longs = new long[32];
+        byte[] bytes = new byte[256];
+        Object[] objects = new Object[16];
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = i * 31;
+            longs[i] = i * 31L;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        for (int i = 0; i < objects.length; i++) {
+            objects[i] = "element" + i;
+        }
+        this.intArray = ints;
+        this.intArrayCopy = ints.clone();
+        this.longArray = longs;
+        this.longArrayCopy = longs.clone();
+        this.byteArray = bytes;
+        this.byteArrayCopy = bytes.clone();
+        this.objectArray = objects;
+        this.objectArrayCopy = objects.clone();
+    }
+
+
+    @Benchmark
+    public boolean nullSafeEqualsString() {
+        return ObjectUtils.nullSafeEquals(this.string, "microspring");
+    }
+
+    @Benchmark
+    public boolean nullSafeEqualsIntArray() {
+        return ObjectUtils.nullSafeEquals(this.intArray, this.intArrayCopy);
+    }
+
+    @Benchmark
+    public boolean nullSafeEqualsLongArray() {
+        return ObjectUtils.nullSafeEquals(this.longArray, this.longArrayCopy);
+    }
+
+    @Benchmark
+    public boolean nullSafeEqualsByteArray() {
+        return ObjectUtils.nullSafeEquals(this.byteArray, this.byteArrayCopy);
+    }
+
+    @Benchmark
+    public boolean nullSafeEqualsObjectArray() {
+        return ObjectUtils.nullSafeEquals(this.objectArray, this.objectArrayCopy);
+    }
+
+    @Benchmark
+    public int nullSafeHashCodeIntArray() {
+        return ObjectUtils.nullSafeHashCode(this.intArray);
+    }
+
+    @Benchmark
+    public int nullSafeHashCodeByteArray() {
+        return ObjectUtils.nullSafeHashCode(this.byteArray);
+    }
+
+    @Benchmark
+    public String nullSafeToStringIntArray() {
+        return ObjectUtils.nullSafeToString(this.intArray);
+    }
+
+    @Benchmark
+    public String nullSafeToStringObjectArray() {
+        return ObjectUtils.nullSafeToString(this.objectArray);
+    }
+
+    @Benchmark
+    public int mismatchByteArray() {
+        return PrimitiveArrays.mismatch((byte[]) this.byteArray, (byte[]) this.byteArrayCopy);
+    }
+
+    @Benchmark
+    public boolean isEmpty() {
+        return ObjectUtils.isEmpty(this.objectArray);
+    }
+
+}
@@ -0,0 +1,215 @@
+package org.microspring.benchmarks.util;
+
+import org.microspring.util.StringReplacer;
+import org.microspring.util.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the {@link StringUtils} methods used while handling requests,
+ * with typical request header, path and parameter values as input, and of those
+ * used for configuration values and templating: list parsing, multi-pattern
+ * replacement, locale and time zone parsing, and decoding into a caller-provided
+ * target.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StringUtilsBenchmark {
+
+    public String contentType = "application/json;charset=UTF-8";
+
+    public String headerValue = "  max-age=0, no-cache, no-store  ";
+
+    public String profiles = " production , eu-west ,metrics ";
+
+    public String requestPath = "/api/orders/../customers/./42/addresses";
+
+    public String encodedQuery = "q=caf%C3%A9%20au%20lait&sort=name%2Casc";
+
+    public String plainQuery = "page=2&size=50&sort=name";
+
+    public String acceptLanguage = "de_AT";
+
+    public String nonAsciiText = "Grüße aus Köln";
+
+    public Charset charset = StandardCharsets.UTF_8;
+
+    public String configLocations = "classpath:app.xml, classpath:db.xml;\tclasspath:web.xml\nclasspath:security.xml";
+
+    public String commaList = "dev,test,prod,eu-west,eu-central,us-east";
+
+    public String markup = "<a href=\"/orders?id=42&amp;tab=items\">Tom's \"orders\" & more</a>";
+
+    public String encodedPath = "/files/caf%C3%A9/r%C3%A9sum%C3%A9.pdf";
+
+    private StringReplacer htmlEscaper;
+
+    private final StringBuilder target = new StringBuilder(64);
+
+
+    @Setup
+    public void setup() {
+        Map<String, String> escapes = new LinkedHashMap<>();
+        escapes.put("&", "&amp;");
+        escapes.put("<", "&lt;");
+        escapes.put(">", "&gt;");
+        escapes.put("\"", "&quot;");
+        escapes.put("'", "&#39;");
+        this.htmlEscaper = new StringReplacer(escapes);
+    }
+
+
+    @Benchmark
+    public boolean hasLength() {
+        return StringUtils.hasLength(this.contentType);
+    }
+
+    @Benchmark
+    public boolean hasText() {
+        return StringUtils.hasText(this.headerValue);
+    }
+
+    @Benchmark
+    public boolean containsWhitespace() {
+        return StringUtils.containsWhitespace(this.contentType);
+    }
+
+    @Benchmark
+    public boolean containsWhitespaceNonAscii() {
+        return StringUtils.containsWhitespace(this.nonAsciiText);
+    }
+
+    @Benchmark
+    public String trimWhitespace() {
+        return StringUtils.trimWhitespace(this.headerValue);
+    }
+
+    @Benchmark
+    public String trimAllWhitespace() {
+        return StringUtils.trimAllWhitespace(this.profiles);
+    }
+
+    @Benchmark
+    public String trimAllWhitespaceUnchanged() {
+        return StringUtils.trimAllWhitespace(this.contentType);
+    }
+
+    @Benchmark
+    public boolean startsWithIgnoreCase() {
+        return StringUtils.startsWithIgnoreCase(this.contentType, "APPLICATION/JSON");
+    }
+
+    @Benchmark
+    public boolean startsWithIgnoreCaseNonAscii() {
+        return StringUtils.startsWithIgnoreCase(this.nonAsciiText, "GRÜSSE");
+    }
+
+    @Benchmark
+    public boolean endsWithIgnoreCase() {
+        return StringUtils.endsWithIgnoreCase(this.contentType, "CHARSET=utf-8");
+    }
+
+    @Benchmark
+    public String cleanPath() {
+        return StringUtils.cleanPath(this.requestPath);
+    }
+
+    @Benchmark
+    public String uriDecode() {
+        return StringUtils.uriDecode(this.encodedQuery, this.charset);
+    }
+
+    @Benchmark
+    public String uriDecodeUnchanged() {
+        return StringUtils.uriDecode(this.plainQuery, this.charset);
+    }
+
+    @Benchmark
+    public String[] tokenizeHeaderValue() {
+        return StringUtils.tokenizeToStringArray(this.headerValue, ",");
+    }
+
+    @Benchmark
+    public String[] tokenizeToStringArray() {
+        return StringUtils.tokenizeToStringArray(this.configLocations, ",; \t\n");
+    }
+
+    @Benchmark
+    public String[] commaDelimitedListToStringArray() {
+        return StringUtils.commaDelimitedListToStringArray(this.commaList);
+    }
+
+    @Benchmark
+    public Set<String> commaDelimitedListToSet() {
+        return StringUtils.commaDelimitedListToSet(this.commaList);
+    }
+
+    @Benchmark
+    public int forEachToken() {
+        return StringUtils.forEachToken(this.configLocations, ",; \t\n", true, true, (source, start, end) -> {});
+    }
+
+    @Benchmark
+    public String replace() {
+        return StringUtils.replace(this.plainQuery, "&", "&amp;");
+    }
+
+    @Benchmark
+    public String replaceChain() {
+        String result = StringUtils.replace(this.markup, "&", "&amp;");
+        result = StringUtils.replace(result, "<", "&lt;");
+        result = StringUtils.replace(result, ">", "&gt;");
+        result = StringUtils.replace(result, "\"", "&quot;");
+        return StringUtils.replace(result, "'", "&#39;");
+    }
+
+    @Benchmark
+    public String replaceAll() {
+        return this.htmlEscaper.replaceAll(this.markup);
+    }
+
+    @Benchmark
+    public Locale parseLocale() {
+        return StringUtils.parseLocale(this.acceptLanguage);
+    }
+
+    @Benchmark
+    public Locale parseLocaleString() {
+        return StringUtils.parseLocaleString("de_AT");
+    }
+
+    @Benchmark
+    public TimeZone parseTimeZoneString() {
+        return StringUtils.parseTimeZoneString("Europe/Vienna");
+    }
+
+    @Benchmark
+    public CharSequence uriDecodeToAppendable() throws IOException {
+        this.target.setLength(0);
+        StringUtils.uriDecode(this.encodedPath, 0, this.encodedPath.length(), StandardCharsets.UTF_8, this.target);
+        return this.target;
+    }
+
+}
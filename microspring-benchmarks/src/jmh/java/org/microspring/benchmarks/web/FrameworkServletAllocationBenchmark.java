@@ -0,0 +1,144 @@
+package org.microspring.benchmarks.web;
+
+import org.microspring.benchmarks.servlet.MockHttpServletRequest;
+import org.microspring.benchmarks.servlet.MockHttpServletResponse;
+import org.microspring.web.context.support.RequestHandledEventPipeline;
+import org.microspring.web.servlet.support.RequestMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation regression gate for {@code FrameworkServlet.processRequest}, using the
+ * same no-op servlet, metrics, event pipeline and recycled mocks as
+ * {@link FrameworkServletBenchmark}.
+ * <p>Heap allocation is measured on the benchmark thread through HotSpot's
+ * {@code com.sun.management.ThreadMXBean}: every measurement iteration fails the
+ * run if a request allocated more bytes on average than the budget given through
+ * the {@value #BUDGET_PROPERTY_NAME} system property (default {@value #DEFAULT_BUDGET}),
+ * or {@value #ASYNC_BUDGET_PROPERTY_NAME} (default {@value #DEFAULT_ASYNC_BUDGET}) for
+ * requests claiming async support. Run with {@code -prof gc} for the actual figure
+ * ({@code gc.alloc.rate.norm}), which also includes the events created on the
+ * pipeline's consumer thread.
+ * <p>Both default budgets cover the {@code ServletRequestAttributes} and the thread
+ * context with its ThreadLocal map entry, which get unbound again at the end of
+ * each request. With async support, as for async-supported servlets in a real
+ * container, the shared async interceptor is also exposed as request attribute,
+ * adding the mock's attribute map entry.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FrameworkServletAllocationBenchmark {
+
+    public static final String BUDGET_PROPERTY_NAME = "microspring.benchmarks.allocationBudget";
+
+    public static final long DEFAULT_BUDGET = 96;
+
+    public static final String ASYNC_BUDGET_PROPERTY_NAME = "microspring.benchmarks.asyncAllocationBudget";
+
+    public static final long DEFAULT_ASYNC_BUDGET = 128;
+
+
+    @Param({"false", "true"})
+    public boolean asyncSupported;
+
+
+    private FrameworkServletBenchmark.NoOpServlet servlet;
+
+    private RequestHandledEventPipeline eventPipeline;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+
+    @Setup
+    public void setup() {
+        this.servlet = new FrameworkServletBenchmark.NoOpServlet();
+        this.eventPipeline = FrameworkServletBenchmark.createEventPipeline();
+        this.servlet.setEventPipeline(this.eventPipeline);
+        this.servlet.setRequestMetrics(new RequestMetrics());
+        this.request = FrameworkServletBenchmark.createRequest();
+        this.request.setAsyncSupported(this.asyncSupported);
+        this.response = new MockHttpServletResponse();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.eventPipeline.close();
+    }
+
+
+    @Benchmark
+    public int processRequest(AllocationCounter counter) throws ServletException, IOException {
+        this.request.recycle();
+        this.response.recycle();
+        this.servlet.service(this.request, this.response);
+        counter.requests++;
+        return this.response.getStatus();
+    }
+
+
+    @State(Scope.Thread)
+    public static class AllocationCounter {
+
+        private static final com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        long requests;
+
+        private long budget;
+
+        private long startBytes;
+
+        private boolean measurement;
+
+        @Setup(Level.Trial)
+        public void init(BenchmarkParams params) {
+            this.budget = (Boolean.parseBoolean(params.getParam("asyncSupported")) ?
+                    Long.getLong(ASYNC_BUDGET_PROPERTY_NAME, DEFAULT_ASYNC_BUDGET) :
+                    Long.getLong(BUDGET_PROPERTY_NAME, DEFAULT_BUDGET));
+        }
+
+        @Setup(Level.Iteration)
+        public void start(IterationParams params) {
+            this.measurement = (params.getType() == IterationType.MEASUREMENT);
+            this.requests = 0;
+            this.startBytes = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop() {
+            long allocated = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) - this.startBytes;
+            long bytesPerRequest = allocated / Math.max(this.requests, 1);
+            if (this.measurement && bytesPerRequest > this.budget) {
+                throw new IllegalStateException("Allocation budget exceeded: " + bytesPerRequest +
+                        " bytes per request, budget is " + this.budget + " (see -D" + BUDGET_PROPERTY_NAME +
+                        " and -D" + ASYNC_BUDGET_PROPERTY_NAME + ")");
+            }
+        }
+    }
+
+}
@@ -0,0 +1,146 @@
+package org.microspring.benchmarks.web;
+
+import org.microspring.benchmarks.servlet.MockHttpServletRequest;
+import org.microspring.benchmarks.servlet.MockHttpServletResponse;
+import org.microspring.core.env.Environment;
+import org.microspring.core.env.StandardEnvironment;
+import org.microspring.web.context.support.RequestHandledEventPipeline;
+import org.microspring.web.servlet.support.RequestMetrics;
+import org.microspring.web.servlet.FrameworkServlet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletMapping;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.MappingMatch;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request overhead of {@code FrameworkServlet.processRequest}: a GET request
+ * dispatched through {@code HttpServlet.service} to a servlet whose
+ * {@code doService} does nothing, so that only the framework's context binding,
+ * async interceptor registration, metrics recording and event publication are
+ * measured. Events go to a running {@link RequestHandledEventPipeline} with a
+ * no-op listener.
+ * <p>Request and response are recycled between invocations like in a servlet
+ * container, so that the mocks themselves do not show up in the results.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FrameworkServletBenchmark {
+
+    private NoOpServlet servlet;
+
+    private RequestHandledEventPipeline eventPipeline;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+
+    @Setup
+    public void setup() {
+        this.servlet = new NoOpServlet();
+        this.eventPipeline = createEventPipeline();
+        this.servlet.setEventPipeline(this.eventPipeline);
+        this.servlet.setRequestMetrics(new RequestMetrics());
+        this.request = createRequest();
+        this.response = new MockHttpServletResponse();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.eventPipeline.close();
+    }
+
+
+    @Benchmark
+    public int processRequest() throws ServletException, IOException {
+        this.request.recycle();
+        this.response.recycle();
+        this.servlet.service(this.request, this.response);
+        return this.response.getStatus();
+    }
+
+
+    static MockHttpServletRequest createRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/orders/42");
+        request.setContextPath("/app");
+        request.setServletPath("/orders");
+        request.setHttpServletMapping(new OrdersMapping());
+        request.setLocale(Locale.US);
+        request.addHeader("Accept", "application/json");
+        request.addHeader("Accept-Language", "en-US,en;q=0.8");
+        return request;
+    }
+
+    static RequestHandledEventPipeline createEventPipeline() {
+        RequestHandledEventPipeline eventPipeline = new RequestHandledEventPipeline();
+        eventPipeline.addApplicationListener(event -> {});
+        eventPipeline.start();
+        return eventPipeline;
+    }
+
+
+    private static class OrdersMapping implements HttpServletMapping {
+
+        @Override
+        public String getMatchValue() {
+            return "42";
+        }
+
+        @Override
+        public String getPattern() {
+            return "/orders/*";
+        }
+
+        @Override
+        public String getServletName() {
+            return "orders";
+        }
+
+        @Override
+        public MappingMatch getMappingMatch() {
+            return MappingMatch.PATH;
+        }
+    }
+
+
+    @SuppressWarnings("serial")
+    static class NoOpServlet extends FrameworkServlet {
+
+        private Environment environment = new StandardEnvironment();
+
+        @Override
+        protected void doService(HttpServletRequest request, HttpServletResponse response) {
+        }
+
+        @Override
+        public void setEnvironment(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Environment getEnvironment() {
+            return this.environment;
+        }
+    }
+
+}
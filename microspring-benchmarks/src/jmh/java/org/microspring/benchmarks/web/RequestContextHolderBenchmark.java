@@ -0,0 +1,78 @@
+package org.microspring.benchmarks.web;
+
+import org.microspring.benchmarks.servlet.MockHttpServletRequest;
+import org.microspring.context.i18n.LocaleContext;
+import org.microspring.context.i18n.LocaleContextHolder;
+import org.microspring.context.i18n.SimpleLocaleContext;
+import org.microspring.web.context.request.RequestAttributes;
+import org.microspring.web.context.request.RequestContextHolder;
+import org.microspring.web.context.request.ServletRequestAttributes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the thread-bound context lookups performed while handling a request,
+ * from several threads at once, and of the binding and resetting around each
+ * request as done by {@code FrameworkServlet.processRequest}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Thread)
+public class RequestContextHolderBenchmark {
+
+    private LocaleContext localeContext;
+
+    private RequestAttributes requestAttributes;
+
+
+    @Setup
+    public void setup() {
+        this.localeContext = new SimpleLocaleContext(Locale.US);
+        this.requestAttributes = new ServletRequestAttributes(new MockHttpServletRequest("GET", "/"));
+    }
+
+
+    @Benchmark
+    public RequestAttributes getRequestAttributes() {
+        return RequestContextHolder.getRequestAttributes();
+    }
+
+    @Benchmark
+    public LocaleContext getLocaleContext() {
+        return LocaleContextHolder.getLocaleContext();
+    }
+
+    @Benchmark
+    public Locale getLocale() {
+        return LocaleContextHolder.getLocale();
+    }
+
+    @Benchmark
+    public RequestAttributes bindAndReset() {
+        LocaleContext previousLocaleContext = LocaleContextHolder.getLocaleContext();
+        RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+        LocaleContextHolder.setLocaleContext(this.localeContext, false);
+        RequestContextHolder.setRequestAttributes(this.requestAttributes, false);
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        LocaleContextHolder.setLocaleContext(previousLocaleContext, false);
+        RequestContextHolder.setRequestAttributes(previousAttributes, false);
+        return attributes;
+    }
+
+}
@@ -0,0 +1,103 @@
+package org.microspring.benchmarks.web;
+
+import org.microspring.context.ApplicationListener;
+import org.microspring.web.context.support.RequestHandledEventPipeline;
+import org.microspring.web.context.support.ServletRequestHandledEvent;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of publishing a {@code ServletRequestHandledEvent} on the request thread,
+ * with several request threads publishing concurrently: through a
+ * {@link RequestHandledEventPipeline} with each overflow policy, and, as a
+ * baseline, by creating the event and invoking the listener synchronously.
+ * <p>The listener burns {@code listenerTokens} of CPU per event, so that a slow
+ * listener shows up in the request latency for the synchronous baseline and for
+ * {@code BLOCK}, while {@code DROP} and {@code SAMPLE} shed the excess events
+ * instead, reported as {@code droppedEvents}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class RequestHandledEventPipelineBenchmark {
+
+    @Param({"SYNCHRONOUS", "DROP", "SAMPLE", "BLOCK"})
+    public String mode;
+
+    @Param({"0", "1000"})
+    public long listenerTokens;
+
+    private ApplicationListener<ServletRequestHandledEvent> listener;
+
+    private RequestHandledEventPipeline pipeline;
+
+
+    @Setup
+    public void setup() {
+        long tokens = this.listenerTokens;
+        this.listener = event -> Blackhole.consumeCPU(tokens);
+        if (!"SYNCHRONOUS".equals(this.mode)) {
+            this.pipeline = new RequestHandledEventPipeline(RequestHandledEventPipeline.DEFAULT_CAPACITY,
+                    RequestHandledEventPipeline.OverflowPolicy.valueOf(this.mode));
+            this.pipeline.addApplicationListener(this.listener);
+            this.pipeline.start();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (this.pipeline != null) {
+            this.pipeline.close();
+        }
+    }
+
+
+    @Benchmark
+    public boolean publish(DropCounter counter) {
+        if (this.pipeline == null) {
+            this.listener.onApplicationEvent(new ServletRequestHandledEvent(this, "/app/orders/42",
+                    "127.0.0.1", "GET", "dispatcher", null, null, 1, null, 200));
+            return true;
+        }
+        boolean accepted = this.pipeline.publish(this, "/app/orders/42",
+                "127.0.0.1", "GET", "dispatcher", null, null, 1, null, 200);
+        if (!accepted) {
+            counter.droppedEvents++;
+        }
+        return accepted;
+    }
+
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class DropCounter {
+
+        public long droppedEvents;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.droppedEvents = 0;
+        }
+    }
+
+}
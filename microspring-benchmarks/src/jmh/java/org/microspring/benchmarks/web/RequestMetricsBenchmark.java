@@ -0,0 +1,76 @@
+package org.microspring.benchmarks.web;
+
+import org.microspring.web.servlet.support.RequestMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording request metrics with several request threads hitting the
+ * same handler, which is where contention on shared counters would show, and of
+ * taking a snapshot of all keys. Run with {@code -t} to see how recording scales
+ * with the number of threads.
+ * <p>Processing times follow a long-tailed distribution around 100 microseconds,
+ * so that recording hits a realistic spread of buckets.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class RequestMetricsBenchmark {
+
+    private static final int PROCESSING_TIME_COUNT = 1024;
+
+    private final RequestMetrics requestMetrics = new RequestMetrics();
+
+    private final long[] processingTimes = new long[PROCESSING_TIME_COUNT];
+
+
+    @Setup
+    public void setup() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < this.processingTimes.length; i++) {
+            this.processingTimes[i] = (long) (100_000 * Math.exp(random.nextGaussian()));
+        }
+    }
+
+
+    @Benchmark
+    public void record(RequestCounter counter) {
+        long processingTime = this.processingTimes[counter.next()];
+        this.requestMetrics.record("/orders", processingTime, processingTime > 1_000_000);
+    }
+
+    @Benchmark
+    public Map<String, RequestMetrics.Snapshot> snapshot() {
+        return this.requestMetrics.getSnapshots();
+    }
+
+
+    @State(Scope.Thread)
+    public static class RequestCounter {
+
+        private int index;
+
+        int next() {
+            this.index = (this.index + 1) & (PROCESSING_TIME_COUNT - 1);
+            return this.index;
+        }
+    }
+
+}
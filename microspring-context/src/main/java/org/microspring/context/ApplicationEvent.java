@@ -0,0 +1,43 @@
+package org.microspring.context;
+
+import java.util.EventObject;
+
+public abstract class ApplicationEvent extends EventObject {
+
+    private static final long serialVersionUID = 7099057708183571937L;
+
+    /** System time when the event happened. */
+    private final long timestamp;
+
+
+    /**
+     * Create a new {@code ApplicationEvent}.
+     * @param source the object on which the event initially occurred or with
+     * which the event is associated (never {@code null})
+     */
+    public ApplicationEvent(Object source) {
+        super(source);
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Create a new {@code ApplicationEvent} for something that happened
+     * before the event itself got created, e.g. on another thread.
+     * @param source the object on which the event initially occurred or with
+     * which the event is associated (never {@code null})
+     * @param timestamp the system time in milliseconds when the event occurred
+     */
+    public ApplicationEvent(Object source, long timestamp) {
+        super(source);
+        this.timestamp = timestamp;
+    }
+
+
+    /**
+     * Return the system time in milliseconds when the event occurred.
+     */
+    public final long getTimestamp() {
+        return this.timestamp;
+    }
+
+}
@@ -0,0 +1,14 @@
+package org.microspring.context;
+
+import java.util.EventListener;
+
+@FunctionalInterface
+public interface ApplicationListener<E extends ApplicationEvent> extends EventListener {
+
+    /**
+     * Handle an application event.
+     * @param event the event to respond to
+     */
+    void onApplicationEvent(E event);
+
+}
@@ -1,7 +1,6 @@
 package org.microspring.context.i18n;
 
-import org.microspring.core.NamedInheritableThreadLocal;
-import org.microspring.core.NamedThreadLocal;
+import org.microspring.core.ThreadContext;
 import org.microspring.lang.Nullable;
 
 import java.util.Locale;
@@ -9,12 +8,6 @@ import java.util.TimeZone;
 
 public final class LocaleContextHolder {
 
-    private static final ThreadLocal<LocaleContext> localeContextHolder =
-            new NamedThreadLocal<>("LocaleContext");
-
-    private static final ThreadLocal<LocaleContext> inheritableLocaleContextHolder =
-            new NamedInheritableThreadLocal<>("LocaleContext");
-
     // Shared default locale at the framework level
     @Nullable
     private static Locale defaultLocale;
@@ -27,16 +20,149 @@ public final class LocaleContextHolder {
     private LocaleContextHolder() {
     }
 
+
+    /**
+     * Reset the LocaleContext and the time zone for the current thread.
+     */
+    public static void resetLocaleContext() {
+        ThreadContext context = ThreadContext.currentIfPresent();
+        if (context != null) {
+            context.setLocaleContext(null, false);
+            context.setTimeZone(null, false);
+            ThreadContext.resetIfEmpty();
+        }
+    }
+
+    /**
+     * Associate the given LocaleContext with the current thread,
+     * <i>not</i> exposing it as inheritable for child threads.
+     * @param localeContext the current LocaleContext,
+     * or {@code null} to reset the thread-bound context
+     * @see #setLocaleContext(LocaleContext, boolean)
+     */
+    public static void setLocaleContext(@Nullable LocaleContext localeContext) {
+        setLocaleContext(localeContext, false);
+    }
+
+    /**
+     * Associate the given LocaleContext with the current thread.
+     * <p>Replaces a time zone previously associated through {@link #setTimeZone},
+     * like any other part of the previous LocaleContext.
+     * @param localeContext the current LocaleContext,
+     * or {@code null} to reset the thread-bound context
+     * @param inheritable whether to expose the LocaleContext as inheritable
+     * for child threads
+     */
+    public static void setLocaleContext(@Nullable LocaleContext localeContext, boolean inheritable) {
+        if (localeContext == null) {
+            resetLocaleContext();
+        }
+        else {
+            ThreadContext context = ThreadContext.current();
+            context.setLocaleContext(localeContext, inheritable);
+            context.setTimeZone(null, false);
+        }
+    }
+
     /**
      * Return the LocaleContext associated with the current thread, if any.
      * @return the current LocaleContext, or {@code null} if none
      */
     @Nullable
     public static LocaleContext getLocaleContext() {
-        LocaleContext localeContext = localeContextHolder.get();
-        if (localeContext == null) {
-            localeContext = inheritableLocaleContextHolder.get();
+        ThreadContext context = ThreadContext.currentIfPresent();
+        return (context != null ? (LocaleContext) context.getLocaleContext() : null);
+    }
+
+    /**
+     * Set a shared default locale at the framework level,
+     * as an alternative to the JVM-wide default locale.
+     * @param locale the default locale (or {@code null} for none,
+     * letting lookups fall back to {@link Locale#getDefault()})
+     * @see #getLocale()
+     */
+    public static void setDefaultLocale(@Nullable Locale locale) {
+        LocaleContextHolder.defaultLocale = locale;
+    }
+
+    /**
+     * Return the Locale associated with the current thread, if any,
+     * or the system default Locale otherwise.
+     * @return the current Locale, or the system default Locale if no
+     * specific Locale has been associated with the current thread
+     * @see LocaleContext#getLocale()
+     * @see #setDefaultLocale(Locale)
+     * @see Locale#getDefault()
+     */
+    public static Locale getLocale() {
+        LocaleContext localeContext = getLocaleContext();
+        if (localeContext != null) {
+            Locale locale = localeContext.getLocale();
+            if (locale != null) {
+                return locale;
+            }
+        }
+        return (defaultLocale != null ? defaultLocale : Locale.getDefault());
+    }
+
+    /**
+     * Associate the given TimeZone with the current thread,
+     * preserving any Locale that may have been set already.
+     * @param timeZone the current TimeZone, or {@code null} to reset
+     * the time zone part of the thread-bound context
+     * @see #setTimeZone(TimeZone, boolean)
+     */
+    public static void setTimeZone(@Nullable TimeZone timeZone) {
+        setTimeZone(timeZone, false);
+    }
+
+    /**
+     * Associate the given TimeZone with the current thread,
+     * preserving any Locale that may have been set already.
+     * @param timeZone the current TimeZone, or {@code null} to reset
+     * the time zone part of the thread-bound context
+     * @param inheritable whether to expose the TimeZone as inheritable
+     * for child threads
+     */
+    public static void setTimeZone(@Nullable TimeZone timeZone, boolean inheritable) {
+        if (timeZone != null) {
+            ThreadContext.current().setTimeZone(timeZone, inheritable);
+        }
+        else {
+            ThreadContext context = ThreadContext.currentIfPresent();
+            if (context != null) {
+                context.setTimeZone(null, false);
+                ThreadContext.resetIfEmpty();
+            }
+        }
+    }
+
+    /**
+     * Set a shared default time zone at the framework level,
+     * as an alternative to the JVM-wide default time zone.
+     * @param timeZone the default time zone (or {@code null} for none,
+     * letting lookups fall back to {@link TimeZone#getDefault()})
+     * @see #getTimeZone()
+     */
+    public static void setDefaultTimeZone(@Nullable TimeZone timeZone) {
+        defaultTimeZone = timeZone;
+    }
+
+    /**
+     * Return the TimeZone associated with the current thread, if any,
+     * or the system default TimeZone otherwise.
+     * @return the current TimeZone, or the system default TimeZone if no
+     * specific TimeZone has been associated with the current thread
+     * @see #setDefaultTimeZone(TimeZone)
+     * @see TimeZone#getDefault()
+     */
+    public static TimeZone getTimeZone() {
+        ThreadContext context = ThreadContext.currentIfPresent();
+        TimeZone timeZone = (context != null ? context.getTimeZone() : null);
+        if (timeZone != null) {
+            return timeZone;
         }
-        return localeContext;
+        return (defaultTimeZone != null ? defaultTimeZone : TimeZone.getDefault());
     }
+
 }
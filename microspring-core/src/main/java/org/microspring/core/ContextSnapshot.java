@@ -0,0 +1,345 @@
+package org.microspring.core;
+
+import org.microspring.lang.Nullable;
+import org.microspring.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public final class ContextSnapshot {
+
+    private static final ThreadLocal<?>[] NO_THREAD_LOCALS = new ThreadLocal<?>[0];
+
+    private static final Object[] NO_VALUES = new Object[0];
+
+    /** Registered thread locals, replaced as a whole on every registration change. */
+    private static volatile ThreadLocal<?>[] registeredThreadLocals = NO_THREAD_LOCALS;
+
+
+    @Nullable
+    private final ThreadContext threadContext;
+
+    private final ThreadLocal<?>[] threadLocals;
+
+    private final Object[] values;
+
+
+    private ContextSnapshot(@Nullable ThreadContext threadContext, ThreadLocal<?>[] threadLocals, Object[] values) {
+        this.threadContext = threadContext;
+        this.threadLocals = threadLocals;
+        this.values = values;
+    }
+
+
+    /**
+     * Register the given thread local for propagation, in addition to the
+     * values of the {@link ThreadContext} which are always propagated.
+     * <p>Typically a {@link NamedThreadLocal} held in a static field, e.g. a
+     * security context holder. Registration is meant to happen at startup:
+     * snapshots taken before only cover the thread locals registered back then.
+     * <p>The thread local must not define an initial value, e.g. through
+     * {@link ThreadLocal#withInitial}: reading it on a pooled thread would set
+     * that value, which then stayed behind once the snapshot's scope is closed.
+     * @param threadLocal the thread local to propagate
+     * @throws IllegalArgumentException if the thread local defines an initial value
+     */
+    public static void registerThreadLocal(ThreadLocal<?> threadLocal) {
+        Assert.notNull(threadLocal, "ThreadLocal must not be null");
+        Assert.isTrue(!definesInitialValue(threadLocal.getClass()),
+                "ThreadLocal with an initial value cannot be propagated: %s", threadLocal);
+        synchronized (ContextSnapshot.class) {
+            ThreadLocal<?>[] current = registeredThreadLocals;
+            for (ThreadLocal<?> candidate : current) {
+                if (candidate == threadLocal) {
+                    return;
+                }
+            }
+            ThreadLocal<?>[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = threadLocal;
+            registeredThreadLocals = updated;
+        }
+    }
+
+    private static boolean definesInitialValue(Class<?> threadLocalClass) {
+        for (Class<?> clazz = threadLocalClass; clazz != ThreadLocal.class; clazz = clazz.getSuperclass()) {
+            try {
+                clazz.getDeclaredMethod("initialValue");
+                return true;
+            }
+            catch (NoSuchMethodException ex) {
+                // Not overridden at this level -> check the superclass.
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remove the given thread local from propagation, if registered.
+     * @param threadLocal the thread local to no longer propagate
+     */
+    public static void unregisterThreadLocal(ThreadLocal<?> threadLocal) {
+        synchronized (ContextSnapshot.class) {
+            ThreadLocal<?>[] current = registeredThreadLocals;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == threadLocal) {
+                    ThreadLocal<?>[] updated = new ThreadLocal<?>[current.length - 1];
+                    System.arraycopy(current, 0, updated, 0, i);
+                    System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                    registeredThreadLocals = (updated.length > 0 ? updated : NO_THREAD_LOCALS);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Capture the {@link ThreadContext} values and the values of all registered
+     * thread locals of the current thread.
+     * <p>The cost is linear in the number of registered thread locals: their values
+     * are read into an array, and the thread context is copied field by field.
+     * @return the immutable snapshot, to be restored on any thread
+     */
+    public static ContextSnapshot capture() {
+        ThreadContext context = ThreadContext.currentIfPresent();
+        ThreadLocal<?>[] threadLocals = registeredThreadLocals;
+        Object[] values = NO_VALUES;
+        if (threadLocals.length > 0) {
+            values = new Object[threadLocals.length];
+            for (int i = 0; i < threadLocals.length; i++) {
+                values[i] = threadLocals[i].get();
+            }
+        }
+        return new ContextSnapshot((context != null ? context.copy(false) : null), threadLocals, values);
+    }
+
+    /**
+     * Wrap the given {@link ExecutorService} so that every task submitted to it
+     * runs with a snapshot of the submitting thread's context, restored right
+     * before and cleared right after the task on the executing thread.
+     * <p>Unlike inheritable thread locals, this propagates the context at the time
+     * of submission rather than at the time a pooled thread happened to be created,
+     * and leaves nothing behind on the pooled thread.
+     * @param executorService the executor to delegate to
+     * @return the propagating executor
+     */
+    public static ExecutorService wrapExecutorService(ExecutorService executorService) {
+        Assert.notNull(executorService, "ExecutorService must not be null");
+        return new ContextPropagatingExecutorService(executorService);
+    }
+
+
+    /**
+     * Bind the captured values to the current thread.
+     * <p>The returned scope must be closed on the same thread, typically in
+     * a try-with-resources block, putting back the values bound before.
+     * @return the scope to close once done
+     */
+    public Scope restore() {
+        ThreadContext context = ThreadContext.currentIfPresent();
+        ThreadContext previousContext = (context != null ? context.copy(true) : null);
+        ThreadContext.bind(this.threadContext);
+        ThreadLocal<?>[] threadLocals = this.threadLocals;
+        Object[] previousValues = NO_VALUES;
+        if (threadLocals.length > 0) {
+            previousValues = new Object[threadLocals.length];
+            for (int i = 0; i < threadLocals.length; i++) {
+                previousValues[i] = threadLocals[i].get();
+                setValue(threadLocals[i], this.values[i]);
+            }
+        }
+        return new Scope(previousContext, threadLocals, previousValues);
+    }
+
+    /**
+     * Return a {@link Runnable} that runs the given task with this snapshot restored.
+     * @param task the task to wrap
+     * @return the wrapped task
+     */
+    public Runnable wrap(Runnable task) {
+        Assert.notNull(task, "Task must not be null");
+        return () -> {
+            Scope scope = restore();
+            try {
+                task.run();
+            }
+            finally {
+                scope.close();
+            }
+        };
+    }
+
+    /**
+     * Return a {@link Callable} that calls the given task with this snapshot restored.
+     * @param task the task to wrap
+     * @return the wrapped task
+     */
+    public <T> Callable<T> wrap(Callable<T> task) {
+        Assert.notNull(task, "Task must not be null");
+        return () -> {
+            Scope scope = restore();
+            try {
+                return task.call();
+            }
+            finally {
+                scope.close();
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void setValue(ThreadLocal<?> threadLocal, @Nullable Object value) {
+        if (value != null) {
+            ((ThreadLocal<Object>) threadLocal).set(value);
+        }
+        else {
+            threadLocal.remove();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ContextSnapshot: " + this.threadContext + ", " + this.threadLocals.length + " thread locals";
+    }
+
+
+    /**
+     * The values bound to a thread by {@link ContextSnapshot#restore()},
+     * putting back the previous values on {@link #close()}.
+     */
+    public static final class Scope implements AutoCloseable {
+
+        @Nullable
+        private final ThreadContext previousContext;
+
+        private final ThreadLocal<?>[] threadLocals;
+
+        private final Object[] previousValues;
+
+        private Scope(@Nullable ThreadContext previousContext, ThreadLocal<?>[] threadLocals, Object[] previousValues) {
+            this.previousContext = previousContext;
+            this.threadLocals = threadLocals;
+            this.previousValues = previousValues;
+        }
+
+        /**
+         * Put back the values bound before the snapshot was restored,
+         * clearing the values that were not bound at all: a thread that had
+         * no context before is left without one.
+         */
+        @Override
+        public void close() {
+            ThreadContext.bind(this.previousContext);
+            for (int i = 0; i < this.threadLocals.length; i++) {
+                setValue(this.threadLocals[i], this.previousValues[i]);
+            }
+        }
+    }
+
+
+    /**
+     * ExecutorService decorator that wraps every task with a snapshot
+     * taken on the submitting thread.
+     */
+    private static class ContextPropagatingExecutorService implements ExecutorService {
+
+        private final ExecutorService delegate;
+
+        public ContextPropagatingExecutorService(ExecutorService delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            this.delegate.execute(capture().wrap(command));
+        }
+
+        @Override
+        public Future<?> submit(Runnable task) {
+            return this.delegate.submit(capture().wrap(task));
+        }
+
+        @Override
+        public <T> Future<T> submit(Runnable task, T result) {
+            return this.delegate.submit(capture().wrap(task), result);
+        }
+
+        @Override
+        public <T> Future<T> submit(Callable<T> task) {
+            return this.delegate.submit(capture().wrap(task));
+        }
+
+        @Override
+        public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+            return this.delegate.invokeAll(wrapAll(tasks));
+        }
+
+        @Override
+        public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+                throws InterruptedException {
+
+            return this.delegate.invokeAll(wrapAll(tasks), timeout, unit);
+        }
+
+        @Override
+        public <T> T invokeAny(Collection<? extends Callable<T>> tasks)
+                throws InterruptedException, ExecutionException {
+
+            return this.delegate.invokeAny(wrapAll(tasks));
+        }
+
+        @Override
+        public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+
+            return this.delegate.invokeAny(wrapAll(tasks), timeout, unit);
+        }
+
+        private static <T> List<Callable<T>> wrapAll(Collection<? extends Callable<T>> tasks) {
+            ContextSnapshot snapshot = capture();
+            List<Callable<T>> wrapped = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                wrapped.add(snapshot.wrap(task));
+            }
+            return wrapped;
+        }
+
+        @Override
+        public void shutdown() {
+            this.delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return this.delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return this.delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return this.delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return this.delegate.awaitTermination(timeout, unit);
+        }
+
+        @Override
+        public String toString() {
+            return "ContextPropagatingExecutorService: " + this.delegate;
+        }
+    }
+
+}
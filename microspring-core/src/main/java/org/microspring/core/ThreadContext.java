@@ -0,0 +1,219 @@
+package org.microspring.core;
+
+import org.microspring.lang.Nullable;
+
+import java.util.TimeZone;
+
+public final class ThreadContext {
+
+    private static final int LOCALE_CONTEXT = 1;
+
+    private static final int TIME_ZONE = 2;
+
+    private static final int REQUEST_ATTRIBUTES = 4;
+
+    /**
+     * The one slot holding the context of every thread. Child threads receive
+     * a copy of the values that were bound as inheritable, if any.
+     */
+    private static final ThreadLocal<ThreadContext> threadContextHolder =
+            new NamedInheritableThreadLocal<ThreadContext>("Thread context") {
+                @Override
+                protected ThreadContext childValue(ThreadContext parentValue) {
+                    return (parentValue != null ? parentValue.inheritableCopy() : null);
+                }
+            };
+
+
+    @Nullable
+    private Object localeContext;
+
+    @Nullable
+    private TimeZone timeZone;
+
+    @Nullable
+    private Object requestAttributes;
+
+    /** Bit mask of the values exposed to child threads. */
+    private int inheritable;
+
+
+    private ThreadContext() {
+    }
+
+
+    /**
+     * Return the context of the current thread, creating it if necessary.
+     * <p>Resetting a single value merely clears the corresponding field, so that
+     * nested binding and resetting within a request touches the thread's
+     * ThreadLocal map only once. The context itself gets unbound through
+     * {@link #resetIfEmpty()} once no value is left.
+     */
+    public static ThreadContext current() {
+        ThreadContext context = threadContextHolder.get();
+        if (context == null) {
+            context = new ThreadContext();
+            threadContextHolder.set(context);
+        }
+        return context;
+    }
+
+    /**
+     * Return the context of the current thread, if any.
+     * @return the current context, or {@code null} if none created yet
+     */
+    @Nullable
+    public static ThreadContext currentIfPresent() {
+        return threadContextHolder.get();
+    }
+
+
+    /**
+     * Unbind the context of the current thread if it holds no value anymore,
+     * so that no framework class stays referenced from a pooled thread, e.g.
+     * pinning a web application's class loader after redeployment.
+     */
+    public static void resetIfEmpty() {
+        ThreadContext context = threadContextHolder.get();
+        if (context != null && context.isEmpty()) {
+            threadContextHolder.remove();
+        }
+    }
+
+
+    /**
+     * Return whether none of the values is bound.
+     */
+    public boolean isEmpty() {
+        return (this.localeContext == null && this.timeZone == null && this.requestAttributes == null);
+    }
+
+    /**
+     * Return the locale context bound to this thread, typed by the facade
+     * that owns it, i.e. {@code LocaleContextHolder}.
+     */
+    @Nullable
+    public Object getLocaleContext() {
+        return this.localeContext;
+    }
+
+    /**
+     * Bind the given locale context to this thread.
+     * @param localeContext the locale context, or {@code null} to reset it
+     * @param inheritable whether to expose the value to child threads
+     */
+    public void setLocaleContext(@Nullable Object localeContext, boolean inheritable) {
+        this.localeContext = localeContext;
+        setInheritable(LOCALE_CONTEXT, localeContext != null && inheritable);
+    }
+
+    /**
+     * Return the time zone bound to this thread.
+     */
+    @Nullable
+    public TimeZone getTimeZone() {
+        return this.timeZone;
+    }
+
+    /**
+     * Bind the given time zone to this thread.
+     * @param timeZone the time zone, or {@code null} to reset it
+     * @param inheritable whether to expose the value to child threads
+     */
+    public void setTimeZone(@Nullable TimeZone timeZone, boolean inheritable) {
+        this.timeZone = timeZone;
+        setInheritable(TIME_ZONE, timeZone != null && inheritable);
+    }
+
+    /**
+     * Return the request attributes bound to this thread, typed by the facade
+     * that owns them, i.e. {@code RequestContextHolder}.
+     */
+    @Nullable
+    public Object getRequestAttributes() {
+        return this.requestAttributes;
+    }
+
+    /**
+     * Bind the given request attributes to this thread.
+     * @param requestAttributes the request attributes, or {@code null} to reset them
+     * @param inheritable whether to expose the value to child threads
+     */
+    public void setRequestAttributes(@Nullable Object requestAttributes, boolean inheritable) {
+        this.requestAttributes = requestAttributes;
+        setInheritable(REQUEST_ATTRIBUTES, requestAttributes != null && inheritable);
+    }
+
+    private void setInheritable(int value, boolean inheritable) {
+        if (inheritable) {
+            this.inheritable |= value;
+        }
+        else {
+            this.inheritable &= ~value;
+        }
+    }
+
+    /**
+     * Create a copy of this context, to be bound later on through {@link #bind}.
+     * @param includeInheritable whether the copy should also expose the values
+     * bound as inheritable to child threads
+     * @see ContextSnapshot
+     */
+    ThreadContext copy(boolean includeInheritable) {
+        ThreadContext copy = new ThreadContext();
+        copy.localeContext = this.localeContext;
+        copy.timeZone = this.timeZone;
+        copy.requestAttributes = this.requestAttributes;
+        copy.inheritable = (includeInheritable ? this.inheritable : 0);
+        return copy;
+    }
+
+    /**
+     * Replace all values bound to the current thread with those of the given copy.
+     * @param values the copy to take the values from, or {@code null} to unbind
+     * the context of the current thread altogether
+     * @see ContextSnapshot
+     */
+    static void bind(@Nullable ThreadContext values) {
+        if (values != null && !values.isEmpty()) {
+            ThreadContext context = current();
+            context.localeContext = values.localeContext;
+            context.timeZone = values.timeZone;
+            context.requestAttributes = values.requestAttributes;
+            context.inheritable = values.inheritable;
+        }
+        else {
+            threadContextHolder.remove();
+        }
+    }
+
+    /**
+     * Create the context for a child thread, holding the inheritable values only.
+     * @return the child context, or {@code null} if there is nothing to inherit
+     */
+    @Nullable
+    private ThreadContext inheritableCopy() {
+        if (this.inheritable == 0) {
+            return null;
+        }
+        ThreadContext copy = new ThreadContext();
+        copy.inheritable = this.inheritable;
+        if ((this.inheritable & LOCALE_CONTEXT) != 0) {
+            copy.localeContext = this.localeContext;
+        }
+        if ((this.inheritable & TIME_ZONE) != 0) {
+            copy.timeZone = this.timeZone;
+        }
+        if ((this.inheritable & REQUEST_ATTRIBUTES) != 0) {
+            copy.requestAttributes = this.requestAttributes;
+        }
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return "ThreadContext: localeContext=" + this.localeContext + ", timeZone=" +
+                (this.timeZone != null ? this.timeZone.getID() : null) + ", requestAttributes=" + this.requestAttributes;
+    }
+
+}
@@ -0,0 +1,368 @@
+package org.microspring.core.env;
+
+import org.microspring.lang.Nullable;
+import org.microspring.util.Assert;
+import org.microspring.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+public abstract class AbstractEnvironment implements ConfigurableEnvironment {
+
+    /**
+     * Name of property to set to specify active profiles: {@value}. Value may be comma
+     * delimited.
+     * @see ConfigurableEnvironment#setActiveProfiles
+     */
+    public static final String ACTIVE_PROFILES_PROPERTY_NAME = "spring.profiles.active";
+
+    /**
+     * Name of property to set to specify profiles active by default: {@value}. Value may
+     * be comma delimited.
+     * @see ConfigurableEnvironment#setDefaultProfiles
+     */
+    public static final String DEFAULT_PROFILES_PROPERTY_NAME = "spring.profiles.default";
+
+    /**
+     * Name of reserved default profile name: {@value}. If no default profile names are
+     * explicitly and no active profile names are explicitly set, this profile will
+     * automatically be activated by default.
+     * @see #getReservedDefaultProfiles
+     */
+    protected static final String RESERVED_DEFAULT_PROFILE_NAME = "default";
+
+
+    private final MutablePropertySources propertySources = new MutablePropertySources();
+
+    private final PropertySourcesPropertyResolver propertyResolver =
+            new PropertySourcesPropertyResolver(this.propertySources);
+
+    /** Guards writes to {@link #profiles}; reads never lock. */
+    private final Object profilesMonitor = new Object();
+
+    /**
+     * Current profile state, replaced as a whole on every change
+     * and published through this volatile reference.
+     */
+    private volatile ProfileSnapshot profiles;
+
+    /** Shared predicate handed to {@link Profiles#matches}, avoiding a capturing lambda per call. */
+    private final Predicate<String> activeProfilePredicate = this::isProfileActive;
+
+
+    /**
+     * Create a new {@code Environment} instance, calling back to
+     * {@link #customizePropertySources(MutablePropertySources)} during construction to
+     * allow subclasses to contribute or manipulate {@link PropertySource} instances as
+     * appropriate.
+     * @see #customizePropertySources(MutablePropertySources)
+     */
+    public AbstractEnvironment() {
+        this.profiles = new ProfileSnapshot(null, getReservedDefaultProfiles());
+        customizePropertySources(this.propertySources);
+    }
+
+
+    /**
+     * Customize the set of {@link PropertySource} objects to be searched by this
+     * {@code Environment} during calls to {@link #getProperty(String)} and related
+     * methods.
+     * <p>The default implementation is empty.
+     * @see #getPropertySources()
+     */
+    protected void customizePropertySources(MutablePropertySources propertySources) {
+    }
+
+    /**
+     * Return the set of reserved default profile names. This implementation returns
+     * {@value #RESERVED_DEFAULT_PROFILE_NAME}. Subclasses may override in order to
+     * customize the set of reserved names.
+     */
+    protected Set<String> getReservedDefaultProfiles() {
+        return Collections.singleton(RESERVED_DEFAULT_PROFILE_NAME);
+    }
+
+
+    //---------------------------------------------------------------------
+    // Implementation of ConfigurableEnvironment interface
+    //---------------------------------------------------------------------
+
+    @Override
+    public String[] getActiveProfiles() {
+        return obtainActiveProfiles().activeProfiles.clone();
+    }
+
+    @Override
+    public void setActiveProfiles(String... profiles) {
+        Assert.notNull(profiles, "Profile array must not be null");
+        Set<String> activeProfiles = new LinkedHashSet<>();
+        for (String profile : profiles) {
+            validateProfile(profile);
+            activeProfiles.add(profile);
+        }
+        synchronized (this.profilesMonitor) {
+            ProfileSnapshot current = this.profiles;
+            this.profiles = new ProfileSnapshot(activeProfiles, current.defaultProfileSet, current.defaultResolved);
+        }
+    }
+
+    @Override
+    public void addActiveProfile(String profile) {
+        validateProfile(profile);
+        synchronized (this.profilesMonitor) {
+            ProfileSnapshot current = obtainActiveProfiles();
+            Set<String> activeProfiles = new LinkedHashSet<>(current.activeProfileSet);
+            activeProfiles.add(profile);
+            this.profiles = new ProfileSnapshot(activeProfiles, current.defaultProfileSet, current.defaultResolved);
+        }
+    }
+
+    @Override
+    public String[] getDefaultProfiles() {
+        return obtainDefaultProfiles().defaultProfiles.clone();
+    }
+
+    @Override
+    public void setDefaultProfiles(String... profiles) {
+        Assert.notNull(profiles, "Profile array must not be null");
+        Set<String> defaultProfiles = new LinkedHashSet<>();
+        for (String profile : profiles) {
+            validateProfile(profile);
+            defaultProfiles.add(profile);
+        }
+        synchronized (this.profilesMonitor) {
+            this.profiles = new ProfileSnapshot(
+                    (this.profiles.activeResolved ? this.profiles.activeProfileSet : null), defaultProfiles, true);
+        }
+    }
+
+    @Override
+    public boolean acceptsProfiles(Profiles profiles) {
+        return profiles.matches(this.activeProfilePredicate);
+    }
+
+    /**
+     * Return whether the given profile is active, or if active profiles are empty
+     * whether the profile should be active by default.
+     * <p>Reads the current profile snapshot without locking or copying.
+     * @throws IllegalArgumentException per {@link #validateProfile(String)}
+     */
+    protected boolean isProfileActive(String profile) {
+        validateProfile(profile);
+        ProfileSnapshot snapshot = obtainDefaultProfiles();
+        if (!snapshot.activeResolved) {
+            snapshot = obtainActiveProfiles();
+        }
+        Set<String> activeProfiles = snapshot.activeProfileSet;
+        return (activeProfiles.contains(profile) ||
+                (activeProfiles.isEmpty() && snapshot.defaultProfileSet.contains(profile)));
+    }
+
+    /**
+     * Validate the given profile, called internally prior to adding to the set of
+     * active or default profiles.
+     * <p>Subclasses may override to impose further restrictions on profile syntax.
+     * @throws IllegalArgumentException if the profile is null, empty, whitespace-only or
+     * begins with the profile NOT operator (!).
+     * @see #acceptsProfiles
+     * @see #addActiveProfile
+     * @see #setDefaultProfiles
+     */
+    protected void validateProfile(String profile) {
+        if (!StringUtils.hasText(profile)) {
+            throw new IllegalArgumentException("Invalid profile [" + profile + "]: must contain text");
+        }
+        if (profile.charAt(0) == '!') {
+            throw new IllegalArgumentException("Invalid profile [" + profile + "]: must not begin with ! operator");
+        }
+    }
+
+    /**
+     * Return the current snapshot, resolving the active profiles from the
+     * {@value #ACTIVE_PROFILES_PROPERTY_NAME} property on first access if
+     * none have been set explicitly.
+     */
+    private ProfileSnapshot obtainActiveProfiles() {
+        ProfileSnapshot snapshot = this.profiles;
+        if (snapshot.activeResolved) {
+            return snapshot;
+        }
+        String profiles = getProperty(ACTIVE_PROFILES_PROPERTY_NAME);
+        Set<String> activeProfiles = new LinkedHashSet<>();
+        if (StringUtils.hasText(profiles)) {
+            for (String profile : StringUtils.commaDelimitedListToStringArray(StringUtils.trimAllWhitespace(profiles))) {
+                validateProfile(profile);
+                activeProfiles.add(profile);
+            }
+        }
+        synchronized (this.profilesMonitor) {
+            snapshot = this.profiles;
+            if (!snapshot.activeResolved) {
+                snapshot = new ProfileSnapshot(activeProfiles, snapshot.defaultProfileSet, snapshot.defaultResolved);
+                this.profiles = snapshot;
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Return the current snapshot, resolving the default profiles from the
+     * {@value #DEFAULT_PROFILES_PROPERTY_NAME} property on first access if
+     * they have not been set explicitly.
+     */
+    private ProfileSnapshot obtainDefaultProfiles() {
+        ProfileSnapshot snapshot = this.profiles;
+        if (snapshot.defaultResolved) {
+            return snapshot;
+        }
+        Set<String> defaultProfiles = snapshot.defaultProfileSet;
+        String profiles = getProperty(DEFAULT_PROFILES_PROPERTY_NAME);
+        if (StringUtils.hasText(profiles)) {
+            defaultProfiles = new LinkedHashSet<>();
+            for (String profile : StringUtils.commaDelimitedListToStringArray(StringUtils.trimAllWhitespace(profiles))) {
+                validateProfile(profile);
+                defaultProfiles.add(profile);
+            }
+        }
+        synchronized (this.profilesMonitor) {
+            snapshot = this.profiles;
+            if (!snapshot.defaultResolved) {
+                snapshot = new ProfileSnapshot(
+                        (snapshot.activeResolved ? snapshot.activeProfileSet : null), defaultProfiles, true);
+                this.profiles = snapshot;
+            }
+            return snapshot;
+        }
+    }
+
+    @Override
+    public MutablePropertySources getPropertySources() {
+        return this.propertySources;
+    }
+
+    @Override
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public Map<String, Object> getSystemProperties() {
+        try {
+            return (Map) System.getProperties();
+        }
+        catch (SecurityException ex) {
+            return Collections.emptyMap();
+        }
+    }
+
+    @Override
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public Map<String, Object> getSystemEnvironment() {
+        try {
+            return (Map) System.getenv();
+        }
+        catch (SecurityException ex) {
+            return Collections.emptyMap();
+        }
+    }
+
+
+    //---------------------------------------------------------------------
+    // Implementation of PropertyResolver interface
+    //---------------------------------------------------------------------
+
+    @Override
+    public boolean containsProperty(String key) {
+        return this.propertyResolver.containsProperty(key);
+    }
+
+    @Override
+    @Nullable
+    public String getProperty(String key) {
+        return this.propertyResolver.getProperty(key);
+    }
+
+    @Override
+    public String getProperty(String key, String defaultValue) {
+        return this.propertyResolver.getProperty(key, defaultValue);
+    }
+
+    @Override
+    @Nullable
+    public <T> T getProperty(String key, Class<T> targetType) {
+        return this.propertyResolver.getProperty(key, targetType);
+    }
+
+    @Override
+    public <T> T getProperty(String key, Class<T> targetType, T defaultValue) {
+        return this.propertyResolver.getProperty(key, targetType, defaultValue);
+    }
+
+    @Override
+    public String getRequiredProperty(String key) throws IllegalStateException {
+        return this.propertyResolver.getRequiredProperty(key);
+    }
+
+    @Override
+    public <T> T getRequiredProperty(String key, Class<T> targetType) throws IllegalStateException {
+        return this.propertyResolver.getRequiredProperty(key, targetType);
+    }
+
+    @Override
+    public String resolvePlaceholders(String text) {
+        return this.propertyResolver.resolvePlaceholders(text);
+    }
+
+    @Override
+    public String resolveRequiredPlaceholders(String text) throws IllegalArgumentException {
+        return this.propertyResolver.resolveRequiredPlaceholders(text);
+    }
+
+
+    @Override
+    public String toString() {
+        ProfileSnapshot snapshot = this.profiles;
+        return getClass().getSimpleName() + " {activeProfiles=" + Arrays.toString(snapshot.activeProfiles) +
+                ", defaultProfiles=" + Arrays.toString(snapshot.defaultProfiles) +
+                ", propertySources=" + this.propertySources + "}";
+    }
+
+
+    /**
+     * Immutable view of the active and default profiles. A new instance is
+     * published for every modification, so readers always see a consistent
+     * pair of arrays and hash sets.
+     */
+    private static final class ProfileSnapshot {
+
+        final String[] activeProfiles;
+
+        final Set<String> activeProfileSet;
+
+        /** Whether the active profiles have been set or resolved from the environment. */
+        final boolean activeResolved;
+
+        final String[] defaultProfiles;
+
+        final Set<String> defaultProfileSet;
+
+        /** Whether the default profiles have been set or resolved from the environment. */
+        final boolean defaultResolved;
+
+        ProfileSnapshot(@Nullable Set<String> activeProfiles, Set<String> defaultProfiles) {
+            this(activeProfiles, defaultProfiles, false);
+        }
+
+        ProfileSnapshot(@Nullable Set<String> activeProfiles, Set<String> defaultProfiles, boolean defaultResolved) {
+            this.activeResolved = (activeProfiles != null);
+            this.activeProfileSet = (activeProfiles != null ?
+                    Collections.unmodifiableSet(new LinkedHashSet<>(activeProfiles)) : Collections.emptySet());
+            this.activeProfiles = (activeProfiles != null ?
+                    activeProfiles.toArray(new String[0]) : new String[0]);
+            this.defaultProfileSet = Collections.unmodifiableSet(new LinkedHashSet<>(defaultProfiles));
+            this.defaultProfiles = defaultProfiles.toArray(new String[0]);
+            this.defaultResolved = defaultResolved;
+        }
+    }
+
+}
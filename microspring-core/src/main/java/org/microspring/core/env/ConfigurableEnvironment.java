@@ -0,0 +1,50 @@
+package org.microspring.core.env;
+
+import java.util.Map;
+
+public interface ConfigurableEnvironment extends Environment {
+
+    /**
+     * Specify the set of profiles active for this {@code Environment}. Profiles are
+     * evaluated during container bootstrap to determine whether bean definitions
+     * should be registered with the container.
+     * <p>Any existing active profiles will be replaced with the given arguments; call
+     * with zero arguments to clear the current set of active profiles. Use
+     * {@link #addActiveProfile} to add a profile while preserving the existing set.
+     * @throws IllegalArgumentException if any profile is null, empty or whitespace-only
+     * @see #addActiveProfile
+     * @see #setDefaultProfiles
+     */
+    void setActiveProfiles(String... profiles);
+
+    /**
+     * Add a profile to the current set of active profiles.
+     * @throws IllegalArgumentException if the profile is null, empty or whitespace-only
+     * @see #setActiveProfiles
+     */
+    void addActiveProfile(String profile);
+
+    /**
+     * Specify the set of profiles to be made active by default if no other profiles
+     * are explicitly made active through {@link #setActiveProfiles}.
+     * @throws IllegalArgumentException if any profile is null, empty or whitespace-only
+     */
+    void setDefaultProfiles(String... profiles);
+
+    /**
+     * Return the {@link PropertySources} for this {@code Environment} in mutable form,
+     * allowing for manipulation of the set of {@link PropertySource} objects that should
+     * be searched when resolving properties against this {@code Environment} object.
+     */
+    MutablePropertySources getPropertySources();
+
+    /**
+     * Return the value of {@link System#getProperties()}.
+     */
+    Map<String, Object> getSystemProperties();
+
+    /**
+     * Return the value of {@link System#getenv()}.
+     */
+    Map<String, Object> getSystemEnvironment();
+}
@@ -1,6 +1,6 @@
 package org.microspring.core.env;
 
-public interface Environment {
+public interface Environment extends PropertyResolver {
 
     String[] getActiveProfiles();
 
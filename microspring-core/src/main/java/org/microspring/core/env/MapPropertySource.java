@@ -0,0 +1,58 @@
+package org.microspring.core.env;
+
+import org.microspring.lang.Nullable;
+
+import java.util.Map;
+
+public class MapPropertySource extends PropertySource<Map<String, Object>> {
+
+    private final boolean immutable;
+
+
+    /**
+     * Create a new {@code MapPropertySource} with the given name and {@code Map}.
+     * @param name the associated name
+     * @param source the Map source (without {@code null} values in order to get
+     * consistent {@link #getProperty} and {@link #containsProperty} behavior)
+     */
+    public MapPropertySource(String name, Map<String, Object> source) {
+        this(name, source, false);
+    }
+
+    /**
+     * Create a new {@code MapPropertySource} with the given name and {@code Map}.
+     * @param name the associated name
+     * @param source the Map source (without {@code null} values in order to get
+     * consistent {@link #getProperty} and {@link #containsProperty} behavior)
+     * @param immutable whether the given {@code Map} never changes once this source
+     * has been created, allowing lookups against it to be cached
+     * @see #isImmutable()
+     */
+    public MapPropertySource(String name, Map<String, Object> source, boolean immutable) {
+        super(name, source);
+        this.immutable = immutable;
+    }
+
+    @Override
+    @Nullable
+    public Object getProperty(String name) {
+        return this.source.get(name);
+    }
+
+    @Override
+    public boolean containsProperty(String name) {
+        return this.source.containsKey(name);
+    }
+
+    @Override
+    public boolean isImmutable() {
+        return this.immutable;
+    }
+
+    /**
+     * Return the names of all properties contained by the underlying {@code Map}.
+     */
+    public String[] getPropertyNames() {
+        return this.source.keySet().toArray(new String[0]);
+    }
+}
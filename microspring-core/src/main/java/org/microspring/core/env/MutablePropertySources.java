@@ -0,0 +1,177 @@
+package org.microspring.core.env;
+
+import org.microspring.lang.Nullable;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MutablePropertySources implements PropertySources {
+
+    private final List<PropertySource<?>> propertySourceList = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong version = new AtomicLong();
+
+
+    /**
+     * Create a new {@link MutablePropertySources} object.
+     */
+    public MutablePropertySources() {
+    }
+
+    /**
+     * Create a new {@code MutablePropertySources} from the given propertySources
+     * object, preserving the original order of contained {@code PropertySource} objects.
+     */
+    public MutablePropertySources(PropertySources propertySources) {
+        this();
+        for (PropertySource<?> propertySource : propertySources) {
+            addLast(propertySource);
+        }
+    }
+
+
+    @Override
+    public Iterator<PropertySource<?>> iterator() {
+        return this.propertySourceList.iterator();
+    }
+
+    @Override
+    public boolean contains(String name) {
+        return this.propertySourceList.contains(PropertySource.named(name));
+    }
+
+    @Override
+    @Nullable
+    public PropertySource<?> get(String name) {
+        int index = this.propertySourceList.indexOf(PropertySource.named(name));
+        return (index != -1 ? this.propertySourceList.get(index) : null);
+    }
+
+    @Override
+    public long getVersion() {
+        return this.version.get();
+    }
+
+    /**
+     * Add the given property source object with highest precedence.
+     */
+    public void addFirst(PropertySource<?> propertySource) {
+        removeIfPresent(propertySource);
+        this.propertySourceList.add(0, propertySource);
+        this.version.incrementAndGet();
+    }
+
+    /**
+     * Add the given property source object with lowest precedence.
+     */
+    public void addLast(PropertySource<?> propertySource) {
+        removeIfPresent(propertySource);
+        this.propertySourceList.add(propertySource);
+        this.version.incrementAndGet();
+    }
+
+    /**
+     * Add the given property source object with precedence immediately higher
+     * than the named relative property source.
+     */
+    public void addBefore(String relativePropertySourceName, PropertySource<?> propertySource) {
+        assertLegalRelativeAddition(relativePropertySourceName, propertySource);
+        removeIfPresent(propertySource);
+        int index = assertPresentAndGetIndex(relativePropertySourceName);
+        this.propertySourceList.add(index, propertySource);
+        this.version.incrementAndGet();
+    }
+
+    /**
+     * Add the given property source object with precedence immediately lower
+     * than the named relative property source.
+     */
+    public void addAfter(String relativePropertySourceName, PropertySource<?> propertySource) {
+        assertLegalRelativeAddition(relativePropertySourceName, propertySource);
+        removeIfPresent(propertySource);
+        int index = assertPresentAndGetIndex(relativePropertySourceName);
+        this.propertySourceList.add(index + 1, propertySource);
+        this.version.incrementAndGet();
+    }
+
+    /**
+     * Return the precedence of the given property source, {@code -1} if not found.
+     */
+    public int precedenceOf(PropertySource<?> propertySource) {
+        return this.propertySourceList.indexOf(propertySource);
+    }
+
+    /**
+     * Remove and return the property source with the given name, {@code null} if not found.
+     * @param name the name of the property source to find and remove
+     */
+    @Nullable
+    public PropertySource<?> remove(String name) {
+        int index = this.propertySourceList.indexOf(PropertySource.named(name));
+        if (index == -1) {
+            return null;
+        }
+        PropertySource<?> removed = this.propertySourceList.remove(index);
+        this.version.incrementAndGet();
+        return removed;
+    }
+
+    /**
+     * Replace the property source with the given name with the given property source object.
+     * @param name the name of the property source to find and replace
+     * @param propertySource the replacement property source
+     * @throws IllegalArgumentException if no property source with the given name is present
+     * @see #contains
+     */
+    public void replace(String name, PropertySource<?> propertySource) {
+        int index = assertPresentAndGetIndex(name);
+        this.propertySourceList.set(index, propertySource);
+        this.version.incrementAndGet();
+    }
+
+    /**
+     * Return the number of {@link PropertySource} objects contained.
+     */
+    public int size() {
+        return this.propertySourceList.size();
+    }
+
+    @Override
+    public String toString() {
+        return this.propertySourceList.toString();
+    }
+
+
+    /**
+     * Ensure that the given property source is not being added relative to itself.
+     */
+    protected void assertLegalRelativeAddition(String relativePropertySourceName, PropertySource<?> propertySource) {
+        String newPropertySourceName = propertySource.getName();
+        if (relativePropertySourceName.equals(newPropertySourceName)) {
+            throw new IllegalArgumentException(
+                    "PropertySource named '" + newPropertySourceName + "' cannot be added relative to itself");
+        }
+    }
+
+    /**
+     * Remove the given property source if it is present.
+     */
+    protected void removeIfPresent(PropertySource<?> propertySource) {
+        this.propertySourceList.remove(propertySource);
+    }
+
+    /**
+     * Assert that the named property source is present and return its index.
+     * @param name {@linkplain PropertySource#getName() name of the property source} to find
+     * @throws IllegalArgumentException if the named property source is not present
+     */
+    private int assertPresentAndGetIndex(String name) {
+        int index = this.propertySourceList.indexOf(PropertySource.named(name));
+        if (index == -1) {
+            throw new IllegalArgumentException("PropertySource named '" + name + "' does not exist");
+        }
+        return index;
+    }
+}
@@ -5,33 +5,58 @@ import org.microspring.util.Assert;
 import org.microspring.util.StringUtils;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
 final class ProfilesParser {
 
+    /** Maximum number of parsed expressions kept in the cache. */
+    private static final int CACHE_LIMIT = 256;
+
+    /** Cache of compiled expressions, keyed by the raw expression String. */
+    private static final Map<String, CompiledProfiles> expressionCache = new ConcurrentHashMap<>(64);
+
+
     private ProfilesParser() {
     }
 
     static Profiles parse(String... expressions) {
         Assert.notEmpty(expressions, "Must specify at least one profile");
-        Profiles[] parsed = new Profiles[expressions.length];
+        CompiledProfiles[] parsed = new CompiledProfiles[expressions.length];
         for (int i = 0; i < expressions.length; i++) {
-            parsed[i] = parseExpression(expressions[i]);
+            parsed[i] = getCompiledExpression(expressions[i]);
         }
         return new ParsedProfiles(expressions, parsed);
     }
 
-    private static Profiles parseExpression(String expression) {
-        Assert.hasText(expression, () -> "Invalid profile expression [" + expression + "]: must contain text");
+    /**
+     * Return the compiled form of the given expression, parsing it on first
+     * access only. The cache stops accepting new entries once it reaches
+     * {@link #CACHE_LIMIT}, so that arbitrary input cannot grow it unbounded.
+     */
+    private static CompiledProfiles getCompiledExpression(String expression) {
+        CompiledProfiles compiled = (expression != null ? expressionCache.get(expression) : null);
+        if (compiled == null) {
+            Assert.hasText(expression, "Invalid profile expression [%s]: must contain text", expression);
+            compiled = CompiledProfiles.compile(parseExpression(expression));
+            if (expressionCache.size() < CACHE_LIMIT) {
+                expressionCache.putIfAbsent(expression, compiled);
+            }
+        }
+        return compiled;
+    }
+
+    private static Node parseExpression(String expression) {
         StringTokenizer tokens = new StringTokenizer(expression, "()&|!", true);
         return parseTokens(expression, tokens);
     }
 
-    private static Profiles parseTokens(String expression, StringTokenizer tokens) {
-        List<Profiles> elements = new ArrayList<>();
+    private static Node parseTokens(String expression, StringTokenizer tokens) {
+        List<Node> elements = new ArrayList<>();
         Operator operator = null;
         while (tokens.hasMoreTokens()) {
             String token = tokens.nextToken().trim();
@@ -54,7 +79,7 @@ final class ProfilesParser {
                     elements.add(not(parseTokens(expression, tokens)));
                     break;
                 case ")":
-                    Profiles merged = merge(expression, elements, operator);
+                    Node merged = merge(expression, elements, operator);
                     elements.clear();
                     elements.add(merged);
                     operator = null;
@@ -66,40 +91,217 @@ final class ProfilesParser {
         return merge(expression, elements, operator);
     }
 
-    private static Profiles merge(String expression, List<Profiles> elements, @Nullable Operator operator) {
+    private static Node merge(String expression, List<Node> elements, @Nullable Operator operator) {
         assertWellFormed(expression, !elements.isEmpty());
         if (elements.size() == 1) {
             return elements.get(0);
         }
-        Profiles[] profiles = elements.toArray(new Profiles[0]);
-        return (operator == Operator.AND ? and(profiles) : or(profiles));
+        Node[] nodes = elements.toArray(new Node[0]);
+        return new Node(operator == Operator.AND ? Node.AND : Node.OR, null, nodes);
     }
 
     private static void assertWellFormed(String expression, boolean wellFormed) {
-        Assert.isTrue(wellFormed, () -> "Malformed profile expression [" + expression + "]");
+        Assert.isTrue(wellFormed, "Malformed profile expression [%s]", expression);
     }
 
-    private static Profiles or(Profiles... profiles) {
-        return activeProfile -> Arrays.stream(profiles).anyMatch(isMatch(activeProfile));
+    private static Node not(Node node) {
+        return new Node(Node.NOT, null, new Node[] {node});
     }
 
-    private static Profiles and(Profiles... profiles) {
-        return activeProfile -> Arrays.stream(profiles).allMatch(isMatch(activeProfile));
+    private static Node equals(String profile) {
+        return new Node(Node.PROFILE, profile, null);
     }
 
-    private static Profiles not(Profiles profiles) {
-        return activeProfile -> !profiles.matches(activeProfile);
-    }
+    private enum Operator {AND, OR}
 
-    private static Profiles equals(String profile) {
-        return activeProfile -> activeProfile.test(profile);
-    }
 
-    private static Predicate<Profiles> isMatch(Predicate<String> activeProfile) {
-        return profiles -> profiles.matches(activeProfile);
+    /**
+     * Intermediate parse tree node, only used while compiling an expression.
+     */
+    private static final class Node {
+
+        static final int PROFILE = 0;
+
+        static final int NOT = 1;
+
+        static final int AND = 2;
+
+        static final int OR = 3;
+
+        final int kind;
+
+        @Nullable
+        final String profile;
+
+        @Nullable
+        final Node[] children;
+
+        Node(int kind, @Nullable String profile, @Nullable Node[] children) {
+            this.kind = kind;
+            this.profile = profile;
+            this.children = children;
+        }
     }
 
-    private enum Operator {AND, OR}
+
+    /**
+     * Flat, allocation-free form of a single profile expression.
+     * <p>Nodes are stored in parallel arrays: {@code kinds} holds the node type,
+     * {@code args} the profile index for leaves or the offset into {@code children}
+     * for operators, and {@code counts} the number of operands. Each distinct
+     * profile name is tested against the active profiles exactly once per
+     * {@link #matches} call, with the results collected in a {@code long} bit set
+     * (for expressions with up to 64 distinct names).
+     */
+    private static final class CompiledProfiles implements Profiles {
+
+        private static final int MAX_BITSET_PROFILES = Long.SIZE;
+
+        private final String[] profiles;
+
+        private final int[] kinds;
+
+        private final int[] args;
+
+        private final int[] counts;
+
+        private final int[] children;
+
+        private CompiledProfiles(String[] profiles, int[] kinds, int[] args, int[] counts, int[] children) {
+            this.profiles = profiles;
+            this.kinds = kinds;
+            this.args = args;
+            this.counts = counts;
+            this.children = children;
+        }
+
+        static CompiledProfiles compile(Node root) {
+            Compiler compiler = new Compiler();
+            compiler.add(root);
+            return compiler.build();
+        }
+
+        @Override
+        public boolean matches(Predicate<String> activeProfiles) {
+            if (this.profiles.length > MAX_BITSET_PROFILES) {
+                return evaluate(0, activeProfiles);
+            }
+            long active = 0L;
+            for (int i = 0; i < this.profiles.length; i++) {
+                if (activeProfiles.test(this.profiles[i])) {
+                    active |= (1L << i);
+                }
+            }
+            return evaluate(0, active);
+        }
+
+        private boolean evaluate(int node, long active) {
+            int arg = this.args[node];
+            switch (this.kinds[node]) {
+                case Node.PROFILE:
+                    return (active & (1L << arg)) != 0;
+                case Node.NOT:
+                    return !evaluate(this.children[arg], active);
+                case Node.AND:
+                    for (int i = arg, end = arg + this.counts[node]; i < end; i++) {
+                        if (!evaluate(this.children[i], active)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                default:
+                    for (int i = arg, end = arg + this.counts[node]; i < end; i++) {
+                        if (evaluate(this.children[i], active)) {
+                            return true;
+                        }
+                    }
+                    return false;
+            }
+        }
+
+        private boolean evaluate(int node, Predicate<String> activeProfiles) {
+            int arg = this.args[node];
+            switch (this.kinds[node]) {
+                case Node.PROFILE:
+                    return activeProfiles.test(this.profiles[arg]);
+                case Node.NOT:
+                    return !evaluate(this.children[arg], activeProfiles);
+                case Node.AND:
+                    for (int i = arg, end = arg + this.counts[node]; i < end; i++) {
+                        if (!evaluate(this.children[i], activeProfiles)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                default:
+                    for (int i = arg, end = arg + this.counts[node]; i < end; i++) {
+                        if (evaluate(this.children[i], activeProfiles)) {
+                            return true;
+                        }
+                    }
+                    return false;
+            }
+        }
+
+
+        /**
+         * Flattens a {@link Node} tree into the parallel arrays of a
+         * {@link CompiledProfiles}, with the root at index 0.
+         */
+        private static final class Compiler {
+
+            private final Map<String, Integer> profileIndexes = new LinkedHashMap<>();
+
+            private final List<int[]> nodes = new ArrayList<>();
+
+            private final List<Integer> children = new ArrayList<>();
+
+            int add(Node node) {
+                int index = this.nodes.size();
+                int[] entry = new int[] {node.kind, 0, 0};
+                this.nodes.add(entry);
+                if (node.kind == Node.PROFILE) {
+                    String profile = node.profile.intern();
+                    Integer profileIndex = this.profileIndexes.get(profile);
+                    if (profileIndex == null) {
+                        profileIndex = this.profileIndexes.size();
+                        this.profileIndexes.put(profile, profileIndex);
+                    }
+                    entry[1] = profileIndex;
+                    return index;
+                }
+                int[] childIndexes = new int[node.children.length];
+                for (int i = 0; i < node.children.length; i++) {
+                    childIndexes[i] = add(node.children[i]);
+                }
+                entry[1] = this.children.size();
+                entry[2] = childIndexes.length;
+                for (int childIndex : childIndexes) {
+                    this.children.add(childIndex);
+                }
+                return index;
+            }
+
+            CompiledProfiles build() {
+                int size = this.nodes.size();
+                int[] kinds = new int[size];
+                int[] args = new int[size];
+                int[] counts = new int[size];
+                for (int i = 0; i < size; i++) {
+                    int[] entry = this.nodes.get(i);
+                    kinds[i] = entry[0];
+                    args[i] = entry[1];
+                    counts[i] = entry[2];
+                }
+                int[] childArray = new int[this.children.size()];
+                for (int i = 0; i < childArray.length; i++) {
+                    childArray[i] = this.children.get(i);
+                }
+                String[] profiles = this.profileIndexes.keySet().toArray(new String[0]);
+                return new CompiledProfiles(profiles, kinds, args, counts, childArray);
+            }
+        }
+    }
 
 
     private static class ParsedProfiles implements Profiles {
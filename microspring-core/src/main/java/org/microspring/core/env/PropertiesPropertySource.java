@@ -0,0 +1,25 @@
+package org.microspring.core.env;
+
+import java.util.Map;
+import java.util.Properties;
+
+public class PropertiesPropertySource extends MapPropertySource {
+
+    /**
+     * Create a new {@code PropertiesPropertySource} with the given name and
+     * {@link Properties} object.
+     * @param name the associated name
+     * @param source the Properties source
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public PropertiesPropertySource(String name, Properties source) {
+        super(name, (Map) source);
+    }
+
+    @Override
+    public String[] getPropertyNames() {
+        synchronized (this.source) {
+            return super.getPropertyNames();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.microspring.core.env;
+
+import org.microspring.lang.Nullable;
+import org.microspring.util.Assert;
+
+public abstract class PropertySource<T> {
+
+    protected final String name;
+
+    protected final T source;
+
+
+    /**
+     * Create a new {@code PropertySource} with the given name and source object.
+     * @param name the associated name
+     * @param source the source object
+     */
+    public PropertySource(String name, T source) {
+        Assert.hasText(name, "Property source name must contain at least one character");
+        Assert.notNull(source, "Property source must not be null");
+        this.name = name;
+        this.source = source;
+    }
+
+    /**
+     * Return the name of this {@code PropertySource}.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Return the underlying source object for this {@code PropertySource}.
+     */
+    public T getSource() {
+        return this.source;
+    }
+
+    /**
+     * Return whether this {@code PropertySource} contains the given name.
+     * <p>This implementation simply checks for a {@code null} return value
+     * from {@link #getProperty(String)}. Subclasses may wish to implement
+     * a more efficient algorithm if possible.
+     * @param name the property name to find
+     */
+    public boolean containsProperty(String name) {
+        return (getProperty(name) != null);
+    }
+
+    /**
+     * Return the value associated with the given name,
+     * or {@code null} if not found.
+     * @param name the property to find
+     */
+    @Nullable
+    public abstract Object getProperty(String name);
+
+    /**
+     * Return whether the properties of this {@code PropertySource} never change,
+     * allowing a {@link PropertySourcesPropertyResolver} to cache lookups against it
+     * until the set of property sources changes.
+     * <p>The default implementation returns {@code false}, i.e. this source gets
+     * consulted on every lookup. Subclasses may override.
+     */
+    public boolean isImmutable() {
+        return false;
+    }
+
+
+    /**
+     * This {@code PropertySource} object is equal to the given object if both
+     * are {@code PropertySource} instances with the same name.
+     */
+    @Override
+    public boolean equals(Object other) {
+        return (this == other || (other instanceof PropertySource &&
+                this.name.equals(((PropertySource<?>) other).name)));
+    }
+
+    /**
+     * Return a hash code derived from the {@code name} property
+     * of this {@code PropertySource} object.
+     */
+    @Override
+    public int hashCode() {
+        return this.name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " {name='" + this.name + "'}";
+    }
+
+
+    /**
+     * Return a {@code PropertySource} implementation intended for collection comparison purposes only.
+     * <p>Primarily for internal use, e.g. to look up a source by name in a
+     * {@code List<PropertySource<?>>}, given that {@link #equals} only considers the name.
+     * @param name the name of the comparison {@code PropertySource} to be created and returned
+     */
+    public static PropertySource<?> named(String name) {
+        return new ComparisonPropertySource(name);
+    }
+
+
+    /**
+     * A {@code PropertySource} implementation intended for collection comparison
+     * purposes only; its {@link #getProperty} method is not supported.
+     */
+    static class ComparisonPropertySource extends PropertySource<Object> {
+
+        private static final String USAGE_ERROR =
+                "ComparisonPropertySource instances are for use with collection comparison only";
+
+        ComparisonPropertySource(String name) {
+            super(name, new Object());
+        }
+
+        @Override
+        public Object getSource() {
+            throw new UnsupportedOperationException(USAGE_ERROR);
+        }
+
+        @Override
+        public boolean containsProperty(String name) {
+            throw new UnsupportedOperationException(USAGE_ERROR);
+        }
+
+        @Override
+        @Nullable
+        public Object getProperty(String name) {
+            throw new UnsupportedOperationException(USAGE_ERROR);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.microspring.core.env;
+
+import org.microspring.lang.Nullable;
+
+public interface PropertySources extends Iterable<PropertySource<?>> {
+
+    /**
+     * Return whether a property source with the given name is contained.
+     * @param name the {@linkplain PropertySource#getName() name of the property source} to find
+     */
+    boolean contains(String name);
+
+    /**
+     * Return the property source with the given name, {@code null} if not found.
+     * @param name the {@linkplain PropertySource#getName() name of the property source} to find
+     */
+    @Nullable
+    PropertySource<?> get(String name);
+
+    /**
+     * Return a stamp that changes whenever a property source is added, removed
+     * or replaced, allowing resolvers to invalidate any cached lookups.
+     * <p>The default implementation returns a constant, i.e. assumes an
+     * immutable set of property sources.
+     */
+    default long getVersion() {
+        return 0;
+    }
+}
@@ -0,0 +1,370 @@
+package org.microspring.core.env;
+
+import org.microspring.lang.Nullable;
+import org.microspring.util.Assert;
+import org.microspring.util.PropertyPlaceholderHelper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class PropertySourcesPropertyResolver implements PropertyResolver {
+
+    /** Prefix for property placeholders: "${". */
+    public static final String PLACEHOLDER_PREFIX = "${";
+
+    /** Suffix for property placeholders: "}". */
+    public static final String PLACEHOLDER_SUFFIX = "}";
+
+    /** Value separator for property placeholders: ":". */
+    public static final String VALUE_SEPARATOR = ":";
+
+    /** Maximum number of entries per resolution cache. */
+    private static final int CACHE_LIMIT = 1024;
+
+    /** Marker for cached misses, since ConcurrentHashMap does not accept null values. */
+    private static final Object NO_VALUE = new Object();
+
+
+    @Nullable
+    private final PropertySources propertySources;
+
+    private final PropertyPlaceholderHelper nonStrictHelper =
+            new PropertyPlaceholderHelper(PLACEHOLDER_PREFIX, PLACEHOLDER_SUFFIX, VALUE_SEPARATOR, true);
+
+    private final PropertyPlaceholderHelper strictHelper =
+            new PropertyPlaceholderHelper(PLACEHOLDER_PREFIX, PLACEHOLDER_SUFFIX, VALUE_SEPARATOR, false);
+
+    private volatile boolean ignoreUnresolvableNestedPlaceholders = false;
+
+    @Nullable
+    private volatile ResolutionCache resolutionCache;
+
+
+    /**
+     * Create a new resolver against the given property sources.
+     * @param propertySources the set of {@link PropertySource} objects to use
+     */
+    public PropertySourcesPropertyResolver(@Nullable PropertySources propertySources) {
+        this.propertySources = propertySources;
+    }
+
+
+    /**
+     * Set whether to throw an exception when encountering an unresolvable placeholder
+     * nested within the value of a given property. A {@code false} value indicates strict
+     * resolution, i.e. that an exception will be thrown. A {@code true} value indicates
+     * that unresolvable nested placeholders should be passed through in their unresolved
+     * ${...} form.
+     * <p>The default is {@code false}.
+     */
+    public void setIgnoreUnresolvableNestedPlaceholders(boolean ignoreUnresolvableNestedPlaceholders) {
+        this.ignoreUnresolvableNestedPlaceholders = ignoreUnresolvableNestedPlaceholders;
+        clearCache();
+    }
+
+    /**
+     * Discard all cached lookups and resolved placeholders.
+     * <p>Only lookups against {@linkplain PropertySource#isImmutable() immutable}
+     * property sources get cached, and caches are dropped automatically whenever the
+     * {@link PropertySources#getVersion() version} of the underlying property sources
+     * changes. Sources that may change in place, such as the system properties, are
+     * consulted on every lookup.
+     */
+    public void clearCache() {
+        this.resolutionCache = null;
+    }
+
+
+    @Override
+    public boolean containsProperty(String key) {
+        return (getSourceProperty(key) != null);
+    }
+
+    @Override
+    @Nullable
+    public String getProperty(String key) {
+        return getProperty(key, String.class);
+    }
+
+    @Override
+    public String getProperty(String key, String defaultValue) {
+        String value = getProperty(key);
+        return (value != null ? value : defaultValue);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public <T> T getProperty(String key, Class<T> targetValueType) {
+        Assert.notNull(targetValueType, "Target type must not be null");
+        ResolutionCache cache = obtainCache();
+        if (!cache.cacheResolvedValues) {
+            return resolveProperty(key, targetValueType);
+        }
+        Map<String, Object> typedValues = cache.typedValues.get(targetValueType);
+        if (typedValues == null) {
+            typedValues = cache.typedValues.computeIfAbsent(targetValueType, type -> new ConcurrentHashMap<>(64));
+        }
+        Object value = typedValues.get(key);
+        if (value == null) {
+            value = resolveProperty(key, targetValueType);
+            if (value == null) {
+                value = NO_VALUE;
+            }
+            putIfWithinLimit(typedValues, key, value);
+        }
+        return (value != NO_VALUE ? (T) value : null);
+    }
+
+    @Override
+    public <T> T getProperty(String key, Class<T> targetType, T defaultValue) {
+        T value = getProperty(key, targetType);
+        return (value != null ? value : defaultValue);
+    }
+
+    @Override
+    public String getRequiredProperty(String key) throws IllegalStateException {
+        String value = getProperty(key);
+        if (value == null) {
+            throw new IllegalStateException("Required key '" + key + "' not found");
+        }
+        return value;
+    }
+
+    @Override
+    public <T> T getRequiredProperty(String key, Class<T> valueType) throws IllegalStateException {
+        T value = getProperty(key, valueType);
+        if (value == null) {
+            throw new IllegalStateException("Required key '" + key + "' not found");
+        }
+        return value;
+    }
+
+    @Override
+    public String resolvePlaceholders(String text) {
+        ResolutionCache cache = obtainCache();
+        return resolvePlaceholders(text, (cache.cacheResolvedValues ? cache.placeholders : null),
+                this.nonStrictHelper);
+    }
+
+    @Override
+    public String resolveRequiredPlaceholders(String text) throws IllegalArgumentException {
+        ResolutionCache cache = obtainCache();
+        return resolvePlaceholders(text, (cache.cacheResolvedValues ? cache.requiredPlaceholders : null),
+                this.strictHelper);
+    }
+
+
+    private String resolvePlaceholders(String text, @Nullable Map<String, String> cache,
+            PropertyPlaceholderHelper helper) {
+
+        Assert.notNull(text, "Text must not be null");
+        if (!helper.containsPlaceholder(text)) {
+            return text;
+        }
+        if (cache == null) {
+            return helper.replacePlaceholders(text, this::getPropertyAsRawString);
+        }
+        String resolved = cache.get(text);
+        if (resolved == null) {
+            resolved = helper.replacePlaceholders(text, this::getPropertyAsRawString);
+            putIfWithinLimit(cache, text, resolved);
+        }
+        return resolved;
+    }
+
+    @Nullable
+    private <T> T resolveProperty(String key, Class<T> targetValueType) {
+        Object value = getSourceProperty(key);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof String) {
+            String text = (String) value;
+            value = (this.ignoreUnresolvableNestedPlaceholders ?
+                    this.nonStrictHelper.replacePlaceholders(text, this::getPropertyAsRawString) :
+                    this.strictHelper.replacePlaceholders(text, this::getPropertyAsRawString));
+        }
+        return convertValueIfNecessary(value, targetValueType);
+    }
+
+    @Nullable
+    private String getPropertyAsRawString(String key) {
+        Object value = getSourceProperty(key);
+        return (value != null ? value.toString() : null);
+    }
+
+    /**
+     * Look up the raw value for the given key in the first property source
+     * containing it, consulting the lookup cache of each immutable source first.
+     */
+    @Nullable
+    private Object getSourceProperty(String key) {
+        ResolutionCache cache = obtainCache();
+        for (int i = 0; i < cache.sources.length; i++) {
+            Map<String, Object> sourceValues = cache.sourceValues[i];
+            Object value = (sourceValues != null ? sourceValues.get(key) : null);
+            if (value == null) {
+                value = cache.sources[i].getProperty(key);
+                if (sourceValues != null) {
+                    putIfWithinLimit(sourceValues, key, (value != null ? value : NO_VALUE));
+                }
+            }
+            if (value != null && value != NO_VALUE) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return the resolution cache for the current version of the property sources,
+     * replacing a stale one if the sources have been modified in the meantime.
+     */
+    private ResolutionCache obtainCache() {
+        long version = (this.propertySources != null ? this.propertySources.getVersion() : 0);
+        ResolutionCache cache = this.resolutionCache;
+        if (cache == null || cache.version != version) {
+            // Version read first: the sources are then at least as recent as the version
+            cache = new ResolutionCache(version,
+                    (this.propertySources != null ? this.propertySources : Collections.emptyList()));
+            this.resolutionCache = cache;
+        }
+        return cache;
+    }
+
+    private static <V> void putIfWithinLimit(Map<String, V> cache, String key, V value) {
+        if (cache.size() < CACHE_LIMIT) {
+            cache.putIfAbsent(key, value);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @Nullable
+    private static <T> T convertValueIfNecessary(Object value, Class<T> targetType) {
+        Class<?> type = wrapperTypeFor(targetType);
+        if (type.isInstance(value)) {
+            return (T) value;
+        }
+        if (type == String.class) {
+            return (T) value.toString();
+        }
+        String text = value.toString().trim();
+        try {
+            if (type == Integer.class) {
+                return (T) Integer.valueOf(text);
+            }
+            if (type == Long.class) {
+                return (T) Long.valueOf(text);
+            }
+            if (type == Boolean.class) {
+                return (T) Boolean.valueOf(text);
+            }
+            if (type == Double.class) {
+                return (T) Double.valueOf(text);
+            }
+            if (type == Float.class) {
+                return (T) Float.valueOf(text);
+            }
+            if (type == Short.class) {
+                return (T) Short.valueOf(text);
+            }
+            if (type == Byte.class) {
+                return (T) Byte.valueOf(text);
+            }
+            if (type == Character.class && text.length() == 1) {
+                return (T) Character.valueOf(text.charAt(0));
+            }
+            if (type.isEnum()) {
+                return (T) Enum.valueOf((Class) type, text);
+            }
+        }
+        catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Failed to convert value [" + value + "] to target type [" +
+                    targetType.getName() + "]", ex);
+        }
+        throw new IllegalArgumentException("Cannot convert value [" + value + "] from source type [" +
+                value.getClass().getName() + "] to target type [" + targetType.getName() + "]");
+    }
+
+    private static Class<?> wrapperTypeFor(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (type == int.class) {
+            return Integer.class;
+        }
+        if (type == long.class) {
+            return Long.class;
+        }
+        if (type == boolean.class) {
+            return Boolean.class;
+        }
+        if (type == double.class) {
+            return Double.class;
+        }
+        if (type == float.class) {
+            return Float.class;
+        }
+        if (type == short.class) {
+            return Short.class;
+        }
+        if (type == byte.class) {
+            return Byte.class;
+        }
+        if (type == char.class) {
+            return Character.class;
+        }
+        return type;
+    }
+
+
+    /**
+     * Lookup caches bound to a specific version of the property sources.
+     */
+    private static final class ResolutionCache {
+
+        final long version;
+
+        /** The property sources at this version, in search order. */
+        final PropertySource<?>[] sources;
+
+        /** Raw value per key for each immutable source, {@code null} for sources looked up live. */
+        final Map<String, Object>[] sourceValues;
+
+        /** Whether resolved values may be cached, i.e. whether all sources are immutable. */
+        final boolean cacheResolvedValues;
+
+        /** Resolved and converted value per key, for each requested target type. */
+        final Map<Class<?>, Map<String, Object>> typedValues = new ConcurrentHashMap<>(8);
+
+        /** Texts with placeholders resolved leniently. */
+        final Map<String, String> placeholders = new ConcurrentHashMap<>(64);
+
+        /** Texts with placeholders resolved strictly. */
+        final Map<String, String> requiredPlaceholders = new ConcurrentHashMap<>(64);
+
+        @SuppressWarnings("unchecked")
+        ResolutionCache(long version, Iterable<PropertySource<?>> propertySources) {
+            List<PropertySource<?>> sources = new ArrayList<>();
+            propertySources.forEach(sources::add);
+            boolean allImmutable = true;
+            this.version = version;
+            this.sources = sources.toArray(new PropertySource<?>[0]);
+            this.sourceValues = new Map[this.sources.length];
+            for (int i = 0; i < this.sources.length; i++) {
+                if (this.sources[i].isImmutable()) {
+                    this.sourceValues[i] = new ConcurrentHashMap<>(64);
+                }
+                else {
+                    allImmutable = false;
+                }
+            }
+            this.cacheResolvedValues = allImmutable;
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package org.microspring.core.env;
+
+public class StandardEnvironment extends AbstractEnvironment {
+
+    /** System environment property source name: {@value}. */
+    public static final String SYSTEM_ENVIRONMENT_PROPERTY_SOURCE_NAME = "systemEnvironment";
+
+    /** JVM system properties property source name: {@value}. */
+    public static final String SYSTEM_PROPERTIES_PROPERTY_SOURCE_NAME = "systemProperties";
+
+
+    /**
+     * Customize the set of property sources with those appropriate for any standard
+     * Java environment:
+     * <ul>
+     * <li>{@value #SYSTEM_PROPERTIES_PROPERTY_SOURCE_NAME}
+     * <li>{@value #SYSTEM_ENVIRONMENT_PROPERTY_SOURCE_NAME}
+     * </ul>
+     * <p>Properties present in {@value #SYSTEM_PROPERTIES_PROPERTY_SOURCE_NAME} will
+     * take precedence over those in {@value #SYSTEM_ENVIRONMENT_PROPERTY_SOURCE_NAME}.
+     * @see AbstractEnvironment#customizePropertySources(MutablePropertySources)
+     * @see #getSystemProperties()
+     * @see #getSystemEnvironment()
+     */
+    @Override
+    protected void customizePropertySources(MutablePropertySources propertySources) {
+        propertySources.addLast(new MapPropertySource(SYSTEM_PROPERTIES_PROPERTY_SOURCE_NAME, getSystemProperties()));
+        propertySources.addLast(new MapPropertySource(SYSTEM_ENVIRONMENT_PROPERTY_SOURCE_NAME, getSystemEnvironment()));
+    }
+}
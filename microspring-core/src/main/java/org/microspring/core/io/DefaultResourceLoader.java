@@ -1,13 +1,224 @@
 package org.microspring.core.io;
 
-public class DefaultResourceLoader implements ResourceLoader{
-    @Override
-    public Resource getResource(String location) {
-        return null;
+import org.microspring.lang.Nullable;
+import org.microspring.util.Assert;
+import org.microspring.util.ClassUtils;
+import org.microspring.util.ResourceUtils;
+import org.microspring.util.StringUtils;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class DefaultResourceLoader implements ResourceLoader {
+
+    /** Cache key protocol used for locations without a URL prefix, e.g. "/WEB-INF/test.dat". */
+    public static final String PATH_PROTOCOL = "";
+
+    @Nullable
+    private ClassLoader classLoader;
+
+    /** Maximum number of cached handles per protocol; 0 means caching is disabled. */
+    private volatile int resourceCacheLimit = 0;
+
+    /** Resolved resource handles per location protocol, keyed by normalized location. */
+    private final Map<String, Map<String, Resource>> resourceCaches = new ConcurrentHashMap<>(4);
+
+
+    /**
+     * Create a new DefaultResourceLoader.
+     * <p>ClassLoader access will happen using the thread context class loader
+     * at the time of this ResourceLoader's initialization.
+     * @see java.lang.Thread#getContextClassLoader()
+     */
+    public DefaultResourceLoader() {
+        this.classLoader = ClassUtils.getDefaultClassLoader();
     }
 
+    /**
+     * Create a new DefaultResourceLoader.
+     * @param classLoader the ClassLoader to load class path resources with, or {@code null}
+     * for using the thread context class loader at the time of actual resource access
+     */
+    public DefaultResourceLoader(@Nullable ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+
+    /**
+     * Specify the ClassLoader to load class path resources with, or {@code null}
+     * for using the thread context class loader at the time of actual resource access.
+     * <p>The default is that ClassLoader access will happen using the thread context
+     * class loader at the time of this ResourceLoader's initialization.
+     */
+    public void setClassLoader(@Nullable ClassLoader classLoader) {
+        this.classLoader = classLoader;
+        clearResourceCache();
+    }
+
+    /**
+     * Return the ClassLoader to load class path resources with.
+     * <p>Will get passed to ClassPathResource's constructor for all
+     * ClassPathResource objects created by this resource loader.
+     * @see ClassPathResource
+     */
     @Override
+    @Nullable
     public ClassLoader getClassLoader() {
-        return null;
+        return (this.classLoader != null ? this.classLoader : ClassUtils.getDefaultClassLoader());
+    }
+
+    /**
+     * Enable caching of resolved {@link Resource} handles, keeping at most the given
+     * number of handles per location protocol ("classpath", "file", "jar", ...).
+     * <p>Resource handles are descriptors and do not hold content, so a cached handle
+     * still reflects later changes of the underlying file. The cache only saves the
+     * location parsing and the class loader URL resolution on repeated lookups.
+     * <p>Handles are only cached if a specific ClassLoader has been set: without one,
+     * class path resources are bound to the thread context class loader of the caller,
+     * which may differ between lookups.
+     * <p>The default is 0, i.e. no caching.
+     * @param resourceCacheLimit the maximum number of handles per protocol
+     * @see #clearResourceCache(String)
+     */
+    public void setResourceCacheLimit(int resourceCacheLimit) {
+        Assert.isTrue(resourceCacheLimit >= 0, "Resource cache limit must not be negative");
+        this.resourceCacheLimit = resourceCacheLimit;
+        if (resourceCacheLimit == 0) {
+            clearResourceCache();
+        }
+    }
+
+    /**
+     * Return the maximum number of cached handles per protocol (0 if caching is disabled).
+     */
+    public int getResourceCacheLimit() {
+        return this.resourceCacheLimit;
+    }
+
+    /**
+     * Clear all resource handles cached in this resource loader.
+     * @see #setResourceCacheLimit
+     */
+    public void clearResourceCache() {
+        this.resourceCaches.clear();
     }
+
+    /**
+     * Clear the resource handles cached for the given location protocol,
+     * e.g. "classpath", "file" or "jar".
+     * @param protocol the location protocol, without the ':' separator;
+     * {@link #PATH_PROTOCOL} for plain paths without a URL prefix
+     * @see #setResourceCacheLimit
+     */
+    public void clearResourceCache(String protocol) {
+        Assert.notNull(protocol, "Protocol must not be null");
+        this.resourceCaches.remove(protocol);
+    }
+
+
+    @Override
+    public Resource getResource(String location) {
+        Assert.notNull(location, "Location must not be null");
+        if (this.resourceCacheLimit == 0 || this.classLoader == null) {
+            return resolveResource(location);
+        }
+
+        String normalizedLocation = StringUtils.cleanPath(location);
+        Map<String, Resource> cache = this.resourceCaches.get(getProtocol(normalizedLocation));
+        Resource resource = (cache != null ? cache.get(normalizedLocation) : null);
+        if (resource == null) {
+            resource = resolveResource(location);
+            if (cache == null) {
+                cache = this.resourceCaches.computeIfAbsent(
+                        getProtocol(normalizedLocation), key -> new ConcurrentHashMap<>(64));
+            }
+            if (cache.size() < this.resourceCacheLimit) {
+                cache.putIfAbsent(normalizedLocation, resource);
+            }
+        }
+        return resource;
+    }
+
+    /**
+     * Resolve the given location to a fresh {@link Resource} handle,
+     * without consulting the resource cache.
+     */
+    protected Resource resolveResource(String location) {
+        if (location.startsWith("/")) {
+            return getResourceByPath(location);
+        }
+        else if (location.startsWith(CLASSPATH_URL_PREFIX)) {
+            return new ClassPathResource(location.substring(CLASSPATH_URL_PREFIX.length()), getClassLoader());
+        }
+        else {
+            try {
+                // Try to parse the location as a URL, covering "file:" and "jar:" locations.
+                URL url = new URL(location);
+                return new UrlResource(url);
+            }
+            catch (MalformedURLException ex) {
+                // No URL -> resolve as resource path.
+                return getResourceByPath(location);
+            }
+        }
+    }
+
+    /**
+     * Return a Resource handle for the resource at the given path.
+     * <p>The default implementation supports class path locations. This should
+     * be appropriate for standalone implementations but can be overridden,
+     * e.g. for implementations targeted at a Servlet container.
+     * @param path the path to the resource
+     * @return the corresponding Resource handle
+     * @see ClassPathResource
+     */
+    protected Resource getResourceByPath(String path) {
+        return new ClassPathContextResource(path, getClassLoader());
+    }
+
+    /**
+     * Extract the protocol used as cache partition for the given location:
+     * the part before the first ':' unless that part contains a '/'.
+     */
+    private static String getProtocol(String location) {
+        if (location.startsWith(CLASSPATH_URL_PREFIX)) {
+            return ResourceUtils.URL_PROTOCOL_CLASSPATH;
+        }
+        if (location.startsWith(ResourceUtils.FILE_URL_PREFIX)) {
+            return ResourceUtils.URL_PROTOCOL_FILE;
+        }
+        if (location.startsWith(ResourceUtils.JAR_URL_PREFIX)) {
+            return ResourceUtils.URL_PROTOCOL_JAR;
+        }
+        int colonIndex = location.indexOf(':');
+        if (colonIndex <= 0 || location.lastIndexOf('/', colonIndex) != -1) {
+            return PATH_PROTOCOL;
+        }
+        return location.substring(0, colonIndex);
+    }
+
+
+    /**
+     * ClassPathResource that explicitly expresses a context-relative path,
+     * as returned for plain resource paths.
+     */
+    protected static class ClassPathContextResource extends ClassPathResource {
+
+        public ClassPathContextResource(String path, @Nullable ClassLoader classLoader) {
+            super(path, classLoader);
+        }
+
+        public String getPathWithinContext() {
+            return getPath();
+        }
+
+        @Override
+        public Resource createRelative(String relativePath) {
+            String pathToUse = StringUtils.applyRelativePath(getPath(), relativePath);
+            return new ClassPathContextResource(pathToUse, getClassLoader());
+        }
+    }
+
 }
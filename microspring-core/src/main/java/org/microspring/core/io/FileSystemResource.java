@@ -0,0 +1,286 @@
+package org.microspring.core.io;
+
+import org.microspring.lang.Nullable;
+import org.microspring.util.Assert;
+import org.microspring.util.StringUtils;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class FileSystemResource extends AbstractResource implements WritableResource, MappedResource {
+
+    private final String path;
+
+    private final File file;
+
+    private final Path filePath;
+
+
+    /**
+     * Create a new {@code FileSystemResource} from a file path.
+     * <p>Note: When building relative resources via {@link #createRelative},
+     * it makes a difference whether the specified resource base path here
+     * ends with a slash or not. In the case of "C:/dir1/", relative paths
+     * will be built underneath that root: e.g. relative path "dir2" ->
+     * "C:/dir1/dir2". In the case of "C:/dir1", relative paths will apply
+     * at the same directory level: relative path "dir2" -> "C:/dir2".
+     * @param path a file path
+     */
+    public FileSystemResource(String path) {
+        Assert.notNull(path, "Path must not be null");
+        this.path = StringUtils.cleanPath(path);
+        this.file = new File(path);
+        this.filePath = this.file.toPath();
+    }
+
+    /**
+     * Create a new {@code FileSystemResource} from a {@link File} handle.
+     * @param file a File handle
+     */
+    public FileSystemResource(File file) {
+        Assert.notNull(file, "File must not be null");
+        this.path = StringUtils.cleanPath(file.getPath());
+        this.file = file;
+        this.filePath = file.toPath();
+    }
+
+    /**
+     * Create a new {@code FileSystemResource} from a {@link Path} handle,
+     * performing all file system interactions via NIO.2 instead of {@link File}.
+     * @param filePath a Path handle to a file
+     */
+    public FileSystemResource(Path filePath) {
+        Assert.notNull(filePath, "Path must not be null");
+        this.path = StringUtils.cleanPath(filePath.toString());
+        this.file = filePath.toFile();
+        this.filePath = filePath;
+    }
+
+
+    /**
+     * Return the file path for this resource.
+     */
+    public final String getPath() {
+        return this.path;
+    }
+
+    /**
+     * This implementation returns whether the underlying file exists.
+     * @see java.io.File#exists()
+     */
+    @Override
+    public boolean exists() {
+        return this.file.exists();
+    }
+
+    /**
+     * This implementation checks whether the underlying file is marked as readable
+     * (and corresponds to an actual file with content, not to a directory).
+     * @see java.io.File#canRead()
+     * @see java.io.File#isDirectory()
+     */
+    @Override
+    public boolean isReadable() {
+        return (this.file.canRead() && !this.file.isDirectory());
+    }
+
+    /**
+     * This implementation opens a NIO file stream for the underlying file.
+     * @see java.nio.file.Files#newInputStream(Path, java.nio.file.OpenOption...)
+     */
+    @Override
+    public InputStream getInputStream() throws IOException {
+        try {
+            return Files.newInputStream(this.filePath);
+        }
+        catch (NoSuchFileException ex) {
+            throw new FileNotFoundException(ex.getMessage());
+        }
+    }
+
+    /**
+     * This implementation checks whether the underlying file is marked as writable
+     * (and corresponds to an actual file with content, not to a directory).
+     * @see java.io.File#canWrite()
+     * @see java.io.File#isDirectory()
+     */
+    @Override
+    public boolean isWritable() {
+        return (this.file.canWrite() && !this.file.isDirectory());
+    }
+
+    /**
+     * This implementation opens a FileOutputStream for the underlying file.
+     * @see java.nio.file.Files#newOutputStream(Path, java.nio.file.OpenOption...)
+     */
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        return Files.newOutputStream(this.filePath);
+    }
+
+    /**
+     * This implementation returns a URL for the underlying file.
+     * @see java.io.File#toURI()
+     */
+    @Override
+    public URL getURL() throws IOException {
+        return this.file.toURI().toURL();
+    }
+
+    /**
+     * This implementation returns a URI for the underlying file.
+     * @see java.io.File#toURI()
+     */
+    @Override
+    public URI getURI() throws IOException {
+        return this.file.toURI();
+    }
+
+    /**
+     * This implementation always indicates a file.
+     */
+    @Override
+    public boolean isFile() {
+        return true;
+    }
+
+    /**
+     * This implementation returns the underlying File reference.
+     */
+    @Override
+    public File getFile() {
+        return this.file;
+    }
+
+    /**
+     * This implementation opens a {@link FileChannel} for the underlying file,
+     * so that content can be transferred to the target without intermediate
+     * heap copies, e.g. via {@link FileChannel#transferTo}.
+     * @see java.nio.channels.FileChannel#open
+     */
+    @Override
+    public ReadableByteChannel readableChannel() throws IOException {
+        return openReadChannel();
+    }
+
+    /**
+     * This implementation opens a FileChannel for the underlying file.
+     * @see java.nio.channels.FileChannel
+     */
+    @Override
+    public WritableByteChannel writableChannel() throws IOException {
+        return FileChannel.open(this.filePath, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * This implementation maps the underlying file via {@link FileChannel#map}
+     * in {@link FileChannel.MapMode#READ_ONLY} mode.
+     */
+    @Override
+    public MappedByteBuffer getMappedByteBuffer() throws IOException {
+        try (FileChannel channel = openReadChannel()) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(getDescription() + " is too large to be mapped as a whole (" +
+                        size + " bytes); map individual regions instead");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    /**
+     * This implementation maps the given region of the underlying file via
+     * {@link FileChannel#map} in {@link FileChannel.MapMode#READ_ONLY} mode.
+     */
+    @Override
+    public MappedByteBuffer getMappedByteBuffer(long position, long size) throws IOException {
+        try (FileChannel channel = openReadChannel()) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        }
+    }
+
+    private FileChannel openReadChannel() throws IOException {
+        try {
+            return FileChannel.open(this.filePath, StandardOpenOption.READ);
+        }
+        catch (NoSuchFileException ex) {
+            throw new FileNotFoundException(ex.getMessage());
+        }
+    }
+
+    /**
+     * This implementation returns the underlying File/Path length.
+     */
+    @Override
+    public long contentLength() throws IOException {
+        long length = this.file.length();
+        if (length == 0L && !this.file.exists()) {
+            throw new FileNotFoundException(getDescription() +
+                    " cannot be resolved in the file system for checking its content length");
+        }
+        return length;
+    }
+
+    /**
+     * This implementation creates a FileSystemResource, applying the given path
+     * relative to the path of the underlying file of this resource descriptor.
+     * @see StringUtils#applyRelativePath(String, String)
+     */
+    @Override
+    public Resource createRelative(String relativePath) {
+        String pathToUse = StringUtils.applyRelativePath(this.path, relativePath);
+        return new FileSystemResource(pathToUse);
+    }
+
+    /**
+     * This implementation returns the name of the file.
+     * @see java.io.File#getName()
+     */
+    @Override
+    @Nullable
+    public String getFilename() {
+        return this.file.getName();
+    }
+
+    /**
+     * This implementation returns a description that includes the absolute
+     * path of the file.
+     * @see java.io.File#getAbsolutePath()
+     */
+    @Override
+    public String getDescription() {
+        return "file [" + this.file.getAbsolutePath() + "]";
+    }
+
+
+    /**
+     * This implementation compares the underlying File references.
+     */
+    @Override
+    public boolean equals(Object other) {
+        return (this == other || (other instanceof FileSystemResource &&
+                this.path.equals(((FileSystemResource) other).path)));
+    }
+
+    /**
+     * This implementation returns the hash code of the underlying File reference.
+     */
+    @Override
+    public int hashCode() {
+        return this.path.hashCode();
+    }
+
+}
@@ -0,0 +1,34 @@
+package org.microspring.core.io;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+
+public interface MappedResource extends Resource {
+
+    /**
+     * Map the entire content of this resource into memory, read-only.
+     * <p>The returned buffer is backed by the operating system's page cache
+     * rather than the Java heap, so large files can be served or parsed
+     * without copying them through intermediate byte arrays. The mapping
+     * stays valid until the buffer is garbage collected, independent of
+     * any channel used to create it.
+     * @return a read-only buffer over the full resource content
+     * @throws java.io.FileNotFoundException if the underlying resource doesn't exist
+     * @throws IOException if the content is larger than {@link Integer#MAX_VALUE}
+     * bytes or could not be mapped
+     * @see #getMappedByteBuffer(long, long)
+     */
+    MappedByteBuffer getMappedByteBuffer() throws IOException;
+
+    /**
+     * Map a region of this resource's content into memory, read-only.
+     * @param position the position within the content at which the mapped region starts
+     * @param size the size of the region to map (at most {@link Integer#MAX_VALUE})
+     * @return a read-only buffer over the given region
+     * @throws java.io.FileNotFoundException if the underlying resource doesn't exist
+     * @throws IOException if the region could not be mapped
+     * @see java.nio.channels.FileChannel#map
+     */
+    MappedByteBuffer getMappedByteBuffer(long position, long size) throws IOException;
+
+}
@@ -0,0 +1,214 @@
+package org.microspring.core.io;
+
+import org.microspring.lang.Nullable;
+import org.microspring.util.Assert;
+import org.microspring.util.ResourceUtils;
+import org.microspring.util.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLConnection;
+
+public class UrlResource extends AbstractFileResolvingResource {
+
+    /**
+     * Original URI, if available; used for URI and File access.
+     */
+    @Nullable
+    private final URI uri;
+
+    /**
+     * Original URL, used for actual access.
+     */
+    private final URL url;
+
+    /**
+     * Cleaned URL (with normalized path), used for comparisons.
+     */
+    private final URL cleanedUrl;
+
+
+    /**
+     * Create a new {@code UrlResource} based on the given URI object.
+     * @param uri a URI
+     * @throws MalformedURLException if the given URL path is not valid
+     */
+    public UrlResource(URI uri) throws MalformedURLException {
+        Assert.notNull(uri, "URI must not be null");
+        this.uri = uri;
+        this.url = uri.toURL();
+        this.cleanedUrl = getCleanedUrl(this.url, uri.toString());
+    }
+
+    /**
+     * Create a new {@code UrlResource} based on the given URL object.
+     * @param url a URL
+     */
+    public UrlResource(URL url) {
+        Assert.notNull(url, "URL must not be null");
+        this.url = url;
+        this.cleanedUrl = getCleanedUrl(this.url, url.toString());
+        this.uri = null;
+    }
+
+    /**
+     * Create a new {@code UrlResource} based on a URL path.
+     * <p>Note: The given path needs to be pre-encoded if necessary.
+     * @param path a URL path
+     * @throws MalformedURLException if the given URL path is not valid
+     * @see java.net.URL#URL(String)
+     */
+    public UrlResource(String path) throws MalformedURLException {
+        Assert.notNull(path, "Path must not be null");
+        this.uri = null;
+        this.url = new URL(path);
+        this.cleanedUrl = getCleanedUrl(this.url, path);
+    }
+
+
+    /**
+     * Determine a cleaned URL for the given original URL.
+     * @param originalUrl the original URL
+     * @param originalPath the original URL path
+     * @return the cleaned URL (possibly the original URL as-is)
+     * @see StringUtils#cleanPath
+     */
+    private URL getCleanedUrl(URL originalUrl, String originalPath) {
+        String cleanedPath = StringUtils.cleanPath(originalPath);
+        if (!cleanedPath.equals(originalPath)) {
+            try {
+                return new URL(cleanedPath);
+            }
+            catch (MalformedURLException ex) {
+                // Cleaned URL path cannot be converted to URL -> take original URL.
+            }
+        }
+        return originalUrl;
+    }
+
+    /**
+     * This implementation opens an InputStream for the given URL.
+     * <p>It sets the {@code useCaches} flag to {@code false},
+     * mainly to avoid jar file locking on Windows.
+     * @see java.net.URL#openConnection()
+     * @see java.net.URLConnection#setUseCaches(boolean)
+     * @see java.net.URLConnection#getInputStream()
+     */
+    @Override
+    public InputStream getInputStream() throws IOException {
+        URLConnection con = this.url.openConnection();
+        ResourceUtils.useCachesIfNecessary(con);
+        try {
+            return con.getInputStream();
+        }
+        catch (IOException ex) {
+            // Close the HTTP connection (if applicable).
+            if (con instanceof HttpURLConnection) {
+                ((HttpURLConnection) con).disconnect();
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * This implementation returns the underlying URL reference.
+     */
+    @Override
+    public URL getURL() {
+        return this.url;
+    }
+
+    /**
+     * This implementation returns the underlying URI directly,
+     * if possible.
+     */
+    @Override
+    public URI getURI() throws IOException {
+        if (this.uri != null) {
+            return this.uri;
+        }
+        else {
+            return super.getURI();
+        }
+    }
+
+    @Override
+    public boolean isFile() {
+        if (this.uri != null) {
+            return ResourceUtils.URL_PROTOCOL_FILE.equals(this.uri.getScheme());
+        }
+        else {
+            return super.isFile();
+        }
+    }
+
+    /**
+     * This implementation returns a File reference for the underlying URL/URI,
+     * provided that it refers to a file in the file system.
+     * @see ResourceUtils#getFile(java.net.URL, String)
+     */
+    @Override
+    public File getFile() throws IOException {
+        if (this.uri != null) {
+            return super.getFile(this.uri);
+        }
+        else {
+            return super.getFile();
+        }
+    }
+
+    /**
+     * This implementation creates a {@code UrlResource}, applying the given path
+     * relative to the path of the underlying URL of this resource descriptor.
+     * @see java.net.URL#URL(java.net.URL, String)
+     */
+    @Override
+    public Resource createRelative(String relativePath) throws MalformedURLException {
+        if (relativePath.startsWith("/")) {
+            relativePath = relativePath.substring(1);
+        }
+        return new UrlResource(new URL(this.url, relativePath));
+    }
+
+    /**
+     * This implementation returns the name of the file that this URL refers to.
+     * @see java.net.URL#getPath()
+     */
+    @Override
+    @Nullable
+    public String getFilename() {
+        return StringUtils.getFilename(this.cleanedUrl.getPath());
+    }
+
+    /**
+     * This implementation returns a description that includes the URL.
+     */
+    @Override
+    public String getDescription() {
+        return "URL [" + this.url + "]";
+    }
+
+
+    /**
+     * This implementation compares the underlying URL references.
+     */
+    @Override
+    public boolean equals(Object other) {
+        return (this == other || (other instanceof UrlResource &&
+                this.cleanedUrl.toString().equals(((UrlResource) other).cleanedUrl.toString())));
+    }
+
+    /**
+     * This implementation returns the hash code of the underlying URL reference.
+     */
+    @Override
+    public int hashCode() {
+        return this.cleanedUrl.toString().hashCode();
+    }
+
+}
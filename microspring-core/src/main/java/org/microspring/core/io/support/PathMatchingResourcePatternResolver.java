@@ -0,0 +1,614 @@
+package org.microspring.core.io.support;
+
+import org.microspring.core.io.DefaultResourceLoader;
+import org.microspring.core.io.FileSystemResource;
+import org.microspring.core.io.Resource;
+import org.microspring.core.io.ResourceLoader;
+import org.microspring.core.io.UrlResource;
+import org.microspring.lang.Nullable;
+import org.microspring.util.AntPathMatcher;
+import org.microspring.util.Assert;
+import org.microspring.util.PathMatcher;
+import org.microspring.util.ResourceUtils;
+import org.microspring.util.StringUtils;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+public class PathMatchingResourcePatternResolver implements ResourcePatternResolver {
+
+    /**
+     * System property that instructs to ignore build-time resource indexes,
+     * always scanning the class path instead: "microspring.index.ignore".
+     * @see ResourceIndex#INDEX_LOCATION
+     */
+    public static final String IGNORE_INDEX_PROPERTY_NAME = "microspring.index.ignore";
+
+
+    private final ResourceLoader resourceLoader;
+
+    private PathMatcher pathMatcher = new AntPathMatcher();
+
+    /** Sorted entry names per jar file URL, built on first access to each jar. */
+    private final Map<String, JarIndex> jarIndexCache = new ConcurrentHashMap<>(64);
+
+    private boolean useResourceIndex = !Boolean.getBoolean(IGNORE_INDEX_PROPERTY_NAME);
+
+    /** Build-time resource indexes per class path root URL, loaded on first pattern lookup. */
+    @Nullable
+    private volatile Map<String, ResourceIndex> resourceIndexes;
+
+    private final Object resourceIndexMonitor = new Object();
+
+
+    /**
+     * Create a new PathMatchingResourcePatternResolver with a DefaultResourceLoader.
+     * <p>ClassLoader access will happen via the thread context class loader.
+     * @see org.microspring.core.io.DefaultResourceLoader
+     */
+    public PathMatchingResourcePatternResolver() {
+        this.resourceLoader = new DefaultResourceLoader();
+    }
+
+    /**
+     * Create a new PathMatchingResourcePatternResolver.
+     * <p>ClassLoader access will happen via the thread context class loader.
+     * @param resourceLoader the ResourceLoader to load root directories and
+     * actual resources with
+     */
+    public PathMatchingResourcePatternResolver(ResourceLoader resourceLoader) {
+        Assert.notNull(resourceLoader, "ResourceLoader must not be null");
+        this.resourceLoader = resourceLoader;
+    }
+
+    /**
+     * Create a new PathMatchingResourcePatternResolver with a DefaultResourceLoader.
+     * @param classLoader the ClassLoader to load classpath resources with,
+     * or {@code null} for using the thread context class loader
+     * at the time of actual resource access
+     * @see org.microspring.core.io.DefaultResourceLoader
+     */
+    public PathMatchingResourcePatternResolver(@Nullable ClassLoader classLoader) {
+        this.resourceLoader = new DefaultResourceLoader(classLoader);
+    }
+
+
+    /**
+     * Return the ResourceLoader that this pattern resolver works with.
+     */
+    public ResourceLoader getResourceLoader() {
+        return this.resourceLoader;
+    }
+
+    @Override
+    @Nullable
+    public ClassLoader getClassLoader() {
+        return getResourceLoader().getClassLoader();
+    }
+
+    /**
+     * Set the PathMatcher implementation to use for this
+     * resource pattern resolver. Default is AntPathMatcher.
+     * @see org.microspring.util.AntPathMatcher
+     */
+    public void setPathMatcher(PathMatcher pathMatcher) {
+        Assert.notNull(pathMatcher, "PathMatcher must not be null");
+        this.pathMatcher = pathMatcher;
+    }
+
+    /**
+     * Return the PathMatcher that this resource pattern resolver uses.
+     */
+    public PathMatcher getPathMatcher() {
+        return this.pathMatcher;
+    }
+
+    /**
+     * Specify whether {@code classpath*:} patterns should be matched against the
+     * build-time resource indexes ({@value ResourceIndex#INDEX_LOCATION}) of jar
+     * files that provide one, instead of scanning their entries.
+     * <p>Directory class path roots are always scanned: an index in an exploded
+     * build output may be stale, and may list classes that live in another root.
+     * <p>Default is {@code true}, unless the {@link #IGNORE_INDEX_PROPERTY_NAME}
+     * system property is set to "true".
+     */
+    public void setUseResourceIndex(boolean useResourceIndex) {
+        this.useResourceIndex = useResourceIndex;
+        this.resourceIndexes = null;
+    }
+
+    /**
+     * Return whether build-time resource indexes are used for pattern matching.
+     */
+    public boolean isUseResourceIndex() {
+        return this.useResourceIndex;
+    }
+
+    /**
+     * Discard all jar entry indexes built so far and all loaded build-time
+     * resource indexes, forcing them to be re-read on the next pattern lookup.
+     * <p>Indexes of jar files in the file system are rebuilt automatically when
+     * the file's size or last-modified timestamp changes; call this method after
+     * replacing jars that are accessed through other URL schemes.
+     */
+    public void clearCache() {
+        this.jarIndexCache.clear();
+        this.resourceIndexes = null;
+    }
+
+
+    @Override
+    public Resource getResource(String location) {
+        return getResourceLoader().getResource(location);
+    }
+
+    @Override
+    public Resource[] getResources(String locationPattern) throws IOException {
+        Assert.notNull(locationPattern, "Location pattern must not be null");
+        if (locationPattern.startsWith(CLASSPATH_ALL_URL_PREFIX)) {
+            // a class path resource (multiple resources for same name possible)
+            if (getPathMatcher().isPattern(locationPattern.substring(CLASSPATH_ALL_URL_PREFIX.length()))) {
+                // a class path resource pattern
+                return findPathMatchingResources(locationPattern);
+            }
+            else {
+                // all class path resources with the given name
+                return findAllClassPathResources(locationPattern.substring(CLASSPATH_ALL_URL_PREFIX.length()));
+            }
+        }
+        else {
+            // Generally only look for a pattern after a prefix here,
+            // and on Tomcat only after the "*/" separator for its "war:" protocol.
+            int prefixEnd = (locationPattern.startsWith(ResourceUtils.WAR_URL_PREFIX) ?
+                    locationPattern.indexOf(ResourceUtils.WAR_URL_SEPARATOR) + 1 :
+                    locationPattern.indexOf(':') + 1);
+            if (getPathMatcher().isPattern(locationPattern.substring(prefixEnd))) {
+                // a file pattern
+                return findPathMatchingResources(locationPattern);
+            }
+            else {
+                // a single resource with the given name
+                return new Resource[] {getResourceLoader().getResource(locationPattern)};
+            }
+        }
+    }
+
+    /**
+     * Find all class location resources with the given location via the ClassLoader.
+     * @param location the absolute path within the classpath
+     * @return the result as Resource array
+     * @throws IOException in case of I/O errors
+     * @see java.lang.ClassLoader#getResources
+     */
+    protected Resource[] findAllClassPathResources(String location) throws IOException {
+        String path = location;
+        if (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        Set<Resource> result = doFindAllClassPathResources(path);
+        return result.toArray(new Resource[0]);
+    }
+
+    /**
+     * Find all class location resources with the given path via the ClassLoader.
+     * @param path the absolute path within the classpath (never a leading slash)
+     * @return a mutable Set of matching Resource instances
+     */
+    protected Set<Resource> doFindAllClassPathResources(String path) throws IOException {
+        Set<Resource> result = new LinkedHashSet<>(16);
+        ClassLoader cl = getClassLoader();
+        Enumeration<URL> resourceUrls = (cl != null ? cl.getResources(path) : ClassLoader.getSystemResources(path));
+        while (resourceUrls.hasMoreElements()) {
+            URL url = resourceUrls.nextElement();
+            result.add(new UrlResource(url));
+        }
+        if ("".equals(path)) {
+            // The above result is likely to be incomplete, i.e. only containing file system references.
+            // We need to have pointers to each of the jar files on the classpath as well...
+            addClassPathJarRoots(result);
+        }
+        return result;
+    }
+
+    /**
+     * Add the roots of all jar files on the "java.class.path" to the given result,
+     * since {@code ClassLoader.getResources("")} only returns directory roots.
+     * @param result the set of resources to add jar roots to
+     */
+    protected void addClassPathJarRoots(Set<Resource> result) {
+        String javaClassPath = System.getProperty("java.class.path");
+        if (!StringUtils.hasLength(javaClassPath)) {
+            return;
+        }
+        for (String path : StringUtils.delimitedListToStringArray(javaClassPath, File.pathSeparator)) {
+            if (!path.toLowerCase().endsWith(ResourceUtils.JAR_FILE_EXTENSION)) {
+                continue;
+            }
+            try {
+                String fileUrl = new File(path).getAbsoluteFile().toURI().toURL().toString();
+                result.add(new UrlResource(ResourceUtils.JAR_URL_PREFIX + fileUrl + ResourceUtils.JAR_URL_SEPARATOR));
+            }
+            catch (MalformedURLException ex) {
+                // Cannot be represented as a jar URL -> skip this class path entry.
+            }
+        }
+    }
+
+    /**
+     * Find all resources that match the given location pattern via the
+     * Ant-style PathMatcher. Supports resources in jar files and zip files
+     * and in the file system.
+     * @param locationPattern the location pattern to match
+     * @return the result as Resource array
+     * @throws IOException in case of I/O errors
+     * @see #doFindPathMatchingJarResources
+     * @see #doFindPathMatchingFileResources
+     */
+    protected Resource[] findPathMatchingResources(String locationPattern) throws IOException {
+        String rootDirPath = determineRootDir(locationPattern);
+        String subPattern = locationPattern.substring(rootDirPath.length());
+        Resource[] rootDirResources = getResources(rootDirPath);
+        Map<String, ResourceIndex> indexes = Collections.emptyMap();
+        String rootPath = null;
+        if (rootDirPath.startsWith(CLASSPATH_ALL_URL_PREFIX)) {
+            indexes = getResourceIndexes();
+            rootPath = rootDirPath.substring(CLASSPATH_ALL_URL_PREFIX.length());
+            if (rootPath.startsWith("/")) {
+                rootPath = rootPath.substring(1);
+            }
+        }
+        Set<Resource> result = new LinkedHashSet<>(16);
+        for (Resource rootDirResource : rootDirResources) {
+            URL rootDirUrl = rootDirResource.getURL();
+            ResourceIndex resourceIndex = (!indexes.isEmpty() ? findResourceIndex(indexes, rootDirUrl, rootPath) : null);
+            if (resourceIndex != null) {
+                result.addAll(doFindPathMatchingIndexedResources(rootDirResource, resourceIndex, rootPath, subPattern));
+            }
+            else if (ResourceUtils.isJarURL(rootDirUrl)) {
+                result.addAll(doFindPathMatchingJarResources(rootDirResource, rootDirUrl, subPattern));
+            }
+            else {
+                result.addAll(doFindPathMatchingFileResources(rootDirResource, subPattern));
+            }
+        }
+        return result.toArray(new Resource[0]);
+    }
+
+    /**
+     * Determine the root directory for the given location.
+     * <p>Used for determining the starting point for file matching,
+     * resolving the root directory location to a {@code java.io.File}
+     * and passing it into {@code retrieveMatchingFiles}, with the
+     * remainder of the location as pattern.
+     * <p>Will return "/WEB-INF/" for the pattern "/WEB-INF/*.xml",
+     * for example.
+     * @param location the location to check
+     * @return the part of the location that denotes the root directory
+     */
+    protected String determineRootDir(String location) {
+        int prefixEnd = location.indexOf(':') + 1;
+        int rootDirEnd = location.length();
+        while (rootDirEnd > prefixEnd && getPathMatcher().isPattern(location.substring(prefixEnd, rootDirEnd))) {
+            rootDirEnd = location.lastIndexOf('/', rootDirEnd - 2) + 1;
+        }
+        if (rootDirEnd == 0) {
+            rootDirEnd = prefixEnd;
+        }
+        return location.substring(0, rootDirEnd);
+    }
+
+    /**
+     * Find all resources below the given root directory that match the given
+     * sub pattern, using the build-time index of its class path root instead
+     * of opening the jar file or walking the directory.
+     * @param rootDirResource the root directory as Resource
+     * @param resourceIndex the index of the class path root containing the root directory
+     * @param rootPath the path of the root directory within the class path root
+     * @param subPattern the sub pattern to match (below the root directory)
+     * @return a mutable Set of matching Resource instances
+     * @throws IOException in case of I/O errors
+     */
+    protected Set<Resource> doFindPathMatchingIndexedResources(
+            Resource rootDirResource, ResourceIndex resourceIndex, String rootPath, String subPattern)
+            throws IOException {
+
+        Set<Resource> result = new LinkedHashSet<>(8);
+        for (String path : resourceIndex.getPathsStartingWith(rootPath)) {
+            String relativePath = path.substring(rootPath.length());
+            if (getPathMatcher().match(subPattern, relativePath)) {
+                result.add(rootDirResource.createRelative(relativePath));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Return the build-time index of the jar file that contains the given
+     * root directory, if that jar file provides one.
+     */
+    @Nullable
+    private ResourceIndex findResourceIndex(Map<String, ResourceIndex> indexes, URL rootDirUrl, String rootPath) {
+        String url = rootDirUrl.toString();
+        if (!ResourceUtils.isJarURL(rootDirUrl) || !url.endsWith(rootPath)) {
+            return null;
+        }
+        return indexes.get(url.substring(0, url.length() - rootPath.length()));
+    }
+
+    /**
+     * Return the build-time resource indexes of all jar files on the class path,
+     * keyed by the URL of the jar's root, loading them on first access.
+     */
+    private Map<String, ResourceIndex> getResourceIndexes() {
+        Map<String, ResourceIndex> indexes = this.resourceIndexes;
+        if (indexes == null) {
+            synchronized (this.resourceIndexMonitor) {
+                indexes = this.resourceIndexes;
+                if (indexes == null) {
+                    indexes = (this.useResourceIndex ? loadResourceIndexes() : Collections.emptyMap());
+                    this.resourceIndexes = indexes;
+                }
+            }
+        }
+        return indexes;
+    }
+
+    private Map<String, ResourceIndex> loadResourceIndexes() {
+        Map<String, ResourceIndex> indexes = new HashMap<>(16);
+        ClassLoader cl = getClassLoader();
+        try {
+            Enumeration<URL> indexUrls = (cl != null ? cl.getResources(ResourceIndex.INDEX_LOCATION) :
+                    ClassLoader.getSystemResources(ResourceIndex.INDEX_LOCATION));
+            while (indexUrls.hasMoreElements()) {
+                URL indexUrl = indexUrls.nextElement();
+                if (!ResourceUtils.isJarURL(indexUrl)) {
+                    // Only the jar task packages an index, together with what it lists.
+                    continue;
+                }
+                String url = indexUrl.toString();
+                try {
+                    indexes.put(url.substring(0, url.length() - ResourceIndex.INDEX_LOCATION.length()),
+                            ResourceIndex.load(indexUrl));
+                }
+                catch (IOException | IllegalArgumentException ex) {
+                    // Unreadable index -> scan that class path root instead.
+                }
+            }
+        }
+        catch (IOException ex) {
+            // Index lookup failed -> scan all class path roots instead.
+        }
+        return indexes;
+    }
+
+    /**
+     * Find all resources in jar files that match the given location pattern
+     * via the Ant-style PathMatcher.
+     * <p>Matching runs against the in-memory entry index of the jar file, which
+     * is built once per jar; only the range of entries below the root entry path
+     * is visited, located via binary search on the sorted entry names.
+     * @param rootDirResource the root directory as Resource
+     * @param rootDirUrl the pre-resolved root directory URL
+     * @param subPattern the sub pattern to match (below the root directory)
+     * @return a mutable Set of matching Resource instances
+     * @throws IOException in case of I/O errors
+     */
+    protected Set<Resource> doFindPathMatchingJarResources(Resource rootDirResource, URL rootDirUrl, String subPattern)
+            throws IOException {
+
+        String urlFile = rootDirUrl.getFile();
+        int separatorIndex = urlFile.indexOf(ResourceUtils.WAR_URL_SEPARATOR);
+        if (separatorIndex == -1) {
+            separatorIndex = urlFile.indexOf(ResourceUtils.JAR_URL_SEPARATOR);
+        }
+        String jarFileUrl;
+        String rootEntryPath;
+        if (separatorIndex != -1) {
+            jarFileUrl = urlFile.substring(0, separatorIndex);
+            rootEntryPath = urlFile.substring(separatorIndex + 2);  // both separators are 2 chars
+        }
+        else {
+            jarFileUrl = urlFile;
+            rootEntryPath = "";
+        }
+        if (!"".equals(rootEntryPath) && !rootEntryPath.endsWith("/")) {
+            // Root entry path must end with slash to allow for proper matching.
+            // The Sun JRE does not return a slash here, but BEA JRockit does.
+            rootEntryPath = rootEntryPath + "/";
+        }
+
+        JarIndex jarIndex = getJarIndex(jarFileUrl, rootDirUrl);
+        if (jarIndex == null) {
+            return new LinkedHashSet<>();
+        }
+        Set<Resource> result = new LinkedHashSet<>(8);
+        String[] entryNames = jarIndex.entryNames;
+        for (int i = jarIndex.indexOfFirst(rootEntryPath); i < entryNames.length; i++) {
+            String entryPath = entryNames[i];
+            if (!entryPath.startsWith(rootEntryPath)) {
+                break;
+            }
+            String relativePath = entryPath.substring(rootEntryPath.length());
+            if (getPathMatcher().match(subPattern, relativePath)) {
+                result.add(rootDirResource.createRelative(relativePath));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Return the entry index for the given jar file, building it on first access.
+     * <p>For jar files in the file system, a cached index is reused as long as the
+     * file's size and last-modified timestamp are unchanged.
+     * @param jarFileUrl the URL of the jar file itself (without "jar:" prefix)
+     * @param rootDirUrl the original root directory URL, used for jars that
+     * are not located in the file system
+     * @return the jar index, or {@code null} if the jar file does not exist
+     */
+    @Nullable
+    private JarIndex getJarIndex(String jarFileUrl, URL rootDirUrl) throws IOException {
+        File file = null;
+        if (jarFileUrl.startsWith(ResourceUtils.FILE_URL_PREFIX)) {
+            try {
+                file = ResourceUtils.getFile(new URL(jarFileUrl), "Jar URL");
+            }
+            catch (MalformedURLException ex) {
+                // Not a regular file URL -> read through the URL connection instead.
+            }
+        }
+
+        JarIndex jarIndex = this.jarIndexCache.get(jarFileUrl);
+        if (jarIndex != null && (file == null || jarIndex.isCurrent(file))) {
+            return jarIndex;
+        }
+        if (file != null) {
+            if (!file.isFile()) {
+                return null;
+            }
+            long lastModified = file.lastModified();
+            long length = file.length();
+            try (JarFile jarFile = new JarFile(file)) {
+                jarIndex = new JarIndex(jarFile, lastModified, length);
+            }
+        }
+        else {
+            URLConnection con = rootDirUrl.openConnection();
+            if (!(con instanceof JarURLConnection)) {
+                return null;
+            }
+            JarURLConnection jarCon = (JarURLConnection) con;
+            ResourceUtils.useCachesIfNecessary(jarCon);
+            JarFile jarFile;
+            try {
+                jarFile = jarCon.getJarFile();
+            }
+            catch (FileNotFoundException ex) {
+                return null;
+            }
+            try {
+                jarIndex = new JarIndex(jarFile, -1, -1);
+            }
+            finally {
+                if (!jarCon.getUseCaches()) {
+                    jarFile.close();
+                }
+            }
+        }
+        this.jarIndexCache.put(jarFileUrl, jarIndex);
+        return jarIndex;
+    }
+
+    /**
+     * Find all resources in the file system that match the given location pattern
+     * via the Ant-style PathMatcher.
+     * @param rootDirResource the root directory as Resource
+     * @param subPattern the sub pattern to match (below the root directory)
+     * @return a mutable Set of matching Resource instances
+     * @throws IOException in case of I/O errors
+     */
+    protected Set<Resource> doFindPathMatchingFileResources(Resource rootDirResource, String subPattern)
+            throws IOException {
+
+        File rootDir;
+        try {
+            rootDir = rootDirResource.getFile().getAbsoluteFile();
+        }
+        catch (FileNotFoundException ex) {
+            return new LinkedHashSet<>();
+        }
+        Set<Resource> result = new LinkedHashSet<>(8);
+        if (rootDir.isDirectory()) {
+            String fullPattern = StringUtils.replace(rootDir.getAbsolutePath(), File.separator, "/");
+            if (!subPattern.startsWith("/")) {
+                fullPattern += "/";
+            }
+            fullPattern = fullPattern + StringUtils.replace(subPattern, File.separator, "/");
+            retrieveMatchingFiles(fullPattern, rootDir, result);
+        }
+        return result;
+    }
+
+    /**
+     * Recursively retrieve files that match the given pattern,
+     * adding them to the given result set.
+     * @param fullPattern the pattern to match against,
+     * with prepended root directory path
+     * @param dir the current directory
+     * @param result the Set of matching Resource instances to add to
+     */
+    private void retrieveMatchingFiles(String fullPattern, File dir, Set<Resource> result) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files);
+        for (File content : files) {
+            String currPath = StringUtils.replace(content.getAbsolutePath(), File.separator, "/");
+            if (content.isDirectory() && getPathMatcher().matchStart(fullPattern, currPath + "/")) {
+                if (content.canRead()) {
+                    retrieveMatchingFiles(fullPattern, content, result);
+                }
+            }
+            if (getPathMatcher().match(fullPattern, currPath)) {
+                result.add(new FileSystemResource(content));
+            }
+        }
+    }
+
+
+    /**
+     * Lexicographically sorted entry names of a single jar file, so that
+     * all entries below a given root path form one contiguous range.
+     */
+    private static final class JarIndex {
+
+        final String[] entryNames;
+
+        private final long lastModified;
+
+        private final long length;
+
+        JarIndex(JarFile jarFile, long lastModified, long length) {
+            List<String> names = new ArrayList<>(jarFile.size());
+            for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
+                String entryPath = entries.nextElement().getName();
+                names.add(entryPath.startsWith("/") ? entryPath.substring(1) : entryPath);
+            }
+            this.entryNames = names.toArray(new String[0]);
+            Arrays.sort(this.entryNames);
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        boolean isCurrent(File file) {
+            return (file.lastModified() == this.lastModified && file.length() == this.length);
+        }
+
+        /**
+         * Return the index of the first entry that is not smaller than the given
+         * prefix, i.e. the start of the range of entries starting with it.
+         */
+        int indexOfFirst(String prefix) {
+            int index = Arrays.binarySearch(this.entryNames, prefix);
+            return (index >= 0 ? index : -(index + 1));
+        }
+    }
+
+}
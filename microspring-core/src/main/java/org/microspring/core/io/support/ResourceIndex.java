@@ -0,0 +1,187 @@
+package org.microspring.core.io.support;
+
+import org.microspring.util.Assert;
+import org.microspring.util.ResourceUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class ResourceIndex {
+
+    /**
+     * The location of the resource index within a jar file,
+     * as written by {@link ResourceIndexWriter}.
+     */
+    public static final String INDEX_LOCATION = "META-INF/microspring.idx";
+
+    /** Magic number at the start of every index file: "MSIX". */
+    static final int MAGIC = 0x4D534958;
+
+    /** Version of the binary index format. */
+    static final int FORMAT_VERSION = 1;
+
+    /** Size of the fixed header: magic, format version and entry count. */
+    static final int HEADER_SIZE = 12;
+
+
+    /** Index content, only ever accessed through absolute reads. */
+    private final ByteBuffer buffer;
+
+    private final int size;
+
+
+    private ResourceIndex(ByteBuffer buffer, String description) {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a resource index: " + description);
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported resource index version " + buffer.getInt(4) +
+                    " in " + description);
+        }
+        this.buffer = buffer;
+        this.size = buffer.getInt(8);
+    }
+
+
+    /**
+     * Load the resource index at the given URL, typically a jar entry.
+     * <p>The index is read once into a heap buffer of the entry's size; it is
+     * not memory-mapped, since jar entries are usually compressed.
+     * @param url the URL of the index file
+     * @return the loaded index
+     * @throws IOException if the index could not be read
+     * @throws IllegalArgumentException if the content is not a valid resource index
+     */
+    public static ResourceIndex load(URL url) throws IOException {
+        Assert.notNull(url, "URL must not be null");
+        URLConnection con = url.openConnection();
+        ResourceUtils.useCachesIfNecessary(con);
+        try (InputStream is = con.getInputStream()) {
+            long length = con.getContentLengthLong();
+            byte[] content = (length >= 0 && length <= Integer.MAX_VALUE ? readFully(is, (int) length) : readAll(is));
+            return new ResourceIndex(ByteBuffer.wrap(content), url.toString());
+        }
+    }
+
+    private static byte[] readFully(InputStream is, int length) throws IOException {
+        byte[] content = new byte[length];
+        int offset = 0;
+        while (offset < length) {
+            int read = is.read(content, offset, length - offset);
+            if (read == -1) {
+                throw new EOFException("Resource index ends after " + offset + " of " + length + " bytes");
+            }
+            offset += read;
+        }
+        return content;
+    }
+
+    private static byte[] readAll(InputStream is) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        byte[] chunk = new byte[4096];
+        int read;
+        while ((read = is.read(chunk)) != -1) {
+            out.write(chunk, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+
+    /**
+     * Return the number of resource paths in this index.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Return all indexed resource paths starting with the given prefix,
+     * in index order.
+     * <p>Entries are sorted by their UTF-8 bytes, so the matching entries form
+     * a contiguous range that is located via binary search; only the paths in
+     * that range are decoded.
+     * @param prefix the path prefix, e.g. "org/example/" (or "" for all paths)
+     * @return the matching resource paths
+     */
+    public List<String> getPathsStartingWith(String prefix) {
+        byte[] prefixBytes = prefix.getBytes(StandardCharsets.UTF_8);
+        List<String> result = new ArrayList<>();
+        for (int i = indexOfFirst(prefixBytes); i < this.size && startsWith(i, prefixBytes); i++) {
+            result.add(getPath(i));
+        }
+        return result;
+    }
+
+    /**
+     * Return the resource path at the given position of this index.
+     */
+    public String getPath(int index) {
+        Assert.isTrue(index >= 0 && index < this.size, "Index out of bounds");
+        int offset = entryOffset(index);
+        int length = this.buffer.getShort(offset) & 0xFFFF;
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = this.buffer.get(offset + 2 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int indexOfFirst(byte[] prefix) {
+        int low = 0;
+        int high = this.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareTo(mid, prefix) < 0) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private boolean startsWith(int index, byte[] prefix) {
+        int offset = entryOffset(index);
+        int length = this.buffer.getShort(offset) & 0xFFFF;
+        if (length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (this.buffer.get(offset + 2 + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compare the entry at the given position with the given bytes,
+     * as unsigned bytes in lexicographic order.
+     */
+    private int compareTo(int index, byte[] other) {
+        int offset = entryOffset(index);
+        int length = this.buffer.getShort(offset) & 0xFFFF;
+        int common = Math.min(length, other.length);
+        for (int i = 0; i < common; i++) {
+            int diff = (this.buffer.get(offset + 2 + i) & 0xFF) - (other[i] & 0xFF);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length - other.length;
+    }
+
+    private int entryOffset(int index) {
+        return this.buffer.getInt(HEADER_SIZE + index * 4);
+    }
+
+}
@@ -0,0 +1,120 @@
+package org.microspring.core.io.support;
+
+import org.microspring.util.Assert;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+public final class ResourceIndexWriter {
+
+    private ResourceIndexWriter() {
+    }
+
+
+    /**
+     * Write the resource index for the given jar file into that jar file.
+     * <p>Invoked at build time with the assembled jar file as only argument,
+     * e.g. {@code build/libs/microspring-core-1.0.jar}. The index lists every
+     * entry of the jar, including directory entries, the manifest and the
+     * index itself, so that pattern matching against the index finds exactly
+     * what scanning the jar would find.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: ResourceIndexWriter <jar file>");
+        }
+        Path jarFile = Paths.get(args[0]);
+        // Add the entry first, since that may add its parent directory entry as well
+        writeIndexEntry(jarFile, new byte[0]);
+        ByteArrayOutputStream index = new ByteArrayOutputStream(4096);
+        write(collectEntryNames(jarFile), index);
+        writeIndexEntry(jarFile, index.toByteArray());
+    }
+
+    private static void writeIndexEntry(Path jarFile, byte[] content) throws IOException {
+        try (FileSystem jar = FileSystems.newFileSystem(jarFile, (ClassLoader) null)) {
+            Path indexPath = jar.getPath(ResourceIndex.INDEX_LOCATION);
+            Files.createDirectories(indexPath.getParent());
+            Files.write(indexPath, content);
+        }
+    }
+
+    /**
+     * Collect the names of all entries of the given jar file, directory
+     * entries included, without leading slash.
+     */
+    public static Set<String> collectEntryNames(Path jarFile) throws IOException {
+        Set<String> paths = new LinkedHashSet<>(256);
+        try (ZipFile zipFile = new ZipFile(jarFile.toFile())) {
+            for (Enumeration<? extends ZipEntry> entries = zipFile.entries(); entries.hasMoreElements();) {
+                String entryPath = entries.nextElement().getName();
+                paths.add(entryPath.startsWith("/") ? entryPath.substring(1) : entryPath);
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Write a resource index for the given resource paths to the given stream.
+     * <p>Format: magic number, format version and entry count (one int each),
+     * followed by an int offset per entry and the entries themselves as
+     * length-prefixed UTF-8, sorted by their bytes. The stream is not closed.
+     * @param paths the resource paths, relative to the class path root
+     * @param out the stream to write to
+     */
+    public static void write(Collection<String> paths, OutputStream out) throws IOException {
+        Assert.notNull(paths, "Paths must not be null");
+        Assert.notNull(out, "OutputStream must not be null");
+        List<byte[]> entries = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            byte[] bytes = path.getBytes(StandardCharsets.UTF_8);
+            Assert.isTrue(bytes.length <= 0xFFFF, "Resource path too long for index: %s", path);
+            entries.add(bytes);
+        }
+        entries.sort(ResourceIndexWriter::compareUnsigned);
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(ResourceIndex.MAGIC);
+        data.writeInt(ResourceIndex.FORMAT_VERSION);
+        data.writeInt(entries.size());
+        int offset = ResourceIndex.HEADER_SIZE + entries.size() * 4;
+        for (byte[] entry : entries) {
+            data.writeInt(offset);
+            offset += 2 + entry.length;
+        }
+        for (byte[] entry : entries) {
+            data.writeShort(entry.length);
+            data.write(entry);
+        }
+        data.flush();
+    }
+
+    private static int compareUnsigned(byte[] left, byte[] right) {
+        int common = Math.min(left.length, right.length);
+        for (int i = 0; i < common; i++) {
+            int diff = (left[i] & 0xFF) - (right[i] & 0xFF);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return left.length - right.length;
+    }
+
+}
@@ -0,0 +1,227 @@
+package org.microspring.util;
+
+public class AntPathMatcher implements PathMatcher {
+
+    /** Default path separator: "/". */
+    public static final String DEFAULT_PATH_SEPARATOR = "/";
+
+    private static final String DOUBLE_WILDCARD = "**";
+
+
+    private String pathSeparator;
+
+
+    /**
+     * Create a new instance with the {@link #DEFAULT_PATH_SEPARATOR}.
+     */
+    public AntPathMatcher() {
+        this.pathSeparator = DEFAULT_PATH_SEPARATOR;
+    }
+
+    /**
+     * A convenient, alternative constructor to use with a custom path separator.
+     * @param pathSeparator the path separator to use, must not be {@code null}.
+     */
+    public AntPathMatcher(String pathSeparator) {
+        Assert.notNull(pathSeparator, "'pathSeparator' is required");
+        this.pathSeparator = pathSeparator;
+    }
+
+
+    /**
+     * Set the path separator to use for pattern parsing.
+     * <p>Default is "/", as in Ant.
+     */
+    public void setPathSeparator(String pathSeparator) {
+        this.pathSeparator = (pathSeparator != null ? pathSeparator : DEFAULT_PATH_SEPARATOR);
+    }
+
+
+    @Override
+    public boolean isPattern(String path) {
+        return (path.indexOf('*') != -1 || path.indexOf('?') != -1);
+    }
+
+    @Override
+    public boolean match(String pattern, String path) {
+        return doMatch(pattern, path, true);
+    }
+
+    @Override
+    public boolean matchStart(String pattern, String path) {
+        return doMatch(pattern, path, false);
+    }
+
+    /**
+     * Actually match the given {@code path} against the given {@code pattern}.
+     * @param pattern the pattern to match against
+     * @param path the path String to test
+     * @param fullMatch whether a full pattern match is required (else a pattern match
+     * as far as the given base path goes is sufficient)
+     * @return {@code true} if the supplied {@code path} matched, {@code false} if it didn't
+     */
+    protected boolean doMatch(String pattern, String path, boolean fullMatch) {
+        if (path.startsWith(this.pathSeparator) != pattern.startsWith(this.pathSeparator)) {
+            return false;
+        }
+
+        String[] pattDirs = StringUtils.tokenizeToStringArray(pattern, this.pathSeparator, false, true);
+        String[] pathDirs = StringUtils.tokenizeToStringArray(path, this.pathSeparator, false, true);
+
+        int pattIdxStart = 0;
+        int pattIdxEnd = pattDirs.length - 1;
+        int pathIdxStart = 0;
+        int pathIdxEnd = pathDirs.length - 1;
+
+        // Match all elements up to the first **
+        while (pattIdxStart <= pattIdxEnd && pathIdxStart <= pathIdxEnd) {
+            String pattDir = pattDirs[pattIdxStart];
+            if (DOUBLE_WILDCARD.equals(pattDir)) {
+                break;
+            }
+            if (!matchStrings(pattDir, pathDirs[pathIdxStart])) {
+                return false;
+            }
+            pattIdxStart++;
+            pathIdxStart++;
+        }
+
+        if (pathIdxStart > pathIdxEnd) {
+            // Path is exhausted, only match if rest of pattern is * or **'s
+            if (pattIdxStart > pattIdxEnd) {
+                return (pattern.endsWith(this.pathSeparator) == path.endsWith(this.pathSeparator));
+            }
+            if (!fullMatch) {
+                return true;
+            }
+            if (pattIdxStart == pattIdxEnd && pattDirs[pattIdxStart].equals("*") &&
+                    path.endsWith(this.pathSeparator)) {
+                return true;
+            }
+            for (int i = pattIdxStart; i <= pattIdxEnd; i++) {
+                if (!pattDirs[i].equals(DOUBLE_WILDCARD)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        else if (pattIdxStart > pattIdxEnd) {
+            // String not exhausted, but pattern is. Failure.
+            return false;
+        }
+        else if (!fullMatch && DOUBLE_WILDCARD.equals(pattDirs[pattIdxStart])) {
+            // Path start definitely matches due to "**" part in pattern.
+            return true;
+        }
+
+        // up to last '**'
+        while (pattIdxStart <= pattIdxEnd && pathIdxStart <= pathIdxEnd) {
+            String pattDir = pattDirs[pattIdxEnd];
+            if (pattDir.equals(DOUBLE_WILDCARD)) {
+                break;
+            }
+            if (!matchStrings(pattDir, pathDirs[pathIdxEnd])) {
+                return false;
+            }
+            pattIdxEnd--;
+            pathIdxEnd--;
+        }
+        if (pathIdxStart > pathIdxEnd) {
+            // String is exhausted
+            for (int i = pattIdxStart; i <= pattIdxEnd; i++) {
+                if (!pattDirs[i].equals(DOUBLE_WILDCARD)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        while (pattIdxStart != pattIdxEnd && pathIdxStart <= pathIdxEnd) {
+            int patIdxTmp = -1;
+            for (int i = pattIdxStart + 1; i <= pattIdxEnd; i++) {
+                if (pattDirs[i].equals(DOUBLE_WILDCARD)) {
+                    patIdxTmp = i;
+                    break;
+                }
+            }
+            if (patIdxTmp == pattIdxStart + 1) {
+                // '**/**' situation, so skip one
+                pattIdxStart++;
+                continue;
+            }
+            // Find the pattern between padIdxStart & padIdxTmp in str between
+            // strIdxStart & strIdxEnd
+            int patLength = (patIdxTmp - pattIdxStart - 1);
+            int strLength = (pathIdxEnd - pathIdxStart + 1);
+            int foundIdx = -1;
+
+            strLoop:
+            for (int i = 0; i <= strLength - patLength; i++) {
+                for (int j = 0; j < patLength; j++) {
+                    String subPat = pattDirs[pattIdxStart + j + 1];
+                    String subStr = pathDirs[pathIdxStart + i + j];
+                    if (!matchStrings(subPat, subStr)) {
+                        continue strLoop;
+                    }
+                }
+                foundIdx = pathIdxStart + i;
+                break;
+            }
+
+            if (foundIdx == -1) {
+                return false;
+            }
+
+            pattIdxStart = patIdxTmp;
+            pathIdxStart = foundIdx + patLength;
+        }
+
+        for (int i = pattIdxStart; i <= pattIdxEnd; i++) {
+            if (!pattDirs[i].equals(DOUBLE_WILDCARD)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Test whether or not a single path segment matches the given pattern segment,
+     * where '*' means zero or more characters and '?' means exactly one character.
+     * @param pattern the pattern segment to match against
+     * @param str the path segment to test
+     * @return {@code true} if the segment matches, {@code false} otherwise
+     */
+    private static boolean matchStrings(String pattern, String str) {
+        int patternLength = pattern.length();
+        int strLength = str.length();
+        int p = 0;
+        int s = 0;
+        int starIdx = -1;
+        int matchIdx = 0;
+        while (s < strLength) {
+            if (p < patternLength && (pattern.charAt(p) == '?' || pattern.charAt(p) == str.charAt(s))) {
+                p++;
+                s++;
+            }
+            else if (p < patternLength && pattern.charAt(p) == '*') {
+                // Remember the star position and try to match zero characters first
+                starIdx = p++;
+                matchIdx = s;
+            }
+            else if (starIdx != -1) {
+                // Backtrack: let the last star consume one more character
+                p = starIdx + 1;
+                s = ++matchIdx;
+            }
+            else {
+                return false;
+            }
+        }
+        while (p < patternLength && pattern.charAt(p) == '*') {
+            p++;
+        }
+        return (p == patternLength);
+    }
+
+}
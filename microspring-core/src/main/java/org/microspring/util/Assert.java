@@ -7,6 +7,42 @@ import java.util.Map;
 import java.util.function.Supplier;
 
 public abstract class Assert {
+
+    /**
+     * System property that controls whether argument assertions on designated
+     * hot paths are performed: {@code "microspring.assert.hotPaths"}.
+     * <p>Setting it to {@code "false"} skips those assertions, trading early and
+     * descriptive failures for fewer checks per call. Assertions elsewhere are
+     * not affected.
+     * @see #isHotPathAssertionEnabled()
+     */
+    public static final String HOT_PATH_ASSERTIONS_PROPERTY_NAME = "microspring.assert.hotPaths";
+
+    /** Placeholder for arguments in message templates. */
+    private static final String ARGUMENT_PLACEHOLDER = "%s";
+
+    /**
+     * Read once at class initialization, so that the JIT compiler can
+     * eliminate guarded assertions altogether.
+     */
+    private static final boolean hotPathAssertions = !"false".equalsIgnoreCase(getSystemProperty(
+            HOT_PATH_ASSERTIONS_PROPERTY_NAME));
+
+
+    /**
+     * Return whether argument assertions on designated hot paths are to be
+     * performed, as controlled by the {@link #HOT_PATH_ASSERTIONS_PROPERTY_NAME}
+     * system property. Defaults to {@code true}.
+     * <pre class="code">
+     * if (Assert.isHotPathAssertionEnabled()) {
+     *     Assert.notNull(request, "Request must not be null");
+     * }
+     * </pre>
+     */
+    public static boolean isHotPathAssertionEnabled() {
+        return hotPathAssertions;
+    }
+
     /**
      * Assert a boolean expression, throwing an {@code IllegalStateException}
      * if the expression evaluates to {@code false}.
@@ -44,6 +80,43 @@ public abstract class Assert {
         }
     }
 
+    /**
+     * Assert a boolean expression, throwing an {@code IllegalStateException}
+     * if the expression evaluates to {@code false}.
+     * <p>The message is only formatted if the assertion fails, with each
+     * {@code %s} placeholder replaced by the respective argument.
+     * <pre class="code">Assert.state(id == null, "ID for %s must not already be initialized", entity.getName());</pre>
+     * @param expression a boolean expression
+     * @param messageTemplate the exception message to use if the assertion fails,
+     * with a {@code %s} placeholder for the argument
+     * @param arg the argument for the message
+     * @throws IllegalStateException if {@code expression} is {@code false}
+     */
+    public static void state(boolean expression, String messageTemplate, @Nullable Object arg) {
+        if (!expression) {
+            throw new IllegalStateException(format(messageTemplate, arg));
+        }
+    }
+
+    /**
+     * Assert a boolean expression, throwing an {@code IllegalStateException}
+     * if the expression evaluates to {@code false}.
+     * <p>The message is only formatted if the assertion fails, with each
+     * {@code %s} placeholder replaced by the respective argument.
+     * @param expression a boolean expression
+     * @param messageTemplate the exception message to use if the assertion fails,
+     * with {@code %s} placeholders for the arguments
+     * @param arg1 the first argument for the message
+     * @param arg2 the second argument for the message
+     * @throws IllegalStateException if {@code expression} is {@code false}
+     * @see #state(boolean, String, Object)
+     */
+    public static void state(boolean expression, String messageTemplate, @Nullable Object arg1, @Nullable Object arg2) {
+        if (!expression) {
+            throw new IllegalStateException(format(messageTemplate, arg1, arg2));
+        }
+    }
+
     /**
      * Assert a boolean expression, throwing an {@code IllegalStateException}
      * if the expression evaluates to {@code false}.
@@ -86,6 +159,43 @@ public abstract class Assert {
         }
     }
 
+    /**
+     * Assert a boolean expression, throwing an {@code IllegalArgumentException}
+     * if the expression evaluates to {@code false}.
+     * <p>The message is only formatted if the assertion fails, with each
+     * {@code %s} placeholder replaced by the respective argument.
+     * <pre class="code">Assert.isTrue(i &gt; 0, "The value '%s' must be greater than zero", i);</pre>
+     * @param expression a boolean expression
+     * @param messageTemplate the exception message to use if the assertion fails,
+     * with a {@code %s} placeholder for the argument
+     * @param arg the argument for the message
+     * @throws IllegalArgumentException if {@code expression} is {@code false}
+     */
+    public static void isTrue(boolean expression, String messageTemplate, @Nullable Object arg) {
+        if (!expression) {
+            throw new IllegalArgumentException(format(messageTemplate, arg));
+        }
+    }
+
+    /**
+     * Assert a boolean expression, throwing an {@code IllegalArgumentException}
+     * if the expression evaluates to {@code false}.
+     * <p>The message is only formatted if the assertion fails, with each
+     * {@code %s} placeholder replaced by the respective argument.
+     * @param expression a boolean expression
+     * @param messageTemplate the exception message to use if the assertion fails,
+     * with {@code %s} placeholders for the arguments
+     * @param arg1 the first argument for the message
+     * @param arg2 the second argument for the message
+     * @throws IllegalArgumentException if {@code expression} is {@code false}
+     * @see #isTrue(boolean, String, Object)
+     */
+    public static void isTrue(boolean expression, String messageTemplate, @Nullable Object arg1, @Nullable Object arg2) {
+        if (!expression) {
+            throw new IllegalArgumentException(format(messageTemplate, arg1, arg2));
+        }
+    }
+
     /**
      * Assert a boolean expression, throwing an {@code IllegalArgumentException}
      * if the expression evaluates to {@code false}.
@@ -126,6 +236,41 @@ public abstract class Assert {
         }
     }
 
+    /**
+     * Assert that an object is {@code null}.
+     * <p>The message is only formatted if the assertion fails, with each
+     * {@code %s} placeholder replaced by the respective argument.
+     * <pre class="code">Assert.isNull(value, "The value '%s' must be null", value);</pre>
+     * @param object the object to check
+     * @param messageTemplate the exception message to use if the assertion fails,
+     * with a {@code %s} placeholder for the argument
+     * @param arg the argument for the message
+     * @throws IllegalArgumentException if the object is not {@code null}
+     */
+    public static void isNull(@Nullable Object object, String messageTemplate, @Nullable Object arg) {
+        if (object != null) {
+            throw new IllegalArgumentException(format(messageTemplate, arg));
+        }
+    }
+
+    /**
+     * Assert that an object is {@code null}.
+     * <p>The message is only formatted if the assertion fails, with each
+     * {@code %s} placeholder replaced by the respective argument.
+     * @param object the object to check
+     * @param messageTemplate the exception message to use if the assertion fails,
+     * with {@code %s} placeholders for the arguments
+     * @param arg1 the first argument for the message
+     * @param arg2 the second argument for the message
+     * @throws IllegalArgumentException if the object is not {@code null}
+     * @see #isNull(Object, String, Object)
+     */
+    public static void isNull(@Nullable Object object, String messageTemplate, @Nullable Object arg1, @Nullable Object arg2) {
+        if (object != null) {
+            throw new IllegalArgumentException(format(messageTemplate, arg1, arg2));
+        }
+    }
+
     /**
      * Assert that an object is {@code null}.
      * @deprecated as of 4.3.7, in favor of {@link #isNull(Object, String)}
@@ -165,6 +310,41 @@ public abstract class Assert {
         }
     }
 
+    /**
+     * Assert that an object is not {@code null}.
+     * <p>The message is only formatted if the assertion fails, with each
+     * {@code %s} placeholder replaced by the respective argument.
+     * <pre class="code">Assert.notNull(value, "Value for key '%s' must not be null", key);</pre>
+     * @param object the object to check
+     * @param messageTemplate the exception message to use if the assertion fails,
+     * with a {@code %s} placeholder for the argument
+     * @param arg the argument for the message
+     * @throws IllegalArgumentException if the object is {@code null}
+     */
+    public static void notNull(@Nullable Object object, String messageTemplate, @Nullable Object arg) {
+        if (object == null) {
+            throw new IllegalArgumentException(format(messageTemplate, arg));
+        }
+    }
+
+    /**
+     * Assert that an object is not {@code null}.
+     * <p>The message is only formatted if the assertion fails, with each
+     * {@code %s} placeholder replaced by the respective argument.
+     * @param object the object to check
+     * @param messageTemplate the exception message to use if the assertion fails,
+     * with {@code %s} placeholders for the arguments
+     * @param arg1 the first argument for the message
+     * @param arg2 the second argument for the message
+     * @throws IllegalArgumentException if the object is {@code null}
+     * @see #notNull(Object, String, Object)
+     */
+    public static void notNull(@Nullable Object object, String messageTemplate, @Nullable Object arg1, @Nullable Object arg2) {
+        if (object == null) {
+            throw new IllegalArgumentException(format(messageTemplate, arg1, arg2));
+        }
+    }
+
     /**
      * Assert that an object is not {@code null}.
      * @deprecated as of 4.3.7, in favor of {@link #notNull(Object, String)}
@@ -208,6 +388,43 @@ public abstract class Assert {
         }
     }
 
+    /**
+     * Assert that the given String is not empty; that is,
+     * it must not be {@code null} and not the empty String.
+     * <p>The message is only formatted if the assertion fails, with each
+     * {@code %s} placeholder replaced by the respective argument.
+     * <pre class="code">Assert.hasLength(name, "Name for account '%s' must not be empty", account.getId());</pre>
+     * @param text the String to check
+     * @param messageTemplate the exception message to use if the assertion fails,
+     * with a {@code %s} placeholder for the argument
+     * @param arg the argument for the message
+     * @throws IllegalArgumentException if the text is empty
+     */
+    public static void hasLength(@Nullable String text, String messageTemplate, @Nullable Object arg) {
+        if (!StringUtils.hasLength(text)) {
+            throw new IllegalArgumentException(format(messageTemplate, arg));
+        }
+    }
+
+    /**
+     * Assert that the given String is not empty; that is,
+     * it must not be {@code null} and not the empty String.
+     * <p>The message is only formatted if the assertion fails, with each
+     * {@code %s} placeholder replaced by the respective argument.
+     * @param text the String to check
+     * @param messageTemplate the exception message to use if the assertion fails,
+     * with {@code %s} placeholders for the arguments
+     * @param arg1 the first argument for the message
+     * @param arg2 the second argument for the message
+     * @throws IllegalArgumentException if the text is empty
+     * @see #hasLength(String, String, Object)
+     */
+    public static void hasLength(@Nullable String text, String messageTemplate, @Nullable Object arg1, @Nullable Object arg2) {
+        if (!StringUtils.hasLength(text)) {
+            throw new IllegalArgumentException(format(messageTemplate, arg1, arg2));
+        }
+    }
+
     /**
      * Assert that the given String is not empty; that is,
      * it must not be {@code null} and not the empty String.
@@ -253,6 +470,43 @@ public abstract class Assert {
         }
     }
 
+    /**
+     * Assert that the given String contains valid text content; that is, it must not
+     * be {@code null} and must contain at least one non-whitespace character.
+     * <p>The message is only formatted if the assertion fails, with each
+     * {@code %s} placeholder replaced by the respective argument.
+     * <pre class="code">Assert.hasText(name, "Name for account '%s' must not be empty", account.getId());</pre>
+     * @param text the String to check
+     * @param messageTemplate the exception message to use if the assertion fails,
+     * with a {@code %s} placeholder for the argument
+     * @param arg the argument for the message
+     * @throws IllegalArgumentException if the text does not contain valid text content
+     */
+    public static void hasText(@Nullable String text, String messageTemplate, @Nullable Object arg) {
+        if (!StringUtils.hasText(text)) {
+            throw new IllegalArgumentException(format(messageTemplate, arg));
+        }
+    }
+
+    /**
+     * Assert that the given String contains valid text content; that is, it must not
+     * be {@code null} and must contain at least one non-whitespace character.
+     * <p>The message is only formatted if the assertion fails, with each
+     * {@code %s} placeholder replaced by the respective argument.
+     * @param text the String to check
+     * @param messageTemplate the exception message to use if the assertion fails,
+     * with {@code %s} placeholders for the arguments
+     * @param arg1 the first argument for the message
+     * @param arg2 the second argument for the message
+     * @throws IllegalArgumentException if the text does not contain valid text content
+     * @see #hasText(String, String, Object)
+     */
+    public static void hasText(@Nullable String text, String messageTemplate, @Nullable Object arg1, @Nullable Object arg2) {
+        if (!StringUtils.hasText(text)) {
+            throw new IllegalArgumentException(format(messageTemplate, arg1, arg2));
+        }
+    }
+
     /**
      * Assert that the given String contains valid text content; that is, it must not
      * be {@code null} and must contain at least one non-whitespace character.
@@ -635,4 +889,50 @@ public abstract class Assert {
         return (messageSupplier != null ? messageSupplier.get() : null);
     }
 
+    /**
+     * Substitute the given arguments for the {@code %s} placeholders in the
+     * template, in order. Unlike {@link String#format}, this never fails:
+     * surplus arguments are appended in square brackets, and surplus
+     * placeholders are left as they are.
+     */
+    @Nullable
+    private static String format(@Nullable String messageTemplate, Object... args) {
+        if (messageTemplate == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(messageTemplate.length() + 16 * args.length);
+        int start = 0;
+        int argIndex = 0;
+        while (argIndex < args.length) {
+            int placeholder = messageTemplate.indexOf(ARGUMENT_PLACEHOLDER, start);
+            if (placeholder == -1) {
+                break;
+            }
+            sb.append(messageTemplate, start, placeholder);
+            sb.append(ObjectUtils.nullSafeToString(args[argIndex++]));
+            start = placeholder + ARGUMENT_PLACEHOLDER.length();
+        }
+        sb.append(messageTemplate, start, messageTemplate.length());
+        if (argIndex < args.length) {
+            sb.append(" [");
+            sb.append(ObjectUtils.nullSafeToString(args[argIndex++]));
+            while (argIndex < args.length) {
+                sb.append(", ").append(ObjectUtils.nullSafeToString(args[argIndex++]));
+            }
+            sb.append(']');
+        }
+        return sb.toString();
+    }
+
+    @Nullable
+    private static String getSystemProperty(String key) {
+        try {
+            return System.getProperty(key);
+        }
+        catch (SecurityException ex) {
+            // Not allowed to read system properties - keep the default
+            return null;
+        }
+    }
+
 }
@@ -0,0 +1,197 @@
+package org.microspring.util;
+
+import org.microspring.lang.Nullable;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+public abstract class ClassUtils {
+
+    /** The package separator character: {@code '.'}. */
+    private static final char PACKAGE_SEPARATOR = '.';
+
+    /** The path separator character: {@code '/'}. */
+    private static final char PATH_SEPARATOR = '/';
+
+    /**
+     * Map with primitive type as key and corresponding wrapper
+     * type as value, for example: int.class -> Integer.class.
+     */
+    private static final Map<Class<?>, Class<?>> primitiveTypeToWrapperMap = new IdentityHashMap<>(8);
+
+
+    static {
+        primitiveTypeToWrapperMap.put(boolean.class, Boolean.class);
+        primitiveTypeToWrapperMap.put(byte.class, Byte.class);
+        primitiveTypeToWrapperMap.put(char.class, Character.class);
+        primitiveTypeToWrapperMap.put(double.class, Double.class);
+        primitiveTypeToWrapperMap.put(float.class, Float.class);
+        primitiveTypeToWrapperMap.put(int.class, Integer.class);
+        primitiveTypeToWrapperMap.put(long.class, Long.class);
+        primitiveTypeToWrapperMap.put(short.class, Short.class);
+        primitiveTypeToWrapperMap.put(void.class, Void.class);
+    }
+
+
+    /**
+     * Return the default ClassLoader to use: typically the thread context
+     * ClassLoader, if available; the ClassLoader that loaded the ClassUtils
+     * class will be used as fallback.
+     * <p>Call this method if you intend to use the thread context ClassLoader
+     * in a scenario where you clearly prefer a non-null ClassLoader reference:
+     * for example, for class path resource loading (but not necessarily for
+     * {@code Class.forName}, which accepts a {@code null} ClassLoader
+     * reference as well).
+     * @return the default ClassLoader (only {@code null} if even the system
+     * ClassLoader isn't accessible)
+     * @see Thread#getContextClassLoader()
+     * @see ClassLoader#getSystemClassLoader()
+     */
+    @Nullable
+    public static ClassLoader getDefaultClassLoader() {
+        ClassLoader cl = null;
+        try {
+            cl = Thread.currentThread().getContextClassLoader();
+        }
+        catch (Throwable ex) {
+            // Cannot access thread context ClassLoader - falling back...
+        }
+        if (cl == null) {
+            // No thread context class loader -> use class loader of this class.
+            cl = ClassUtils.class.getClassLoader();
+            if (cl == null) {
+                // getClassLoader() returning null indicates the bootstrap ClassLoader
+                try {
+                    cl = ClassLoader.getSystemClassLoader();
+                }
+                catch (Throwable ex) {
+                    // Cannot access system ClassLoader - oh well, maybe the caller can live with null...
+                }
+            }
+        }
+        return cl;
+    }
+
+    /**
+     * Given an input class object, return a string which consists of the
+     * class's package name as a pathname, i.e., all dots ('.') are replaced by
+     * slashes ('/'). Neither a leading nor trailing slash is added. The result
+     * could be concatenated with a slash and the name of a resource and fed
+     * directly to {@code ClassLoader.getResource()}.
+     * @param clazz the input class. A {@code null} value or the default
+     * (empty) package will result in an empty string ("") being returned.
+     * @return a path which represents the package name
+     * @see ClassLoader#getResource
+     * @see Class#getResource
+     */
+    public static String classPackageAsResourcePath(@Nullable Class<?> clazz) {
+        if (clazz == null) {
+            return "";
+        }
+        String className = clazz.getName();
+        int packageEndIndex = className.lastIndexOf(PACKAGE_SEPARATOR);
+        if (packageEndIndex == -1) {
+            return "";
+        }
+        String packageName = className.substring(0, packageEndIndex);
+        return packageName.replace(PACKAGE_SEPARATOR, PATH_SEPARATOR);
+    }
+
+    /**
+     * Check whether the given class is visible in the given ClassLoader.
+     * @param clazz the class to check (typically an interface)
+     * @param classLoader the ClassLoader to check against
+     * (may be {@code null} in which case this method will always return {@code true})
+     */
+    public static boolean isVisible(Class<?> clazz, @Nullable ClassLoader classLoader) {
+        if (classLoader == null) {
+            return true;
+        }
+        try {
+            if (clazz.getClassLoader() == classLoader) {
+                return true;
+            }
+        }
+        catch (SecurityException ex) {
+            // Fall through to loadable check below
+        }
+        if (clazz.isPrimitive()) {
+            return true;
+        }
+        try {
+            return (clazz == Class.forName(clazz.getName(), false, classLoader));
+        }
+        catch (ClassNotFoundException | LinkageError ex) {
+            // Not loadable from the given ClassLoader
+            return false;
+        }
+    }
+
+    /**
+     * Check whether the given class is cache-safe in the given context,
+     * i.e. whether it is loaded by the given ClassLoader or a parent of it.
+     * @param clazz the class to analyze
+     * @param classLoader the ClassLoader to potentially cache metadata in
+     * (may be {@code null} which indicates the system class loader)
+     */
+    public static boolean isCacheSafe(Class<?> clazz, @Nullable ClassLoader classLoader) {
+        Assert.notNull(clazz, "Class must not be null");
+        try {
+            ClassLoader target = clazz.getClassLoader();
+            // Common cases
+            if (target == classLoader || target == null) {
+                return true;
+            }
+            if (classLoader == null) {
+                return false;
+            }
+            // Check for match in ancestors -> positive
+            ClassLoader current = classLoader;
+            while (current != null) {
+                current = current.getParent();
+                if (current == target) {
+                    return true;
+                }
+            }
+            // Check for match in children -> negative
+            while (target != null) {
+                target = target.getParent();
+                if (target == classLoader) {
+                    return false;
+                }
+            }
+        }
+        catch (SecurityException ex) {
+            // Fall through to loadable check below
+        }
+
+        // Fallback for ClassLoaders without parent/child relationship:
+        // safe if same Class can be loaded from given ClassLoader
+        return (classLoader != null && isVisible(clazz, classLoader));
+    }
+
+    /**
+     * Resolve the given class if it is a primitive class,
+     * returning the corresponding primitive wrapper type instead.
+     * @param clazz the class to check
+     * @return the original class, or a primitive wrapper for the original primitive type
+     */
+    public static Class<?> resolvePrimitiveIfNecessary(Class<?> clazz) {
+        Assert.notNull(clazz, "Class must not be null");
+        return (clazz.isPrimitive() && clazz != void.class ? primitiveTypeToWrapperMap.get(clazz) : clazz);
+    }
+
+    /**
+     * Determine if the given type is assignable from the given value,
+     * assuming setting by reflection. Considers primitive wrapper classes
+     * as assignable to the corresponding primitive types.
+     * @param type the target type
+     * @param value the value that should be assigned to the type
+     * @return if the type is assignable from the value
+     */
+    public static boolean isAssignableValue(Class<?> type, @Nullable Object value) {
+        Assert.notNull(type, "Type must not be null");
+        return (value != null ? resolvePrimitiveIfNecessary(type).isInstance(value) : !type.isPrimitive());
+    }
+
+}
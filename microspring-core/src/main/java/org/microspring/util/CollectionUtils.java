@@ -10,7 +10,6 @@ import java.util.Collections;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -433,13 +432,13 @@ public abstract class CollectionUtils {
 
         @Override
         public void add(K key, @Nullable V value) {
-            List<V> values = this.map.computeIfAbsent(key, k -> new LinkedList<>());
+            List<V> values = this.map.computeIfAbsent(key, k -> new ArrayList<>(1));
             values.add(value);
         }
 
         @Override
         public void addAll(K key, List<? extends V> values) {
-            List<V> currentValues = this.map.computeIfAbsent(key, k -> new LinkedList<>());
+            List<V> currentValues = this.map.computeIfAbsent(key, k -> new ArrayList<>(values.size()));
             currentValues.addAll(values);
         }
 
@@ -452,7 +451,7 @@ public abstract class CollectionUtils {
 
         @Override
         public void set(K key, @Nullable V value) {
-            List<V> values = new LinkedList<>();
+            List<V> values = new ArrayList<>(1);
             values.add(value);
             this.map.put(key, values);
         }
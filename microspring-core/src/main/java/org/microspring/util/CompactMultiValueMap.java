@@ -0,0 +1,783 @@
+package org.microspring.util;
+
+import org.microspring.lang.Nullable;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+public class CompactMultiValueMap<V> extends AbstractMap<String, List<V>>
+        implements MultiValueMap<String, V>, Serializable, Cloneable {
+
+    private static final long serialVersionUID = -3727485290917624187L;
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 8;
+
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+
+    private final boolean ignoreCase;
+
+    private transient Node<V>[] table;
+
+    /** First node in insertion order. */
+    @Nullable
+    private transient Node<V> head;
+
+    /** Last node in insertion order. */
+    @Nullable
+    private transient Node<V> tail;
+
+    private transient int size;
+
+    /** Number of additions and removals of keys, for fail-fast iteration. */
+    private transient int modCount;
+
+    @Nullable
+    private transient Set<String> keySet;
+
+    @Nullable
+    private transient Collection<List<V>> values;
+
+    @Nullable
+    private transient Set<Entry<String, List<V>>> entrySet;
+
+
+    /**
+     * Create a new CompactMultiValueMap with case-sensitive keys.
+     */
+    public CompactMultiValueMap() {
+        this(DEFAULT_INITIAL_CAPACITY, false);
+    }
+
+    /**
+     * Create a new CompactMultiValueMap.
+     * @param ignoreCase whether keys are to be matched case-insensitively,
+     * as for HTTP header names
+     */
+    public CompactMultiValueMap(boolean ignoreCase) {
+        this(DEFAULT_INITIAL_CAPACITY, ignoreCase);
+    }
+
+    /**
+     * Create a new CompactMultiValueMap with the given initial capacity.
+     * @param initialCapacity the expected number of keys
+     * @param ignoreCase whether keys are to be matched case-insensitively,
+     * as for HTTP header names
+     */
+    public CompactMultiValueMap(int initialCapacity, boolean ignoreCase) {
+        Assert.isTrue(initialCapacity >= 0, "Initial capacity must not be negative: %s", initialCapacity);
+        this.ignoreCase = ignoreCase;
+        this.table = newTable(tableSizeFor(initialCapacity));
+    }
+
+
+    /**
+     * Return whether keys are matched case-insensitively.
+     * <p>If so, keys are compared via {@link String#equalsIgnoreCase} and
+     * hashed on the fly, without creating lower-case copies; each key
+     * retains the case it was first added with.
+     */
+    public boolean isIgnoreCase() {
+        return this.ignoreCase;
+    }
+
+
+    // MultiValueMap implementation
+
+    @Override
+    @Nullable
+    public V getFirst(String key) {
+        Node<V> node = getNode(key);
+        return (node != null && node.size > 0 ? node.get(0) : null);
+    }
+
+    @Override
+    public void add(String key, @Nullable V value) {
+        getOrCreateNode(key).add(value);
+    }
+
+    @Override
+    public void addAll(String key, List<? extends V> values) {
+        getOrCreateNode(key).addAll(values);
+    }
+
+    @Override
+    public void addAll(MultiValueMap<String, V> values) {
+        values.forEach(this::addAll);
+    }
+
+    @Override
+    public void set(String key, @Nullable V value) {
+        getOrCreateNode(key).reset(value);
+    }
+
+    @Override
+    public void setAll(Map<String, V> values) {
+        values.forEach(this::set);
+    }
+
+    @Override
+    public Map<String, V> toSingleValueMap() {
+        Map<String, V> singleValueMap = new LinkedHashMap<>((int) (this.size / 0.75f) + 1);
+        for (Node<V> node = this.head; node != null; node = node.after) {
+            if (node.size > 0) {
+                singleValueMap.put(node.key, node.get(0));
+            }
+        }
+        return singleValueMap;
+    }
+
+
+    // Map implementation
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return (this.size == 0);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return (getNode(key) != null);
+    }
+
+    /**
+     * Return the values for the given key.
+     * <p>The returned list is backed by this map: changes to it are
+     * reflected in the map and vice versa.
+     */
+    @Override
+    @Nullable
+    public List<V> get(Object key) {
+        return getNode(key);
+    }
+
+    /**
+     * Replace the values for the given key with the given values.
+     * @return a copy of the previous values, or {@code null} if none
+     */
+    @Override
+    @Nullable
+    public List<V> put(String key, List<V> values) {
+        Assert.notNull(values, "Values must not be null");
+        Node<V> node = getNode(key);
+        List<V> previous = null;
+        if (node != null) {
+            previous = node.copy();
+        }
+        else {
+            node = getOrCreateNode(key);
+        }
+        node.replaceWith(values);
+        return previous;
+    }
+
+    @Override
+    @Nullable
+    public List<V> remove(Object key) {
+        Node<V> node = getNode(key);
+        if (node != null) {
+            removeNode(node);
+        }
+        return node;
+    }
+
+    @Override
+    public void clear() {
+        if (this.size > 0) {
+            Arrays.fill(this.table, null);
+            this.head = null;
+            this.tail = null;
+            this.size = 0;
+            this.modCount++;
+        }
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super List<V>> action) {
+        Assert.notNull(action, "Action must not be null");
+        int expectedModCount = this.modCount;
+        for (Node<V> node = this.head; node != null; node = node.after) {
+            action.accept(node.key, node);
+            if (this.modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    @Override
+    public Set<String> keySet() {
+        Set<String> keySet = this.keySet;
+        if (keySet == null) {
+            keySet = new KeySet();
+            this.keySet = keySet;
+        }
+        return keySet;
+    }
+
+    @Override
+    public Collection<List<V>> values() {
+        Collection<List<V>> values = this.values;
+        if (values == null) {
+            values = new Values();
+            this.values = values;
+        }
+        return values;
+    }
+
+    @Override
+    public Set<Entry<String, List<V>>> entrySet() {
+        Set<Entry<String, List<V>>> entrySet = this.entrySet;
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+            this.entrySet = entrySet;
+        }
+        return entrySet;
+    }
+
+    /**
+     * Create a copy of this map, with independent value lists.
+     */
+    @Override
+    public CompactMultiValueMap<V> clone() {
+        CompactMultiValueMap<V> copy = new CompactMultiValueMap<>(this.size, this.ignoreCase);
+        for (Node<V> node = this.head; node != null; node = node.after) {
+            copy.getOrCreateNode(node.key).replaceWith(node);
+        }
+        return copy;
+    }
+
+
+    // Hash table internals
+
+    private int hash(String key) {
+        int h;
+        if (this.ignoreCase) {
+            h = 0;
+            for (int i = 0; i < key.length(); i++) {
+                h = 31 * h + foldCase(key.charAt(i));
+            }
+        }
+        else {
+            h = key.hashCode();
+        }
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Fold the given character the same way as {@link String#equalsIgnoreCase},
+     * so that keys equal ignoring case have equal hashes.
+     */
+    private static char foldCase(char c) {
+        if (c < 128) {
+            return (c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private boolean keyMatches(Node<V> node, int hash, String key) {
+        return (node.hash == hash && (node.key == key ||
+                (this.ignoreCase ? node.key.equalsIgnoreCase(key) : node.key.equals(key))));
+    }
+
+    @Nullable
+    private Node<V> getNode(@Nullable Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        String keyToUse = (String) key;
+        int hash = hash(keyToUse);
+        Node<V> node = this.table[hash & (this.table.length - 1)];
+        while (node != null && !keyMatches(node, hash, keyToUse)) {
+            node = node.next;
+        }
+        return node;
+    }
+
+    private Node<V> getOrCreateNode(String key) {
+        Assert.notNull(key, "Key must not be null");
+        int hash = hash(key);
+        int index = hash & (this.table.length - 1);
+        for (Node<V> node = this.table[index]; node != null; node = node.next) {
+            if (keyMatches(node, hash, key)) {
+                return node;
+            }
+        }
+        Node<V> node = new Node<>(key, hash);
+        node.next = this.table[index];
+        this.table[index] = node;
+        node.before = this.tail;
+        if (this.tail != null) {
+            this.tail.after = node;
+        }
+        else {
+            this.head = node;
+        }
+        this.tail = node;
+        this.size++;
+        this.modCount++;
+        if (this.size > this.table.length - (this.table.length >>> 2) && this.table.length < MAXIMUM_CAPACITY) {
+            resize(this.table.length << 1);
+        }
+        return node;
+    }
+
+    private void removeNode(Node<V> node) {
+        int index = node.hash & (this.table.length - 1);
+        Node<V> current = this.table[index];
+        if (current == node) {
+            this.table[index] = node.next;
+        }
+        else {
+            while (current.next != node) {
+                current = current.next;
+            }
+            current.next = node.next;
+        }
+        if (node.before != null) {
+            node.before.after = node.after;
+        }
+        else {
+            this.head = node.after;
+        }
+        if (node.after != null) {
+            node.after.before = node.before;
+        }
+        else {
+            this.tail = node.before;
+        }
+        node.next = null;
+        node.before = null;
+        node.after = null;
+        this.size--;
+        this.modCount++;
+    }
+
+    private void resize(int newCapacity) {
+        Node<V>[] newTable = newTable(newCapacity);
+        for (Node<V> node = this.head; node != null; node = node.after) {
+            int index = node.hash & (newCapacity - 1);
+            node.next = newTable[index];
+            newTable[index] = node;
+        }
+        this.table = newTable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Node<V>[] newTable(int capacity) {
+        return (Node<V>[]) new Node<?>[capacity];
+    }
+
+    /**
+     * Return the power-of-two table size that holds the given number of
+     * keys without exceeding a load factor of 0.75.
+     */
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = 2;
+        while (capacity - (capacity >>> 2) < expectedSize && capacity < MAXIMUM_CAPACITY) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+
+    // Serialization support
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(this.size);
+        for (Node<V> node = this.head; node != null; node = node.after) {
+            out.writeObject(node.key);
+            out.writeInt(node.size);
+            for (int i = 0; i < node.size; i++) {
+                out.writeObject(node.get(i));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int size = in.readInt();
+        this.table = newTable(tableSizeFor(size));
+        for (int i = 0; i < size; i++) {
+            Node<V> node = getOrCreateNode((String) in.readObject());
+            int valueCount = in.readInt();
+            for (int j = 0; j < valueCount; j++) {
+                node.add((V) in.readObject());
+            }
+        }
+    }
+
+
+    /**
+     * A key's entry in the hash table, doubling as the list of its values.
+     * <p>A single value is held inline; an array is only allocated once a
+     * second value gets added.
+     */
+    private static final class Node<V> extends AbstractList<V> implements RandomAccess {
+
+        final String key;
+
+        final int hash;
+
+        /** Next node in the same bucket. */
+        @Nullable
+        Node<V> next;
+
+        @Nullable
+        Node<V> before;
+
+        @Nullable
+        Node<V> after;
+
+        /** The only value while {@link #elements} is {@code null}. */
+        @Nullable
+        V value;
+
+        @Nullable
+        Object[] elements;
+
+        int size;
+
+        Node(String key, int hash) {
+            this.key = key;
+            this.hash = hash;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V get(int index) {
+            checkIndex(index);
+            return (this.elements != null ? (V) this.elements[index] : this.value);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V set(int index, V element) {
+            checkIndex(index);
+            V previous;
+            if (this.elements != null) {
+                previous = (V) this.elements[index];
+                this.elements[index] = element;
+            }
+            else {
+                previous = this.value;
+                this.value = element;
+            }
+            return previous;
+        }
+
+        @Override
+        public void add(int index, V element) {
+            if (index < 0 || index > this.size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+            }
+            if (this.elements == null && this.size == 0) {
+                this.value = element;
+            }
+            else {
+                if (this.elements == null) {
+                    this.elements = new Object[4];
+                    this.elements[0] = this.value;
+                    this.value = null;
+                }
+                else if (this.size == this.elements.length) {
+                    this.elements = Arrays.copyOf(this.elements, this.size << 1);
+                }
+                System.arraycopy(this.elements, index, this.elements, index + 1, this.size - index);
+                this.elements[index] = element;
+            }
+            this.size++;
+            this.modCount++;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V remove(int index) {
+            checkIndex(index);
+            V previous;
+            if (this.elements != null) {
+                previous = (V) this.elements[index];
+                System.arraycopy(this.elements, index + 1, this.elements, index, this.size - index - 1);
+                this.elements[this.size - 1] = null;
+            }
+            else {
+                previous = this.value;
+                this.value = null;
+            }
+            this.size--;
+            this.modCount++;
+            return previous;
+        }
+
+        @Override
+        public void clear() {
+            this.value = null;
+            this.elements = null;
+            this.size = 0;
+            this.modCount++;
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+
+        void reset(@Nullable V element) {
+            this.value = element;
+            this.elements = null;
+            this.size = 1;
+            this.modCount++;
+        }
+
+        void replaceWith(List<? extends V> values) {
+            Object[] newElements = values.toArray();
+            if (newElements.getClass() != Object[].class) {
+                newElements = Arrays.copyOf(newElements, newElements.length, Object[].class);
+            }
+            if (newElements.length == 1) {
+                reset(values.get(0));
+            }
+            else {
+                this.value = null;
+                this.elements = (newElements.length > 0 ? newElements : null);
+                this.size = newElements.length;
+                this.modCount++;
+            }
+        }
+
+        List<V> copy() {
+            return new ArrayList<>(this);
+        }
+
+        private void checkIndex(int index) {
+            if (index < 0 || index >= this.size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+            }
+        }
+    }
+
+
+    /**
+     * Iterates over the nodes in insertion order.
+     */
+    private abstract class NodeIterator<T> implements Iterator<T> {
+
+        @Nullable
+        private Node<V> next = head;
+
+        @Nullable
+        private Node<V> last;
+
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return (this.next != null);
+        }
+
+        protected Node<V> nextNode() {
+            if (modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            Node<V> node = this.next;
+            if (node == null) {
+                throw new NoSuchElementException();
+            }
+            this.next = node.after;
+            this.last = node;
+            return node;
+        }
+
+        @Override
+        public void remove() {
+            if (this.last == null) {
+                throw new IllegalStateException("No current element");
+            }
+            if (modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeNode(this.last);
+            this.last = null;
+            this.expectedModCount = modCount;
+        }
+    }
+
+
+    private class KeySet extends AbstractSet<String> {
+
+        @Override
+        public Iterator<String> iterator() {
+            return new NodeIterator<String>() {
+                @Override
+                public String next() {
+                    return nextNode().key;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return (CompactMultiValueMap.this.remove(o) != null);
+        }
+
+        @Override
+        public void clear() {
+            CompactMultiValueMap.this.clear();
+        }
+    }
+
+
+    private class Values extends AbstractCollection<List<V>> {
+
+        @Override
+        public Iterator<List<V>> iterator() {
+            return new NodeIterator<List<V>>() {
+                @Override
+                public List<V> next() {
+                    return nextNode();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            CompactMultiValueMap.this.clear();
+        }
+    }
+
+
+    private class EntrySet extends AbstractSet<Entry<String, List<V>>> {
+
+        @Override
+        public Iterator<Entry<String, List<V>>> iterator() {
+            return new NodeIterator<Entry<String, List<V>>>() {
+                @Override
+                public Entry<String, List<V>> next() {
+                    return new NodeEntry(nextNode());
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            Node<V> node = getNode(entry.getKey());
+            return (node != null && node.equals(entry.getValue()));
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            removeNode(getNode(((Entry<?, ?>) o).getKey()));
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            CompactMultiValueMap.this.clear();
+        }
+    }
+
+
+    /**
+     * Entry view of a node, writing values through to the map.
+     */
+    private class NodeEntry implements Entry<String, List<V>> {
+
+        private final Node<V> node;
+
+        NodeEntry(Node<V> node) {
+            this.node = node;
+        }
+
+        @Override
+        public String getKey() {
+            return this.node.key;
+        }
+
+        @Override
+        public List<V> getValue() {
+            return this.node;
+        }
+
+        @Override
+        public List<V> setValue(List<V> value) {
+            Assert.notNull(value, "Values must not be null");
+            List<V> previous = this.node.copy();
+            this.node.replaceWith(value);
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> otherEntry = (Entry<?, ?>) other;
+            return (this.node.key.equals(otherEntry.getKey()) && this.node.equals(otherEntry.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            return this.node.key.hashCode() ^ this.node.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return this.node.key + "=" + this.node;
+        }
+    }
+
+}
@@ -0,0 +1,214 @@
+package org.microspring.util;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class LatencyHistogram {
+
+    /** Number of bits for the linear sub-buckets within each power of two. */
+    private static final int SUB_BUCKET_BITS = 4;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Highest value with its own bucket: about 68 seconds when recording nanoseconds.
+     * Higher values are counted in the last bucket.
+     */
+    public static final long HIGHEST_TRACKABLE_VALUE = (1L << 36) - 1;
+
+    /** Resolution of percentiles: 1 / 10000 of a percent. */
+    private static final long PERCENTILE_SCALE = 1_000_000;
+
+    private static final int BUCKET_COUNT = bucketIndex(HIGHEST_TRACKABLE_VALUE) + 1;
+
+
+    /** Recorded counts per bucket, each striped across cells under contention. */
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+
+    private final LongAdder totalValue = new LongAdder();
+
+    private final LongAccumulator maxValue = new LongAccumulator(Math::max, 0);
+
+
+    /**
+     * Create a new, empty histogram.
+     * <p>Uses the log-linear bucket layout of an HDR histogram: values below 32
+     * are tracked exactly, higher values with 16 linear buckets per power of two,
+     * i.e. with a relative error of at most 6.25%.
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < this.buckets.length; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+    }
+
+
+    /**
+     * Record the given value, typically a duration in nanoseconds.
+     * <p>Lock-free and allocation-free once the striped cells of the affected
+     * counters exist, so that concurrent recording threads do not contend on
+     * a single memory location. Negative values are recorded as 0.
+     * @param value the value to record
+     */
+    public void record(long value) {
+        long valueToRecord = Math.max(value, 0);
+        this.buckets[bucketIndex(Math.min(valueToRecord, HIGHEST_TRACKABLE_VALUE))].increment();
+        this.totalValue.add(valueToRecord);
+        this.maxValue.accumulate(valueToRecord);
+    }
+
+    /**
+     * Take a snapshot of the values recorded so far.
+     * <p>Each counter is read atomically but not all counters at once: values
+     * recorded concurrently may or may not be included, and may be included in
+     * some counters only. Count and percentiles are derived from the same bucket
+     * counts, whereas the total behind the mean and the maximum are read
+     * separately and may be slightly ahead of or behind them.
+     * @return the snapshot
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[this.buckets.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = this.buckets[i].sum();
+        }
+        return new Snapshot(counts, this.totalValue.sum(), this.maxValue.get());
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index >> SUB_BUCKET_BITS) - 1;
+        long lowestValue = (long) ((index & (SUB_BUCKET_COUNT - 1)) + SUB_BUCKET_COUNT) << shift;
+        return lowestValue + (1L << shift) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram: " + snapshot();
+    }
+
+
+    /**
+     * Immutable view of the values recorded in a {@link LatencyHistogram}
+     * at the time of {@link LatencyHistogram#snapshot()}.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+
+        private final long count;
+
+        private final long totalValue;
+
+        private final long maxValue;
+
+        private Snapshot(long[] counts, long totalValue, long maxValue) {
+            long count = 0;
+            for (long bucketCount : counts) {
+                count += bucketCount;
+            }
+            this.counts = counts;
+            this.count = count;
+            this.totalValue = totalValue;
+            this.maxValue = maxValue;
+        }
+
+        /**
+         * Return the number of recorded values.
+         */
+        public long getCount() {
+            return this.count;
+        }
+
+        /**
+         * Return the mean of the recorded values, or 0 if none.
+         */
+        public double getMean() {
+            return (this.count > 0 ? (double) this.totalValue / this.count : 0);
+        }
+
+        /**
+         * Return the highest recorded value, or 0 if none.
+         */
+        public long getMax() {
+            return this.maxValue;
+        }
+
+        /**
+         * Return the value below or at which the given percentage of the
+         * recorded values fall.
+         * <p>The value is the upper bound of the bucket holding that rank,
+         * capped at the highest recorded value, so it never understates the
+         * actual value by more than the histogram's precision. The percentile
+         * is taken into account up to four decimal places.
+         * @param percentile the percentile, between 0 and 100
+         * @return the value at the percentile, or 0 if no values were recorded
+         */
+        public long getValueAtPercentile(double percentile) {
+            Assert.isTrue(percentile >= 0 && percentile <= 100, "Percentile must be between 0 and 100: %s", percentile);
+            if (this.count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, rank(percentile, this.count));
+            long cumulativeCount = 0;
+            for (int i = 0; i < this.counts.length; i++) {
+                cumulativeCount += this.counts[i];
+                if (cumulativeCount >= rank) {
+                    return Math.min(highestEquivalentValue(i), this.maxValue);
+                }
+            }
+            return Math.min(highestEquivalentValue(this.counts.length - 1), this.maxValue);
+        }
+
+        /**
+         * Return {@code ceil(percentile / 100 * count)} in integer arithmetic,
+         * since e.g. {@code 99.9 / 100 * 1000} yields slightly more than 999.
+         */
+        private static long rank(double percentile, long count) {
+            long scaledPercentile = Math.round(percentile * (PERCENTILE_SCALE / 100));
+            long remainder = (count % PERCENTILE_SCALE) * scaledPercentile;
+            return (count / PERCENTILE_SCALE) * scaledPercentile +
+                    (remainder + PERCENTILE_SCALE - 1) / PERCENTILE_SCALE;
+        }
+
+        /**
+         * Return the median of the recorded values.
+         * @see #getValueAtPercentile
+         */
+        public long get50thPercentile() {
+            return getValueAtPercentile(50);
+        }
+
+        /**
+         * Return the 99th percentile of the recorded values.
+         * @see #getValueAtPercentile
+         */
+        public long get99thPercentile() {
+            return getValueAtPercentile(99);
+        }
+
+        /**
+         * Return the 99.9th percentile of the recorded values.
+         * @see #getValueAtPercentile
+         */
+        public long get999thPercentile() {
+            return getValueAtPercentile(99.9);
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + this.count + ", mean=" + (long) getMean() + ", p50=" + get50thPercentile() +
+                    ", p99=" + get99thPercentile() + ", p999=" + get999thPercentile() + ", max=" + this.maxValue;
+        }
+    }
+
+}
@@ -5,6 +5,7 @@ import org.microspring.lang.Nullable;
 import java.lang.reflect.Array;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -19,6 +20,25 @@ public abstract class ObjectUtils {
     private static final String EMPTY_ARRAY = ARRAY_START + ARRAY_END;
     private static final String ARRAY_ELEMENT_SEPARATOR = ", ";
 
+    /**
+     * Map with primitive array class as key and corresponding element kind
+     * as value, so that array arguments are dispatched with a single lookup
+     * instead of a chain of {@code instanceof} checks.
+     */
+    private static final Map<Class<?>, ArrayType> primitiveArrayTypeMap = new IdentityHashMap<>(16);
+
+
+    static {
+        primitiveArrayTypeMap.put(boolean[].class, ArrayType.BOOLEAN);
+        primitiveArrayTypeMap.put(byte[].class, ArrayType.BYTE);
+        primitiveArrayTypeMap.put(char[].class, ArrayType.CHAR);
+        primitiveArrayTypeMap.put(double[].class, ArrayType.DOUBLE);
+        primitiveArrayTypeMap.put(float[].class, ArrayType.FLOAT);
+        primitiveArrayTypeMap.put(int[].class, ArrayType.INT);
+        primitiveArrayTypeMap.put(long[].class, ArrayType.LONG);
+        primitiveArrayTypeMap.put(short[].class, ArrayType.SHORT);
+    }
+
 
     /**
      * Return whether the given throwable is a checked exception:
@@ -288,13 +308,11 @@ public abstract class ObjectUtils {
         if (o1 == null || o2 == null) {
             return false;
         }
-        if (o1.equals(o2)) {
-            return true;
-        }
-        if (o1.getClass().isArray() && o2.getClass().isArray()) {
-            return arrayEquals(o1, o2);
+        if (!o1.getClass().isArray()) {
+            return o1.equals(o2);
         }
-        return false;
+        // Arrays only equal themselves, which has been checked above
+        return (o2.getClass().isArray() && arrayEquals(o1, o2));
     }
 
     /**
@@ -307,34 +325,31 @@ public abstract class ObjectUtils {
      * @see java.util.Arrays#equals
      */
     private static boolean arrayEquals(Object o1, Object o2) {
-        if (o1 instanceof Object[] && o2 instanceof Object[]) {
-            return Arrays.equals((Object[]) o1, (Object[]) o2);
-        }
-        if (o1 instanceof boolean[] && o2 instanceof boolean[]) {
-            return Arrays.equals((boolean[]) o1, (boolean[]) o2);
-        }
-        if (o1 instanceof byte[] && o2 instanceof byte[]) {
-            return Arrays.equals((byte[]) o1, (byte[]) o2);
-        }
-        if (o1 instanceof char[] && o2 instanceof char[]) {
-            return Arrays.equals((char[]) o1, (char[]) o2);
+        ArrayType type = arrayType(o1);
+        if (type == ArrayType.OBJECT) {
+            return (o2 instanceof Object[] && Arrays.equals((Object[]) o1, (Object[]) o2));
         }
-        if (o1 instanceof double[] && o2 instanceof double[]) {
-            return Arrays.equals((double[]) o1, (double[]) o2);
-        }
-        if (o1 instanceof float[] && o2 instanceof float[]) {
-            return Arrays.equals((float[]) o1, (float[]) o2);
-        }
-        if (o1 instanceof int[] && o2 instanceof int[]) {
-            return Arrays.equals((int[]) o1, (int[]) o2);
-        }
-        if (o1 instanceof long[] && o2 instanceof long[]) {
-            return Arrays.equals((long[]) o1, (long[]) o2);
+        if (o1.getClass() != o2.getClass()) {
+            return false;
         }
-        if (o1 instanceof short[] && o2 instanceof short[]) {
-            return Arrays.equals((short[]) o1, (short[]) o2);
+        switch (type) {
+            case BOOLEAN:
+                return Arrays.equals((boolean[]) o1, (boolean[]) o2);
+            case BYTE:
+                return PrimitiveArrays.equals((byte[]) o1, (byte[]) o2);
+            case CHAR:
+                return Arrays.equals((char[]) o1, (char[]) o2);
+            case DOUBLE:
+                return Arrays.equals((double[]) o1, (double[]) o2);
+            case FLOAT:
+                return Arrays.equals((float[]) o1, (float[]) o2);
+            case INT:
+                return PrimitiveArrays.equals((int[]) o1, (int[]) o2);
+            case LONG:
+                return PrimitiveArrays.equals((long[]) o1, (long[]) o2);
+            default:
+                return Arrays.equals((short[]) o1, (short[]) o2);
         }
-        return false;
     }
 
     /**
@@ -358,36 +373,29 @@ public abstract class ObjectUtils {
         if (obj == null) {
             return 0;
         }
-        if (obj.getClass().isArray()) {
-            if (obj instanceof Object[]) {
+        if (!obj.getClass().isArray()) {
+            return obj.hashCode();
+        }
+        switch (arrayType(obj)) {
+            case OBJECT:
                 return nullSafeHashCode((Object[]) obj);
-            }
-            if (obj instanceof boolean[]) {
+            case BOOLEAN:
                 return nullSafeHashCode((boolean[]) obj);
-            }
-            if (obj instanceof byte[]) {
+            case BYTE:
                 return nullSafeHashCode((byte[]) obj);
-            }
-            if (obj instanceof char[]) {
+            case CHAR:
                 return nullSafeHashCode((char[]) obj);
-            }
-            if (obj instanceof double[]) {
+            case DOUBLE:
                 return nullSafeHashCode((double[]) obj);
-            }
-            if (obj instanceof float[]) {
+            case FLOAT:
                 return nullSafeHashCode((float[]) obj);
-            }
-            if (obj instanceof int[]) {
+            case INT:
                 return nullSafeHashCode((int[]) obj);
-            }
-            if (obj instanceof long[]) {
+            case LONG:
                 return nullSafeHashCode((long[]) obj);
-            }
-            if (obj instanceof short[]) {
+            default:
                 return nullSafeHashCode((short[]) obj);
-            }
         }
-        return obj.hashCode();
     }
 
     /**
@@ -425,14 +433,7 @@ public abstract class ObjectUtils {
      * If {@code array} is {@code null}, this method returns 0.
      */
     public static int nullSafeHashCode(@Nullable byte[] array) {
-        if (array == null) {
-            return 0;
-        }
-        int hash = INITIAL_HASH;
-        for (byte element : array) {
-            hash = MULTIPLIER * hash + element;
-        }
-        return hash;
+        return PrimitiveArrays.hashCode(array);
     }
 
     /**
@@ -485,14 +486,7 @@ public abstract class ObjectUtils {
      * If {@code array} is {@code null}, this method returns 0.
      */
     public static int nullSafeHashCode(@Nullable int[] array) {
-        if (array == null) {
-            return 0;
-        }
-        int hash = INITIAL_HASH;
-        for (int element : array) {
-            hash = MULTIPLIER * hash + element;
-        }
-        return hash;
+        return PrimitiveArrays.hashCode(array);
     }
 
     /**
@@ -500,14 +494,7 @@ public abstract class ObjectUtils {
      * If {@code array} is {@code null}, this method returns 0.
      */
     public static int nullSafeHashCode(@Nullable long[] array) {
-        if (array == null) {
-            return 0;
-        }
-        int hash = INITIAL_HASH;
-        for (long element : array) {
-            hash = MULTIPLIER * hash + Long.hashCode(element);
-        }
-        return hash;
+        return PrimitiveArrays.hashCode(array);
     }
 
     /**
@@ -628,32 +615,27 @@ public abstract class ObjectUtils {
         if (obj instanceof String) {
             return (String) obj;
         }
-        if (obj instanceof Object[]) {
-            return nullSafeToString((Object[]) obj);
-        }
-        if (obj instanceof boolean[]) {
-            return nullSafeToString((boolean[]) obj);
-        }
-        if (obj instanceof byte[]) {
-            return nullSafeToString((byte[]) obj);
-        }
-        if (obj instanceof char[]) {
-            return nullSafeToString((char[]) obj);
-        }
-        if (obj instanceof double[]) {
-            return nullSafeToString((double[]) obj);
-        }
-        if (obj instanceof float[]) {
-            return nullSafeToString((float[]) obj);
-        }
-        if (obj instanceof int[]) {
-            return nullSafeToString((int[]) obj);
-        }
-        if (obj instanceof long[]) {
-            return nullSafeToString((long[]) obj);
-        }
-        if (obj instanceof short[]) {
-            return nullSafeToString((short[]) obj);
+        if (obj.getClass().isArray()) {
+            switch (arrayType(obj)) {
+                case OBJECT:
+                    return nullSafeToString((Object[]) obj);
+                case BOOLEAN:
+                    return nullSafeToString((boolean[]) obj);
+                case BYTE:
+                    return nullSafeToString((byte[]) obj);
+                case CHAR:
+                    return nullSafeToString((char[]) obj);
+                case DOUBLE:
+                    return nullSafeToString((double[]) obj);
+                case FLOAT:
+                    return nullSafeToString((float[]) obj);
+                case INT:
+                    return nullSafeToString((int[]) obj);
+                case LONG:
+                    return nullSafeToString((long[]) obj);
+                default:
+                    return nullSafeToString((short[]) obj);
+            }
         }
         String str = obj.toString();
         return (str != null ? str : EMPTY_STRING);
@@ -732,25 +714,7 @@ public abstract class ObjectUtils {
      * @return a String representation of {@code array}
      */
     public static String nullSafeToString(@Nullable byte[] array) {
-        if (array == null) {
-            return NULL_STRING;
-        }
-        int length = array.length;
-        if (length == 0) {
-            return EMPTY_ARRAY;
-        }
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < length; i++) {
-            if (i == 0) {
-                sb.append(ARRAY_START);
-            }
-            else {
-                sb.append(ARRAY_ELEMENT_SEPARATOR);
-            }
-            sb.append(array[i]);
-        }
-        sb.append(ARRAY_END);
-        return sb.toString();
+        return PrimitiveArrays.toString(array);
     }
 
     /**
@@ -858,25 +822,7 @@ public abstract class ObjectUtils {
      * @return a String representation of {@code array}
      */
     public static String nullSafeToString(@Nullable int[] array) {
-        if (array == null) {
-            return NULL_STRING;
-        }
-        int length = array.length;
-        if (length == 0) {
-            return EMPTY_ARRAY;
-        }
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < length; i++) {
-            if (i == 0) {
-                sb.append(ARRAY_START);
-            }
-            else {
-                sb.append(ARRAY_ELEMENT_SEPARATOR);
-            }
-            sb.append(array[i]);
-        }
-        sb.append(ARRAY_END);
-        return sb.toString();
+        return PrimitiveArrays.toString(array);
     }
 
     /**
@@ -889,25 +835,7 @@ public abstract class ObjectUtils {
      * @return a String representation of {@code array}
      */
     public static String nullSafeToString(@Nullable long[] array) {
-        if (array == null) {
-            return NULL_STRING;
-        }
-        int length = array.length;
-        if (length == 0) {
-            return EMPTY_ARRAY;
-        }
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < length; i++) {
-            if (i == 0) {
-                sb.append(ARRAY_START);
-            }
-            else {
-                sb.append(ARRAY_ELEMENT_SEPARATOR);
-            }
-            sb.append(array[i]);
-        }
-        sb.append(ARRAY_END);
-        return sb.toString();
+        return PrimitiveArrays.toString(array);
     }
 
     /**
@@ -941,4 +869,23 @@ public abstract class ObjectUtils {
         return sb.toString();
     }
 
+
+    /**
+     * Determine the element kind of the given array.
+     * @param array an array, either an Object array or a primitive array
+     */
+    private static ArrayType arrayType(Object array) {
+        ArrayType type = primitiveArrayTypeMap.get(array.getClass());
+        return (type != null ? type : ArrayType.OBJECT);
+    }
+
+
+    /**
+     * Element kinds of arrays, as dispatched on by the array-aware methods.
+     */
+    private enum ArrayType {
+
+        OBJECT, BOOLEAN, BYTE, CHAR, DOUBLE, FLOAT, INT, LONG, SHORT
+    }
+
 }
@@ -0,0 +1,63 @@
+package org.microspring.util;
+
+import org.microspring.lang.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+final class ParseCache<V> {
+
+    private final String name;
+
+    private final int limit;
+
+    /** Pre-parsed values for common keys, not counted against the limit. */
+    private final Map<String, V> interned = new ConcurrentHashMap<>(32);
+
+    private final Map<String, V> cache = new ConcurrentHashMap<>(64);
+
+
+    ParseCache(String name, int limit) {
+        this.name = name;
+        this.limit = limit;
+    }
+
+
+    /**
+     * Register a permanent value for the given key.
+     */
+    void intern(String key, V value) {
+        this.interned.put(key, value);
+    }
+
+    /**
+     * Return the cached value for the given key, parsing and caching it if necessary.
+     * {@code null} results and exceptions thrown by the parser are not cached.
+     */
+    @Nullable
+    V get(String key, Function<String, V> parser, @Nullable ParseCacheListener listener) {
+        V value = this.interned.get(key);
+        if (value == null) {
+            value = this.cache.get(key);
+        }
+        if (value != null) {
+            if (listener != null) {
+                listener.cacheHit(this.name, key);
+            }
+            return value;
+        }
+        if (listener != null) {
+            listener.cacheMiss(this.name, key);
+        }
+        value = parser.apply(key);
+        if (value != null && this.cache.size() < this.limit) {
+            V existing = this.cache.putIfAbsent(key, value);
+            if (existing != null) {
+                value = existing;
+            }
+        }
+        return value;
+    }
+
+}
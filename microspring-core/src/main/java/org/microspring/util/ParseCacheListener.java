@@ -0,0 +1,43 @@
+package org.microspring.util;
+
+/**
+ * Callback for lookups in the parse caches of {@link StringUtils}, e.g. for
+ * exporting hit and miss counts to a metrics registry.
+ * <p>Implementations are called on the parsing thread and need to be cheap
+ * and thread-safe.
+ * @see StringUtils#setParseCacheListener
+ */
+public interface ParseCacheListener {
+
+    /**
+     * Name of the cache behind {@link StringUtils#parseLocale}.
+     */
+    String LOCALE_CACHE = "locale";
+
+    /**
+     * Name of the cache behind {@link StringUtils#parseLocaleString}.
+     */
+    String LOCALE_STRING_CACHE = "localeString";
+
+    /**
+     * Name of the cache behind {@link StringUtils#parseTimeZoneString}.
+     */
+    String TIME_ZONE_CACHE = "timeZone";
+
+
+    /**
+     * Called when a value has been served from the given cache.
+     * @param cacheName the name of the cache
+     * @param key the parsed {@code String}
+     */
+    void cacheHit(String cacheName, String key);
+
+    /**
+     * Called when a value had to be parsed, whether or not the result
+     * could be added to the given cache.
+     * @param cacheName the name of the cache
+     * @param key the parsed {@code String}
+     */
+    void cacheMiss(String cacheName, String key);
+
+}
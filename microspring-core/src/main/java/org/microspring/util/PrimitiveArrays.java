@@ -0,0 +1,469 @@
+package org.microspring.util;
+
+import org.microspring.lang.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+
+public abstract class PrimitiveArrays {
+
+    /** Initial hash, consistent with the array variants of {@link ObjectUtils#nullSafeHashCode}. */
+    private static final int INITIAL_HASH = 7;
+
+    private static final int MULTIPLIER = 31;
+
+    private static final int MULTIPLIER_2 = MULTIPLIER * MULTIPLIER;
+
+    private static final int MULTIPLIER_3 = MULTIPLIER_2 * MULTIPLIER;
+
+    private static final int MULTIPLIER_4 = MULTIPLIER_3 * MULTIPLIER;
+
+    /** Upper bound for the number of elements used to presize {@code toString} buffers. */
+    private static final int MAX_PRESIZED_ELEMENTS = 1024;
+
+    /**
+     * The range variants of {@code Arrays.mismatch} on JDK 9+, which are
+     * vectorized intrinsics; {@code null} on JDK 8.
+     */
+    @Nullable
+    private static final MethodHandle intMismatch = findMismatch(int[].class);
+
+    @Nullable
+    private static final MethodHandle longMismatch = findMismatch(long[].class);
+
+    @Nullable
+    private static final MethodHandle byteMismatch = findMismatch(byte[].class);
+
+
+    //---------------------------------------------------------------------
+    // int[]
+    //---------------------------------------------------------------------
+
+    /**
+     * Determine whether the given arrays are equal, i.e. both {@code null}
+     * or of the same length with the same elements.
+     * @param a the first array (may be {@code null})
+     * @param b the second array (may be {@code null})
+     * @see Arrays#equals(int[], int[])
+     */
+    public static boolean equals(@Nullable int[] a, @Nullable int[] b) {
+        return Arrays.equals(a, b);
+    }
+
+    /**
+     * Determine whether the given ranges of two arrays are equal, i.e. of
+     * the same length with the same elements.
+     * @param a the first array
+     * @param aFromIndex the index of the first element of the first range (inclusive)
+     * @param aToIndex the index of the last element of the first range (exclusive)
+     * @param b the second array
+     * @param bFromIndex the index of the first element of the second range (inclusive)
+     * @param bToIndex the index of the last element of the second range (exclusive)
+     * @throws IllegalArgumentException if a from index is greater than its to index
+     * @throws ArrayIndexOutOfBoundsException if a range exceeds its array
+     */
+    public static boolean equals(int[] a, int aFromIndex, int aToIndex, int[] b, int bFromIndex, int bToIndex) {
+        return (aToIndex - aFromIndex == bToIndex - bFromIndex &&
+                mismatch(a, aFromIndex, aToIndex, b, bFromIndex, bToIndex) == -1);
+    }
+
+    /**
+     * Find the index of the first mismatching element of the given arrays.
+     * @param a the first array
+     * @param b the second array
+     * @return the index of the first mismatch, the length of the shorter array
+     * if it is a proper prefix of the other, or -1 if the arrays are equal
+     */
+    public static int mismatch(int[] a, int[] b) {
+        Assert.notNull(a, "First array must not be null");
+        Assert.notNull(b, "Second array must not be null");
+        return mismatch(a, 0, a.length, b, 0, b.length);
+    }
+
+    /**
+     * Find the relative index of the first mismatching element of the given
+     * array ranges.
+     * @param a the first array
+     * @param aFromIndex the index of the first element of the first range (inclusive)
+     * @param aToIndex the index of the last element of the first range (exclusive)
+     * @param b the second array
+     * @param bFromIndex the index of the first element of the second range (inclusive)
+     * @param bToIndex the index of the last element of the second range (exclusive)
+     * @return the index of the first mismatch relative to the range starts, the
+     * length of the shorter range if it is a proper prefix of the other, or -1
+     * if the ranges are equal
+     * @throws IllegalArgumentException if a from index is greater than its to index
+     * @throws ArrayIndexOutOfBoundsException if a range exceeds its array
+     */
+    public static int mismatch(int[] a, int aFromIndex, int aToIndex, int[] b, int bFromIndex, int bToIndex) {
+        rangeCheck(a.length, aFromIndex, aToIndex);
+        rangeCheck(b.length, bFromIndex, bToIndex);
+        if (intMismatch != null) {
+            try {
+                return (int) intMismatch.invokeExact(a, aFromIndex, aToIndex, b, bFromIndex, bToIndex);
+            }
+            catch (Throwable ex) {
+                throw rethrow(ex);
+            }
+        }
+        int aLength = aToIndex - aFromIndex;
+        int bLength = bToIndex - bFromIndex;
+        int length = Math.min(aLength, bLength);
+        for (int i = 0; i < length; i++) {
+            if (a[aFromIndex + i] != b[bFromIndex + i]) {
+                return i;
+            }
+        }
+        return (aLength == bLength ? -1 : length);
+    }
+
+    /**
+     * Return a hash code based on the contents of the given array,
+     * the same as {@link ObjectUtils#nullSafeHashCode(int[])}.
+     * <p>Processes four elements per step, so that the multiplications do not
+     * form a single dependency chain.
+     * @param array the array to hash (may be {@code null})
+     * @return the hash code, or 0 if the array is {@code null}
+     */
+    public static int hashCode(@Nullable int[] array) {
+        if (array == null) {
+            return 0;
+        }
+        int hash = INITIAL_HASH;
+        int length = array.length;
+        int i = 0;
+        for (; i < length - 3; i += 4) {
+            hash = MULTIPLIER_4 * hash + MULTIPLIER_3 * array[i] + MULTIPLIER_2 * array[i + 1] +
+                    MULTIPLIER * array[i + 2] + array[i + 3];
+        }
+        for (; i < length; i++) {
+            hash = MULTIPLIER * hash + array[i];
+        }
+        return hash;
+    }
+
+    /**
+     * Return a String representation of the contents of the given array,
+     * the same as {@link ObjectUtils#nullSafeToString(int[])}.
+     * @param array the array to build a String representation for (may be {@code null})
+     * @return a String representation of the array, e.g. {@code "{1, 2, 3}"}
+     */
+    public static String toString(@Nullable int[] array) {
+        if (array == null) {
+            return "null";
+        }
+        int length = array.length;
+        if (length == 0) {
+            return "{}";
+        }
+        StringBuilder sb = new StringBuilder(initialCapacity(length, 8));
+        sb.append('{').append(array[0]);
+        for (int i = 1; i < length; i++) {
+            sb.append(", ").append(array[i]);
+        }
+        return sb.append('}').toString();
+    }
+
+
+    //---------------------------------------------------------------------
+    // long[]
+    //---------------------------------------------------------------------
+
+    /**
+     * Determine whether the given arrays are equal, i.e. both {@code null}
+     * or of the same length with the same elements.
+     * @param a the first array (may be {@code null})
+     * @param b the second array (may be {@code null})
+     * @see Arrays#equals(long[], long[])
+     */
+    public static boolean equals(@Nullable long[] a, @Nullable long[] b) {
+        return Arrays.equals(a, b);
+    }
+
+    /**
+     * Determine whether the given ranges of two arrays are equal, i.e. of
+     * the same length with the same elements.
+     * @param a the first array
+     * @param aFromIndex the index of the first element of the first range (inclusive)
+     * @param aToIndex the index of the last element of the first range (exclusive)
+     * @param b the second array
+     * @param bFromIndex the index of the first element of the second range (inclusive)
+     * @param bToIndex the index of the last element of the second range (exclusive)
+     * @throws IllegalArgumentException if a from index is greater than its to index
+     * @throws ArrayIndexOutOfBoundsException if a range exceeds its array
+     */
+    public static boolean equals(long[] a, int aFromIndex, int aToIndex, long[] b, int bFromIndex, int bToIndex) {
+        return (aToIndex - aFromIndex == bToIndex - bFromIndex &&
+                mismatch(a, aFromIndex, aToIndex, b, bFromIndex, bToIndex) == -1);
+    }
+
+    /**
+     * Find the index of the first mismatching element of the given arrays.
+     * @param a the first array
+     * @param b the second array
+     * @return the index of the first mismatch, the length of the shorter array
+     * if it is a proper prefix of the other, or -1 if the arrays are equal
+     */
+    public static int mismatch(long[] a, long[] b) {
+        Assert.notNull(a, "First array must not be null");
+        Assert.notNull(b, "Second array must not be null");
+        return mismatch(a, 0, a.length, b, 0, b.length);
+    }
+
+    /**
+     * Find the relative index of the first mismatching element of the given
+     * array ranges.
+     * @param a the first array
+     * @param aFromIndex the index of the first element of the first range (inclusive)
+     * @param aToIndex the index of the last element of the first range (exclusive)
+     * @param b the second array
+     * @param bFromIndex the index of the first element of the second range (inclusive)
+     * @param bToIndex the index of the last element of the second range (exclusive)
+     * @return the index of the first mismatch relative to the range starts, the
+     * length of the shorter range if it is a proper prefix of the other, or -1
+     * if the ranges are equal
+     * @throws IllegalArgumentException if a from index is greater than its to index
+     * @throws ArrayIndexOutOfBoundsException if a range exceeds its array
+     */
+    public static int mismatch(long[] a, int aFromIndex, int aToIndex, long[] b, int bFromIndex, int bToIndex) {
+        rangeCheck(a.length, aFromIndex, aToIndex);
+        rangeCheck(b.length, bFromIndex, bToIndex);
+        if (longMismatch != null) {
+            try {
+                return (int) longMismatch.invokeExact(a, aFromIndex, aToIndex, b, bFromIndex, bToIndex);
+            }
+            catch (Throwable ex) {
+                throw rethrow(ex);
+            }
+        }
+        int aLength = aToIndex - aFromIndex;
+        int bLength = bToIndex - bFromIndex;
+        int length = Math.min(aLength, bLength);
+        for (int i = 0; i < length; i++) {
+            if (a[aFromIndex + i] != b[bFromIndex + i]) {
+                return i;
+            }
+        }
+        return (aLength == bLength ? -1 : length);
+    }
+
+    /**
+     * Return a hash code based on the contents of the given array,
+     * the same as {@link ObjectUtils#nullSafeHashCode(long[])}.
+     * <p>Processes four elements per step, so that the multiplications do not
+     * form a single dependency chain.
+     * @param array the array to hash (may be {@code null})
+     * @return the hash code, or 0 if the array is {@code null}
+     */
+    public static int hashCode(@Nullable long[] array) {
+        if (array == null) {
+            return 0;
+        }
+        int hash = INITIAL_HASH;
+        int length = array.length;
+        int i = 0;
+        for (; i < length - 3; i += 4) {
+            hash = MULTIPLIER_4 * hash + MULTIPLIER_3 * Long.hashCode(array[i]) +
+                    MULTIPLIER_2 * Long.hashCode(array[i + 1]) + MULTIPLIER * Long.hashCode(array[i + 2]) +
+                    Long.hashCode(array[i + 3]);
+        }
+        for (; i < length; i++) {
+            hash = MULTIPLIER * hash + Long.hashCode(array[i]);
+        }
+        return hash;
+    }
+
+    /**
+     * Return a String representation of the contents of the given array,
+     * the same as {@link ObjectUtils#nullSafeToString(long[])}.
+     * @param array the array to build a String representation for (may be {@code null})
+     * @return a String representation of the array, e.g. {@code "{1, 2, 3}"}
+     */
+    public static String toString(@Nullable long[] array) {
+        if (array == null) {
+            return "null";
+        }
+        int length = array.length;
+        if (length == 0) {
+            return "{}";
+        }
+        StringBuilder sb = new StringBuilder(initialCapacity(length, 12));
+        sb.append('{').append(array[0]);
+        for (int i = 1; i < length; i++) {
+            sb.append(", ").append(array[i]);
+        }
+        return sb.append('}').toString();
+    }
+
+
+    //---------------------------------------------------------------------
+    // byte[]
+    //---------------------------------------------------------------------
+
+    /**
+     * Determine whether the given arrays are equal, i.e. both {@code null}
+     * or of the same length with the same elements.
+     * @param a the first array (may be {@code null})
+     * @param b the second array (may be {@code null})
+     * @see Arrays#equals(byte[], byte[])
+     */
+    public static boolean equals(@Nullable byte[] a, @Nullable byte[] b) {
+        return Arrays.equals(a, b);
+    }
+
+    /**
+     * Determine whether the given ranges of two arrays are equal, i.e. of
+     * the same length with the same elements.
+     * @param a the first array
+     * @param aFromIndex the index of the first element of the first range (inclusive)
+     * @param aToIndex the index of the last element of the first range (exclusive)
+     * @param b the second array
+     * @param bFromIndex the index of the first element of the second range (inclusive)
+     * @param bToIndex the index of the last element of the second range (exclusive)
+     * @throws IllegalArgumentException if a from index is greater than its to index
+     * @throws ArrayIndexOutOfBoundsException if a range exceeds its array
+     */
+    public static boolean equals(byte[] a, int aFromIndex, int aToIndex, byte[] b, int bFromIndex, int bToIndex) {
+        return (aToIndex - aFromIndex == bToIndex - bFromIndex &&
+                mismatch(a, aFromIndex, aToIndex, b, bFromIndex, bToIndex) == -1);
+    }
+
+    /**
+     * Find the index of the first mismatching element of the given arrays.
+     * @param a the first array
+     * @param b the second array
+     * @return the index of the first mismatch, the length of the shorter array
+     * if it is a proper prefix of the other, or -1 if the arrays are equal
+     */
+    public static int mismatch(byte[] a, byte[] b) {
+        Assert.notNull(a, "First array must not be null");
+        Assert.notNull(b, "Second array must not be null");
+        return mismatch(a, 0, a.length, b, 0, b.length);
+    }
+
+    /**
+     * Find the relative index of the first mismatching element of the given
+     * array ranges.
+     * @param a the first array
+     * @param aFromIndex the index of the first element of the first range (inclusive)
+     * @param aToIndex the index of the last element of the first range (exclusive)
+     * @param b the second array
+     * @param bFromIndex the index of the first element of the second range (inclusive)
+     * @param bToIndex the index of the last element of the second range (exclusive)
+     * @return the index of the first mismatch relative to the range starts, the
+     * length of the shorter range if it is a proper prefix of the other, or -1
+     * if the ranges are equal
+     * @throws IllegalArgumentException if a from index is greater than its to index
+     * @throws ArrayIndexOutOfBoundsException if a range exceeds its array
+     */
+    public static int mismatch(byte[] a, int aFromIndex, int aToIndex, byte[] b, int bFromIndex, int bToIndex) {
+        rangeCheck(a.length, aFromIndex, aToIndex);
+        rangeCheck(b.length, bFromIndex, bToIndex);
+        if (byteMismatch != null) {
+            try {
+                return (int) byteMismatch.invokeExact(a, aFromIndex, aToIndex, b, bFromIndex, bToIndex);
+            }
+            catch (Throwable ex) {
+                throw rethrow(ex);
+            }
+        }
+        int aLength = aToIndex - aFromIndex;
+        int bLength = bToIndex - bFromIndex;
+        int length = Math.min(aLength, bLength);
+        for (int i = 0; i < length; i++) {
+            if (a[aFromIndex + i] != b[bFromIndex + i]) {
+                return i;
+            }
+        }
+        return (aLength == bLength ? -1 : length);
+    }
+
+    /**
+     * Return a hash code based on the contents of the given array,
+     * the same as {@link ObjectUtils#nullSafeHashCode(byte[])}.
+     * <p>Processes four elements per step, so that the multiplications do not
+     * form a single dependency chain.
+     * @param array the array to hash (may be {@code null})
+     * @return the hash code, or 0 if the array is {@code null}
+     */
+    public static int hashCode(@Nullable byte[] array) {
+        if (array == null) {
+            return 0;
+        }
+        int hash = INITIAL_HASH;
+        int length = array.length;
+        int i = 0;
+        for (; i < length - 3; i += 4) {
+            hash = MULTIPLIER_4 * hash + MULTIPLIER_3 * array[i] + MULTIPLIER_2 * array[i + 1] +
+                    MULTIPLIER * array[i + 2] + array[i + 3];
+        }
+        for (; i < length; i++) {
+            hash = MULTIPLIER * hash + array[i];
+        }
+        return hash;
+    }
+
+    /**
+     * Return a String representation of the contents of the given array,
+     * the same as {@link ObjectUtils#nullSafeToString(byte[])}.
+     * @param array the array to build a String representation for (may be {@code null})
+     * @return a String representation of the array, e.g. {@code "{1, 2, 3}"}
+     */
+    public static String toString(@Nullable byte[] array) {
+        if (array == null) {
+            return "null";
+        }
+        int length = array.length;
+        if (length == 0) {
+            return "{}";
+        }
+        StringBuilder sb = new StringBuilder(initialCapacity(length, 5));
+        sb.append('{').append(array[0]);
+        for (int i = 1; i < length; i++) {
+            sb.append(", ").append(array[i]);
+        }
+        return sb.append('}').toString();
+    }
+
+
+    private static void rangeCheck(int arrayLength, int fromIndex, int toIndex) {
+        if (fromIndex > toIndex) {
+            throw new IllegalArgumentException("fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+        }
+        if (fromIndex < 0) {
+            throw new ArrayIndexOutOfBoundsException(fromIndex);
+        }
+        if (toIndex > arrayLength) {
+            throw new ArrayIndexOutOfBoundsException(toIndex);
+        }
+    }
+
+    private static int initialCapacity(int length, int charsPerElement) {
+        return Math.min(length, MAX_PRESIZED_ELEMENTS) * charsPerElement + 2;
+    }
+
+    @Nullable
+    private static MethodHandle findMismatch(Class<?> arrayType) {
+        try {
+            return MethodHandles.publicLookup().findStatic(Arrays.class, "mismatch", MethodType.methodType(
+                    int.class, arrayType, int.class, int.class, arrayType, int.class, int.class));
+        }
+        catch (NoSuchMethodException | IllegalAccessException ex) {
+            // Not available before JDK 9 - fall back to a plain loop
+            return null;
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable ex) {
+        if (ex instanceof RuntimeException) {
+            throw (RuntimeException) ex;
+        }
+        if (ex instanceof Error) {
+            throw (Error) ex;
+        }
+        throw new IllegalStateException(ex);
+    }
+
+}
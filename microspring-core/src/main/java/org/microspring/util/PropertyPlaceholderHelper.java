@@ -0,0 +1,182 @@
+package org.microspring.util;
+
+import org.microspring.lang.Nullable;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class PropertyPlaceholderHelper {
+
+    private final String placeholderPrefix;
+
+    private final String placeholderSuffix;
+
+    private final String simplePrefix;
+
+    @Nullable
+    private final String valueSeparator;
+
+    private final boolean ignoreUnresolvablePlaceholders;
+
+
+    /**
+     * Creates a new {@code PropertyPlaceholderHelper} that uses the supplied prefix and suffix.
+     * Unresolvable placeholders are ignored.
+     * @param placeholderPrefix the prefix that denotes the start of a placeholder
+     * @param placeholderSuffix the suffix that denotes the end of a placeholder
+     */
+    public PropertyPlaceholderHelper(String placeholderPrefix, String placeholderSuffix) {
+        this(placeholderPrefix, placeholderSuffix, null, true);
+    }
+
+    /**
+     * Creates a new {@code PropertyPlaceholderHelper} that uses the supplied prefix and suffix.
+     * @param placeholderPrefix the prefix that denotes the start of a placeholder
+     * @param placeholderSuffix the suffix that denotes the end of a placeholder
+     * @param valueSeparator the separating character between the placeholder variable
+     * and the associated default value, if any
+     * @param ignoreUnresolvablePlaceholders indicates whether unresolvable placeholders should
+     * be ignored ({@code true}) or cause an exception ({@code false})
+     */
+    public PropertyPlaceholderHelper(String placeholderPrefix, String placeholderSuffix,
+                                     @Nullable String valueSeparator, boolean ignoreUnresolvablePlaceholders) {
+
+        Assert.notNull(placeholderPrefix, "'placeholderPrefix' must not be null");
+        Assert.notNull(placeholderSuffix, "'placeholderSuffix' must not be null");
+        this.placeholderPrefix = placeholderPrefix;
+        this.placeholderSuffix = placeholderSuffix;
+        String simplePrefixForSuffix = ("}".equals(placeholderSuffix) ? "{" :
+                (")".equals(placeholderSuffix) ? "(" : (("]".equals(placeholderSuffix) ? "[" : null))));
+        if (simplePrefixForSuffix != null && this.placeholderPrefix.endsWith(simplePrefixForSuffix)) {
+            this.simplePrefix = simplePrefixForSuffix;
+        }
+        else {
+            this.simplePrefix = this.placeholderPrefix;
+        }
+        this.valueSeparator = valueSeparator;
+        this.ignoreUnresolvablePlaceholders = ignoreUnresolvablePlaceholders;
+    }
+
+
+    /**
+     * Return whether the given value contains a placeholder prefix at all,
+     * i.e. whether {@link #replacePlaceholders} could change it.
+     * @param value the value to check
+     */
+    public boolean containsPlaceholder(String value) {
+        return (value.indexOf(this.placeholderPrefix) != -1);
+    }
+
+    /**
+     * Replaces all placeholders of format {@code ${name}} with the value returned
+     * from the supplied {@link PlaceholderResolver}.
+     * @param value the value containing the placeholders to be replaced
+     * @param placeholderResolver the {@code PlaceholderResolver} to use for replacement
+     * @return the supplied value with placeholders replaced inline
+     */
+    public String replacePlaceholders(String value, PlaceholderResolver placeholderResolver) {
+        Assert.notNull(value, "'value' must not be null");
+        if (!containsPlaceholder(value)) {
+            return value;
+        }
+        return parseStringValue(value, placeholderResolver, new HashSet<>());
+    }
+
+    protected String parseStringValue(
+            String value, PlaceholderResolver placeholderResolver, Set<String> visitedPlaceholders) {
+
+        int startIndex = value.indexOf(this.placeholderPrefix);
+        if (startIndex == -1) {
+            return value;
+        }
+
+        StringBuilder result = new StringBuilder(value);
+        while (startIndex != -1) {
+            int endIndex = findPlaceholderEndIndex(result, startIndex);
+            if (endIndex != -1) {
+                String placeholder = result.substring(startIndex + this.placeholderPrefix.length(), endIndex);
+                String originalPlaceholder = placeholder;
+                if (!visitedPlaceholders.add(originalPlaceholder)) {
+                    throw new IllegalArgumentException(
+                            "Circular placeholder reference '" + originalPlaceholder + "' in property definitions");
+                }
+                // Recursive invocation, parsing placeholders contained in the placeholder key.
+                placeholder = parseStringValue(placeholder, placeholderResolver, visitedPlaceholders);
+                // Now obtain the value for the fully resolved key...
+                String propVal = placeholderResolver.resolvePlaceholder(placeholder);
+                if (propVal == null && this.valueSeparator != null) {
+                    int separatorIndex = placeholder.indexOf(this.valueSeparator);
+                    if (separatorIndex != -1) {
+                        String actualPlaceholder = placeholder.substring(0, separatorIndex);
+                        String defaultValue = placeholder.substring(separatorIndex + this.valueSeparator.length());
+                        propVal = placeholderResolver.resolvePlaceholder(actualPlaceholder);
+                        if (propVal == null) {
+                            propVal = defaultValue;
+                        }
+                    }
+                }
+                if (propVal != null) {
+                    // Recursive invocation, parsing placeholders contained in the
+                    // previously resolved placeholder value.
+                    propVal = parseStringValue(propVal, placeholderResolver, visitedPlaceholders);
+                    result.replace(startIndex, endIndex + this.placeholderSuffix.length(), propVal);
+                    startIndex = result.indexOf(this.placeholderPrefix, startIndex + propVal.length());
+                }
+                else if (this.ignoreUnresolvablePlaceholders) {
+                    // Proceed with unprocessed value.
+                    startIndex = result.indexOf(this.placeholderPrefix, endIndex + this.placeholderSuffix.length());
+                }
+                else {
+                    throw new IllegalArgumentException("Could not resolve placeholder '" +
+                            placeholder + "'" + " in value \"" + value + "\"");
+                }
+                visitedPlaceholders.remove(originalPlaceholder);
+            }
+            else {
+                startIndex = -1;
+            }
+        }
+        return result.toString();
+    }
+
+    private int findPlaceholderEndIndex(CharSequence buf, int startIndex) {
+        int index = startIndex + this.placeholderPrefix.length();
+        int withinNestedPlaceholder = 0;
+        while (index < buf.length()) {
+            if (StringUtils.substringMatch(buf, index, this.placeholderSuffix)) {
+                if (withinNestedPlaceholder > 0) {
+                    withinNestedPlaceholder--;
+                    index = index + this.placeholderSuffix.length();
+                }
+                else {
+                    return index;
+                }
+            }
+            else if (StringUtils.substringMatch(buf, index, this.simplePrefix)) {
+                withinNestedPlaceholder++;
+                index = index + this.simplePrefix.length();
+            }
+            else {
+                index++;
+            }
+        }
+        return -1;
+    }
+
+
+    /**
+     * Strategy interface used to resolve replacement values for placeholders contained in Strings.
+     */
+    @FunctionalInterface
+    public interface PlaceholderResolver {
+
+        /**
+         * Resolve the supplied placeholder name to the replacement value.
+         * @param placeholderName the name of the placeholder to resolve
+         * @return the replacement value, or {@code null} if no replacement is to be made
+         */
+        @Nullable
+        String resolvePlaceholder(String placeholderName);
+    }
+
+}
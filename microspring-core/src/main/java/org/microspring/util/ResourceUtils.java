@@ -1,5 +1,15 @@
 package org.microspring.util;
 
+import org.microspring.lang.Nullable;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+
 public abstract class ResourceUtils {
 
     /** Pseudo URL prefix for loading from the class path: "classpath:". */
@@ -14,6 +24,9 @@ public abstract class ResourceUtils {
     /** URL prefix for loading from a war file on Tomcat: "war:". */
     public static final String WAR_URL_PREFIX = "war:";
 
+    /** Pseudo URL protocol for a class path resource: "classpath". */
+    public static final String URL_PROTOCOL_CLASSPATH = "classpath";
+
     /** URL protocol for a file in the file system: "file". */
     public static final String URL_PROTOCOL_FILE = "file";
 
@@ -47,4 +60,173 @@ public abstract class ResourceUtils {
     /** Special separator between WAR URL and jar part on Tomcat. */
     public static final String WAR_URL_SEPARATOR = "*/";
 
+
+    /**
+     * Return whether the given resource location is a URL:
+     * either a special "classpath" pseudo URL or a standard URL.
+     * @param resourceLocation the location String to check
+     * @return whether the location qualifies as a URL
+     * @see #CLASSPATH_URL_PREFIX
+     * @see java.net.URL
+     */
+    public static boolean isUrl(@Nullable String resourceLocation) {
+        if (resourceLocation == null) {
+            return false;
+        }
+        if (resourceLocation.startsWith(CLASSPATH_URL_PREFIX)) {
+            return true;
+        }
+        try {
+            new URL(resourceLocation);
+            return true;
+        }
+        catch (MalformedURLException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Resolve the given resource URL to a {@code java.io.File},
+     * i.e. to a file in the file system.
+     * @param resourceUrl the resource URL to resolve
+     * @param description a description of the original resource that
+     * the URL was created for (for example, a class path location)
+     * @return a corresponding File object
+     * @throws FileNotFoundException if the URL cannot be resolved to
+     * a file in the file system
+     */
+    public static File getFile(URL resourceUrl, String description) throws FileNotFoundException {
+        Assert.notNull(resourceUrl, "Resource URL must not be null");
+        if (!URL_PROTOCOL_FILE.equals(resourceUrl.getProtocol())) {
+            throw new FileNotFoundException(
+                    description + " cannot be resolved to absolute file path " +
+                            "because it does not reside in the file system: " + resourceUrl);
+        }
+        try {
+            return new File(toURI(resourceUrl).getSchemeSpecificPart());
+        }
+        catch (URISyntaxException ex) {
+            // Fallback for URLs that are not valid URIs (should hardly ever happen).
+            return new File(resourceUrl.getFile());
+        }
+    }
+
+    /**
+     * Resolve the given resource URI to a {@code java.io.File},
+     * i.e. to a file in the file system.
+     * @param resourceUri the resource URI to resolve
+     * @param description a description of the original resource that
+     * the URI was created for (for example, a class path location)
+     * @return a corresponding File object
+     * @throws FileNotFoundException if the URL cannot be resolved to
+     * a file in the file system
+     */
+    public static File getFile(URI resourceUri, String description) throws FileNotFoundException {
+        Assert.notNull(resourceUri, "Resource URI must not be null");
+        if (!URL_PROTOCOL_FILE.equals(resourceUri.getScheme())) {
+            throw new FileNotFoundException(
+                    description + " cannot be resolved to absolute file path " +
+                            "because it does not reside in the file system: " + resourceUri);
+        }
+        return new File(resourceUri.getSchemeSpecificPart());
+    }
+
+    /**
+     * Determine whether the given URL points to a resource in the file system,
+     * i.e. has protocol "file", "vfsfile" or "vfs".
+     * @param url the URL to check
+     * @return whether the URL has been identified as a file system URL
+     */
+    public static boolean isFileURL(URL url) {
+        String protocol = url.getProtocol();
+        return (URL_PROTOCOL_FILE.equals(protocol) || URL_PROTOCOL_VFSFILE.equals(protocol) ||
+                URL_PROTOCOL_VFS.equals(protocol));
+    }
+
+    /**
+     * Determine whether the given URL points to a resource in a jar file.
+     * i.e. has protocol "jar", "war, ""zip", "vfszip" or "wsjar".
+     * @param url the URL to check
+     * @return whether the URL has been identified as a JAR URL
+     */
+    public static boolean isJarURL(URL url) {
+        String protocol = url.getProtocol();
+        return (URL_PROTOCOL_JAR.equals(protocol) || URL_PROTOCOL_WAR.equals(protocol) ||
+                URL_PROTOCOL_ZIP.equals(protocol) || URL_PROTOCOL_VFSZIP.equals(protocol) ||
+                URL_PROTOCOL_WSJAR.equals(protocol));
+    }
+
+    /**
+     * Determine whether the given URL points to a jar file itself,
+     * that is, has protocol "file" and ends with the ".jar" extension.
+     * @param url the URL to check
+     * @return whether the URL has been identified as a JAR file URL
+     */
+    public static boolean isJarFileURL(URL url) {
+        return (URL_PROTOCOL_FILE.equals(url.getProtocol()) &&
+                url.getPath().toLowerCase().endsWith(JAR_FILE_EXTENSION));
+    }
+
+    /**
+     * Extract the URL for the actual jar file from the given URL
+     * (which may point to a resource in a jar file or to a jar file itself).
+     * @param jarUrl the original URL
+     * @return the URL for the actual jar file
+     * @throws MalformedURLException if no valid jar file URL could be extracted
+     */
+    public static URL extractJarFileURL(URL jarUrl) throws MalformedURLException {
+        String urlFile = jarUrl.getFile();
+        int separatorIndex = urlFile.indexOf(JAR_URL_SEPARATOR);
+        if (separatorIndex != -1) {
+            String jarFile = urlFile.substring(0, separatorIndex);
+            try {
+                return new URL(jarFile);
+            }
+            catch (MalformedURLException ex) {
+                // Probably no protocol in original jar URL, like "jar:C:/mypath/myjar.jar".
+                // This usually indicates that the jar file resides in the file system.
+                if (!jarFile.startsWith("/")) {
+                    jarFile = "/" + jarFile;
+                }
+                return new URL(FILE_URL_PREFIX + jarFile);
+            }
+        }
+        else {
+            return jarUrl;
+        }
+    }
+
+    /**
+     * Create a URI instance for the given URL,
+     * replacing spaces with "%20" URI encoding first.
+     * @param url the URL to convert into a URI instance
+     * @return the URI instance
+     * @throws URISyntaxException if the URL wasn't a valid URI
+     * @see java.net.URL#toURI()
+     */
+    public static URI toURI(URL url) throws URISyntaxException {
+        return toURI(url.toString());
+    }
+
+    /**
+     * Create a URI instance for the given location String,
+     * replacing spaces with "%20" URI encoding first.
+     * @param location the location String to convert into a URI instance
+     * @return the URI instance
+     * @throws URISyntaxException if the location wasn't a valid URI
+     */
+    public static URI toURI(String location) throws URISyntaxException {
+        return new URI(StringUtils.replace(location, " ", "%20"));
+    }
+
+    /**
+     * Set the {@link URLConnection#setUseCaches "useCaches"} flag on the
+     * given connection, preferring {@code false} but leaving the
+     * flag at {@code true} for JNLP based resources.
+     * @param con the URLConnection to set the flag on
+     */
+    public static void useCachesIfNecessary(URLConnection con) {
+        con.setUseCaches(con.getClass().getSimpleName().startsWith("JNLP"));
+    }
+
 }
@@ -0,0 +1,221 @@
+package org.microspring.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public final class StringReplacer {
+
+    /** Number of distinct pattern characters. */
+    private final int alphabetSize;
+
+    /** Alphabet index per ASCII character, -1 for characters not in any pattern. */
+    private final int[] asciiIndex = new int[128];
+
+    /** Alphabet index per non-ASCII pattern character. */
+    private final Map<Character, Integer> nonAsciiIndex = new HashMap<>();
+
+    /** Transition function: next state for state {@code s} and symbol {@code a} at {@code s * alphabetSize + a}. */
+    private final int[] transitions;
+
+    /** Length of the string spelled by each state. */
+    private final int[] depth;
+
+    /** Longest pattern that is a suffix of each state's string, as index into {@link #replacements}; -1 if none. */
+    private final int[] output;
+
+    private final int[] patternLengths;
+
+    private final String[] replacements;
+
+
+    /**
+     * Compile the given replacements into a search automaton, to be reused
+     * for any number of {@link #replaceAll} calls.
+     * @param replacements the replacement per pattern; patterns must not be empty
+     */
+    public StringReplacer(Map<String, String> replacements) {
+        Assert.notNull(replacements, "Replacements must not be null");
+        int patternCount = replacements.size();
+        this.patternLengths = new int[patternCount];
+        this.replacements = new String[patternCount];
+
+        // Assign alphabet indexes and determine the maximum number of states.
+        Arrays.fill(this.asciiIndex, -1);
+        int symbols = 0;
+        int maxStates = 1;
+        for (Map.Entry<String, String> entry : replacements.entrySet()) {
+            String pattern = entry.getKey();
+            Assert.hasLength(pattern, "Patterns must not be empty");
+            Assert.notNull(entry.getValue(), "Replacements must not be null");
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c < 128) {
+                    if (this.asciiIndex[c] == -1) {
+                        this.asciiIndex[c] = symbols++;
+                    }
+                }
+                else if (!this.nonAsciiIndex.containsKey(c)) {
+                    this.nonAsciiIndex.put(c, symbols++);
+                }
+            }
+            maxStates += pattern.length();
+        }
+        this.alphabetSize = Math.max(symbols, 1);
+
+        // Build the trie of all patterns.
+        int[] transitions = new int[maxStates * this.alphabetSize];
+        Arrays.fill(transitions, -1);
+        int[] depth = new int[maxStates];
+        int[] output = new int[maxStates];
+        Arrays.fill(output, -1);
+        int states = 1;
+        int patternIndex = 0;
+        for (Map.Entry<String, String> entry : replacements.entrySet()) {
+            String pattern = entry.getKey();
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int slot = state * this.alphabetSize + symbolOf(pattern.charAt(i));
+                if (transitions[slot] == -1) {
+                    depth[states] = depth[state] + 1;
+                    transitions[slot] = states++;
+                }
+                state = transitions[slot];
+            }
+            output[state] = patternIndex;
+            this.patternLengths[patternIndex] = pattern.length();
+            this.replacements[patternIndex] = entry.getValue();
+            patternIndex++;
+        }
+
+        // Compute failure links breadth-first and complete the transition function,
+        // so that matching needs exactly one table lookup per input character.
+        int[] failure = new int[states];
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        for (int a = 0; a < this.alphabetSize; a++) {
+            int child = transitions[a];
+            if (child == -1) {
+                transitions[a] = 0;
+            }
+            else {
+                failure[child] = 0;
+                queue[tail++] = child;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            if (output[state] == -1) {
+                output[state] = output[failure[state]];
+            }
+            for (int a = 0; a < this.alphabetSize; a++) {
+                int slot = state * this.alphabetSize + a;
+                int child = transitions[slot];
+                int fallback = transitions[failure[state] * this.alphabetSize + a];
+                if (child == -1) {
+                    transitions[slot] = fallback;
+                }
+                else {
+                    failure[child] = fallback;
+                    queue[tail++] = child;
+                }
+            }
+        }
+
+        this.transitions = Arrays.copyOf(transitions, states * this.alphabetSize);
+        this.depth = Arrays.copyOf(depth, states);
+        this.output = Arrays.copyOf(output, states);
+    }
+
+
+    /**
+     * Replace all occurrences of the configured patterns in a single pass.
+     * <p>Occurrences are replaced from left to right without overlapping; where
+     * several patterns match at the same position, the longest one wins.
+     * Replaced text is not searched again.
+     * @param inString the {@code String} to examine
+     * @return a {@code String} with the replacements applied, or the given
+     * {@code String} itself if no pattern occurs
+     */
+    public String replaceAll(String inString) {
+        if (!StringUtils.hasLength(inString) || this.replacements.length == 0) {
+            return inString;
+        }
+        int length = inString.length();
+        StringBuilder sb = null;
+        int copied = 0;
+        int state = 0;
+        int matchStart = -1;
+        int matchEnd = -1;
+        int matchPattern = -1;
+        int i = 0;
+        while (true) {
+            if (i < length) {
+                state = next(state, inString.charAt(i++));
+                int pattern = this.output[state];
+                if (pattern != -1) {
+                    int start = i - this.patternLengths[pattern];
+                    if (matchStart == -1 || start < matchStart || (start == matchStart && i > matchEnd)) {
+                        matchStart = start;
+                        matchEnd = i;
+                        matchPattern = pattern;
+                    }
+                }
+                // A pending match is final once no partial match reaches back to its start.
+                if (matchStart == -1 || i - this.depth[state] <= matchStart) {
+                    continue;
+                }
+            }
+            else if (matchStart == -1) {
+                break;
+            }
+            if (sb == null) {
+                sb = new StringBuilder(length + 16);
+            }
+            sb.append(inString, copied, matchStart).append(this.replacements[matchPattern]);
+            copied = matchEnd;
+            // Resume right after the replaced occurrence.
+            i = matchEnd;
+            state = 0;
+            matchStart = -1;
+        }
+        if (sb == null) {
+            return inString;
+        }
+        sb.append(inString, copied, length);
+        return sb.toString();
+    }
+
+    /**
+     * Check whether any of the configured patterns occurs in the given {@code String}.
+     * @param str the {@code String} to examine
+     */
+    public boolean containsAny(String str) {
+        if (!StringUtils.hasLength(str)) {
+            return false;
+        }
+        int state = 0;
+        for (int i = 0; i < str.length(); i++) {
+            state = next(state, str.charAt(i));
+            if (this.output[state] != -1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int next(int state, char c) {
+        int symbol = symbolOf(c);
+        return (symbol != -1 ? this.transitions[state * this.alphabetSize + symbol] : 0);
+    }
+
+    private int symbolOf(char c) {
+        if (c < 128) {
+            return this.asciiIndex[c];
+        }
+        Integer symbol = this.nonAsciiIndex.get(c);
+        return (symbol != null ? symbol : -1);
+    }
+
+}
@@ -2,9 +2,15 @@ package org.microspring.util;
 
 import org.microspring.lang.Nullable;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 public abstract class StringUtils {
     private static final String FOLDER_SEPARATOR = "/";
@@ -17,6 +23,56 @@ public abstract class StringUtils {
 
     private static final char EXTENSION_SEPARATOR = '.';
 
+    /** Whitespace as determined by {@link Character#isWhitespace}, per ASCII character. */
+    private static final boolean[] ASCII_WHITESPACE = new boolean[128];
+
+    /** Lower case variant per ASCII character. */
+    private static final char[] ASCII_LOWER_CASE = new char[128];
+
+    static {
+        for (char c = 0; c < 128; c++) {
+            ASCII_WHITESPACE[c] = Character.isWhitespace(c);
+            ASCII_LOWER_CASE[c] = (c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+        }
+    }
+
+    /** Maximum size of the decoding buffers retained per thread by {@link #uriDecode}. */
+    private static final int URI_DECODE_BUFFER_LIMIT = 8192;
+
+    private static final ThreadLocal<UriDecodeBuffers> uriDecodeBuffers =
+            ThreadLocal.withInitial(UriDecodeBuffers::new);
+
+    /** Maximum number of parsed values kept per parse cache, beyond the interned ones. */
+    private static final int PARSE_CACHE_LIMIT = 256;
+
+    private static final ParseCache<Locale> localeCache =
+            new ParseCache<>(ParseCacheListener.LOCALE_CACHE, PARSE_CACHE_LIMIT);
+
+    private static final ParseCache<Locale> localeStringCache =
+            new ParseCache<>(ParseCacheListener.LOCALE_STRING_CACHE, PARSE_CACHE_LIMIT);
+
+    private static final ParseCache<TimeZone> timeZoneCache =
+            new ParseCache<>(ParseCacheListener.TIME_ZONE_CACHE, PARSE_CACHE_LIMIT);
+
+    @Nullable
+    private static volatile ParseCacheListener parseCacheListener;
+
+    static {
+        // Serve the most common values as the JDK's shared constants.
+        Locale[] commonLocales = {Locale.ENGLISH, Locale.US, Locale.UK, Locale.GERMAN, Locale.GERMANY,
+                Locale.FRENCH, Locale.FRANCE, Locale.ITALIAN, Locale.ITALY, Locale.JAPANESE, Locale.JAPAN,
+                Locale.KOREAN, Locale.KOREA, Locale.CHINESE, Locale.SIMPLIFIED_CHINESE, Locale.TRADITIONAL_CHINESE,
+                Locale.CANADA, Locale.CANADA_FRENCH};
+        for (Locale locale : commonLocales) {
+            localeStringCache.intern(locale.toString(), locale);
+            localeCache.intern(locale.toString(), locale);
+            localeCache.intern(locale.toLanguageTag(), locale);
+        }
+        for (String timeZoneId : new String[] {"UTC", "GMT"}) {
+            timeZoneCache.intern(timeZoneId, TimeZone.getTimeZone(timeZoneId));
+        }
+    }
+
 
     //---------------------------------------------------------------------
     // General convenience methods for working with Strings
@@ -107,13 +163,21 @@ public abstract class StringUtils {
     private static boolean containsText(CharSequence str) {
         int strLen = str.length();
         for (int i = 0; i < strLen; i++) {
-            if (!Character.isWhitespace(str.charAt(i))) {
+            if (!isWhitespace(str.charAt(i))) {
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Equivalent to {@link Character#isWhitespace(char)}, answering
+     * ASCII characters from a lookup table.
+     */
+    private static boolean isWhitespace(char c) {
+        return (c < 128 ? ASCII_WHITESPACE[c] : Character.isWhitespace(c));
+    }
+
     /**
      * Check whether the given {@code CharSequence} contains any whitespace characters.
      * @param str the {@code CharSequence} to check (may be {@code null})
@@ -128,7 +192,7 @@ public abstract class StringUtils {
 
         int strLen = str.length();
         for (int i = 0; i < strLen; i++) {
-            if (Character.isWhitespace(str.charAt(i))) {
+            if (isWhitespace(str.charAt(i))) {
                 return true;
             }
         }
@@ -160,11 +224,11 @@ public abstract class StringUtils {
         int beginIndex = 0;
         int endIndex = str.length() - 1;
 
-        while (beginIndex <= endIndex && Character.isWhitespace(str.charAt(beginIndex))) {
+        while (beginIndex <= endIndex && isWhitespace(str.charAt(beginIndex))) {
             beginIndex++;
         }
 
-        while (endIndex > beginIndex && Character.isWhitespace(str.charAt(endIndex))) {
+        while (endIndex > beginIndex && isWhitespace(str.charAt(endIndex))) {
             endIndex--;
         }
 
@@ -184,14 +248,25 @@ public abstract class StringUtils {
         }
 
         int len = str.length();
-        StringBuilder sb = new StringBuilder(str.length());
-        for (int i = 0; i < len; i++) {
+        int firstWhitespace = 0;
+        while (firstWhitespace < len && !isWhitespace(str.charAt(firstWhitespace))) {
+            firstWhitespace++;
+        }
+        if (firstWhitespace == len) {
+            // no whitespace -> can return input as-is
+            return str;
+        }
+
+        char[] chars = new char[len];
+        str.getChars(0, firstWhitespace, chars, 0);
+        int count = firstWhitespace;
+        for (int i = firstWhitespace + 1; i < len; i++) {
             char c = str.charAt(i);
-            if (!Character.isWhitespace(c)) {
-                sb.append(c);
+            if (!isWhitespace(c)) {
+                chars[count++] = c;
             }
         }
-        return sb.toString();
+        return new String(chars, 0, count);
     }
 
     /**
@@ -205,11 +280,11 @@ public abstract class StringUtils {
             return str;
         }
 
-        StringBuilder sb = new StringBuilder(str);
-        while (sb.length() > 0 && Character.isWhitespace(sb.charAt(0))) {
-            sb.deleteCharAt(0);
+        int beginIndex = 0;
+        while (beginIndex < str.length() && isWhitespace(str.charAt(beginIndex))) {
+            beginIndex++;
         }
-        return sb.toString();
+        return str.substring(beginIndex);
     }
 
     /**
@@ -223,11 +298,11 @@ public abstract class StringUtils {
             return str;
         }
 
-        StringBuilder sb = new StringBuilder(str);
-        while (sb.length() > 0 && Character.isWhitespace(sb.charAt(sb.length() - 1))) {
-            sb.deleteCharAt(sb.length() - 1);
+        int endIndex = str.length();
+        while (endIndex > 0 && isWhitespace(str.charAt(endIndex - 1))) {
+            endIndex--;
         }
-        return sb.toString();
+        return str.substring(0, endIndex);
     }
 
     /**
@@ -275,7 +350,7 @@ public abstract class StringUtils {
      */
     public static boolean startsWithIgnoreCase(@Nullable String str, @Nullable String prefix) {
         return (str != null && prefix != null && str.length() >= prefix.length() &&
-                str.regionMatches(true, 0, prefix, 0, prefix.length()));
+                regionMatchesIgnoreCase(str, 0, prefix, prefix.length()));
     }
 
     /**
@@ -287,7 +362,32 @@ public abstract class StringUtils {
      */
     public static boolean endsWithIgnoreCase(@Nullable String str, @Nullable String suffix) {
         return (str != null && suffix != null && str.length() >= suffix.length() &&
-                str.regionMatches(true, str.length() - suffix.length(), suffix, 0, suffix.length()));
+                regionMatchesIgnoreCase(str, str.length() - suffix.length(), suffix, suffix.length()));
+    }
+
+    /**
+     * Equivalent to {@code str.regionMatches(true, offset, other, 0, length)},
+     * comparing ASCII characters through a lookup table and leaving the rest
+     * of the region to {@link String#regionMatches} at the first non-ASCII
+     * character that differs.
+     */
+    private static boolean regionMatchesIgnoreCase(String str, int offset, String other, int length) {
+        for (int i = 0; i < length; i++) {
+            char c1 = str.charAt(offset + i);
+            char c2 = other.charAt(i);
+            if (c1 == c2) {
+                continue;
+            }
+            if (c1 < 128 && c2 < 128) {
+                if (ASCII_LOWER_CASE[c1] != ASCII_LOWER_CASE[c2]) {
+                    return false;
+                }
+            }
+            else {
+                return str.regionMatches(true, offset + i, other, i, length - i);
+            }
+        }
+        return true;
     }
 
     /**
@@ -355,17 +455,37 @@ public abstract class StringUtils {
         int pos = 0;  // our position in the old string
         int patLen = oldPattern.length();
         while (index >= 0) {
-            sb.append(inString.substring(pos, index));
+            sb.append(inString, pos, index);
             sb.append(newPattern);
             pos = index + patLen;
             index = inString.indexOf(oldPattern, pos);
         }
 
         // append any characters to the right of a match
-        sb.append(inString.substring(pos));
+        sb.append(inString, pos, inString.length());
         return sb.toString();
     }
 
+    /**
+     * Replace all occurrences of the given patterns in a single pass, instead
+     * of a chain of {@link #replace} calls.
+     * <p>Occurrences are replaced from left to right without overlapping; where
+     * several patterns match at the same position, the longest one wins.
+     * Replaced text is not searched again.
+     * <p>This method compiles the patterns on every call; for repeated use
+     * with the same patterns, create a {@link StringReplacer} once instead.
+     * @param inString {@code String} to examine
+     * @param replacements the replacement per pattern; patterns must not be empty
+     * @return a {@code String} with the replacements
+     * @see StringReplacer#replaceAll(String)
+     */
+    public static String replaceAll(String inString, Map<String, String> replacements) {
+        if (!hasLength(inString) || CollectionUtils.isEmpty(replacements)) {
+            return inString;
+        }
+        return new StringReplacer(replacements).replaceAll(inString);
+    }
+
     /**
      * Delete all occurrences of the given substring.
      * @param inString the original {@code String}
@@ -584,63 +704,128 @@ public abstract class StringUtils {
         if (!hasLength(path)) {
             return path;
         }
-        String pathToUse = replace(path, WINDOWS_FOLDER_SEPARATOR, FOLDER_SEPARATOR);
+        int length = path.length();
 
         // Strip prefix from path to analyze, to not treat it as part of the
         // first path element. This is necessary to correctly parse paths like
         // "file:core/../core/io/Resource.class", where the ".." should just
         // strip the first "core" directory while keeping the "file:" prefix.
-        int prefixIndex = pathToUse.indexOf(':');
-        String prefix = "";
+        int prefixEnd = 0;
+        int prefixIndex = path.indexOf(':');
         if (prefixIndex != -1) {
-            prefix = pathToUse.substring(0, prefixIndex + 1);
-            if (prefix.contains(FOLDER_SEPARATOR)) {
-                prefix = "";
-            }
-            else {
-                pathToUse = pathToUse.substring(prefixIndex + 1);
+            prefixEnd = prefixIndex + 1;
+            for (int i = 0; i < prefixIndex; i++) {
+                if (isFolderSeparator(path.charAt(i))) {
+                    prefixEnd = 0;
+                    break;
+                }
             }
         }
-        if (pathToUse.startsWith(FOLDER_SEPARATOR)) {
-            prefix = prefix + FOLDER_SEPARATOR;
-            pathToUse = pathToUse.substring(1);
+        boolean rootSlash = (prefixEnd < length && isFolderSeparator(path.charAt(prefixEnd)));
+        int start = (rootSlash ? prefixEnd + 1 : prefixEnd);
+
+        if (isCleanPath(path, start)) {
+            return path;
         }
 
-        String[] pathArray = delimitedListToStringArray(pathToUse, FOLDER_SEPARATOR);
-        LinkedList<String> pathElements = new LinkedList<>();
+        // Walk the path elements from right to left, writing the retained ones
+        // backwards into the tail of the buffer. The result never exceeds the
+        // original length by more than a leading "./" for an empty remainder.
+        char[] buffer = new char[length + 2];
+        int pos = buffer.length;
+        int elements = 0;
         int tops = 0;
-
-        for (int i = pathArray.length - 1; i >= 0; i--) {
-            String element = pathArray[i];
-            if (CURRENT_PATH.equals(element)) {
-                // Points to current directory - drop it.
-            }
-            else if (TOP_PATH.equals(element)) {
-                // Registering top path found.
-                tops++;
-            }
-            else {
-                if (tops > 0) {
+        boolean lastElementEmpty = false;
+        if (start < length) {
+            int elementEnd = length;
+            for (int i = length - 1; i >= start - 1; i--) {
+                if (i >= start && !isFolderSeparator(path.charAt(i))) {
+                    continue;
+                }
+                int elementStart = i + 1;
+                int elementLength = elementEnd - elementStart;
+                if (isCurrentPath(path, elementStart, elementLength)) {
+                    // Points to current directory - drop it.
+                }
+                else if (isTopPath(path, elementStart, elementLength)) {
+                    // Registering top path found.
+                    tops++;
+                }
+                else if (tops > 0) {
                     // Merging path element with element corresponding to top path.
                     tops--;
                 }
                 else {
                     // Normal path element found.
-                    pathElements.add(0, element);
+                    if (elements > 0) {
+                        buffer[--pos] = '/';
+                    }
+                    pos -= elementLength;
+                    path.getChars(elementStart, elementEnd, buffer, pos);
+                    lastElementEmpty = (elements == 0 && elementLength == 0);
+                    elements++;
                 }
+                elementEnd = i;
             }
         }
 
         // Remaining top paths need to be retained.
         for (int i = 0; i < tops; i++) {
-            pathElements.add(0, TOP_PATH);
+            if (elements > 0) {
+                buffer[--pos] = '/';
+            }
+            buffer[--pos] = '.';
+            buffer[--pos] = '.';
+            elements++;
         }
         // If nothing else left, at least explicitly point to current path.
-        if (pathElements.size() == 1 && "".equals(pathElements.getLast()) && !prefix.endsWith(FOLDER_SEPARATOR)) {
-            pathElements.add(0, CURRENT_PATH);
+        if (elements == 1 && lastElementEmpty && !rootSlash) {
+            buffer[--pos] = '/';
+            buffer[--pos] = '.';
         }
 
-        return prefix + collectionToDelimitedString(pathElements, FOLDER_SEPARATOR);
+        if (rootSlash) {
+            buffer[--pos] = '/';
+        }
+        pos -= prefixEnd;
+        path.getChars(0, prefixEnd, buffer, pos);
+        return new String(buffer, pos, buffer.length - pos);
+    }
+
+    /**
+     * Determine whether the given path is already in normalized form, i.e. free of
+     * Windows separators and without "." or ".." elements after the given offset.
+     */
+    private static boolean isCleanPath(String path, int start) {
+        int length = path.length();
+        int elementStart = start;
+        for (int i = 0; i < length; i++) {
+            char c = path.charAt(i);
+            if (c == '\\') {
+                return false;
+            }
+            if (i >= start && c == '/') {
+                if (isCurrentPath(path, elementStart, i - elementStart) ||
+                        isTopPath(path, elementStart, i - elementStart)) {
+                    return false;
+                }
+                elementStart = i + 1;
+            }
+        }
+        return (start >= length || (!isCurrentPath(path, elementStart, length - elementStart) &&
+                !isTopPath(path, elementStart, length - elementStart)));
+    }
+
+    private static boolean isFolderSeparator(char c) {
+        return (c == '/' || c == '\\');
+    }
+
+    private static boolean isCurrentPath(String path, int offset, int length) {
+        return (length == 1 && path.charAt(offset) == '.');
+    }
+
+    private static boolean isTopPath(String path, int offset, int length) {
+        return (length == 2 && path.charAt(offset) == '.' && path.charAt(offset + 1) == '.');
     }
 
     /**
@@ -674,38 +859,135 @@ public abstract class StringUtils {
             return source;
         }
         Assert.notNull(charset, "Charset must not be null");
+        int firstEscape = source.indexOf('%');
+        if (firstEscape == -1) {
+            return source;
+        }
+        byte[] bytes = uriDecodeBuffers.get().getBytes(length);
+        int count = decodeToBytes(source, 0, length, firstEscape, bytes);
+        return new String(bytes, 0, count, charset);
+    }
 
-        ByteArrayOutputStream bos = new ByteArrayOutputStream(length);
-        boolean changed = false;
-        for (int i = 0; i < length; i++) {
-            int ch = source.charAt(i);
+    /**
+     * Decode the given encoded URI component value into the given buffer,
+     * following the rules of {@link #uriDecode(String, Charset)}.
+     * @param source the encoded String
+     * @param charset the character set
+     * @param buffer the buffer for the decoded bytes, to be reused across calls;
+     * must provide at least {@code source.length()} bytes
+     * @return the decoded value, or the source itself if it does not contain any
+     * encoded sequences
+     * @throws IllegalArgumentException when the given source contains invalid encoded sequences
+     */
+    public static String uriDecode(String source, Charset charset, byte[] buffer) {
+        int length = source.length();
+        if (length == 0) {
+            return source;
+        }
+        Assert.notNull(charset, "Charset must not be null");
+        Assert.notNull(buffer, "Buffer must not be null");
+        int firstEscape = source.indexOf('%');
+        if (firstEscape == -1) {
+            return source;
+        }
+        Assert.isTrue(buffer.length >= length, "Buffer must be at least as long as the source");
+        int count = decodeToBytes(source, 0, length, firstEscape, buffer);
+        return new String(buffer, 0, count, charset);
+    }
+
+    /**
+     * Decode the given range of an encoded URI component value, following the
+     * rules of {@link #uriDecode(String, Charset)}, and append the result to the
+     * given target.
+     * <p>A range without encoded sequences is appended as is; otherwise the range
+     * is decoded through buffers held per thread, without creating intermediate
+     * Strings.
+     * @param source the encoded character sequence
+     * @param start the index of the first character to decode
+     * @param end the index after the last character to decode
+     * @param charset the character set
+     * @param target the target to append the decoded value to
+     * @throws IllegalArgumentException when the given range contains invalid encoded sequences
+     * @throws IOException if thrown by the target
+     */
+    public static void uriDecode(CharSequence source, int start, int end, Charset charset, Appendable target)
+            throws IOException {
+
+        Assert.notNull(source, "Source must not be null");
+        Assert.notNull(charset, "Charset must not be null");
+        Assert.notNull(target, "Target must not be null");
+        if (start < 0 || start > end || end > source.length()) {
+            throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") out of bounds for length " +
+                    source.length());
+        }
+        int firstEscape = indexOf(source, '%', start, end);
+        if (firstEscape == -1) {
+            target.append(source, start, end);
+            return;
+        }
+        UriDecodeBuffers buffers = uriDecodeBuffers.get();
+        byte[] bytes = buffers.getBytes(end - start);
+        int count = decodeToBytes(source, start, end, firstEscape, bytes);
+        target.append(buffers.decode(bytes, count, charset));
+    }
+
+    private static int indexOf(CharSequence source, char ch, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (source.charAt(i) == ch) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decode the given range into the given buffer, copying the characters
+     * before the first '%' without further checks.
+     * @return the number of bytes written
+     */
+    private static int decodeToBytes(CharSequence source, int start, int end, int firstEscape, byte[] bytes) {
+        int count = 0;
+        for (int i = start; i < firstEscape; i++) {
+            bytes[count++] = (byte) source.charAt(i);
+        }
+        for (int i = firstEscape; i < end; i++) {
+            char ch = source.charAt(i);
             if (ch == '%') {
-                if (i + 2 < length) {
-                    char hex1 = source.charAt(i + 1);
-                    char hex2 = source.charAt(i + 2);
-                    int u = Character.digit(hex1, 16);
-                    int l = Character.digit(hex2, 16);
+                if (i + 2 < end) {
+                    int u = Character.digit(source.charAt(i + 1), 16);
+                    int l = Character.digit(source.charAt(i + 2), 16);
                     if (u == -1 || l == -1) {
-                        throw new IllegalArgumentException("Invalid encoded sequence \"" + source.substring(i) + "\"");
+                        throw new IllegalArgumentException(
+                                "Invalid encoded sequence \"" + source.subSequence(i, end) + "\"");
                     }
-                    bos.write((char) ((u << 4) + l));
+                    bytes[count++] = (byte) ((u << 4) + l);
                     i += 2;
-                    changed = true;
                 }
                 else {
-                    throw new IllegalArgumentException("Invalid encoded sequence \"" + source.substring(i) + "\"");
+                    throw new IllegalArgumentException(
+                            "Invalid encoded sequence \"" + source.subSequence(i, end) + "\"");
                 }
             }
             else {
-                bos.write(ch);
+                bytes[count++] = (byte) ch;
             }
         }
-        return (changed ? new String(bos.toByteArray(), charset) : source);
+        return count;
+    }
+
+    /**
+     * Register a listener for the hits and misses of the caches behind
+     * {@link #parseLocale}, {@link #parseLocaleString} and {@link #parseTimeZoneString}.
+     * @param listener the listener, or {@code null} to remove the current one
+     */
+    public static void setParseCacheListener(@Nullable ParseCacheListener listener) {
+        parseCacheListener = listener;
     }
 
     /**
      * Parse the given {@code String} value into a {@link Locale}, accepting
      * the {@link Locale#toString} format as well as BCP 47 language tags.
+     * <p>Parsed values are cached, for up to 256 distinct values.
      * @param localeValue the locale value: following either {@code Locale's}
      * {@code toString()} format ("en", "en_UK", etc), also accepting spaces as
      * separators (as an alternative to underscores), or BCP 47 (e.g. "en-UK")
@@ -718,6 +1000,15 @@ public abstract class StringUtils {
      */
     @Nullable
     public static Locale parseLocale(String localeValue) {
+        if (!hasLength(localeValue)) {
+            // No locale to parse, and nothing to cache (null keys are not supported)
+            return null;
+        }
+        return localeCache.get(localeValue, StringUtils::doParseLocale, parseCacheListener);
+    }
+
+    @Nullable
+    private static Locale doParseLocale(String localeValue) {
         String[] tokens = tokenizeLocaleSource(localeValue);
         if (tokens.length == 1) {
             validateLocalePart(localeValue);
@@ -735,6 +1026,7 @@ public abstract class StringUtils {
      * it is rather specifically tailored for typical Spring parsing needs.
      * <p><b>Note: This delegate does not accept the BCP 47 language tag format.
      * Please use {@link #parseLocale} for lenient parsing of both formats.</b>
+     * <p>Parsed values are cached, for up to 256 distinct values.
      * @param localeString the locale {@code String}: following {@code Locale's}
      * {@code toString()} format ("en", "en_UK", etc), also accepting spaces as
      * separators (as an alternative to underscores)
@@ -743,7 +1035,11 @@ public abstract class StringUtils {
      */
     @Nullable
     public static Locale parseLocaleString(String localeString) {
-        return parseLocaleTokens(localeString, tokenizeLocaleSource(localeString));
+        if (!hasLength(localeString)) {
+            return null;
+        }
+        return localeStringCache.get(localeString,
+                key -> parseLocaleTokens(key, tokenizeLocaleSource(key)), parseCacheListener);
     }
 
     private static String[] tokenizeLocaleSource(String localeSource) {
@@ -801,12 +1097,19 @@ public abstract class StringUtils {
 
     /**
      * Parse the given {@code timeZoneString} value into a {@link TimeZone}.
+     * <p>Resolved time zones are cached, for up to 256 distinct values; each call
+     * returns a fresh copy of the cached instance.
      * @param timeZoneString the time zone {@code String}, following {@link TimeZone#getTimeZone(String)}
      * but throwing {@link IllegalArgumentException} in case of an invalid time zone specification
      * @return a corresponding {@link TimeZone} instance
      * @throws IllegalArgumentException in case of an invalid time zone specification
      */
     public static TimeZone parseTimeZoneString(String timeZoneString) {
+        TimeZone timeZone = timeZoneCache.get(timeZoneString, StringUtils::doParseTimeZoneString, parseCacheListener);
+        return (TimeZone) timeZone.clone();
+    }
+
+    private static TimeZone doParseTimeZoneString(String timeZoneString) {
         TimeZone timeZone = TimeZone.getTimeZone(timeZoneString);
         if ("GMT".equals(timeZone.getID()) && !timeZoneString.startsWith("GMT")) {
             // We don't want that GMT fallback...
@@ -1037,6 +1340,116 @@ public abstract class StringUtils {
         return result;
     }
 
+    /**
+     * Tokenize the given {@code String}, passing the range of each token to the
+     * given consumer instead of creating a {@code String} per token.
+     * <p>Tokens are split in the same way as by {@link #tokenizeToStringArray}:
+     * each of the given {@code delimiters} characters separates tokens, and
+     * subsequent delimiters do not produce empty tokens.
+     * @param str the {@code String} to tokenize (potentially {@code null} or empty)
+     * @param delimiters the delimiter characters, assembled as a {@code String}
+     * (each of the characters is individually considered as a delimiter)
+     * @param trimTokens trim the token ranges like {@link String#trim()} would
+     * @param ignoreEmptyTokens skip tokens that are empty after trimming
+     * @param consumer the consumer to call for each token
+     * @return the number of tokens passed to the consumer
+     * @see #tokenizeToStringArray(String, String, boolean, boolean)
+     */
+    public static int forEachToken(@Nullable String str, String delimiters,
+            boolean trimTokens, boolean ignoreEmptyTokens, TokenConsumer consumer) {
+
+        if (str == null) {
+            return 0;
+        }
+        Delimiters delimiterTable = Delimiters.forString(delimiters);
+        int length = str.length();
+        int count = 0;
+        int pos = 0;
+        while (pos < length) {
+            while (pos < length && delimiterTable.matches(str.charAt(pos))) {
+                pos++;
+            }
+            if (pos == length) {
+                break;
+            }
+            int start = pos;
+            while (pos < length && !delimiterTable.matches(str.charAt(pos))) {
+                pos++;
+            }
+            int end = pos;
+            if (trimTokens) {
+                while (start < end && str.charAt(start) <= ' ') {
+                    start++;
+                }
+                while (start < end && str.charAt(end - 1) <= ' ') {
+                    end--;
+                }
+            }
+            if (!ignoreEmptyTokens || start < end) {
+                consumer.accept(str, start, end);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Trim the tokens of the given {@code String} and pass each non-empty one to
+     * the given consumer.
+     * @param str the {@code String} to tokenize (potentially {@code null} or empty)
+     * @param delimiters the delimiter characters, assembled as a {@code String}
+     * (each of the characters is individually considered as a delimiter)
+     * @param consumer the consumer to call for each token
+     * @see #forEachToken(String, String, boolean, boolean, TokenConsumer)
+     */
+    public static void forEachToken(@Nullable String str, String delimiters, Consumer<String> consumer) {
+        forEachToken(str, delimiters, true, true, (source, start, end) -> consumer.accept(source.substring(start, end)));
+    }
+
+    /**
+     * Split the given delimited list, passing the range of each element to the
+     * given consumer instead of creating a {@code String} per element.
+     * <p>Elements are split in the same way as by {@link #delimitedListToStringArray}:
+     * the {@code delimiter} is considered as a single delimiter string, and an
+     * empty delimiter turns each character into an element of its own.
+     * @param str the input {@code String} (potentially {@code null} or empty)
+     * @param delimiter the delimiter between elements (this is a single delimiter,
+     * rather than a bunch individual delimiter characters)
+     * @param consumer the consumer to call for each element
+     * @return the number of elements passed to the consumer
+     * @see #delimitedListToStringArray(String, String)
+     */
+    public static int forEachDelimitedElement(@Nullable String str, @Nullable String delimiter, TokenConsumer consumer) {
+        if (str == null) {
+            return 0;
+        }
+        int length = str.length();
+        if (delimiter == null) {
+            consumer.accept(str, 0, length);
+            return 1;
+        }
+        if (delimiter.isEmpty()) {
+            for (int i = 0; i < length; i++) {
+                consumer.accept(str, i, i + 1);
+            }
+            return length;
+        }
+        if (length == 0) {
+            return 0;
+        }
+        int count = 0;
+        int pos = 0;
+        int delPos;
+        while ((delPos = str.indexOf(delimiter, pos)) != -1) {
+            consumer.accept(str, pos, delPos);
+            count++;
+            pos = delPos + delimiter.length();
+        }
+        // Add rest of String.
+        consumer.accept(str, pos, length);
+        return count + 1;
+    }
+
     /**
      * Tokenize the given {@code String} into a {@code String} array via a
      * {@link StringTokenizer}.
@@ -1058,8 +1471,8 @@ public abstract class StringUtils {
     }
 
     /**
-     * Tokenize the given {@code String} into a {@code String} array via a
-     * {@link StringTokenizer}.
+     * Tokenize the given {@code String} into a {@code String} array, splitting
+     * it in the same way as a {@link StringTokenizer}.
      * <p>The given {@code delimiters} string can consist of any number of
      * delimiter characters. Each of those characters can be used to separate
      * tokens. A delimiter is always a single character; for multi-character
@@ -1075,6 +1488,7 @@ public abstract class StringUtils {
      * @see java.util.StringTokenizer
      * @see String#trim()
      * @see #delimitedListToStringArray
+     * @see #forEachToken(String, String, boolean, boolean, TokenConsumer)
      */
     public static String[] tokenizeToStringArray(
             @Nullable String str, String delimiters, boolean trimTokens, boolean ignoreEmptyTokens) {
@@ -1082,19 +1496,15 @@ public abstract class StringUtils {
         if (str == null) {
             return new String[0];
         }
-
-        StringTokenizer st = new StringTokenizer(str, delimiters);
-        List<String> tokens = new ArrayList<>();
-        while (st.hasMoreTokens()) {
-            String token = st.nextToken();
-            if (trimTokens) {
-                token = token.trim();
-            }
-            if (!ignoreEmptyTokens || token.length() > 0) {
-                tokens.add(token);
-            }
+        // First pass counts the tokens, second pass fills an exactly sized array.
+        int count = forEachToken(str, delimiters, trimTokens, ignoreEmptyTokens, (source, start, end) -> {});
+        String[] tokens = new String[count];
+        if (count > 0) {
+            int[] index = new int[1];
+            forEachToken(str, delimiters, trimTokens, ignoreEmptyTokens,
+                    (source, start, end) -> tokens[index[0]++] = source.substring(start, end));
         }
-        return toStringArray(tokens);
+        return tokens;
     }
 
     /**
@@ -1128,6 +1538,7 @@ public abstract class StringUtils {
      * line breaks: e.g. "\r\n\f" will delete all new lines and line feeds in a {@code String}
      * @return an array of the tokens in the list
      * @see #tokenizeToStringArray
+     * @see #forEachDelimitedElement
      */
     public static String[] delimitedListToStringArray(
             @Nullable String str, @Nullable String delimiter, @Nullable String charsToDelete) {
@@ -1138,26 +1549,25 @@ public abstract class StringUtils {
         if (delimiter == null) {
             return new String[] {str};
         }
+        String[] result = new String[countDelimitedElements(str, delimiter)];
+        int[] index = new int[1];
+        forEachDelimitedElement(str, delimiter, (source, start, end) ->
+                result[index[0]++] = deleteAny(source.substring(start, end), charsToDelete));
+        return result;
+    }
 
-        List<String> result = new ArrayList<>();
-        if (delimiter.isEmpty()) {
-            for (int i = 0; i < str.length(); i++) {
-                result.add(deleteAny(str.substring(i, i + 1), charsToDelete));
-            }
+    private static int countDelimitedElements(String str, String delimiter) {
+        if (delimiter.isEmpty() || str.isEmpty()) {
+            return str.length();
         }
-        else {
-            int pos = 0;
-            int delPos;
-            while ((delPos = str.indexOf(delimiter, pos)) != -1) {
-                result.add(deleteAny(str.substring(pos, delPos), charsToDelete));
-                pos = delPos + delimiter.length();
-            }
-            if (str.length() > 0 && pos <= str.length()) {
-                // Add rest of String, but not in case of empty input.
-                result.add(deleteAny(str.substring(pos), charsToDelete));
-            }
+        int count = 1;
+        int pos = 0;
+        int delPos;
+        while ((delPos = str.indexOf(delimiter, pos)) != -1) {
+            count++;
+            pos = delPos + delimiter.length();
         }
-        return toStringArray(result);
+        return count;
     }
 
     /**
@@ -1179,8 +1589,9 @@ public abstract class StringUtils {
      * @see #removeDuplicateStrings(String[])
      */
     public static Set<String> commaDelimitedListToSet(@Nullable String str) {
-        String[] tokens = commaDelimitedListToStringArray(str);
-        return new LinkedHashSet<>(Arrays.asList(tokens));
+        Set<String> set = new LinkedHashSet<>();
+        forEachDelimitedElement(str, ",", (source, start, end) -> set.add(source.substring(start, end)));
+        return set;
     }
 
     /**
@@ -1267,4 +1678,122 @@ public abstract class StringUtils {
         return arrayToDelimitedString(arr, ",");
     }
 
+
+    /**
+     * Callback for the tokens found by {@link #forEachToken} and
+     * {@link #forEachDelimitedElement}, receiving each token as a
+     * range of the source {@code String}.
+     */
+    @FunctionalInterface
+    public interface TokenConsumer {
+
+        /**
+         * Accept the token at the given range.
+         * @param source the {@code String} being tokenized
+         * @param start the index of the first character of the token
+         * @param end the index after the last character of the token
+         */
+        void accept(String source, int start, int end);
+    }
+
+
+    /**
+     * Lookup table for a set of delimiter characters, with direct array
+     * access for ASCII delimiters.
+     */
+    private static final class Delimiters {
+
+        /** Maximum number of lookup tables kept for distinct delimiter strings. */
+        private static final int CACHE_LIMIT = 256;
+
+        private static final Map<String, Delimiters> cache = new ConcurrentHashMap<>(16);
+
+        private final boolean[] ascii = new boolean[128];
+
+        @Nullable
+        private final String nonAscii;
+
+        private Delimiters(String delimiters) {
+            StringBuilder nonAscii = null;
+            for (int i = 0; i < delimiters.length(); i++) {
+                char c = delimiters.charAt(i);
+                if (c < 128) {
+                    this.ascii[c] = true;
+                }
+                else {
+                    if (nonAscii == null) {
+                        nonAscii = new StringBuilder();
+                    }
+                    nonAscii.append(c);
+                }
+            }
+            this.nonAscii = (nonAscii != null ? nonAscii.toString() : null);
+        }
+
+        static Delimiters forString(String delimiters) {
+            Delimiters table = cache.get(delimiters);
+            if (table == null) {
+                table = new Delimiters(delimiters);
+                if (cache.size() < CACHE_LIMIT) {
+                    cache.putIfAbsent(delimiters, table);
+                }
+            }
+            return table;
+        }
+
+        boolean matches(char c) {
+            return (c < 128 ? this.ascii[c] : (this.nonAscii != null && this.nonAscii.indexOf(c) != -1));
+        }
+    }
+
+
+    /**
+     * Decoding buffers for {@link #uriDecode}, reused by the current thread as long
+     * as they do not exceed {@link #URI_DECODE_BUFFER_LIMIT}.
+     */
+    private static final class UriDecodeBuffers {
+
+        private byte[] bytes = new byte[256];
+
+        private char[] chars = new char[256];
+
+        @Nullable
+        private CharsetDecoder decoder;
+
+        byte[] getBytes(int length) {
+            if (length <= this.bytes.length) {
+                return this.bytes;
+            }
+            byte[] bytes = new byte[length];
+            if (length <= URI_DECODE_BUFFER_LIMIT) {
+                this.bytes = bytes;
+            }
+            return bytes;
+        }
+
+        CharBuffer decode(byte[] bytes, int count, Charset charset) {
+            CharsetDecoder decoder = this.decoder;
+            if (decoder == null || !decoder.charset().equals(charset)) {
+                decoder = charset.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+                this.decoder = decoder;
+            }
+            int length = (int) Math.ceil(count * (double) decoder.maxCharsPerByte());
+            char[] chars = this.chars;
+            if (length > chars.length) {
+                chars = new char[length];
+                if (length <= URI_DECODE_BUFFER_LIMIT) {
+                    this.chars = chars;
+                }
+            }
+            CharBuffer out = CharBuffer.wrap(chars);
+            decoder.reset();
+            decoder.decode(ByteBuffer.wrap(bytes, 0, count), out, true);
+            decoder.flush(out);
+            out.flip();
+            return out;
+        }
+    }
+
 }
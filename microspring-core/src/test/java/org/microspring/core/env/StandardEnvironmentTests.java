@@ -0,0 +1,68 @@
+package org.microspring.core.env;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link StandardEnvironment} property resolution against sources that
+ * change in place, and against sources declared immutable.
+ */
+public class StandardEnvironmentTests {
+
+    private static final String KEY = "microspring.test.flag";
+
+
+    @Test
+    public void systemPropertySetLaterBecomesVisible() {
+        StandardEnvironment environment = new StandardEnvironment();
+        assertNull(environment.getProperty(KEY));
+        assertFalse(environment.containsProperty(KEY));
+        assertEquals("false", environment.resolvePlaceholders("${" + KEY + ":false}"));
+        System.setProperty(KEY, "true");
+        try {
+            assertEquals("true", environment.getProperty(KEY));
+            assertEquals(Boolean.TRUE, environment.getProperty(KEY, Boolean.class));
+            assertTrue(environment.containsProperty(KEY));
+            assertEquals("true", environment.resolvePlaceholders("${" + KEY + ":false}"));
+            assertEquals("true", environment.resolveRequiredPlaceholders("${" + KEY + "}"));
+        }
+        finally {
+            System.clearProperty(KEY);
+        }
+        assertNull(environment.getProperty(KEY));
+    }
+
+    @Test
+    public void mapPropertySourceChangesBecomeVisible() {
+        Map<String, Object> properties = new HashMap<>();
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", properties));
+        assertNull(environment.getProperty(KEY));
+        properties.put(KEY, "on");
+        assertEquals("on", environment.getProperty(KEY));
+        properties.put(KEY, "off");
+        assertEquals("off", environment.getProperty(KEY));
+    }
+
+    @Test
+    public void immutableSourceLookupsAreCachedUntilSourcesChange() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(KEY, "on");
+        MutablePropertySources propertySources = new MutablePropertySources();
+        propertySources.addLast(new MapPropertySource("test", properties, true));
+        PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(propertySources);
+        assertEquals("on", resolver.getProperty(KEY));
+        properties.put(KEY, "off");
+        assertEquals("on", resolver.getProperty(KEY));
+        propertySources.addFirst(new MapPropertySource("override", new HashMap<>()));
+        assertEquals("off", resolver.getProperty(KEY));
+    }
+
+}
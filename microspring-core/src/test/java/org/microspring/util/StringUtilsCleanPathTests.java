@@ -0,0 +1,147 @@
+package org.microspring.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Differential tests for {@link StringUtils#cleanPath}, comparing the single-pass
+ * normalizer with the former split-and-join implementation, kept below as oracle.
+ */
+public class StringUtilsCleanPathTests {
+
+    /** Characters that drive the normalizer's decisions, plus ordinary ones. */
+    private static final char[] ALPHABET = {'/', '\\', '.', ':', 'a', 'b', ' '};
+
+
+    @Test
+    public void cleanPathMatchesFormerImplementationForTypicalPaths() {
+        String[] paths = {
+                null, "", ".", "..", "/", "\\", "./", "../", "/.", "/..", "//", "a//b", "a/./b", "a/../b",
+                "a/b/../../..", "../../a", "./a/..", "mypath/myfile", "mypath/../mypath/myfile",
+                "/a/:b/../../mypath/myfile", "file:core/../core/io/Resource.class",
+                "file:../core/io/Resource.class", "file:./", "file:/", "file:.", "file:..", "file:/../",
+                "classpath:org/microspring/core/io/Resource.class", "C:\\workspace\\project\\..\\target",
+                "jar:file:///c:/path/to/the%20jar.jar!/org/../com/Foo.class", "a:b:c/../d", "/a/b/.",
+                "a/b/./", "a/b/../", ":", "::", ":/", "/:", ":..", "a/:/..", "\\\\server\\share\\..\\x"
+        };
+        for (String path : paths) {
+            assertCleanPath(path);
+        }
+    }
+
+    @Test
+    public void cleanPathMatchesFormerImplementationForAllShortPaths() {
+        // Every combination of up to five characters of the alphabet
+        for (int length = 0; length <= 5; length++) {
+            char[] chars = new char[length];
+            int combinations = (int) Math.pow(ALPHABET.length, length);
+            for (int n = 0; n < combinations; n++) {
+                int value = n;
+                for (int i = 0; i < length; i++) {
+                    chars[i] = ALPHABET[value % ALPHABET.length];
+                    value /= ALPHABET.length;
+                }
+                assertCleanPath(new String(chars));
+            }
+        }
+    }
+
+    @Test
+    public void cleanPathMatchesFormerImplementationForRandomPaths() {
+        String[] elements = {"/", "\\", ".", "..", "...", "a", "bc", ":", "file:", "./", "../", "//"};
+        Random random = new Random(42);
+        for (int n = 0; n < 100_000; n++) {
+            StringBuilder path = new StringBuilder();
+            int count = random.nextInt(12);
+            for (int i = 0; i < count; i++) {
+                path.append(elements[random.nextInt(elements.length)]);
+            }
+            assertCleanPath(path.toString());
+        }
+    }
+
+
+    private static void assertCleanPath(String path) {
+        assertEquals("cleanPath(\"" + path + "\")", splitAndJoinCleanPath(path), StringUtils.cleanPath(path));
+    }
+
+    /**
+     * The former {@code cleanPath} implementation, serving as oracle.
+     * <p>Built on JDK methods only, so that it does not change along with
+     * the {@code StringUtils} helpers it originally used.
+     */
+    private static String splitAndJoinCleanPath(String path) {
+        if (path == null || path.isEmpty()) {
+            return path;
+        }
+        String pathToUse = path.replace("\\", "/");
+
+        int prefixIndex = pathToUse.indexOf(':');
+        String prefix = "";
+        if (prefixIndex != -1) {
+            prefix = pathToUse.substring(0, prefixIndex + 1);
+            if (prefix.contains("/")) {
+                prefix = "";
+            }
+            else {
+                pathToUse = pathToUse.substring(prefixIndex + 1);
+            }
+        }
+        if (pathToUse.startsWith("/")) {
+            prefix = prefix + "/";
+            pathToUse = pathToUse.substring(1);
+        }
+
+        List<String> pathArray = split(pathToUse);
+        LinkedList<String> pathElements = new LinkedList<>();
+        int tops = 0;
+        for (int i = pathArray.size() - 1; i >= 0; i--) {
+            String element = pathArray.get(i);
+            if (".".equals(element)) {
+                continue;
+            }
+            if ("..".equals(element)) {
+                tops++;
+            }
+            else if (tops > 0) {
+                tops--;
+            }
+            else {
+                pathElements.add(0, element);
+            }
+        }
+        for (int i = 0; i < tops; i++) {
+            pathElements.add(0, "..");
+        }
+        if (pathElements.size() == 1 && "".equals(pathElements.getLast()) && !prefix.endsWith("/")) {
+            pathElements.add(0, ".");
+        }
+        return prefix + String.join("/", pathElements);
+    }
+
+    /**
+     * Split the given path at every '/', keeping empty elements, except for
+     * an empty path which has no elements at all.
+     */
+    private static List<String> split(String path) {
+        List<String> elements = new ArrayList<>();
+        if (path.isEmpty()) {
+            return elements;
+        }
+        int start = 0;
+        int end;
+        while ((end = path.indexOf('/', start)) != -1) {
+            elements.add(path.substring(start, end));
+            start = end + 1;
+        }
+        elements.add(path.substring(start));
+        return elements;
+    }
+
+}
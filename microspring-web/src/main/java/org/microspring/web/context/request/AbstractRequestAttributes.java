@@ -1,4 +1,84 @@
 package org.microspring.web.context.request;
 
-public abstract class AbstractRequestAttributes implements RequestAttributes{
+import org.microspring.lang.Nullable;
+import org.microspring.util.Assert;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public abstract class AbstractRequestAttributes implements RequestAttributes {
+
+    /**
+     * Map from attribute name String to destruction callback Runnable,
+     * created on first registration since most requests register none.
+     */
+    @Nullable
+    private Map<String, Runnable> requestDestructionCallbacks;
+
+    private volatile boolean requestActive = true;
+
+
+    /**
+     * Signal that the request has been completed.
+     * <p>Executes all request destruction callbacks.
+     */
+    public void requestCompleted() {
+        executeRequestDestructionCallbacks();
+        this.requestActive = false;
+    }
+
+    /**
+     * Determine whether the original request is still active.
+     * @see #requestCompleted()
+     */
+    protected final boolean isRequestActive() {
+        return this.requestActive;
+    }
+
+    /**
+     * Register the given callback as to be executed after request completion.
+     * @param name the name of the attribute to register the callback for
+     * @param callback the callback to be executed for destruction
+     */
+    protected final void registerRequestDestructionCallback(String name, Runnable callback) {
+        Assert.notNull(name, "Name must not be null");
+        Assert.notNull(callback, "Callback must not be null");
+        synchronized (this) {
+            if (this.requestDestructionCallbacks == null) {
+                this.requestDestructionCallbacks = new LinkedHashMap<>(8);
+            }
+            this.requestDestructionCallbacks.put(name, callback);
+        }
+    }
+
+    /**
+     * Remove the request destruction callback for the specified attribute, if any.
+     * @param name the name of the attribute to remove the callback for
+     */
+    protected final void removeRequestDestructionCallback(String name) {
+        Assert.notNull(name, "Name must not be null");
+        synchronized (this) {
+            if (this.requestDestructionCallbacks != null) {
+                this.requestDestructionCallbacks.remove(name);
+            }
+        }
+    }
+
+    /**
+     * Execute all callbacks that have been registered for execution
+     * after request completion.
+     */
+    private void executeRequestDestructionCallbacks() {
+        Map<String, Runnable> callbacks;
+        synchronized (this) {
+            callbacks = this.requestDestructionCallbacks;
+            this.requestDestructionCallbacks = null;
+        }
+        if (callbacks != null) {
+            for (Runnable runnable : callbacks.values()) {
+                runnable.run();
+            }
+        }
+    }
+
 }
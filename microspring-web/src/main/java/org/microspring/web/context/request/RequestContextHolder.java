@@ -1,16 +1,46 @@
 package org.microspring.web.context.request;
 
-import org.microspring.core.NamedInheritableThreadLocal;
-import org.microspring.core.NamedThreadLocal;
+import org.microspring.core.ThreadContext;
 import org.microspring.lang.Nullable;
 
 public abstract class RequestContextHolder {
 
-    private static final ThreadLocal<RequestAttributes> requestAttributesHolder =
-            new NamedThreadLocal<>("Request attributes");
+    /**
+     * Reset the RequestAttributes for the current thread.
+     */
+    public static void resetRequestAttributes() {
+        ThreadContext context = ThreadContext.currentIfPresent();
+        if (context != null) {
+            context.setRequestAttributes(null, false);
+            ThreadContext.resetIfEmpty();
+        }
+    }
+
+    /**
+     * Bind the given RequestAttributes to the current thread,
+     * <i>not</i> exposing it as inheritable for child threads.
+     * @param attributes the RequestAttributes to expose
+     * @see #setRequestAttributes(RequestAttributes, boolean)
+     */
+    public static void setRequestAttributes(@Nullable RequestAttributes attributes) {
+        setRequestAttributes(attributes, false);
+    }
 
-    private static final ThreadLocal<RequestAttributes> inheritableRequestAttributesHolder =
-            new NamedInheritableThreadLocal<>("Request context");
+    /**
+     * Bind the given RequestAttributes to the current thread.
+     * @param attributes the RequestAttributes to expose,
+     * or {@code null} to reset the thread-bound context
+     * @param inheritable whether to expose the RequestAttributes as inheritable
+     * for child threads
+     */
+    public static void setRequestAttributes(@Nullable RequestAttributes attributes, boolean inheritable) {
+        if (attributes == null) {
+            resetRequestAttributes();
+        }
+        else {
+            ThreadContext.current().setRequestAttributes(attributes, inheritable);
+        }
+    }
 
     /**
      * Return the RequestAttributes currently bound to the thread.
@@ -19,10 +49,7 @@ public abstract class RequestContextHolder {
      */
     @Nullable
     public static RequestAttributes getRequestAttributes() {
-        RequestAttributes attributes = requestAttributesHolder.get();
-        if (attributes == null) {
-            attributes = inheritableRequestAttributesHolder.get();
-        }
-        return attributes;
+        ThreadContext context = ThreadContext.currentIfPresent();
+        return (context != null ? (RequestAttributes) context.getRequestAttributes() : null);
     }
 }
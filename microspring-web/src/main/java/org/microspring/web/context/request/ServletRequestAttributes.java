@@ -2,23 +2,44 @@ package org.microspring.web.context.request;
 
 import org.microspring.lang.Nullable;
 import org.microspring.util.Assert;
+import org.microspring.util.StringUtils;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import javax.servlet.http.HttpSessionBindingEvent;
+import javax.servlet.http.HttpSessionBindingListener;
+import java.io.Serializable;
+
+public class ServletRequestAttributes extends AbstractRequestAttributes {
+
+    /**
+     * Constant identifying the {@link String} prefixed to the name of a
+     * destruction callback when it is stored in a {@link HttpSession}.
+     */
+    public static final String DESTRUCTION_CALLBACK_NAME_PREFIX =
+            ServletRequestAttributes.class.getName() + ".DESTRUCTION_CALLBACK.";
+
+    private static final String[] EMPTY_ATTRIBUTE_NAMES = new String[0];
 
-public class ServletRequestAttributes {
 
     private final HttpServletRequest request;
 
     @Nullable
     private HttpServletResponse response;
 
+    @Nullable
+    private volatile HttpSession session;
+
+
     /**
      * Create a new ServletRequestAttributes instance for the given request.
      * @param request current HTTP request
      */
     public ServletRequestAttributes(HttpServletRequest request) {
-        Assert.notNull(request, "Request must not be null");
+        if (Assert.isHotPathAssertionEnabled()) {
+            Assert.notNull(request, "Request must not be null");
+        }
         this.request = request;
     }
 
@@ -31,4 +52,204 @@ public class ServletRequestAttributes {
         this(request);
         this.response = response;
     }
+
+
+    /**
+     * Exposes the native {@link HttpServletRequest} that we're wrapping.
+     */
+    public final HttpServletRequest getRequest() {
+        return this.request;
+    }
+
+    /**
+     * Exposes the native {@link HttpServletResponse} that we're wrapping (if any).
+     */
+    @Nullable
+    public final HttpServletResponse getResponse() {
+        return this.response;
+    }
+
+    /**
+     * Exposes the {@link HttpSession} that we're wrapping.
+     * @param allowCreate whether to allow creation of a new session if none exists yet
+     */
+    @Nullable
+    protected final HttpSession getSession(boolean allowCreate) {
+        if (isRequestActive()) {
+            HttpSession session = this.request.getSession(allowCreate);
+            this.session = session;
+            return session;
+        }
+        else {
+            // Access through stored session reference, if any...
+            HttpSession session = this.session;
+            if (session == null) {
+                if (allowCreate) {
+                    throw new IllegalStateException(
+                            "No session found and request already completed - cannot create new session!");
+                }
+                else {
+                    session = this.request.getSession(false);
+                    this.session = session;
+                }
+            }
+            return session;
+        }
+    }
+
+    private HttpSession obtainSession() {
+        HttpSession session = getSession(true);
+        Assert.state(session != null, "No HttpSession");
+        return session;
+    }
+
+
+    @Override
+    @Nullable
+    public Object getAttribute(String name, int scope) {
+        if (scope == SCOPE_REQUEST) {
+            if (!isRequestActive()) {
+                throw new IllegalStateException(
+                        "Cannot ask for request attribute - request is not active anymore!");
+            }
+            return this.request.getAttribute(name);
+        }
+        else {
+            HttpSession session = getSession(false);
+            if (session != null) {
+                try {
+                    return session.getAttribute(name);
+                }
+                catch (IllegalStateException ex) {
+                    // Session invalidated - shouldn't usually happen.
+                }
+            }
+            return null;
+        }
+    }
+
+    @Override
+    public void setAttribute(String name, Object value, int scope) {
+        if (scope == SCOPE_REQUEST) {
+            if (!isRequestActive()) {
+                throw new IllegalStateException(
+                        "Cannot set request attribute - request is not active anymore!");
+            }
+            this.request.setAttribute(name, value);
+        }
+        else {
+            obtainSession().setAttribute(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name, int scope) {
+        if (scope == SCOPE_REQUEST) {
+            if (isRequestActive()) {
+                removeRequestDestructionCallback(name);
+                this.request.removeAttribute(name);
+            }
+        }
+        else {
+            HttpSession session = getSession(false);
+            if (session != null) {
+                try {
+                    session.removeAttribute(DESTRUCTION_CALLBACK_NAME_PREFIX + name);
+                    session.removeAttribute(name);
+                }
+                catch (IllegalStateException ex) {
+                    // Session invalidated - shouldn't usually happen.
+                }
+            }
+        }
+    }
+
+    @Override
+    public String[] getAttributeNames(int scope) {
+        if (scope == SCOPE_REQUEST) {
+            if (!isRequestActive()) {
+                throw new IllegalStateException(
+                        "Cannot ask for request attributes - request is not active anymore!");
+            }
+            return StringUtils.toStringArray(this.request.getAttributeNames());
+        }
+        else {
+            HttpSession session = getSession(false);
+            if (session != null) {
+                try {
+                    return StringUtils.toStringArray(session.getAttributeNames());
+                }
+                catch (IllegalStateException ex) {
+                    // Session invalidated - shouldn't usually happen.
+                }
+            }
+            return EMPTY_ATTRIBUTE_NAMES;
+        }
+    }
+
+    @Override
+    public void registerDestructionCallback(String name, Runnable callback, int scope) {
+        if (scope == SCOPE_REQUEST) {
+            registerRequestDestructionCallback(name, callback);
+        }
+        else {
+            obtainSession().setAttribute(DESTRUCTION_CALLBACK_NAME_PREFIX + name,
+                    new DestructionCallbackBindingListener(callback));
+        }
+    }
+
+    @Override
+    @Nullable
+    public Object resolveReference(String key) {
+        if (REFERENCE_REQUEST.equals(key)) {
+            return this.request;
+        }
+        else if (REFERENCE_SESSION.equals(key)) {
+            return getSession(true);
+        }
+        else {
+            return null;
+        }
+    }
+
+    @Override
+    public String getSessionId() {
+        return obtainSession().getId();
+    }
+
+    @Override
+    public Object getSessionMutex() {
+        return obtainSession();
+    }
+
+
+    @Override
+    public String toString() {
+        return this.request.toString();
+    }
+
+
+    /**
+     * Adapter that implements the Servlet HttpSessionBindingListener interface,
+     * wrapping a session destruction callback.
+     */
+    @SuppressWarnings("serial")
+    private static class DestructionCallbackBindingListener implements HttpSessionBindingListener, Serializable {
+
+        private final Runnable destructionCallback;
+
+        public DestructionCallbackBindingListener(Runnable destructionCallback) {
+            this.destructionCallback = destructionCallback;
+        }
+
+        @Override
+        public void valueBound(HttpSessionBindingEvent event) {
+        }
+
+        @Override
+        public void valueUnbound(HttpSessionBindingEvent event) {
+            this.destructionCallback.run();
+        }
+    }
+
 }
@@ -10,10 +10,21 @@ public abstract class WebAsyncUtils {
     public static final String WEB_ASYNC_MANAGER_ATTRIBUTE =
             WebAsyncManager.class.getName() + ".WEB_ASYNC_MANAGER";
 
+    /**
+     * The name attribute containing a {@link CallableProcessingInterceptor}
+     * to be registered with the {@link WebAsyncManager} once it gets created,
+     * using the attribute name as key.
+     * @see #registerCallableInterceptor
+     */
+    public static final String CALLABLE_INTERCEPTOR_ATTRIBUTE =
+            WebAsyncManager.class.getName() + ".CALLABLE_INTERCEPTOR";
+
 
     /**
      * Obtain the {@link WebAsyncManager} for the current request, or if not
      * found, create and associate it with the request.
+     * <p>A newly created manager picks up the interceptor exposed through
+     * {@link #registerCallableInterceptor}, if any.
      */
     public static WebAsyncManager getAsyncManager(ServletRequest servletRequest) {
         WebAsyncManager asyncManager = null;
@@ -23,8 +34,37 @@ public abstract class WebAsyncUtils {
         }
         if (asyncManager == null) {
             asyncManager = new WebAsyncManager();
+            Object interceptor = servletRequest.getAttribute(CALLABLE_INTERCEPTOR_ATTRIBUTE);
+            if (interceptor instanceof CallableProcessingInterceptor) {
+                asyncManager.registerCallableInterceptor(
+                        CALLABLE_INTERCEPTOR_ATTRIBUTE, (CallableProcessingInterceptor) interceptor);
+            }
             servletRequest.setAttribute(WEB_ASYNC_MANAGER_ATTRIBUTE, asyncManager);
         }
         return asyncManager;
     }
+
+    /**
+     * Register the given request-independent {@link CallableProcessingInterceptor}
+     * for the current request without creating a {@link WebAsyncManager} for it:
+     * an existing manager gets the interceptor registered right away, otherwise
+     * the interceptor is only exposed as request attribute until concurrent
+     * handling actually asks for a manager via {@link #getAsyncManager}.
+     * <p>Replaces any interceptor previously registered this way. Does nothing
+     * for requests that do not support async processing, so that synchronous
+     * requests do not carry the attribute.
+     * @param servletRequest the current request
+     * @param interceptor the shared interceptor to register
+     */
+    public static void registerCallableInterceptor(ServletRequest servletRequest,
+                                                   CallableProcessingInterceptor interceptor) {
+
+        Object asyncManagerAttr = servletRequest.getAttribute(WEB_ASYNC_MANAGER_ATTRIBUTE);
+        if (asyncManagerAttr instanceof WebAsyncManager) {
+            ((WebAsyncManager) asyncManagerAttr).registerCallableInterceptor(CALLABLE_INTERCEPTOR_ATTRIBUTE, interceptor);
+        }
+        else if (servletRequest.isAsyncSupported()) {
+            servletRequest.setAttribute(CALLABLE_INTERCEPTOR_ATTRIBUTE, interceptor);
+        }
+    }
 }
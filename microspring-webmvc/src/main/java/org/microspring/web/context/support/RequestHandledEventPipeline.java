@@ -0,0 +1,445 @@
+package org.microspring.web.context.support;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.microspring.context.ApplicationListener;
+import org.microspring.lang.Nullable;
+import org.microspring.util.Assert;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+public class RequestHandledEventPipeline implements AutoCloseable {
+
+    /**
+     * What to do with an event for which there is no free slot in the ring buffer.
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * Drop the event right away, never delaying the request thread.
+         */
+        DROP,
+
+        /**
+         * Wait for the consumer to free a slot, delaying the request thread
+         * but never losing an event while the pipeline is running.
+         */
+        BLOCK,
+
+        /**
+         * Like {@link #DROP}, but start shedding load before the buffer is full:
+         * once the backlog exceeds half the capacity, only a random sample of one
+         * in {@code sampleRate} events is accepted.
+         */
+        SAMPLE
+    }
+
+
+    /** Default number of slots in the ring buffer. */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /** Default rate for {@link OverflowPolicy#SAMPLE}: accept one event in ten. */
+    public static final int DEFAULT_SAMPLE_RATE = 10;
+
+    /** Maximum number of events handed to the listeners per batch. */
+    private static final int MAX_BATCH_SIZE = 256;
+
+    /** Number of empty polls after which the consumer parks until the next event. */
+    private static final int SPIN_LIMIT = 64;
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+
+    private static final Log logger = LogFactory.getLog(RequestHandledEventPipeline.class);
+
+
+    private final Slot[] slots;
+
+    /**
+     * Per-slot sequence: equal to a producer's claimed sequence once the slot
+     * is free for it, and to that sequence plus one once its event got published.
+     */
+    private final AtomicLongArray sequences;
+
+    private final int mask;
+
+    /** Next sequence to be claimed by a producer. */
+    private final AtomicLong tail = new AtomicLong();
+
+    /** Next sequence to be consumed, only ever written by the consumer thread. */
+    private volatile long head;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final int sampleRate;
+
+    private final List<ApplicationListener<? super ServletRequestHandledEvent>> listeners =
+            new CopyOnWriteArrayList<>();
+
+    private final LongAdder droppedEvents = new LongAdder();
+
+    @Nullable
+    private volatile Thread consumer;
+
+    private volatile boolean running;
+
+    /** Whether the consumer is about to park or parked, waiting for producers to unpark it. */
+    private volatile boolean consumerWaiting;
+
+
+    /**
+     * Create a new pipeline with {@link #DEFAULT_CAPACITY} slots,
+     * dropping events on overflow.
+     */
+    public RequestHandledEventPipeline() {
+        this(DEFAULT_CAPACITY, OverflowPolicy.DROP);
+    }
+
+    /**
+     * Create a new pipeline.
+     * @param capacity the number of slots, rounded up to a power of two (at least two)
+     * @param overflowPolicy what to do with events while the buffer is full
+     */
+    public RequestHandledEventPipeline(int capacity, OverflowPolicy overflowPolicy) {
+        this(capacity, overflowPolicy, DEFAULT_SAMPLE_RATE);
+    }
+
+    /**
+     * Create a new pipeline.
+     * @param capacity the number of slots, rounded up to a power of two (at least two)
+     * @param overflowPolicy what to do with events while the buffer is full
+     * @param sampleRate for {@link OverflowPolicy#SAMPLE}, accept one in this many
+     * events once the backlog exceeds half the capacity
+     */
+    public RequestHandledEventPipeline(int capacity, OverflowPolicy overflowPolicy, int sampleRate) {
+        Assert.isTrue(capacity > 0 && capacity <= (1 << 30), "Capacity must be between 1 and 2^30: %s", capacity);
+        Assert.notNull(overflowPolicy, "OverflowPolicy must not be null");
+        Assert.isTrue(sampleRate > 0, "Sample rate must be positive: %s", sampleRate);
+        // A single slot could not tell a published event from a free slot
+        int size = (capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1);
+        this.slots = new Slot[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            this.slots[i] = new Slot();
+            this.sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = sampleRate;
+    }
+
+
+    /**
+     * Register a listener for the events handed through this pipeline.
+     * <p>Listeners are invoked on the consumer thread, one batch at a time.
+     * @param listener the listener to add
+     */
+    public void addApplicationListener(ApplicationListener<? super ServletRequestHandledEvent> listener) {
+        Assert.notNull(listener, "ApplicationListener must not be null");
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Remove the given listener, if registered.
+     * @param listener the listener to remove
+     */
+    public void removeApplicationListener(ApplicationListener<? super ServletRequestHandledEvent> listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Start the consumer thread.
+     * <p>Events published before get dropped, whatever the overflow policy.
+     */
+    public synchronized void start() {
+        if (this.consumer == null) {
+            Thread consumer = new Thread(this::consume, "RequestHandledEventPipeline");
+            consumer.setDaemon(true);
+            this.running = true;
+            this.consumer = consumer;
+            consumer.start();
+        }
+    }
+
+    /**
+     * Stop the consumer thread after handing all published events to the listeners.
+     * <p>Events published afterwards get dropped, whatever the overflow policy,
+     * and so do those of concurrent {@link #publish} calls that have not seen
+     * the pipeline closing in time: either way, {@code publish} returns
+     * {@code false} and the event counts as dropped.
+     */
+    @Override
+    public void close() {
+        Thread consumer;
+        synchronized (this) {
+            consumer = this.consumer;
+            this.running = false;
+        }
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+            try {
+                consumer.join();
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Return whether the consumer thread is running.
+     */
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * Return the number of events dropped so far, due to overflow or
+     * because the pipeline was not running.
+     */
+    public long getDroppedEventCount() {
+        return this.droppedEvents.sum();
+    }
+
+    /**
+     * Return the number of events published but not yet handed to the listeners.
+     */
+    public int getBacklog() {
+        return (int) Math.max(0, Math.min(this.tail.get() - this.head, this.slots.length));
+    }
+
+
+    /**
+     * Hand the data of a handled request to the consumer thread, which turns it
+     * into a {@link ServletRequestHandledEvent} for the listeners.
+     * <p>The calling thread only claims a slot, copies the given values and the
+     * current time (becoming the event's timestamp) into it and publishes it;
+     * no event is created on the calling thread. An idle consumer thread does
+     * not poll but gets unparked by the calling thread.
+     * @return {@code true} if the event was accepted, {@code false} if it was
+     * dropped due to overflow or because the pipeline is not running
+     * @see ServletRequestHandledEvent#ServletRequestHandledEvent
+     */
+    public boolean publish(Object source, String requestUrl, String clientAddress, String method,
+                           String servletName, @Nullable String sessionId, @Nullable String userName,
+                           long processingTimeMillis, @Nullable Throwable failureCause, int statusCode) {
+
+        long sequence = claim();
+        if (sequence < 0) {
+            this.droppedEvents.increment();
+            return false;
+        }
+        int index = (int) sequence & this.mask;
+        Slot slot = this.slots[index];
+        if (!this.running) {
+            // Closed in the meantime, possibly with the consumer gone already:
+            // release the slot without data, so that no event gets stranded in it
+            slot.cancelled = true;
+            this.sequences.set(index, sequence + 1);
+            this.droppedEvents.increment();
+            return false;
+        }
+        slot.timestamp = System.currentTimeMillis();
+        slot.source = source;
+        slot.requestUrl = requestUrl;
+        slot.clientAddress = clientAddress;
+        slot.method = method;
+        slot.servletName = servletName;
+        slot.sessionId = sessionId;
+        slot.userName = userName;
+        slot.processingTimeMillis = processingTimeMillis;
+        slot.failureCause = failureCause;
+        slot.statusCode = statusCode;
+        // Full fence before reading consumerWaiting, pairing with the consumer's re-check
+        this.sequences.set(index, sequence + 1);
+        if (this.consumerWaiting) {
+            Thread consumer = this.consumer;
+            if (consumer != null) {
+                LockSupport.unpark(consumer);
+            }
+        }
+        return true;
+    }
+
+    private long claim() {
+        if (!this.running) {
+            // Nobody would ever take the event out of the buffer
+            return -1;
+        }
+        if (this.overflowPolicy == OverflowPolicy.SAMPLE && this.tail.get() - this.head > (this.slots.length >> 1) &&
+                ThreadLocalRandom.current().nextInt(this.sampleRate) != 0) {
+            return -1;
+        }
+        long sequence = tryClaim();
+        int attempts = 0;
+        while (sequence < 0 && this.overflowPolicy == OverflowPolicy.BLOCK && this.running) {
+            if (++attempts < SPIN_LIMIT) {
+                Thread.yield();
+            }
+            else {
+                LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+            }
+            sequence = tryClaim();
+        }
+        return sequence;
+    }
+
+    private long tryClaim() {
+        long sequence = this.tail.get();
+        while (true) {
+            long difference = this.sequences.get((int) sequence & this.mask) - sequence;
+            if (difference == 0) {
+                if (this.tail.compareAndSet(sequence, sequence + 1)) {
+                    return sequence;
+                }
+                sequence = this.tail.get();
+            }
+            else if (difference < 0) {
+                // Slot still holds an event from the previous round: buffer full
+                return -1;
+            }
+            else {
+                // Another producer claimed this sequence already
+                sequence = this.tail.get();
+            }
+        }
+    }
+
+
+    private void consume() {
+        ServletRequestHandledEvent[] batch = new ServletRequestHandledEvent[Math.min(MAX_BATCH_SIZE, this.slots.length)];
+        int idlePolls = 0;
+        while (true) {
+            int count = drain(batch);
+            if (count > 0) {
+                dispatch(batch, count);
+                idlePolls = 0;
+            }
+            else if (!this.running) {
+                // Producers that claimed a slot before seeing the pipeline closed
+                // still publish or release it: wait for them
+                if (this.head == this.tail.get()) {
+                    break;
+                }
+                Thread.yield();
+            }
+            else if (++idlePolls < SPIN_LIMIT) {
+                Thread.yield();
+            }
+            else {
+                this.consumerWaiting = true;
+                // Re-check after announcing the wait: a concurrent producer either
+                // sees the flag or has its event seen here
+                if (this.running && !isPublished(this.head)) {
+                    LockSupport.park(this);
+                }
+                this.consumerWaiting = false;
+            }
+        }
+    }
+
+    private boolean isPublished(long sequence) {
+        return (this.sequences.get((int) sequence & this.mask) == sequence + 1);
+    }
+
+    private int drain(ServletRequestHandledEvent[] batch) {
+        long sequence = this.head;
+        int count = 0;
+        while (count < batch.length && isPublished(sequence)) {
+            int index = (int) sequence & this.mask;
+            ServletRequestHandledEvent event = this.slots[index].takeEvent();
+            if (event != null) {
+                batch[count++] = event;
+            }
+            this.sequences.lazySet(index, sequence + this.slots.length);
+            sequence++;
+        }
+        if (sequence != this.head) {
+            this.head = sequence;
+        }
+        return count;
+    }
+
+    private void dispatch(ServletRequestHandledEvent[] batch, int count) {
+        for (ApplicationListener<? super ServletRequestHandledEvent> listener : this.listeners) {
+            for (int i = 0; i < count; i++) {
+                try {
+                    listener.onApplicationEvent(batch[i]);
+                }
+                catch (Throwable ex) {
+                    logger.warn("Listener " + listener + " failed to handle " + batch[i], ex);
+                }
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            batch[i] = null;
+        }
+    }
+
+
+    /**
+     * Preallocated holder for the data of one event.
+     */
+    private static final class Slot {
+
+        long timestamp;
+
+        @Nullable
+        Object source;
+
+        @Nullable
+        String requestUrl;
+
+        @Nullable
+        String clientAddress;
+
+        @Nullable
+        String method;
+
+        @Nullable
+        String servletName;
+
+        @Nullable
+        String sessionId;
+
+        @Nullable
+        String userName;
+
+        long processingTimeMillis;
+
+        @Nullable
+        Throwable failureCause;
+
+        int statusCode;
+
+        /** Whether the slot got released without an event. */
+        boolean cancelled;
+
+        @Nullable
+        ServletRequestHandledEvent takeEvent() {
+            if (this.cancelled) {
+                this.cancelled = false;
+                return null;
+            }
+            ServletRequestHandledEvent event = new ServletRequestHandledEvent(this.source, this.timestamp,
+                    this.requestUrl, this.clientAddress, this.method, this.servletName, this.sessionId,
+                    this.userName, this.processingTimeMillis, this.failureCause, this.statusCode);
+            this.source = null;
+            this.requestUrl = null;
+            this.clientAddress = null;
+            this.method = null;
+            this.servletName = null;
+            this.sessionId = null;
+            this.userName = null;
+            this.failureCause = null;
+            return event;
+        }
+    }
+
+}
@@ -3,6 +3,8 @@ package org.microspring.web.servlet;
 import org.microspring.context.i18n.LocaleContext;
 import org.microspring.context.i18n.LocaleContextHolder;
 import org.microspring.context.i18n.SimpleLocaleContext;
+import org.microspring.core.ContextSnapshot;
+import org.microspring.core.ThreadContext;
 import org.microspring.lang.Nullable;
 import org.microspring.util.StringUtils;
 import org.microspring.web.context.request.NativeWebRequest;
@@ -10,24 +12,135 @@ import org.microspring.web.context.request.RequestAttributes;
 import org.microspring.web.context.request.RequestContextHolder;
 import org.microspring.web.context.request.ServletRequestAttributes;
 import org.microspring.web.context.request.async.CallableProcessingInterceptor;
-import org.microspring.web.context.request.async.WebAsyncManager;
 import org.microspring.web.context.request.async.WebAsyncUtils;
+import org.microspring.web.context.support.RequestHandledEventPipeline;
+import org.microspring.web.context.support.ServletRequestHandledEvent;
+import org.microspring.web.servlet.support.RequestMetrics;
 import org.microspring.web.util.NestedServletException;
 
+import javax.servlet.ServletConfig;
 import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletMapping;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
 import java.io.IOException;
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 public abstract class FrameworkServlet extends HttpServletBean{
 
+    /** Maximum number of entries in the shared LocaleContext cache. */
+    private static final int LOCALE_CONTEXT_CACHE_LIMIT = 64;
+
+    /** Immutable LocaleContext instances shared across requests, keyed by Locale. */
+    private static final Map<Locale, LocaleContext> localeContextCache = new ConcurrentHashMap<>(16);
+
+    /** LocaleContext instances for common locales, not counted against the cache limit. */
+    private static final Map<Locale, LocaleContext> commonLocaleContexts = new HashMap<>(32);
+
+    /** Request attribute holding the request thread's context for async processing. */
+    private static final String CONTEXT_SNAPSHOT_ATTRIBUTE = FrameworkServlet.class.getName() + ".CONTEXT_SNAPSHOT";
+
+    /** Request attribute holding the context scope bound to the async thread. */
+    private static final String CONTEXT_SCOPE_ATTRIBUTE = FrameworkServlet.class.getName() + ".CONTEXT_SCOPE";
+
+
+    static {
+        // Request locales come from client-supplied headers: arbitrary tags may fill
+        // the cache, but the common locales remain shared anyway.
+        Locale[] commonLocales = {Locale.ENGLISH, Locale.US, Locale.UK, Locale.GERMAN, Locale.GERMANY,
+                Locale.FRENCH, Locale.FRANCE, Locale.ITALIAN, Locale.ITALY, Locale.JAPANESE, Locale.JAPAN,
+                Locale.KOREAN, Locale.KOREA, Locale.CHINESE, Locale.SIMPLIFIED_CHINESE, Locale.TRADITIONAL_CHINESE,
+                Locale.CANADA, Locale.CANADA_FRENCH};
+        for (Locale locale : commonLocales) {
+            commonLocaleContexts.put(locale, new SimpleLocaleContext(locale));
+        }
+    }
+
+
+    /** Expose LocaleContext and RequestAttributes as inheritable for child threads?. */
+    private boolean threadContextInheritable = false;
+
+    /** Should we publish a ServletRequestHandledEvent at the end of each request?. */
+    private boolean publishEvents = true;
+
+    /** Pipeline handing ServletRequestHandledEvents to listeners, if any. */
+    @Nullable
+    private RequestHandledEventPipeline eventPipeline;
+
+    /** Per-handler latency histograms and failure counts, if any. */
+    @Nullable
+    private RequestMetrics requestMetrics;
+
     /** Should we dispatch an HTTP OPTIONS request to {@link #doService}?. */
     private boolean dispatchOptionsRequest = false;
 
     /** Should we dispatch an HTTP TRACE request to {@link #doService}?. */
     private boolean dispatchTraceRequest = false;
 
+    /** Stateless interceptor shared by all requests, registered once async processing starts. */
+    private final CallableProcessingInterceptor requestBindingInterceptor = new RequestBindingInterceptor();
+
+
+    /**
+     * Set whether this servlet should publish a ServletRequestHandledEvent at the end
+     * of each request. Default is "true"; can be turned off for a slight performance
+     * improvement, provided that no listeners rely on such events.
+     * @see #setEventPipeline
+     */
+    public void setPublishEvents(boolean publishEvents) {
+        this.publishEvents = publishEvents;
+    }
+
+    /**
+     * Set the pipeline to publish a {@link ServletRequestHandledEvent} to at the end
+     * of each request. Listeners are invoked asynchronously on the pipeline's consumer
+     * thread, so that they do not add to the response latency.
+     * <p>Default is none, in which case no events are published.
+     */
+    public void setEventPipeline(@Nullable RequestHandledEventPipeline eventPipeline) {
+        this.eventPipeline = eventPipeline;
+    }
+
+    /**
+     * Set the metrics to record the processing time and outcome of each request in,
+     * keyed by {@link #getMetricsKey}.
+     * <p>Default is none, in which case no metrics are recorded.
+     */
+    public void setRequestMetrics(@Nullable RequestMetrics requestMetrics) {
+        this.requestMetrics = requestMetrics;
+    }
+
+    /**
+     * Return the metrics recorded by this servlet, if any.
+     */
+    @Nullable
+    public RequestMetrics getRequestMetrics() {
+        return this.requestMetrics;
+    }
+
+    /**
+     * Set whether to expose the LocaleContext and RequestAttributes as inheritable
+     * for child threads (using an {@link java.lang.InheritableThreadLocal}).
+     * <p>Default is "false", to avoid side effects on spawned background threads.
+     * Switch this to "true" to enable inheritance for custom child threads which
+     * are spawned during request processing and only used for this request
+     * (that is, ending after their initial task, without reuse of the thread).
+     * <p><b>WARNING:</b> Do not use inheritance for child threads if you are
+     * accessing a thread pool which is configured to potentially add new threads
+     * on demand (e.g. a JDK {@link java.util.concurrent.ThreadPoolExecutor}),
+     * since this will expose the inherited context to such a pooled thread.
+     */
+    public void setThreadContextInheritable(boolean threadContextInheritable) {
+        this.threadContextInheritable = threadContextInheritable;
+    }
+
     /**
      * Delegate GET requests to processRequest/doService.
      * <p>Will also be invoked by HttpServlet's default implementation of {@code doHead},
@@ -129,11 +242,15 @@ public abstract class FrameworkServlet extends HttpServletBean{
      * Process this request, publishing an event regardless of the outcome.
      * <p>The actual event handling is performed by the abstract
      * {@link #doService} template method.
+     * <p>No {@link org.microspring.web.context.request.async.WebAsyncManager}
+     * is created here: the shared {@link RequestBindingInterceptor} is merely
+     * exposed to requests that support async processing, picked up once async
+     * processing starts, and removed again if it did not.
      */
     protected final void processRequest(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
         Throwable failureCause = null;
 
         LocaleContext previousLocaleContext = LocaleContextHolder.getLocaleContext();
@@ -142,8 +259,7 @@ public abstract class FrameworkServlet extends HttpServletBean{
         RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
         ServletRequestAttributes requestAttributes = buildRequestAttributes(request, response, previousAttributes);
 
-        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
-        asyncManager.registerCallableInterceptor(FrameworkServlet.class.getName(), new RequestBindingInterceptor());
+        WebAsyncUtils.registerCallableInterceptor(request, this.requestBindingInterceptor);
 
         initContextHolders(request, localeContext, requestAttributes);
 
@@ -164,21 +280,43 @@ public abstract class FrameworkServlet extends HttpServletBean{
             if (requestAttributes != null) {
                 requestAttributes.requestCompleted();
             }
-            logResult(request, response, failureCause, asyncManager);
-            publishRequestHandledEvent(request, response, startTime, failureCause);
+            if (request.isAsyncSupported() && !request.isAsyncStarted()) {
+                request.removeAttribute(WebAsyncUtils.CALLABLE_INTERCEPTOR_ATTRIBUTE);
+            }
+            logResult(request, response, failureCause);
+            long processingTimeNanos = System.nanoTime() - startTime;
+            recordRequestMetrics(request, processingTimeNanos, failureCause);
+            publishRequestHandledEvent(request, response, processingTimeNanos, failureCause);
         }
     }
 
     /**
      * Build a LocaleContext for the given request, exposing the request's
      * primary locale as current locale.
+     * <p>The default implementation shares one immutable LocaleContext per
+     * Locale across requests instead of creating one for every request: always
+     * for common locales, and for further locales up to a fixed limit.
      * @param request current HTTP request
      * @return the corresponding LocaleContext, or {@code null} if none to bind
      * @see LocaleContextHolder#setLocaleContext
      */
     @Nullable
     protected LocaleContext buildLocaleContext(HttpServletRequest request) {
-        return new SimpleLocaleContext(request.getLocale());
+        Locale locale = request.getLocale();
+        if (locale == null) {
+            return new SimpleLocaleContext(null);
+        }
+        LocaleContext localeContext = commonLocaleContexts.get(locale);
+        if (localeContext == null) {
+            localeContext = localeContextCache.get(locale);
+        }
+        if (localeContext == null) {
+            localeContext = new SimpleLocaleContext(locale);
+            if (localeContextCache.size() < LOCALE_CONTEXT_CACHE_LIMIT) {
+                localeContextCache.putIfAbsent(locale, localeContext);
+            }
+        }
+        return localeContext;
     }
 
     /**
@@ -204,6 +342,107 @@ public abstract class FrameworkServlet extends HttpServletBean{
         }
     }
 
+    private void initContextHolders(HttpServletRequest request,
+                                    @Nullable LocaleContext localeContext, @Nullable RequestAttributes requestAttributes) {
+
+        if (localeContext != null) {
+            LocaleContextHolder.setLocaleContext(localeContext, this.threadContextInheritable);
+        }
+        if (requestAttributes != null) {
+            RequestContextHolder.setRequestAttributes(requestAttributes, this.threadContextInheritable);
+        }
+    }
+
+    private void resetContextHolders(HttpServletRequest request,
+                                     @Nullable LocaleContext prevLocaleContext, @Nullable RequestAttributes previousAttributes) {
+
+        LocaleContextHolder.setLocaleContext(prevLocaleContext, this.threadContextInheritable);
+        RequestContextHolder.setRequestAttributes(previousAttributes, this.threadContextInheritable);
+        // Leave nothing bound to the container thread once the outermost request is done
+        ThreadContext.resetIfEmpty();
+    }
+
+    private void recordRequestMetrics(HttpServletRequest request, long processingTimeNanos,
+                                      @Nullable Throwable failureCause) {
+
+        RequestMetrics requestMetrics = this.requestMetrics;
+        if (requestMetrics != null) {
+            requestMetrics.record(getMetricsKey(request), processingTimeNanos, failureCause != null);
+        }
+    }
+
+    /**
+     * Determine the key to record the metrics of the given request under.
+     * <p>The default implementation takes the URL pattern of the servlet mapping
+     * that matched the request, e.g. "/api/*" or "/", so that requests are grouped
+     * per mapping rather than per URL. Subclasses that map requests to handlers
+     * themselves should return the handler or the matching URL pattern instead;
+     * either way, the key should not embed request specific values such as path
+     * variables, to keep the number of keys bounded.
+     * @param request current HTTP request
+     * @return the metrics key (never {@code null})
+     * @see RequestMetrics#record
+     * @see HttpServletRequest#getHttpServletMapping()
+     */
+    protected String getMetricsKey(HttpServletRequest request) {
+        HttpServletMapping mapping = request.getHttpServletMapping();
+        String pattern = (mapping != null ? mapping.getPattern() : null);
+        return (StringUtils.hasLength(pattern) ? pattern : "/");
+    }
+
+    private void publishRequestHandledEvent(HttpServletRequest request, HttpServletResponse response,
+                                            long processingTimeNanos, @Nullable Throwable failureCause) {
+
+        RequestHandledEventPipeline eventPipeline = this.eventPipeline;
+        if (this.publishEvents && eventPipeline != null) {
+            // Whether or not we succeeded, publish an event.
+            long processingTime = TimeUnit.NANOSECONDS.toMillis(processingTimeNanos);
+            ServletConfig servletConfig = getServletConfig();
+            HttpSession session = request.getSession(false);
+            eventPipeline.publish(this,
+                    request.getRequestURI(), request.getRemoteAddr(), request.getMethod(),
+                    (servletConfig != null ? servletConfig.getServletName() : getClass().getName()),
+                    (session != null ? session.getId() : null), getUsernameForRequest(request),
+                    processingTime, failureCause, response.getStatus());
+        }
+    }
+
+    /**
+     * Determine the username for the given request.
+     * <p>The default implementation takes the name of the UserPrincipal, if any.
+     * Can be overridden in subclasses.
+     * @param request current HTTP request
+     * @return the username, or {@code null} if none found
+     * @see javax.servlet.http.HttpServletRequest#getUserPrincipal()
+     */
+    @Nullable
+    protected String getUsernameForRequest(HttpServletRequest request) {
+        Principal userPrincipal = request.getUserPrincipal();
+        return (userPrincipal != null ? userPrincipal.getName() : null);
+    }
+
+    private void logResult(HttpServletRequest request, HttpServletResponse response,
+                           @Nullable Throwable failureCause) {
+
+        if (!logger.isDebugEnabled()) {
+            return;
+        }
+        if (failureCause != null) {
+            if (logger.isTraceEnabled()) {
+                logger.trace("Failed to complete request", failureCause);
+            }
+            else {
+                logger.debug("Failed to complete request: " + failureCause);
+            }
+        }
+        else if (request.isAsyncStarted()) {
+            logger.debug("Exiting but response remains open for further handling");
+        }
+        else {
+            logger.debug("Completed " + response.getStatus());
+        }
+    }
+
     /**
      * Subclasses must implement this method to do the work of request handling,
      * receiving a centralized callback for GET, POST, PUT and DELETE.
@@ -223,23 +462,65 @@ public abstract class FrameworkServlet extends HttpServletBean{
     /**
      * CallableProcessingInterceptor implementation that initializes and resets
      * FrameworkServlet's context holders, i.e. LocaleContextHolder and RequestContextHolder.
+     * <p>The request thread's context, including all thread locals registered with
+     * {@link ContextSnapshot}, is captured before concurrent handling starts and
+     * restored on the async thread, without relying on inheritable thread locals.
+     * Only the request attributes are rebuilt, since the original ones complete
+     * along with the initial dispatch.
+     * <p>Holds no per-request state, keeping snapshot and scope in request
+     * attributes instead, so a single instance serves all requests. Neither
+     * attribute outlives the concurrent handling.
      */
     private class RequestBindingInterceptor implements CallableProcessingInterceptor {
 
+        @Override
+        public <T> void beforeConcurrentHandling(NativeWebRequest webRequest, Callable<T> task) {
+            HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+            if (request != null) {
+                request.setAttribute(CONTEXT_SNAPSHOT_ATTRIBUTE, ContextSnapshot.capture());
+            }
+        }
+
         @Override
         public <T> void preProcess(NativeWebRequest webRequest, Callable<T> task) {
             HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
             if (request != null) {
                 HttpServletResponse response = webRequest.getNativeResponse(HttpServletResponse.class);
-                initContextHolders(request, buildLocaleContext(request),
-                        buildRequestAttributes(request, response, null));
+                Object snapshot = request.getAttribute(CONTEXT_SNAPSHOT_ATTRIBUTE);
+                if (snapshot instanceof ContextSnapshot) {
+                    // Restored once: keep the captured values out of the attributes seen by views
+                    request.removeAttribute(CONTEXT_SNAPSHOT_ATTRIBUTE);
+                    request.setAttribute(CONTEXT_SCOPE_ATTRIBUTE, ((ContextSnapshot) snapshot).restore());
+                    RequestContextHolder.setRequestAttributes(buildRequestAttributes(request, response, null));
+                }
+                else {
+                    initContextHolders(request, buildLocaleContext(request),
+                            buildRequestAttributes(request, response, null));
+                }
             }
         }
+
         @Override
         public <T> void postProcess(NativeWebRequest webRequest, Callable<T> task, Object concurrentResult) {
             HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
             if (request != null) {
-                resetContextHolders(request, null, null);
+                Object scope = request.getAttribute(CONTEXT_SCOPE_ATTRIBUTE);
+                if (scope instanceof ContextSnapshot.Scope) {
+                    request.removeAttribute(CONTEXT_SCOPE_ATTRIBUTE);
+                    ((ContextSnapshot.Scope) scope).close();
+                }
+                else {
+                    resetContextHolders(request, null, null);
+                }
+            }
+        }
+
+        @Override
+        public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+            HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+            if (request != null) {
+                // Task never started, e.g. due to a timeout
+                request.removeAttribute(CONTEXT_SNAPSHOT_ATTRIBUTE);
             }
         }
     }
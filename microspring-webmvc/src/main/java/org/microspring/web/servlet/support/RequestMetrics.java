@@ -0,0 +1,179 @@
+package org.microspring.web.servlet.support;
+
+import org.microspring.lang.Nullable;
+import org.microspring.util.Assert;
+import org.microspring.util.LatencyHistogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RequestMetrics {
+
+    /** Default maximum number of distinct keys. */
+    public static final int DEFAULT_MAX_KEYS = 1024;
+
+    /** Key under which requests get recorded once the maximum number of keys is reached. */
+    public static final String OVERFLOW_KEY = "OTHER";
+
+
+    private final ConcurrentMap<String, HandlerMetrics> handlerMetrics = new ConcurrentHashMap<>(64);
+
+    private final int maxKeys;
+
+
+    /**
+     * Create a new RequestMetrics instance for up to {@link #DEFAULT_MAX_KEYS} keys.
+     */
+    public RequestMetrics() {
+        this(DEFAULT_MAX_KEYS);
+    }
+
+    /**
+     * Create a new RequestMetrics instance.
+     * @param maxKeys the maximum number of distinct keys, guarding against keys of
+     * unbounded cardinality such as raw request URIs; requests for further keys are
+     * recorded under {@link #OVERFLOW_KEY}
+     */
+    public RequestMetrics(int maxKeys) {
+        Assert.isTrue(maxKeys > 0, "Max keys must be positive: %s", maxKeys);
+        this.maxKeys = maxKeys;
+    }
+
+
+    /**
+     * Record a handled request.
+     * <p>Lock-free: the counters are striped, so that request threads on many
+     * cores recording for the same key do not contend with each other. Only the
+     * first request for a key registers the key's counters.
+     * @param key the handler or URL pattern the request was mapped to
+     * @param processingTimeNanos the processing time of the request in nanoseconds
+     * @param failed whether the request failed
+     */
+    public void record(String key, long processingTimeNanos, boolean failed) {
+        HandlerMetrics metrics = this.handlerMetrics.get(key);
+        if (metrics == null) {
+            metrics = register(key);
+        }
+        metrics.latency.record(processingTimeNanos);
+        if (failed) {
+            metrics.failures.increment();
+        }
+    }
+
+    private HandlerMetrics register(String key) {
+        // Approximate under concurrent registration, but bounded either way
+        String keyToUse = (this.handlerMetrics.size() < this.maxKeys ? key : OVERFLOW_KEY);
+        return this.handlerMetrics.computeIfAbsent(keyToUse, k -> new HandlerMetrics());
+    }
+
+    /**
+     * Return a snapshot of the metrics recorded so far for the given key.
+     * @param key the handler or URL pattern
+     * @return the snapshot, or {@code null} if nothing was recorded for the key
+     */
+    @Nullable
+    public Snapshot getSnapshot(String key) {
+        HandlerMetrics metrics = this.handlerMetrics.get(key);
+        return (metrics != null ? metrics.snapshot(key) : null);
+    }
+
+    /**
+     * Return snapshots of the metrics recorded so far for all keys.
+     * @return the snapshots, sorted by key
+     */
+    public Map<String, Snapshot> getSnapshots() {
+        Map<String, Snapshot> snapshots = new TreeMap<>();
+        this.handlerMetrics.forEach((key, metrics) -> snapshots.put(key, metrics.snapshot(key)));
+        return snapshots;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestMetrics: " + this.handlerMetrics.size() + " keys";
+    }
+
+
+    /**
+     * The counters for one key.
+     */
+    private static final class HandlerMetrics {
+
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        final LongAdder failures = new LongAdder();
+
+        Snapshot snapshot(String key) {
+            return new Snapshot(key, this.latency.snapshot(), this.failures.sum());
+        }
+    }
+
+
+    /**
+     * Immutable view of the metrics recorded for one key.
+     */
+    public static final class Snapshot {
+
+        private final String key;
+
+        private final LatencyHistogram.Snapshot latency;
+
+        private final long failureCount;
+
+        private Snapshot(String key, LatencyHistogram.Snapshot latency, long failureCount) {
+            this.key = key;
+            this.latency = latency;
+            this.failureCount = failureCount;
+        }
+
+        /**
+         * Return the handler or URL pattern this snapshot is for.
+         */
+        public String getKey() {
+            return this.key;
+        }
+
+        /**
+         * Return the number of handled requests, including failed ones.
+         */
+        public long getRequestCount() {
+            return this.latency.getCount();
+        }
+
+        /**
+         * Return the number of failed requests.
+         */
+        public long getFailureCount() {
+            return this.failureCount;
+        }
+
+        /**
+         * Return the distribution of processing times, in nanoseconds.
+         */
+        public LatencyHistogram.Snapshot getLatency() {
+            return this.latency;
+        }
+
+        /**
+         * Return the processing time at the given percentile.
+         * @param percentile the percentile, between 0 and 100
+         * @param unit the unit to return the processing time in
+         * @see LatencyHistogram.Snapshot#getValueAtPercentile
+         */
+        public long getLatencyAtPercentile(double percentile, TimeUnit unit) {
+            return unit.convert(this.latency.getValueAtPercentile(percentile), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public String toString() {
+            return this.key + ": requests=" + getRequestCount() + ", failures=" + this.failureCount +
+                    ", p50=" + getLatencyAtPercentile(50, TimeUnit.MICROSECONDS) + "us" +
+                    ", p99=" + getLatencyAtPercentile(99, TimeUnit.MICROSECONDS) + "us" +
+                    ", p999=" + getLatencyAtPercentile(99.9, TimeUnit.MICROSECONDS) + "us";
+        }
+    }
+
+}